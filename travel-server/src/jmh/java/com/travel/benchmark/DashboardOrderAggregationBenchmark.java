@@ -0,0 +1,136 @@
+package com.travel.benchmark;
+
+import com.travel.dto.dashboard.stats.DailyOrderStats;
+import com.travel.entity.Order;
+import com.travel.enums.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 仪表板订单趋势与热力图的应用侧聚合基准：对比原先“查出整年订单实体后在 Java 中分桶”与“数据库按日期分组后只返回日汇总元组”。
+ * <p>
+ * 实体路径按订单量逐个构造 {@link Order}，模拟 selectList 的结果映射；元组路径只处理一年 365 条日汇总。
+ * 数据库侧分组走 {@code idx_order_status_deleted_created} 覆盖索引，其耗时不在本基准内，需配合 EXPLAIN ANALYZE 评估。
+ * 实体物化一次占用的堆在 Setup 阶段打印，用于估算大订单量下的内存峰值。
+ * 运行方式：{@code mvn -Pjmh compile exec:exec -Djmh.includes=DashboardOrderAggregationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DashboardOrderAggregationBenchmark {
+
+    private static final int DAYS = 365;
+
+    @Param({"10000", "100000", "1000000", "5000000"})
+    private int orders;
+
+    private LocalDate startDate;
+    private int[] dayOffsets;
+    private int[] statuses;
+    private long[] amountCents;
+    private List<DailyOrderStats> dailyTuples;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        OrderStatus[] activeStatuses = {OrderStatus.PENDING, OrderStatus.PAID, OrderStatus.REFUNDED, OrderStatus.COMPLETED};
+        startDate = LocalDate.of(2026, 1, 1);
+        dayOffsets = new int[orders];
+        statuses = new int[orders];
+        amountCents = new long[orders];
+        for (int i = 0; i < orders; i++) {
+            dayOffsets[i] = random.nextInt(DAYS);
+            statuses[i] = activeStatuses[random.nextInt(activeStatuses.length)].getCode();
+            amountCents[i] = 1000 + random.nextInt(100_000);
+        }
+        dailyTuples = toTuples(bucketEntities(materializeEntities()));
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        List<Order> retained = materializeEntities();
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%n订单量=%d，实体物化约占堆 %.1f MB，日汇总元组 %d 条%n",
+            orders, (after - before) / 1024.0 / 1024.0, dailyTuples.size());
+        retained.clear();
+    }
+
+    @Benchmark
+    public Map<LocalDate, DailyOrderStats> entityBucketing() {
+        return bucketEntities(materializeEntities());
+    }
+
+    @Benchmark
+    public Map<LocalDate, DailyOrderStats> tupleBucketing() {
+        Map<LocalDate, DailyOrderStats> statsByDate = new HashMap<>();
+        for (DailyOrderStats stats : dailyTuples) {
+            statsByDate.put(stats.getStatDate(), stats);
+        }
+        return statsByDate;
+    }
+
+    private List<Order> materializeEntities() {
+        List<Order> result = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order();
+            order.setId(i + 1L);
+            order.setUserId(1L + i % 5000);
+            order.setSpotId(1L + i % 200);
+            order.setOrderNo("T" + (100_000_000L + i));
+            order.setStatus(statuses[i]);
+            order.setTotalAmount(BigDecimal.valueOf(amountCents[i], 2));
+            order.setIsDeleted(0);
+            order.setCreatedAt(LocalDateTime.of(startDate.plusDays(dayOffsets[i]), LocalTime.NOON));
+            result.add(order);
+        }
+        return result;
+    }
+
+    private Map<LocalDate, DailyOrderStats> bucketEntities(List<Order> entities) {
+        Map<LocalDate, DailyOrderStats> statsByDate = new HashMap<>();
+        for (Order order : entities) {
+            DailyOrderStats stats = statsByDate.computeIfAbsent(order.getCreatedAt().toLocalDate(), date -> {
+                DailyOrderStats created = new DailyOrderStats();
+                created.setStatDate(date);
+                created.setOrderCount(0L);
+                created.setRevenue(BigDecimal.ZERO);
+                return created;
+            });
+            stats.setOrderCount(stats.getOrderCount() + 1);
+            OrderStatus status = OrderStatus.fromCode(order.getStatus());
+            if (status != null && status.hasRevenue()) {
+                stats.setRevenue(stats.getRevenue().add(order.getTotalAmount()));
+            }
+        }
+        return statsByDate;
+    }
+
+    private List<DailyOrderStats> toTuples(Map<LocalDate, DailyOrderStats> statsByDate) {
+        return new ArrayList<>(statsByDate.values());
+    }
+}
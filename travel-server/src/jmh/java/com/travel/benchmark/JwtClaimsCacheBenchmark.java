@@ -0,0 +1,73 @@
+package com.travel.benchmark;
+
+import com.travel.util.security.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token 解析基准：对比每次完整验签与按 Token 摘要缓存验签结果时 {@link JwtUtils#getUserIdFromToken(String)} 的耗时。
+ * <p>
+ * 缓存上限为 0 时每次都走 jjwt 验签和载荷解析；非 0 时预热后全部命中缓存，只剩一次 SHA-256 摘要和一次并发 Map 查找。
+ * 会话数模拟同时在线、反复携带各自 Token 的小程序会话；多线程运行用于观察并发访问缓存时的开销。
+ * 运行方式：{@code mvn -Pjmh compile exec:exec -Djmh.includes=JwtClaimsCacheBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtClaimsCacheBenchmark {
+
+    @Param({"0", "10000"})
+    private int claimsCacheMaxEntries;
+
+    @Param({"100", "5000"})
+    private int sessions;
+
+    private JwtUtils jwtUtils;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        jwtUtils = new JwtUtils();
+        setField("secret", "travel-recommendation-system-jwt-secret-2026");
+        setField("expiration", TimeUnit.DAYS.toMillis(7));
+        setField("adminExpiration", TimeUnit.DAYS.toMillis(1));
+        setField("claimsCacheMaxEntries", claimsCacheMaxEntries);
+        jwtUtils.init();
+
+        tokens = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            tokens[i] = jwtUtils.generateUserToken(i + 1L);
+        }
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return jwtUtils.getUserIdFromToken(tokens[ThreadLocalRandom.current().nextInt(sessions)]);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        // 基准不依赖 Spring 容器，按字段名写入 @Value 注入的配置项。
+        Field field = JwtUtils.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtils, value);
+    }
+}
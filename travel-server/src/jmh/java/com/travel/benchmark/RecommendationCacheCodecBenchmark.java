@@ -0,0 +1,125 @@
+package com.travel.benchmark;
+
+import com.travel.dto.recommendation.cache.UserRecommendationCacheDTO;
+import com.travel.service.cache.RecommendationBinaryCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 推荐缓存值的编解码基准：对比 RedisConfig 中的 JSON 序列化器与 {@link RecommendationBinaryCodec}。
+ * <p>
+ * 相似度取 Top-K 邻居映射，用户推荐取推荐结果快照；编码后的字节数在 Setup 阶段打印，用于估算 Redis 内存差异。
+ * 运行方式：{@code mvn -Pjmh compile exec:exec -Djmh.includes=RecommendationCacheCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationCacheCodecBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    private Map<Long, Double> similarity;
+    private UserRecommendationCacheDTO userRecommendation;
+    private byte[] similarityJson;
+    private byte[] similarityBinary;
+    private byte[] userRecommendationJson;
+    private byte[] userRecommendationBinary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        similarity = new LinkedHashMap<>();
+        List<UserRecommendationCacheDTO.CacheItem> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            long spotId = 1 + random.nextInt(5000);
+            double score = random.nextDouble();
+            similarity.put(spotId, score);
+            UserRecommendationCacheDTO.CacheItem item = new UserRecommendationCacheDTO.CacheItem();
+            item.setSpotId(spotId);
+            item.setScore(score * 10);
+            items.add(item);
+        }
+        userRecommendation = new UserRecommendationCacheDTO();
+        userRecommendation.setType("personalized");
+        userRecommendation.setNeedPreference(false);
+        userRecommendation.setItems(items);
+        userRecommendation.setGeneratedAt(System.currentTimeMillis());
+
+        similarityJson = jsonSerializer.serialize(similarity);
+        similarityBinary = RecommendationBinaryCodec.encodeScores(similarity);
+        userRecommendationJson = jsonSerializer.serialize(userRecommendation);
+        userRecommendationBinary = RecommendationBinaryCodec.encodeUserRecommendation(userRecommendation);
+        System.out.printf(
+            "%n[size=%d] 相似度 JSON=%d 字节，二进制=%d 字节；用户推荐 JSON=%d 字节，二进制=%d 字节%n",
+            size,
+            similarityJson.length,
+            similarityBinary.length,
+            userRecommendationJson.length,
+            userRecommendationBinary.length
+        );
+    }
+
+    @Benchmark
+    public byte[] similarityEncodeJson() {
+        return jsonSerializer.serialize(similarity);
+    }
+
+    @Benchmark
+    public byte[] similarityEncodeBinary() {
+        return RecommendationBinaryCodec.encodeScores(similarity);
+    }
+
+    @Benchmark
+    public Object similarityDecodeJson() {
+        return jsonSerializer.deserialize(similarityJson);
+    }
+
+    @Benchmark
+    public Object similarityDecodeBinary() {
+        return RecommendationBinaryCodec.decodeScoreEntries(similarityBinary);
+    }
+
+    @Benchmark
+    public byte[] userRecommendationEncodeJson() {
+        return jsonSerializer.serialize(userRecommendation);
+    }
+
+    @Benchmark
+    public byte[] userRecommendationEncodeBinary() {
+        return RecommendationBinaryCodec.encodeUserRecommendation(userRecommendation);
+    }
+
+    @Benchmark
+    public Object userRecommendationDecodeJson() {
+        return jsonSerializer.deserialize(userRecommendationJson);
+    }
+
+    @Benchmark
+    public Object userRecommendationDecodeBinary() {
+        return RecommendationBinaryCodec.decodeUserRecommendation(userRecommendationBinary);
+    }
+}
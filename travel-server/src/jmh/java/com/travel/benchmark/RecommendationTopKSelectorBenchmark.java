@@ -0,0 +1,87 @@
+package com.travel.benchmark;
+
+import com.travel.service.support.recommendation.RecommendationTopKSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Top-K 选取基准：对比原先的“全量排序后截断”与 {@link RecommendationTopKSelector}。
+ * <p>
+ * 候选规模覆盖在线 ItemCF 聚合后的候选数和离线单景点的共现候选数；分数只取少量离散值，覆盖大量并列的情况。
+ * 运行方式：{@code mvn -Pjmh compile exec:exec -Djmh.includes=RecommendationTopKSelectorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationTopKSelectorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int candidates;
+
+    @Param({"20"})
+    private int k;
+
+    private Map<Long, Double> scoreMap;
+    private long[] ids;
+    private double[] scores;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        scoreMap = new HashMap<>(candidates * 2);
+        ids = new long[candidates];
+        scores = new double[candidates];
+        for (int i = 0; i < candidates; i++) {
+            ids[i] = i + 1L;
+            scores[i] = random.nextInt(10_000) / 1_000.0;
+            scoreMap.put(ids[i], scores[i]);
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Double> streamSortLimit() {
+        return scoreMap.entrySet().stream()
+            .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.<Long, Double>comparingByKey()))
+            .limit(k)
+            .collect(Collectors.toMap(
+                Map.Entry::getKey,
+                Map.Entry::getValue,
+                (left, right) -> left,
+                LinkedHashMap::new
+            ));
+    }
+
+    @Benchmark
+    public Map<Long, Double> heapFromMap() {
+        return RecommendationTopKSelector.top(scoreMap, k);
+    }
+
+    @Benchmark
+    public Map<Long, Double> heapFromPrimitives() {
+        RecommendationTopKSelector selector = new RecommendationTopKSelector(k);
+        for (int i = 0; i < candidates; i++) {
+            selector.offer(ids[i], scores[i]);
+        }
+        return selector.toOrderedMap();
+    }
+}
@@ -0,0 +1,98 @@
+package com.travel.common.result;
+
+import com.travel.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页位置。
+ * <p>
+ * 记录上一页最后一行的排序时间和主键，下一页按 {@code (排序时间, id) < (游标时间, 游标 id)} 续查，
+ * 配合 {@code (user_id, is_deleted, created_at)} 这类联合索引（InnoDB 二级索引隐含主键）直接从索引定位起点，
+ * 不需要 OFFSET 跳过前面的行，也不需要 COUNT。对外只暴露 Base64 编码后的不透明字符串。
+ *
+ * @param sortTime 排序时间
+ * @param id 主键
+ */
+public record PageCursor(LocalDateTime sortTime, Long id) {
+
+    private static final String SEPARATOR = "_";
+
+    /**
+     * 游标模式默认每页条数。
+     */
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    /**
+     * 游标模式单页上限，避免 pageSize + 1 溢出或一次拉取过多行。
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 编码为不透明游标字符串。
+     *
+     * @param sortTime 排序时间
+     * @param id 主键
+     * @return 游标字符串
+     */
+    public static String encode(LocalDateTime sortTime, Long id) {
+        String raw = sortTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串，空串表示从第一页开始。
+     *
+     * @param cursor 游标字符串
+     * @return 游标位置，第一页返回 null
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "分页游标无效");
+        }
+    }
+
+    /**
+     * 规范化游标模式的每页条数：空值或非正数取默认值，超过上限时截断为上限。
+     *
+     * @param pageSize 请求的每页条数
+     * @return 实际每页条数
+     */
+    public static int limitPageSize(Integer pageSize) {
+        if (pageSize == null || pageSize < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * 处理多查一行的游标查询结果：有下一页时移除多查的一行，并以当前页最后一行生成下一页游标。
+     *
+     * @param rows 按 pageSize + 1 查询到的可变结果列表
+     * @param pageSize 每页条数
+     * @param sortTime 排序时间取值函数
+     * @param id 主键取值函数
+     * @param <T> 行类型
+     * @return 下一页游标，没有下一页时返回 null
+     */
+    public static <T> String sliceNext(List<T> rows, int pageSize,
+                                       Function<T, LocalDateTime> sortTime, Function<T, Long> id) {
+        if (rows.size() <= pageSize) {
+            return null;
+        }
+        rows.subList(pageSize, rows.size()).clear();
+        T last = rows.get(pageSize - 1);
+        return encode(sortTime.apply(last), id.apply(last));
+    }
+}
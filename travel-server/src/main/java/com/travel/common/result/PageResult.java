@@ -6,6 +6,9 @@ import java.util.List;
 
 /**
  * 分页结果对象。
+ * <p>
+ * 支持页码和游标两种模式：页码模式返回总数和总页数；游标模式不执行 COUNT，总数、页码和总页数为空，
+ * 改为返回下一页游标和是否还有更多数据。
  *
  * @param <T> 列表项类型
  */
@@ -17,21 +20,29 @@ public class PageResult<T> {
      */
     private List<T> list;
     /**
-     * 总记录数。
+     * 总记录数，游标模式下为空。
      */
-    private long total;
+    private Long total;
     /**
-     * 当前页码，从 1 开始。
+     * 当前页码，从 1 开始，游标模式下为空。
      */
-    private int page;
+    private Integer page;
     /**
      * 每页条数。
      */
     private int pageSize;
     /**
-     * 根据总记录数和分页大小计算出的总页数。
+     * 根据总记录数和分页大小计算出的总页数，游标模式下为空。
      */
-    private int totalPages;
+    private Integer totalPages;
+    /**
+     * 下一页游标，仅游标模式返回，没有下一页时为空。
+     */
+    private String nextCursor;
+    /**
+     * 是否还有下一页，仅游标模式返回。
+     */
+    private Boolean hasMore;
 
     public PageResult() {
     }
@@ -67,4 +78,22 @@ public class PageResult<T> {
     public static <T> PageResult<T> of(List<T> list, long total, int page, int pageSize) {
         return new PageResult<>(list, total, page, pageSize);
     }
+
+    /**
+     * 创建游标模式的分页结果。
+     *
+     * @param list 当前页数据
+     * @param nextCursor 下一页游标，没有下一页时传 null
+     * @param pageSize 每页条数
+     * @param <T> 列表项类型
+     * @return 分页结果对象
+     */
+    public static <T> PageResult<T> ofCursor(List<T> list, String nextCursor, int pageSize) {
+        PageResult<T> result = new PageResult<>();
+        result.setList(list);
+        result.setPageSize(pageSize);
+        result.setNextCursor(nextCursor);
+        result.setHasMore(nextCursor != null);
+        return result;
+    }
 }
@@ -48,7 +48,8 @@ public enum ResultCode {
 
     // 通用错误 60xxx
     PARAM_ERROR(60001, "参数校验失败"),
-    SYSTEM_ERROR(60002, "服务器内部错误");
+    SYSTEM_ERROR(60002, "服务器内部错误"),
+    REQUEST_TOO_FREQUENT(60003, "操作过于频繁，请稍后再试");
 
     private final int code;
     private final String message;
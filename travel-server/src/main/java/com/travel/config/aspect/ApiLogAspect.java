@@ -3,13 +3,17 @@ package com.travel.config.aspect;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.databind.ser.PropertyWriter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.travel.util.web.RequestProfileHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -21,17 +25,28 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * API请求日志切面
- * 自动记录所有Controller的请求和响应信息
+ * 自动记录所有Controller的请求耗时指标和请求日志
+ * <p>
+ * 每个接口按成功/异常分别记录 Micrometer 耗时指标及 p50/p95/p99 等分位数，通过 actuator 的 metrics 端点暴露。
+ * full 模式逐条输出带参数的请求日志；metrics 模式只按采样率输出，慢接口和异常始终输出并带上参数。
+ * 参数脱敏在序列化时按字段名完成，字段名只与预编译的关键词正则匹配一次，不再对整段 JSON 逐关键词正则替换。
  */
 @Slf4j
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class ApiLogAspect {
 
     /**
@@ -42,7 +57,29 @@ public class ApiLogAspect {
             "credential", "code", "openid"
     );
 
+    /**
+     * 全部关键词合并后的预编译正则，字段名包含任一关键词即视为敏感
+     */
+    private static final Pattern SENSITIVE_NAME_PATTERN = Pattern.compile(
+            String.join("|", SENSITIVE_KEYWORDS), Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 字段名判定结果缓存，DTO 字段名集合有限；Map 键可能来自请求体，超过上限后不再缓存
+     */
+    private static final Map<String, Boolean> SENSITIVE_NAME_CACHE = new ConcurrentHashMap<>();
+    private static final int SENSITIVE_NAME_CACHE_MAX_ENTRIES = 4096;
+
     private static final String MASK = "******";
+    private static final String FILTER_ID = "sensitiveMaskFilter";
+    private static final String METRIC_NAME = "waytrip.api.requests";
+
+    private final ApiLogProperties apiLogProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 按 Controller 方法缓存的耗时指标，避免每次请求重新构造 Timer
+     */
+    private final Map<Method, EndpointTimers> endpointTimers = new ConcurrentHashMap<>();
 
     /**
      * 专用于日志输出的 ObjectMapper，会自动脱敏敏感字段
@@ -55,20 +92,19 @@ public class ApiLogAspect {
     @PostConstruct
     public void init() {
         logObjectMapper = new ObjectMapper();
+        // 所有 Bean 和 Map 都挂到同一个过滤器上，未显式声明 @JsonFilter 的类型也会逐字段脱敏。
+        // 需要先于 findAndRegisterModules 设置，避免覆盖模块追加的注解解析器。
+        logObjectMapper.setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+            @Override
+            public Object findFilterId(Annotated annotated) {
+                Object filterId = super.findFilterId(annotated);
+                return filterId != null ? filterId : FILTER_ID;
+            }
+        });
         logObjectMapper.findAndRegisterModules();
-        // 注册敏感字段过滤序列化模块
-        SimpleModule module = new SimpleModule("SensitiveMaskModule");
-        logObjectMapper.registerModule(module);
-        // 使用自定义过滤器：对所有 Bean 属性做脱敏
-        FilterProvider filters = new SimpleFilterProvider()
-                .setDefaultFilter(new SensitiveFieldFilter())
-                .setFailOnUnknownId(false);
-        logObjectMapper.setFilterProvider(filters);
-        // 让所有类都使用默认过滤器
-        logObjectMapper.setConfig(
-                logObjectMapper.getSerializationConfig()
-                        .withAttribute("SENSITIVE_FILTER", true)
-        );
+        logObjectMapper.setFilterProvider(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, new SensitiveFieldFilter())
+                .setFailOnUnknownId(false));
     }
 
     /**
@@ -79,11 +115,11 @@ public class ApiLogAspect {
     }
 
     /**
-     * 环绕记录 Controller 请求日志、耗时和异常信息。
+     * 环绕记录 Controller 请求耗时指标，并按日志模式输出请求日志、慢接口和异常信息。
      */
     @Around("controllerPointcut()")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
         // 获取请求信息
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -91,49 +127,119 @@ public class ApiLogAspect {
 
         String method = request != null ? request.getMethod() : "UNKNOWN";
         String uri = request != null ? request.getRequestURI() : "UNKNOWN";
-        String ip = request != null ? getClientIp(request) : "UNKNOWN";
 
         // 获取方法信息
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         String className = signature.getDeclaringType().getSimpleName();
         String methodName = signature.getName();
 
-        // 获取请求参数（过滤敏感信息和文件参数）
-        String params = getParams(joinPoint, signature);
-
-        log.info(">>> 请求开始 | {} {} | {}.{} | IP: {} | 参数: {}",
-                method, uri, className, methodName, ip, params);
+        // 只有需要输出完整日志时才序列化参数，metrics 模式下未采样的请求不产生序列化开销。
+        boolean fullLog = shouldLogRequest();
+        String params = null;
+        if (fullLog) {
+            params = getParams(joinPoint, signature);
+            String ip = request != null ? getClientIp(request) : "UNKNOWN";
+            log.info(">>> 请求开始 | {} {} | {}.{} | IP: {} | 参数: {}",
+                    method, uri, className, methodName, ip, params);
+        }
 
         Object result;
         try {
             result = joinPoint.proceed();
-            long costTime = System.currentTimeMillis() - startTime;
+            long costTime = recordLatency(signature, startNanos, true);
 
             // 响应日志（只记录耗时，不记录完整响应体以减少日志量）
-            log.info("<<< 请求完成 | {} {} | 耗时: {}ms", method, uri, costTime);
+            if (fullLog) {
+                log.info("<<< 请求完成 | {} {} | 耗时: {}ms", method, uri, costTime);
+            }
 
-            // 慢接口警告（超过3秒）
-            if (costTime > 3000) {
-                log.warn("!!! 慢接口警告 | {} {} | {}.{} | 耗时: {}ms",
-                        method, uri, className, methodName, costTime);
+            // 慢接口警告
+            if (costTime > slowThresholdMillis()) {
+                log.warn("!!! 慢接口警告 | {} {} | {}.{} | 耗时: {}ms | 参数: {}",
+                        method, uri, className, methodName, costTime,
+                        params != null ? params : getParams(joinPoint, signature));
             }
 
             return result;
         } catch (Exception e) {
-            long costTime = System.currentTimeMillis() - startTime;
-            log.error("!!! 请求异常 | {} {} | {}.{} | 耗时: {}ms | 异常: {}",
-                    method, uri, className, methodName, costTime, e.getMessage());
+            long costTime = recordLatency(signature, startNanos, false);
+            log.error("!!! 请求异常 | {} {} | {}.{} | 耗时: {}ms | 参数: {} | 异常: {}",
+                    method, uri, className, methodName, costTime,
+                    params != null ? params : getParams(joinPoint, signature), e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * 判断本次请求是否输出完整请求日志。
+     */
+    private boolean shouldLogRequest() {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        if (apiLogProperties.getMode() != ApiLogProperties.Mode.METRICS) {
+            return true;
+        }
+        Double sampleRate = apiLogProperties.getParamSampleRate();
+        return sampleRate != null && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * 记录接口耗时指标，并标记 Controller 执行结束供慢请求记录拆分响应序列化耗时。
+     *
+     * @return 耗时，单位：毫秒
+     */
+    private long recordLatency(MethodSignature signature, long startNanos, boolean success) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        EndpointTimers timers = endpointTimers.computeIfAbsent(signature.getMethod(),
+                key -> new EndpointTimers(
+                        signature.getDeclaringType().getSimpleName() + "." + signature.getName(),
+                        buildTimer(signature, "success"),
+                        buildTimer(signature, "error")));
+        (success ? timers.success() : timers.error()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        RequestProfileHolder.markHandlerCompleted(timers.endpoint());
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    private Timer buildTimer(MethodSignature signature, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Controller 接口处理耗时")
+                .tag("controller", signature.getDeclaringType().getSimpleName())
+                .tag("method", signature.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(!Boolean.FALSE.equals(apiLogProperties.getPercentileHistogram()))
+                .publishPercentiles(percentiles())
+                .register(meterRegistry);
+    }
+
+    private double[] percentiles() {
+        List<Double> percentiles = apiLogProperties.getPercentiles();
+        if (percentiles == null) {
+            return new double[0];
+        }
+        return percentiles.stream()
+                .filter(percentile -> percentile != null && percentile > 0 && percentile < 1)
+                .mapToDouble(Double::doubleValue)
+                .toArray();
+    }
+
+    private long slowThresholdMillis() {
+        Long threshold = apiLogProperties.getSlowThresholdMillis();
+        return threshold != null && threshold > 0 ? threshold : 3000L;
+    }
+
     /**
      * 获取请求参数（深度过滤敏感字段和文件类型）
      */
     private String getParams(ProceedingJoinPoint joinPoint, MethodSignature signature) {
+        return formatParams(signature.getParameterNames(), joinPoint.getArgs());
+    }
+
+    /**
+     * 按参数名组装参数并脱敏序列化。
+     */
+    String formatParams(String[] paramNames, Object[] args) {
         try {
-            String[] paramNames = signature.getParameterNames();
-            Object[] args = joinPoint.getArgs();
             if (paramNames == null || args == null || args.length == 0) {
                 return "无";
             }
@@ -161,7 +267,7 @@ public class ApiLogAspect {
                 }
 
                 // 对参数名本身做脱敏（如方法参数叫password）
-                if (isSensitiveParam(name)) {
+                if (isSensitiveName(name)) {
                     paramMap.put(name, MASK);
                     continue;
                 }
@@ -169,36 +275,29 @@ public class ApiLogAspect {
                 paramMap.put(name, value);
             }
 
-            // 用脱敏 ObjectMapper 序列化，自动过滤 DTO 内部的敏感字段
-            return maskSensitiveFields(logObjectMapper.writeValueAsString(paramMap));
+            // 用脱敏 ObjectMapper 序列化，DTO 和 Map 内部的敏感字段在写出时直接替换
+            return logObjectMapper.writeValueAsString(paramMap);
         } catch (Exception e) {
             return "参数解析失败";
         }
     }
 
     /**
-     * 基于正则对序列化后的 JSON 字符串做二次兜底脱敏
-     * 匹配 "password":"xxx" / "secret":"xxx" / "code":"xxx" 等
+     * 判断字段名或参数名是否包含敏感关键词
      */
-    private String maskSensitiveFields(String json) {
-        if (json == null) return "无";
-        // 匹配 JSON 中的敏感字段值
-        for (String keyword : SENSITIVE_KEYWORDS) {
-            // 不区分大小写替换，兼容各种命名风格（password、Password、newPassword等）
-            json = json.replaceAll(
-                    "(?i)(\"[^\"]*" + keyword + "[^\"]*\"\\s*:\\s*)\"[^\"]*\"",
-                    "$1\"" + MASK + "\""
-            );
+    private static boolean isSensitiveName(String name) {
+        if (name == null) {
+            return false;
         }
-        return json;
-    }
-
-    /**
-     * 判断参数名是否包含敏感关键词
-     */
-    private boolean isSensitiveParam(String paramName) {
-        String lower = paramName.toLowerCase();
-        return SENSITIVE_KEYWORDS.stream().anyMatch(lower::contains);
+        Boolean cached = SENSITIVE_NAME_CACHE.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        boolean sensitive = SENSITIVE_NAME_PATTERN.matcher(name).find();
+        if (SENSITIVE_NAME_CACHE.size() < SENSITIVE_NAME_CACHE_MAX_ENTRIES) {
+            SENSITIVE_NAME_CACHE.put(name, sensitive);
+        }
+        return sensitive;
     }
 
     /**
@@ -235,22 +334,28 @@ public class ApiLogAspect {
     }
 
     /**
-     * Jackson 属性过滤器：序列化时自动将敏感字段值替换为 ******
+     * Jackson 属性过滤器：序列化时自动将敏感字段值替换为 ******，Bean 属性和 Map 键统一处理
      */
     private static class SensitiveFieldFilter extends SimpleBeanPropertyFilter {
 
         @Override
         public void serializeAsField(Object pojo, JsonGenerator jgen,
                                      SerializerProvider provider, PropertyWriter writer) throws Exception {
-            String fieldName = writer.getName().toLowerCase();
-            boolean isSensitive = SENSITIVE_KEYWORDS.stream().anyMatch(fieldName::contains);
-
-            if (isSensitive) {
+            if (isSensitiveName(writer.getName())) {
                 jgen.writeStringField(writer.getName(), MASK);
             } else {
                 writer.serializeAsField(pojo, jgen, provider);
             }
         }
     }
-}
 
+    /**
+     * 单个接口的耗时指标。
+     *
+     * @param endpoint 接口标识，格式为 {@code 控制器.方法}
+     * @param success 正常返回的耗时
+     * @param error 抛出异常的耗时
+     */
+    private record EndpointTimers(String endpoint, Timer success, Timer error) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.travel.config.aspect;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 接口请求日志配置。
+ * <p>
+ * 用于绑定 {@code app.api-log} 前缀下的请求日志与耗时指标参数。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.api-log")
+public class ApiLogProperties {
+
+    /**
+     * 日志模式：full 逐条记录请求参数与完成日志；metrics 只记录耗时指标，按采样率输出完整参数日志。
+     */
+    private Mode mode = Mode.FULL;
+
+    /**
+     * metrics 模式下输出完整请求日志的采样率，取值 0~1，0 表示只保留慢接口和异常日志。
+     */
+    private Double paramSampleRate = 0.01;
+
+    /**
+     * 慢接口告警阈值，单位：毫秒。两种模式下慢接口都会输出带参数的告警日志。
+     */
+    private Long slowThresholdMillis = 3000L;
+
+    /**
+     * 是否为接口耗时指标发布直方图桶，开启后可在监控端按任意分位数聚合。
+     */
+    private Boolean percentileHistogram = true;
+
+    /**
+     * 应用内预先计算并通过 actuator 直接读取的耗时分位数，底层由 HdrHistogram 按滑动窗口统计，留空则不计算。
+     */
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+
+    /**
+     * 慢请求记录配置。
+     */
+    private SlowRequests slowRequests = new SlowRequests();
+
+    /**
+     * 慢请求记录细分配置。
+     */
+    @Data
+    public static class SlowRequests {
+
+        /**
+         * 是否记录慢请求及其阶段耗时拆分。
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 每个统计窗口保留的最慢请求条数。
+         */
+        private Integer capacity = 50;
+
+        /**
+         * 统计窗口长度，单位：秒。查询时返回当前窗口和上一个完整窗口中最慢的请求。
+         */
+        private Integer windowSeconds = 300;
+
+        /**
+         * 进入记录的最小耗时，单位：毫秒，低于该值的请求直接跳过。
+         */
+        private Long minDurationMillis = 100L;
+    }
+
+    /**
+     * 日志模式。
+     */
+    public enum Mode {
+        /**
+         * 逐条记录。
+         */
+        FULL,
+        /**
+         * 以指标为主、日志采样。
+         */
+        METRICS
+    }
+}
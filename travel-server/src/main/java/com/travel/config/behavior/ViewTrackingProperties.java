@@ -0,0 +1,41 @@
+package com.travel.config.behavior;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 浏览行为采集配置。
+ * <p>
+ * 用于绑定 {@code app.view-tracking} 前缀下的异步缓冲写入参数。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.view-tracking")
+public class ViewTrackingProperties {
+
+    /**
+     * 是否启用异步缓冲写入；关闭时浏览记录在请求线程内同步落库。
+     */
+    private Boolean asyncEnabled = true;
+
+    /**
+     * 缓冲队列容量，队列满时新的浏览记录直接丢弃并计入丢弃指标。
+     */
+    private Integer queueCapacity = 10000;
+
+    /**
+     * 单次多行 INSERT 写入的最大记录数。
+     */
+    private Integer batchSize = 500;
+
+    /**
+     * 刷写窗口，单位：毫秒。队列中的记录最迟在一个窗口后落库。
+     */
+    private Long flushIntervalMillis = 1000L;
+
+    /**
+     * 用户有效性校验结果的缓存时长，单位：秒。
+     */
+    private Integer userValidityTtlSeconds = 60;
+}
@@ -24,6 +24,26 @@ public class AppCacheProperties {
      */
     private Home home = new Home();
 
+    /**
+     * 仪表板快照配置。
+     */
+    private Dashboard dashboard = new Dashboard();
+
+    /**
+     * 认证主体状态缓存配置。
+     */
+    private Principal principal = new Principal();
+
+    /**
+     * 景点目录快照配置。
+     */
+    private Catalog catalog = new Catalog();
+
+    /**
+     * 是否启用旧代际缓存的后台清理；关闭时旧代际 Key 仅依赖 TTL 过期。
+     */
+    private Boolean generationSweepEnabled = false;
+
     @Data
     /**
      * 推荐缓存细分配置。
@@ -39,6 +59,26 @@ public class AppCacheProperties {
          * 相似度矩阵缓存时长，单位：小时。
          */
         private Integer similarityTtlHours = 24;
+
+        /**
+         * 相似度矩阵批量写入时每个管道提交的景点数。
+         */
+        private Integer similarityWriteBatchSize = 500;
+
+        /**
+         * 进程内相似度近端缓存的最大景点数。
+         */
+        private Integer similarityNearCacheMaxEntries = 10000;
+
+        /**
+         * 用户行为画像缓存时长，单位：分钟。行为写入会主动失效，TTL 只兜底未走失效入口的批量变更。
+         */
+        private Integer behaviorProfileTtlMinutes = 30;
+
+        /**
+         * 相似度矩阵计算分布式锁的持有时长，单位：分钟。需覆盖一次全量重建的耗时，实例异常退出时锁按此时长自动释放。
+         */
+        private Integer similarityLockTtlMinutes = 60;
     }
 
     @Data
@@ -58,4 +98,60 @@ public class AppCacheProperties {
         private Integer bannersTtlMinutes = 10;
     }
 
+    @Data
+    /**
+     * 仪表板快照细分配置。
+     */
+    public static class Dashboard {
+
+        /**
+         * 快照中预先计算的热门景点条数，请求条数不超过该值时直接从快照截取。
+         */
+        private Integer hotSpotsSnapshotSize = 50;
+
+        /**
+         * 快照最大可容忍时长，单位：秒。读取到更旧的快照时同步重算一次。
+         */
+        private Integer maxStaleSeconds = 120;
+
+        /**
+         * 无人读取的空闲时长，单位：秒。超过该时长后台任务跳过重算，避免无人查看时持续查库。
+         */
+        private Integer idleSeconds = 600;
+
+        /**
+         * 手动刷新的最小间隔，单位：秒，在当前实例内对所有管理员共享。
+         */
+        private Integer manualRefreshMinIntervalSeconds = 10;
+    }
+
+    @Data
+    /**
+     * 认证主体状态缓存细分配置。
+     */
+    public static class Principal {
+
+        /**
+         * 用户和管理员账号状态的缓存时长，单位：秒。状态变更入口会主动失效，TTL 只兜底直接改库和其他实例的变更。
+         */
+        private Integer ttlSeconds = 30;
+
+        /**
+         * 用户和管理员各自最多缓存的条目数。
+         */
+        private Integer maxEntries = 10000;
+    }
+
+    @Data
+    /**
+     * 景点目录快照细分配置。
+     */
+    public static class Catalog {
+
+        /**
+         * 评分和热度等易变计数的进程内缓存时长，单位：秒。本实例的评分变更会原地更新，TTL 只兜底其他实例的写入和热度刷写。
+         */
+        private Integer countersTtlSeconds = 60;
+    }
+
 }
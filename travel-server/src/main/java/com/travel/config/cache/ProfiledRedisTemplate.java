@@ -0,0 +1,28 @@
+package com.travel.config.cache;
+
+import com.travel.util.web.RequestProfileHolder;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 带请求剖析计时的 RedisTemplate。
+ * <p>
+ * opsForValue 等操作对象、管道和脚本最终都经过 {@link #execute(RedisCallback, boolean, boolean)}，
+ * 在这里把命令往返与值编解码耗时累加到当前请求的剖析上下文；SessionCallback 内的嵌套调用只按最外层计时一次。
+ *
+ * @param <K> Key 类型
+ * @param <V> Value 类型
+ */
+public class ProfiledRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        boolean outermost = RequestProfileHolder.enterRedis();
+        long start = outermost ? System.nanoTime() : 0L;
+        try {
+            return super.execute(action, exposeConnection, pipeline);
+        } finally {
+            RequestProfileHolder.exitRedis(outermost, outermost ? System.nanoTime() - start : 0L);
+        }
+    }
+}
@@ -6,12 +6,14 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
  * Redis 配置。
  * <p>
- * 统一定义 JSON 序列化器、通用 RedisTemplate 和字符串模板。
+ * 统一定义 JSON 序列化器、通用 RedisTemplate、字节数组模板和字符串模板。
+ * 通用模板和字节数组模板使用 {@link ProfiledRedisTemplate}，Redis 耗时计入慢请求记录的阶段拆分。
  */
 @Configuration
 public class RedisConfig {
@@ -38,7 +40,7 @@ public class RedisConfig {
         RedisConnectionFactory connectionFactory,
         GenericJackson2JsonRedisSerializer redisJsonSerializer
     ) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        RedisTemplate<String, Object> template = new ProfiledRedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         // Key 统一使用字符串序列化。
@@ -54,6 +56,26 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * 注册字节数组专用的 RedisTemplate，供推荐结果、相似度等自行编码的缓存值使用。
+     *
+     * @param connectionFactory Redis 连接工厂
+     * @return 字节数组 RedisTemplate
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> redisBinaryTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new ProfiledRedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        // Value 原样读写字节，编解码由业务侧负责。
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        template.setEnableDefaultSerializer(false);
+        template.afterPropertiesSet();
+        return template;
+    }
+
     /**
      * 注册字符串专用的 RedisTemplate。
      *
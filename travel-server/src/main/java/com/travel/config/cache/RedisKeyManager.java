@@ -10,28 +10,130 @@ public final class RedisKeyManager {
     private static final String ROOT = "waytrip";
     private static final String RECOMMENDATION = ROOT + ":recommendation";
     private static final String HOME = ROOT + ":home";
+    private static final String SPOT = ROOT + ":spot";
 
     private RedisKeyManager() {
     }
 
     /**
      * 获取景点相似度缓存 Key。
+     * <p>
+     * 版本号为 0 时对应引入版本命名空间之前的旧 Key，只在首次发布新版本前兜底读取。
      *
+     * @param version 相似度矩阵版本号
      * @param spotId 景点 ID
      * @return 景点相似度缓存 Key
      */
-    public static String recommendationSimilarity(Long spotId) {
-        return RECOMMENDATION + ":similarity:" + spotId;
+    public static String recommendationSimilarity(long version, Long spotId) {
+        if (version <= 0) {
+            return RECOMMENDATION + ":similarity:" + spotId;
+        }
+        return RECOMMENDATION + ":similarity:v" + version + ":" + spotId;
+    }
+
+    /**
+     * 获取指定版本相似度缓存的匹配模式，供版本下线时扫描。
+     *
+     * @param version 相似度矩阵版本号
+     * @return 相似度缓存 Key 匹配模式
+     */
+    public static String recommendationSimilarityPattern(long version) {
+        return RECOMMENDATION + ":similarity:v" + version + ":*";
+    }
+
+    /**
+     * 获取当前生效的相似度矩阵版本指针 Key。
+     *
+     * @return 相似度矩阵版本指针 Key
+     */
+    public static String recommendationSimilarityCurrentVersion() {
+        return RECOMMENDATION + ":similarity:current";
+    }
+
+    /**
+     * 获取相似度矩阵内容戳 Key，全量发布与增量覆盖后都会刷新。
+     *
+     * @return 相似度矩阵内容戳 Key
+     */
+    public static String recommendationSimilarityStamp() {
+        return RECOMMENDATION + ":similarity:stamp";
+    }
+
+    /**
+     * 获取相似度矩阵版本号发号器 Key。
+     *
+     * @return 相似度矩阵版本号发号器 Key
+     */
+    public static String recommendationSimilarityVersionSequence() {
+        return RECOMMENDATION + ":similarity:sequence";
     }
 
     /**
      * 获取用户推荐结果缓存 Key。
+     * <p>
+     * Key 中带有代际号，整体失效时只需递增代际，旧代际的 Key 按 TTL 自然过期；代际号为 0 时对应旧 Key。
      *
+     * @param generation 用户推荐缓存代际号
      * @param userId 用户 ID
      * @return 用户推荐缓存 Key
      */
-    public static String recommendationUser(Long userId) {
-        return RECOMMENDATION + ":user:" + userId;
+    public static String recommendationUser(long generation, Long userId) {
+        return recommendationUserPrefix(generation) + userId;
+    }
+
+    /**
+     * 获取指定代际用户推荐缓存的 Key 前缀，供后台清理时区分当前代际。
+     *
+     * @param generation 用户推荐缓存代际号
+     * @return 用户推荐缓存 Key 前缀
+     */
+    public static String recommendationUserPrefix(long generation) {
+        if (generation <= 0) {
+            return RECOMMENDATION + ":user:";
+        }
+        return RECOMMENDATION + ":user:g" + generation + ":";
+    }
+
+    /**
+     * 获取全部代际用户推荐缓存的匹配模式。
+     *
+     * @return 用户推荐缓存 Key 匹配模式
+     */
+    public static String recommendationUserPattern() {
+        return RECOMMENDATION + ":user:*";
+    }
+
+    /**
+     * 获取用户推荐缓存代际号 Key。
+     *
+     * @return 用户推荐缓存代际号 Key
+     */
+    public static String recommendationUserGeneration() {
+        return RECOMMENDATION + ":generation:user";
+    }
+
+    /**
+     * 获取用户行为画像缓存 Key。
+     * <p>
+     * 画像只随该用户自身行为变化，与推荐结果的代际无关，因此不带代际号。
+     *
+     * @param userId 用户 ID
+     * @return 用户行为画像缓存 Key
+     */
+    public static String recommendationBehaviorProfile(Long userId) {
+        return RECOMMENDATION + ":profile:" + userId;
+    }
+
+    /**
+     * 获取用户行为画像版本号 Key。
+     * <p>
+     * 画像失效时递增，回写画像前比对，失效之前查出的旧画像不会再被写回。
+     *
+     * @param userId 用户 ID
+     * @return 用户行为画像版本号 Key
+     */
+    public static String recommendationBehaviorProfileVersion(Long userId) {
+        return RECOMMENDATION + ":profile:version:" + userId;
     }
 
     /**
@@ -71,13 +173,72 @@ public final class RedisKeyManager {
     }
 
     /**
-     * 获取首页热门景点缓存 Key。
+     * 获取相似度矩阵增量水位线 Key。
+     *
+     * @return 相似度矩阵水位线 Key
+     */
+    public static String recommendationMatrixWatermark() {
+        return RECOMMENDATION + ":matrix:watermark";
+    }
+
+    /**
+     * 获取相似度增量基线指纹 Key，记录最近一次全量重建所用的有效景点与算法配置。
+     *
+     * @return 相似度增量基线指纹 Key
+     */
+    public static String recommendationMatrixFingerprint() {
+        return RECOMMENDATION + ":matrix:fingerprint";
+    }
+
+    /**
+     * 获取相似度矩阵计算锁 Key，多实例部署时保证全量重建与增量更新同一时刻只在一个实例上执行。
+     *
+     * @return 相似度矩阵计算锁 Key
+     */
+    public static String recommendationMatrixLock() {
+        return RECOMMENDATION + ":matrix:lock";
+    }
+
+    /**
+     * 获取首页热门景点缓存 Key，代际规则与用户推荐缓存一致。
      *
+     * @param generation 热门景点缓存代际号
      * @param limit 请求条数
      * @return 热门景点缓存 Key
      */
-    public static String homeHotSpots(Integer limit) {
-        return HOME + ":hot:" + limit;
+    public static String homeHotSpots(long generation, Integer limit) {
+        return homeHotSpotsPrefix(generation) + limit;
+    }
+
+    /**
+     * 获取指定代际热门景点缓存的 Key 前缀。
+     *
+     * @param generation 热门景点缓存代际号
+     * @return 热门景点缓存 Key 前缀
+     */
+    public static String homeHotSpotsPrefix(long generation) {
+        if (generation <= 0) {
+            return HOME + ":hot:";
+        }
+        return HOME + ":hot:g" + generation + ":";
+    }
+
+    /**
+     * 获取全部代际热门景点缓存的匹配模式。
+     *
+     * @return 热门景点缓存 Key 匹配模式
+     */
+    public static String homeHotSpotsPattern() {
+        return HOME + ":hot:*";
+    }
+
+    /**
+     * 获取热门景点缓存代际号 Key。
+     *
+     * @return 热门景点缓存代际号 Key
+     */
+    public static String homeHotSpotsGeneration() {
+        return HOME + ":generation:hot";
     }
 
     /**
@@ -88,4 +249,15 @@ public final class RedisKeyManager {
     public static String homeBanners() {
         return HOME + ":banners";
     }
+
+    /**
+     * 获取景点目录版本号 Key。
+     * <p>
+     * 景点、分类或地区变更时递增，各实例据此判断进程内景点目录快照是否需要重建。
+     *
+     * @return 景点目录版本号 Key
+     */
+    public static String spotCatalogVersion() {
+        return SPOT + ":catalog:version";
+    }
 }
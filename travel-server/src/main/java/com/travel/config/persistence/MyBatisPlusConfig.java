@@ -3,6 +3,7 @@ package com.travel.config.persistence;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.travel.service.support.monitor.SqlStatementMonitorSupport;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,7 +11,7 @@ import org.springframework.context.annotation.Configuration;
 /**
  * MyBatis-Plus 配置。
  * <p>
- * 负责统一注册 Mapper 扫描和分页插件。
+ * 负责统一注册 Mapper 扫描、分页插件和 SQL 计时插件。
  */
 @Configuration
 @MapperScan("com.travel.mapper")
@@ -28,4 +29,15 @@ public class MyBatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
         return interceptor;
     }
+
+    /**
+     * 注册 SQL 执行计时与计数插件，供慢请求记录按阶段拆分数据库耗时，并按语句检测 N+1 查询。
+     *
+     * @param sqlStatementMonitorSupport SQL 执行监控
+     * @return SQL 计时插件
+     */
+    @Bean
+    public SqlTimingInterceptor sqlTimingInterceptor(SqlStatementMonitorSupport sqlStatementMonitorSupport) {
+        return new SqlTimingInterceptor(sqlStatementMonitorSupport);
+    }
 }
@@ -0,0 +1,26 @@
+package com.travel.config.persistence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * SQL 执行监控配置。
+ * <p>
+ * 用于绑定 {@code app.sql-monitor} 前缀下的语句计数与 N+1 检测参数。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-monitor")
+public class SqlMonitorProperties {
+
+    /**
+     * 是否按 Mapper 语句记录执行次数与耗时指标。
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 单次请求内同一语句执行次数超过该值时判定为疑似 N+1 查询，记录告警日志并计数。
+     */
+    private Integer repeatThreshold = 10;
+}
@@ -0,0 +1,57 @@
+package com.travel.config.persistence;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.travel.service.support.monitor.SqlStatementMonitorSupport;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Statement;
+
+/**
+ * SQL 执行计时与计数插件。
+ * <p>
+ * 拦截 StatementHandler 的执行方法，按 Mapper 语句 ID 记录执行耗时，并累加到当前请求的剖析上下文，用于慢请求阶段拆分和 N+1 检测。
+ * 只拦截执行阶段，分页等插件改写 SQL 的 prepare 阶段不重复计时；游标查询只计入打开游标的耗时，逐行读取发生在调用方。
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class SqlTimingInterceptor implements Interceptor {
+
+    private static final String UNKNOWN_STATEMENT = "unknown";
+
+    private final SqlStatementMonitorSupport sqlStatementMonitorSupport;
+
+    public SqlTimingInterceptor(SqlStatementMonitorSupport sqlStatementMonitorSupport) {
+        this.sqlStatementMonitorSupport = sqlStatementMonitorSupport;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            sqlStatementMonitorSupport.recordExecution(statementId(invocation), System.nanoTime() - start);
+        }
+    }
+
+    private String statementId(Invocation invocation) {
+        try {
+            MappedStatement mappedStatement = PluginUtils.mpStatementHandler((StatementHandler) invocation.getTarget())
+                    .mappedStatement();
+            return mappedStatement != null ? mappedStatement.getId() : UNKNOWN_STATEMENT;
+        } catch (Exception e) {
+            // 语句 ID 只用于统计，取不到时归入 unknown，不影响 SQL 执行。
+            return UNKNOWN_STATEMENT;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.travel.config.web;
+
+import com.travel.service.support.monitor.SlowRequestRecorderSupport;
+import com.travel.service.support.monitor.SlowRequestRecorderSupport.SlowRequest;
+import com.travel.service.support.monitor.SqlStatementMonitorSupport;
+import com.travel.util.web.RequestProfileHolder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 请求耗时剖析过滤器。
+ * <p>
+ * 在最外层为每个接口请求开启剖析上下文，请求结束后把总耗时和各阶段耗时交给慢请求记录器，并检查是否存在 N+1 查询。
+ * 响应序列化发生在 Controller 返回之后，只有在过滤器层才能完整覆盖，因此总耗时以过滤器为准。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    private static final String UNMAPPED_ENDPOINT = "unmapped";
+
+    private final SlowRequestRecorderSupport slowRequestRecorderSupport;
+    private final SqlStatementMonitorSupport sqlStatementMonitorSupport;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // 静态资源、文档和 actuator 不计入接口耗时。
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long startedAtMillis = System.currentTimeMillis();
+        RequestProfileHolder.Profile profile = RequestProfileHolder.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long finishedAt = System.nanoTime();
+            RequestProfileHolder.clear();
+            long handlerCompletedAt = profile.getHandlerCompletedAt();
+            slowRequestRecorderSupport.record(new SlowRequest(
+                profile.getEndpoint(),
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                startedAtMillis,
+                finishedAt - profile.getStartedAt(),
+                profile.getDbNanos(),
+                profile.getDbCalls(),
+                profile.getRedisNanos(),
+                profile.getRedisCalls(),
+                handlerCompletedAt > 0 ? finishedAt - handlerCompletedAt : 0L
+            ));
+            // 未进入 Controller 的请求（如鉴权被拒）统一归类，避免带 ID 的原始路径撑大指标标签。
+            String endpoint = profile.getEndpoint() != null ? profile.getEndpoint() : UNMAPPED_ENDPOINT;
+            sqlStatementMonitorSupport.inspect(profile, endpoint);
+        }
+    }
+}
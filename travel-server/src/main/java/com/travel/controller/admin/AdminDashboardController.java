@@ -30,6 +30,12 @@ public class AdminDashboardController {
         return ApiResponse.success(dashboardService.getOverview());
     }
 
+    @Operation(summary = "立即刷新概览数据", description = "重算仪表板快照，刷新过于频繁时返回错误")
+    @PostMapping("/refresh")
+    public ApiResponse<DashboardOverviewResponse> refreshOverview() {
+        return ApiResponse.success(dashboardService.refreshSnapshotManually());
+    }
+
     @Operation(summary = "获取订单趋势")
     @GetMapping("/order-trend")
     public ApiResponse<OrderTrendResponse> getOrderTrend(
@@ -0,0 +1,31 @@
+package com.travel.controller.admin;
+
+import com.travel.common.result.ApiResponse;
+import com.travel.dto.monitor.response.SlowRequestsResponse;
+import com.travel.service.RequestMonitorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 管理端请求监控控制器，负责慢请求记录查询接口。
+ * <p>
+ * 接口分位数耗时通过 actuator 的 metrics 端点查看，这里只提供带阶段拆分的慢请求明细。
+ */
+@Tag(name = "管理端-请求监控", description = "管理端接口耗时监控相关接口")
+@RestController
+@RequestMapping("/api/admin/v1/monitor")
+@RequiredArgsConstructor
+public class AdminMonitorController {
+
+    private final RequestMonitorService requestMonitorService;
+
+    @Operation(summary = "获取慢请求记录", description = "返回当前窗口和上一个窗口中最慢的请求及数据库、Redis、响应序列化耗时")
+    @GetMapping("/slow-requests")
+    public ApiResponse<SlowRequestsResponse> getSlowRequests() {
+        return ApiResponse.success(requestMonitorService.getSlowRequests());
+    }
+}
@@ -56,8 +56,13 @@ public class FavoriteController {
     @GetMapping
     public ApiResponse<PageResult<SpotListResponse>> getFavoriteList(
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer pageSize) {
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String cursor) {
         Long userId = UserContextHolder.getUserId();
+        // 传入 cursor（首页为空字符串）即切换为游标模式，不统计总数。
+        if (cursor != null) {
+            return ApiResponse.success(favoriteService.getFavoriteListByCursor(userId, cursor, pageSize));
+        }
         return ApiResponse.success(favoriteService.getFavoriteList(userId, page, pageSize));
     }
 }
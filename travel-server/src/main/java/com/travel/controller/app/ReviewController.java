@@ -68,8 +68,13 @@ public class ReviewController {
     @GetMapping("/mine")
     public ApiResponse<PageResult<ReviewResponse>> getMyReviews(
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer pageSize) {
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String cursor) {
         Long userId = UserContextHolder.getUserId();
+        // 传入 cursor（首页为空字符串）即切换为游标模式，不统计总数。
+        if (cursor != null) {
+            return ApiResponse.success(reviewService.getUserReviewsByCursor(userId, cursor, pageSize));
+        }
         return ApiResponse.success(reviewService.getUserReviews(userId, page, pageSize));
     }
 
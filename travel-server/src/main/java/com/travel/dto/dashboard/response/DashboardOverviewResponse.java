@@ -3,6 +3,7 @@ package com.travel.dto.dashboard.response;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -32,4 +33,9 @@ public class DashboardOverviewResponse {
     private List<Long> recentUserSeries;
     private List<Long> recentSpotSeries;
     private List<Long> recentOrderSeries;
+
+    /**
+     * 统计快照生成时间，后台每隔固定周期重算，前端据此展示数据截止时间。
+     */
+    private LocalDateTime generatedAt;
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -17,6 +18,11 @@ public class HotSpotsResponse {
 
     private List<SpotItem> list;
 
+    /**
+     * 统计快照生成时间，后台每隔固定周期重算，前端据此展示数据截止时间。
+     */
+    private LocalDateTime generatedAt;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,16 @@
+package com.travel.dto.dashboard.stats;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 按日计数统计对象，供仪表板新增用户和新增景点序列使用。
+ */
+@Data
+public class DailyCountStats {
+
+    private LocalDate statDate;
+
+    private Long total;
+}
@@ -0,0 +1,19 @@
+package com.travel.dto.dashboard.stats;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 按日汇总的订单统计对象，汇总全部日期时日期为空。
+ */
+@Data
+public class DailyOrderStats {
+
+    private LocalDate statDate;
+
+    private Long orderCount;
+
+    private BigDecimal revenue;
+}
@@ -0,0 +1,18 @@
+package com.travel.dto.dashboard.stats;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 按景点汇总的订单统计对象，供仪表板热门景点排行使用。
+ */
+@Data
+public class SpotOrderRevenueStats {
+
+    private Long spotId;
+
+    private Long orderCount;
+
+    private BigDecimal revenue;
+}
@@ -0,0 +1,18 @@
+package com.travel.dto.dashboard.stats;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 按星期汇总的订单统计对象，星期取 MySQL DAYOFWEEK 口径：1 为周日，7 为周六。
+ */
+@Data
+public class WeekdayOrderStats {
+
+    private Integer dayOfWeek;
+
+    private Long orderCount;
+
+    private BigDecimal revenue;
+}
@@ -0,0 +1,51 @@
+package com.travel.dto.monitor.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 慢请求记录响应对象。
+ * <p>
+ * 用于后台查看最近窗口内最慢的接口请求及其阶段耗时拆分，耗时单位均为毫秒。
+ */
+@Data
+public class SlowRequestsResponse {
+
+    /**
+     * 统计窗口长度，单位：秒。
+     */
+    private Integer windowSeconds;
+
+    /**
+     * 每个窗口保留的最大条数。
+     */
+    private Integer capacity;
+
+    private List<RequestItem> list;
+
+    @Data
+    public static class RequestItem {
+        private String endpoint;
+        private String method;
+        private String uri;
+        private Integer status;
+        private LocalDateTime startedAt;
+        private Double totalMillis;
+        private Double dbMillis;
+        private Integer dbCalls;
+        private Double redisMillis;
+        private Integer redisCalls;
+
+        /**
+         * Controller 返回后到请求结束的耗时，主要是响应序列化与写出。
+         */
+        private Double serializationMillis;
+
+        /**
+         * 扣除数据库、Redis 和序列化后的剩余耗时，主要是应用内计算。
+         */
+        private Double otherMillis;
+    }
+}
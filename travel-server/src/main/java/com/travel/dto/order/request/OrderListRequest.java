@@ -16,4 +16,9 @@ public class OrderListRequest {
     private Integer page = 1;
 
     private Integer pageSize = 10;
+
+    /**
+     * 游标分页位置：传入即启用游标模式（首页传空字符串），不统计总数，后续页传上一页返回的 nextCursor。
+     */
+    private String cursor;
 }
@@ -11,6 +11,8 @@ import java.util.List;
 
 /**
  * 用户端订单分页响应对象。
+ * <p>
+ * 页码模式返回总数和页码；游标模式不统计总数，改为返回下一页游标。
  */
 @Data
 public class OrderListResponse {
@@ -20,6 +22,15 @@ public class OrderListResponse {
     private Integer page;
     private Integer pageSize;
 
+    /**
+     * 下一页游标，仅游标模式返回。
+     */
+    private String nextCursor;
+    /**
+     * 是否还有下一页，仅游标模式返回。
+     */
+    private Boolean hasMore;
+
     /**
      * 用户端订单列表项对象。
      */
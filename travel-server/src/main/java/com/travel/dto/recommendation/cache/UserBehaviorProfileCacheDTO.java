@@ -0,0 +1,59 @@
+package com.travel.dto.recommendation.cache;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用户行为画像缓存对象。
+ * <p>
+ * 一次性汇总用户的浏览、收藏、评分和订单行为，供交互权重、已交互过滤和调试统计共用，
+ * 只保留推荐链路需要的字段。
+ */
+@Data
+public class UserBehaviorProfileCacheDTO {
+
+    /**
+     * 浏览记录。
+     */
+    private List<ViewItem> views;
+
+    /**
+     * 有效收藏的景点 ID。
+     */
+    private List<Long> favoriteSpotIds;
+
+    /**
+     * 有效评分记录。
+     */
+    private List<ReviewItem> reviews;
+
+    /**
+     * 未删除且未取消的订单；权重计算只使用其中 PAID 和 COMPLETED 的订单。
+     */
+    private List<OrderItem> orders;
+
+    /**
+     * 画像生成时间。
+     */
+    private Long generatedAt;
+
+    @Data
+    public static class ViewItem {
+        private Long spotId;
+        private String viewSource;
+        private Integer viewDuration;
+    }
+
+    @Data
+    public static class ReviewItem {
+        private Long spotId;
+        private Integer score;
+    }
+
+    @Data
+    public static class OrderItem {
+        private Long spotId;
+        private Integer status;
+    }
+}
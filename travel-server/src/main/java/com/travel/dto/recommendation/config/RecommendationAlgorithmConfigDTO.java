@@ -8,6 +8,26 @@ import lombok.Data;
 @Data
 public class RecommendationAlgorithmConfigDTO {
 
+    /**
+     * 离线相似度引擎：逐对比较。
+     */
+    public static final String SIMILARITY_ENGINE_PAIRWISE = "pairwise";
+
+    /**
+     * 离线相似度引擎：按用户交互列表累加共现并行计算。
+     */
+    public static final String SIMILARITY_ENGINE_COOCCURRENCE = "cooccurrence";
+
+    /**
+     * 离线交互矩阵加载方式：整表读取为列表后再按行为合并。
+     */
+    public static final String MATRIX_LOADER_LIST = "list";
+
+    /**
+     * 离线交互矩阵加载方式：逐行流式读取并直接折叠进交互矩阵。
+     */
+    public static final String MATRIX_LOADER_STREAMING = "streaming";
+
     private Double weightView = 0.5;
     private Double weightFavorite = 1.0;
     private Double weightReviewFactor = 0.4;
@@ -32,4 +52,8 @@ public class RecommendationAlgorithmConfigDTO {
     private Integer topKNeighbors = 20;
     private Integer candidateExpandFactor = 2;
     private Integer coldStartExpandFactor = 3;
+
+    private String similarityEngine = SIMILARITY_ENGINE_COOCCURRENCE;
+    private Boolean incrementalSimilarityEnabled = true;
+    private String matrixLoader = MATRIX_LOADER_STREAMING;
 }
@@ -10,10 +10,22 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class RecommendationHeatConfigDTO {
 
+    /**
+     * 全量热度同步方式：逐景点统计并逐条回写。
+     */
+    public static final String REFRESH_MODE_PER_SPOT = "per-spot";
+
+    /**
+     * 全量热度同步方式：按景点分组聚合行为计数，再分批回写热度分。
+     */
+    public static final String REFRESH_MODE_BULK = "bulk";
+
     private Integer heatViewIncrement = 1;
     private Integer heatFavoriteIncrement = 3;
     private Integer heatReviewIncrement = 2;
     private Integer heatOrderPaidIncrement = 5;
     private Integer heatOrderCompletedIncrement = 8;
     private Double heatRerankFactor = 0.05;
+    private String heatRefreshMode = REFRESH_MODE_BULK;
+    private Integer heatRefreshBatchSize = 500;
 }
@@ -0,0 +1,16 @@
+package com.travel.dto.spot.stats;
+
+import lombok.Data;
+
+/**
+ * 景点行为计数统计对象。
+ * <p>
+ * 承接按景点分组的浏览、收藏、评价计数结果，供热度全量重算批量使用。
+ */
+@Data
+public class SpotBehaviorCountStats {
+
+    private Long spotId;
+
+    private Long behaviorCount;
+}
@@ -0,0 +1,24 @@
+package com.travel.dto.spot.stats;
+
+import lombok.Data;
+
+/**
+ * 景点行为增量对象。
+ * <p>
+ * 记录两次热度刷写之间单个景点各类行为的净变化量，取消收藏、删除评价和退款等操作会产生负值。
+ */
+@Data
+public class SpotBehaviorDelta {
+
+    private Long spotId;
+
+    private long viewCount;
+
+    private long favoriteCount;
+
+    private long reviewCount;
+
+    private long paidOrderCount;
+
+    private long completedOrderCount;
+}
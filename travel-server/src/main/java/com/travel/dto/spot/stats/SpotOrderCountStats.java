@@ -0,0 +1,18 @@
+package com.travel.dto.spot.stats;
+
+import lombok.Data;
+
+/**
+ * 景点订单计数统计对象。
+ * <p>
+ * 一次分组查询同时带回已支付（含已完成）和已完成的订单数，对应热度计算中的两档订单加成。
+ */
+@Data
+public class SpotOrderCountStats {
+
+    private Long spotId;
+
+    private Long paidCount;
+
+    private Long completedCount;
+}
@@ -0,0 +1,34 @@
+package com.travel.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 订单日汇总持久化实体，对应 order_daily_stats 表。
+ * <p>
+ * 按下单日期和景点汇总未取消订单数与收入，订单状态流转时增量维护，仪表板统计只读这张表。
+ */
+@Data
+@TableName("order_daily_stats")
+public class OrderDailyStats {
+
+    private LocalDate statDate;
+
+    private Long spotId;
+
+    /**
+     * 未取消订单数。
+     */
+    private Long orderCount;
+
+    /**
+     * 计入收入口径的订单金额合计。
+     */
+    private BigDecimal revenue;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.travel.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单景点累计汇总持久化实体，对应 order_spot_stats 表。
+ * <p>
+ * 每个景点一行，累计全部日期的未取消订单数与收入，与订单日汇总在同一事务中增量维护，仪表板总量和热门景点只读这张表。
+ */
+@Data
+@TableName("order_spot_stats")
+public class OrderSpotStats {
+
+    private Long spotId;
+
+    /**
+     * 未取消订单数。
+     */
+    private Long orderCount;
+
+    /**
+     * 计入收入口径的订单金额合计。
+     */
+    private BigDecimal revenue;
+
+    private LocalDateTime updatedAt;
+}
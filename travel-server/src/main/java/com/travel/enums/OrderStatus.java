@@ -2,6 +2,9 @@ package com.travel.enums;
 
 import lombok.Getter;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * 订单状态枚举，对应 order.status 字段取值。
  * <p>
@@ -48,6 +51,20 @@ public enum OrderStatus {
         return null;
     }
 
+    /**
+     * 获取计入订单数口径的全部状态码，供统计 SQL 使用。
+     */
+    public static List<Integer> activeCodes() {
+        return Arrays.stream(values()).filter(OrderStatus::isActive).map(OrderStatus::getCode).toList();
+    }
+
+    /**
+     * 获取计入收入口径的全部状态码，供统计 SQL 使用。
+     */
+    public static List<Integer> revenueCodes() {
+        return Arrays.stream(values()).filter(OrderStatus::hasRevenue).map(OrderStatus::getCode).toList();
+    }
+
     /**
      * 判断当前状态是否允许支付。
      */
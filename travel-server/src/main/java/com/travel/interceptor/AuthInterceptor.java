@@ -2,10 +2,8 @@ package com.travel.interceptor;
 
 import com.travel.common.exception.BusinessException;
 import com.travel.common.result.ResultCode;
-import com.travel.entity.Admin;
-import com.travel.entity.User;
-import com.travel.mapper.AdminMapper;
-import com.travel.mapper.UserMapper;
+import com.travel.service.support.auth.PrincipalStatusCacheSupport;
+import com.travel.service.support.auth.PrincipalStatusCacheSupport.PrincipalStatus;
 import com.travel.util.security.JwtUtils;
 import com.travel.util.web.UserContextHolder;
 import lombok.RequiredArgsConstructor;
@@ -31,8 +29,8 @@ public class AuthInterceptor implements HandlerInterceptor {
 
     // Token 解析依赖统一通过工具类收口，避免拦截器直接耦合 JWT 细节。
     private final JwtUtils jwtUtils;
-    private final UserMapper userMapper;
-    private final AdminMapper adminMapper;
+    // 账号状态走进程内短 TTL 缓存，状态变更入口主动失效，常态下鉴权不再查库。
+    private final PrincipalStatusCacheSupport principalStatusCacheSupport;
 
     /**
      * 拦截请求并根据接口前缀写入当前用户上下文。
@@ -100,8 +98,7 @@ public class AuthInterceptor implements HandlerInterceptor {
      * 用户端认证不能只信任 JWT，账号已被删除时必须在入口层立即失效。
      */
     private void validateActiveUser(Long userId) {
-        User user = userMapper.selectById(userId);
-        if (user == null || user.getIsDeleted() == 1) {
+        if (principalStatusCacheSupport.getUserStatus(userId) != PrincipalStatus.ACTIVE) {
             throw new BusinessException(ResultCode.TOKEN_INVALID);
         }
     }
@@ -110,12 +107,12 @@ public class AuthInterceptor implements HandlerInterceptor {
      * 管理端除了解析 Token，还要校验管理员未被删除且仍处于启用状态。
      */
     private void validateActiveAdmin(Long adminId) {
-        Admin admin = adminMapper.selectById(adminId);
-        if (admin == null || admin.getIsDeleted() == 1) {
-            throw new BusinessException(ResultCode.TOKEN_INVALID);
-        }
-        if (admin.getIsEnabled() == null || admin.getIsEnabled() != 1) {
+        PrincipalStatus status = principalStatusCacheSupport.getAdminStatus(adminId);
+        if (status == PrincipalStatus.DISABLED) {
             throw new BusinessException(ResultCode.ADMIN_DISABLED);
         }
+        if (status != PrincipalStatus.ACTIVE) {
+            throw new BusinessException(ResultCode.TOKEN_INVALID);
+        }
     }
 }
@@ -0,0 +1,164 @@
+package com.travel.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.travel.dto.dashboard.stats.DailyOrderStats;
+import com.travel.dto.dashboard.stats.WeekdayOrderStats;
+import com.travel.entity.OrderDailyStats;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单日汇总数据访问接口。
+ * <p>
+ * 汇总表的行数只与“天数 × 有订单的景点数”相关，仪表板查询不再随订单历史增长而变慢。
+ */
+@Mapper
+public interface OrderDailyStatsMapper extends BaseMapper<OrderDailyStats> {
+
+    /**
+     * 按日期和景点累加增量，不存在的汇总行直接插入。
+     *
+     * @param statDate 下单日期
+     * @param spotId 景点 ID
+     * @param orderCount 订单数增量
+     * @param revenue 收入增量
+     * @return 受影响行数
+     */
+    @Insert("INSERT INTO order_daily_stats (stat_date, spot_id, order_count, revenue) "
+        + "VALUES (#{statDate}, #{spotId}, #{orderCount}, #{revenue}) "
+        + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+        + "revenue = revenue + VALUES(revenue)")
+    int upsertDelta(@Param("statDate") LocalDate statDate,
+                    @Param("spotId") Long spotId,
+                    @Param("orderCount") long orderCount,
+                    @Param("revenue") BigDecimal revenue);
+
+    /**
+     * 批量累加多行增量，供一次流转多笔订单的场景合并成一条语句；调用方应按主键排序传入，保持固定加锁顺序。
+     *
+     * @param rows 日期、景点及订单数、收入增量
+     * @return 受影响行数
+     */
+    @Insert("<script>"
+        + "INSERT INTO order_daily_stats (stat_date, spot_id, order_count, revenue) VALUES "
+        + "<foreach collection='rows' item='row' separator=','>"
+        + "(#{row.statDate}, #{row.spotId}, #{row.orderCount}, #{row.revenue})"
+        + "</foreach>"
+        + " ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+        + "revenue = revenue + VALUES(revenue)"
+        + "</script>")
+    int upsertDeltas(@Param("rows") List<OrderDailyStats> rows);
+
+    /**
+     * 删除指定日期区间的汇总行，供分段重建使用。
+     *
+     * @param startDate 起始日期，含当天
+     * @param endDate 结束日期，不含当天
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM order_daily_stats WHERE stat_date >= #{startDate} AND stat_date < #{endDate}")
+    int deleteRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按下单日期和景点聚合指定时间区间的订单，并对扫描到的订单加共享锁：未取消订单计数，收入只累计指定状态的订单金额。
+     * <p>
+     * 分段重建先执行本查询再改写汇总行，与订单状态流转“先改订单、再累加汇总”的加锁顺序一致，两者不会互相等待成环。
+     *
+     * @param startTime 起始时间，含
+     * @param endTime 结束时间，不含
+     * @param cancelledStatus 已取消状态码
+     * @param revenueStatuses 计入收入的状态码
+     * @return 按日期和景点聚合的汇总行
+     */
+    @Select("<script>"
+        + "SELECT DATE(created_at) AS stat_date, spot_id, COUNT(*) AS order_count, "
+        + "COALESCE(SUM(CASE WHEN status IN "
+        + "<foreach collection='revenueStatuses' item='status' open='(' separator=',' close=')'>#{status}</foreach>"
+        + " THEN total_amount ELSE 0 END), 0) AS revenue "
+        + "FROM `order` WHERE is_deleted = 0 AND status &lt;&gt; #{cancelledStatus} "
+        + "AND created_at &gt;= #{startTime} AND created_at &lt; #{endTime} "
+        + "GROUP BY DATE(created_at), spot_id FOR SHARE"
+        + "</script>")
+    List<OrderDailyStats> selectRangeFromOrdersForShare(@Param("startTime") LocalDateTime startTime,
+                                                        @Param("endTime") LocalDateTime endTime,
+                                                        @Param("cancelledStatus") Integer cancelledStatus,
+                                                        @Param("revenueStatuses") List<Integer> revenueStatuses);
+
+    /**
+     * 批量写入汇总行，供分段重建在删除旧行后回填。
+     *
+     * @param rows 汇总行
+     * @return 写入行数
+     */
+    @Insert("<script>"
+        + "INSERT INTO order_daily_stats (stat_date, spot_id, order_count, revenue) VALUES "
+        + "<foreach collection='rows' item='row' separator=','>"
+        + "(#{row.statDate}, #{row.spotId}, #{row.orderCount}, #{row.revenue})"
+        + "</foreach>"
+        + "</script>")
+    int insertRows(@Param("rows") List<OrderDailyStats> rows);
+
+    /**
+     * 查询最早的下单日期，走 {@code idx_order_created_at} 直接取索引首行。
+     *
+     * @return 最早下单日期，没有订单时返回 null
+     */
+    @Select("SELECT DATE(MIN(created_at)) FROM `order`")
+    LocalDate selectEarliestOrderDate();
+
+    /**
+     * 查询汇总表中最早的日期，用于清理早于全部订单的残留汇总行。
+     *
+     * @return 最早汇总日期，汇总表为空时返回 null
+     */
+    @Select("SELECT MIN(stat_date) FROM order_daily_stats")
+    LocalDate selectEarliestStatDate();
+
+    /**
+     * 判断汇总表是否已有数据。
+     *
+     * @return 有数据时返回 true
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM order_daily_stats)")
+    boolean existsAny();
+
+    /**
+     * 按日汇总订单数与收入，起始日期为空时从最早的汇总行开始。
+     *
+     * @param startDate 起始日期，含当天
+     * @param endDate 结束日期，含当天
+     * @return 有汇总行的日期，按日期升序
+     */
+    @Select("<script>"
+        + "SELECT stat_date, SUM(order_count) AS order_count, SUM(revenue) AS revenue FROM order_daily_stats "
+        + "WHERE stat_date &lt;= #{endDate}"
+        + "<if test='startDate != null'> AND stat_date &gt;= #{startDate}</if>"
+        + " GROUP BY stat_date ORDER BY stat_date"
+        + "</script>")
+    List<DailyOrderStats> selectDailyTotals(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按星期汇总订单数与收入，起始日期为空时统计全部日期。
+     *
+     * @param startDate 起始日期，含当天
+     * @param endDate 结束日期，含当天
+     * @return 有汇总行的星期，最多 7 行
+     */
+    @Select("<script>"
+        + "SELECT DAYOFWEEK(stat_date) AS day_of_week, SUM(order_count) AS order_count, SUM(revenue) AS revenue "
+        + "FROM order_daily_stats WHERE stat_date &lt;= #{endDate}"
+        + "<if test='startDate != null'> AND stat_date &gt;= #{startDate}</if>"
+        + " GROUP BY DAYOFWEEK(stat_date)"
+        + "</script>")
+    List<WeekdayOrderStats> selectWeekdayTotals(@Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+}
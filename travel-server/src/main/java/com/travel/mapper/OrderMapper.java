@@ -1,8 +1,21 @@
 package com.travel.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.travel.dto.dashboard.stats.DailyOrderStats;
+import com.travel.dto.dashboard.stats.WeekdayOrderStats;
+import com.travel.dto.spot.stats.SpotOrderCountStats;
 import com.travel.entity.Order;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 订单数据访问接口。
@@ -11,4 +24,80 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface OrderMapper extends BaseMapper<Order> {
+
+    /**
+     * 流式读取订单行为，供离线交互矩阵逐行累加。
+     *
+     * @param queryWrapper 查询条件
+     * @param handler 逐行处理回调
+     */
+    @Select("SELECT user_id, spot_id, status FROM `order` ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    void streamInteractions(@Param(Constants.WRAPPER) Wrapper<Order> queryWrapper, ResultHandler<Order> handler);
+
+    /**
+     * 按景点分组统计有效订单数：已支付计数包含已完成订单，已完成计数单独给出，与单景点热度口径一致。
+     *
+     * @param paidStatus 已支付状态码
+     * @param completedStatus 已完成状态码
+     * @return 各景点订单计数
+     */
+    @Select("SELECT spot_id, COUNT(*) AS paid_count, "
+        + "SUM(CASE WHEN status = #{completedStatus} THEN 1 ELSE 0 END) AS completed_count "
+        + "FROM `order` WHERE is_deleted = 0 AND status IN (#{paidStatus}, #{completedStatus}) GROUP BY spot_id")
+    List<SpotOrderCountStats> selectOrderCountsBySpot(@Param("paidStatus") Integer paidStatus,
+                                                      @Param("completedStatus") Integer completedStatus);
+
+    /**
+     * 直接从订单表按下单日期聚合订单数与收入，只返回有订单的日期。
+     * <p>
+     * 状态条件写成有效状态的 IN 列表，配合 {@code idx_order_status_deleted_created(status, is_deleted, created_at, total_amount)}
+     * 按状态逐段范围扫描且无需回表。
+     *
+     * @param startTime 起始时间，含；为空时不限制
+     * @param endTime 结束时间，不含
+     * @param activeStatuses 计入订单数的状态码
+     * @param revenueStatuses 计入收入的状态码
+     * @return 按日期升序的日汇总
+     */
+    @Select("<script>"
+        + "SELECT DATE(created_at) AS stat_date, COUNT(*) AS order_count, "
+        + "COALESCE(SUM(CASE WHEN status IN "
+        + "<foreach collection='revenueStatuses' item='status' open='(' separator=',' close=')'>#{status}</foreach>"
+        + " THEN total_amount ELSE 0 END), 0) AS revenue "
+        + "FROM `order` WHERE status IN "
+        + "<foreach collection='activeStatuses' item='status' open='(' separator=',' close=')'>#{status}</foreach>"
+        + " AND is_deleted = 0 AND created_at &lt; #{endTime}"
+        + "<if test='startTime != null'> AND created_at &gt;= #{startTime}</if>"
+        + " GROUP BY DATE(created_at) ORDER BY stat_date"
+        + "</script>")
+    List<DailyOrderStats> selectDailyOrderStats(@Param("startTime") LocalDateTime startTime,
+                                                @Param("endTime") LocalDateTime endTime,
+                                                @Param("activeStatuses") List<Integer> activeStatuses,
+                                                @Param("revenueStatuses") List<Integer> revenueStatuses);
+
+    /**
+     * 直接从订单表按星期聚合订单数与收入，索引使用方式同 {@link #selectDailyOrderStats}。
+     *
+     * @param startTime 起始时间，含；为空时不限制
+     * @param endTime 结束时间，不含
+     * @param activeStatuses 计入订单数的状态码
+     * @param revenueStatuses 计入收入的状态码
+     * @return 有订单的星期，最多 7 行
+     */
+    @Select("<script>"
+        + "SELECT DAYOFWEEK(created_at) AS day_of_week, COUNT(*) AS order_count, "
+        + "COALESCE(SUM(CASE WHEN status IN "
+        + "<foreach collection='revenueStatuses' item='status' open='(' separator=',' close=')'>#{status}</foreach>"
+        + " THEN total_amount ELSE 0 END), 0) AS revenue "
+        + "FROM `order` WHERE status IN "
+        + "<foreach collection='activeStatuses' item='status' open='(' separator=',' close=')'>#{status}</foreach>"
+        + " AND is_deleted = 0 AND created_at &lt; #{endTime}"
+        + "<if test='startTime != null'> AND created_at &gt;= #{startTime}</if>"
+        + " GROUP BY DAYOFWEEK(created_at)"
+        + "</script>")
+    List<WeekdayOrderStats> selectWeekdayOrderStats(@Param("startTime") LocalDateTime startTime,
+                                                    @Param("endTime") LocalDateTime endTime,
+                                                    @Param("activeStatuses") List<Integer> activeStatuses,
+                                                    @Param("revenueStatuses") List<Integer> revenueStatuses);
 }
@@ -0,0 +1,121 @@
+package com.travel.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.travel.dto.dashboard.stats.DailyOrderStats;
+import com.travel.dto.dashboard.stats.SpotOrderRevenueStats;
+import com.travel.entity.OrderSpotStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 订单景点累计汇总数据访问接口。
+ * <p>
+ * 汇总表每个景点只有一行，总量和热门景点查询的代价只与景点数相关，不随天数增长。
+ */
+@Mapper
+public interface OrderSpotStatsMapper extends BaseMapper<OrderSpotStats> {
+
+    /**
+     * 按景点累加增量，不存在的汇总行直接插入。
+     *
+     * @param spotId 景点 ID
+     * @param orderCount 订单数增量
+     * @param revenue 收入增量
+     * @return 受影响行数
+     */
+    @Insert("INSERT INTO order_spot_stats (spot_id, order_count, revenue) "
+        + "VALUES (#{spotId}, #{orderCount}, #{revenue}) "
+        + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+        + "revenue = revenue + VALUES(revenue)")
+    int upsertDelta(@Param("spotId") Long spotId,
+                    @Param("orderCount") long orderCount,
+                    @Param("revenue") BigDecimal revenue);
+
+    /**
+     * 批量累加多个景点的增量；调用方应按景点 ID 排序传入，保持固定加锁顺序。
+     *
+     * @param rows 景点及订单数、收入增量
+     * @return 受影响行数
+     */
+    @Insert("<script>"
+        + "INSERT INTO order_spot_stats (spot_id, order_count, revenue) VALUES "
+        + "<foreach collection='rows' item='row' separator=','>"
+        + "(#{row.spotId}, #{row.orderCount}, #{row.revenue})"
+        + "</foreach>"
+        + " ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+        + "revenue = revenue + VALUES(revenue)"
+        + "</script>")
+    int upsertDeltas(@Param("rows") List<OrderSpotStats> rows);
+
+    /**
+     * 查询日汇总表或累计汇总表中出现过的全部景点，供重建累计汇总时分批。
+     *
+     * @return 景点 ID，升序
+     */
+    @Select("SELECT spot_id FROM order_daily_stats UNION SELECT spot_id FROM order_spot_stats ORDER BY spot_id")
+    List<Long> selectAllSpotIds();
+
+    /**
+     * 从日汇总表按景点合计，并对读到的日汇总行加共享锁。
+     * <p>
+     * 先锁日汇总、再写累计汇总，与状态流转“先累加日汇总、再累加累计汇总”的加锁顺序一致。
+     *
+     * @param spotIds 景点 ID
+     * @return 有日汇总行的景点合计
+     */
+    @Select("<script>"
+        + "SELECT spot_id, SUM(order_count) AS order_count, SUM(revenue) AS revenue FROM order_daily_stats "
+        + "WHERE spot_id IN "
+        + "<foreach collection='spotIds' item='spotId' open='(' separator=',' close=')'>#{spotId}</foreach>"
+        + " GROUP BY spot_id FOR SHARE"
+        + "</script>")
+    List<OrderSpotStats> sumDailyStatsForShare(@Param("spotIds") Collection<Long> spotIds);
+
+    /**
+     * 以给定值覆盖写入累计汇总行，不存在的直接插入。
+     *
+     * @param rows 累计汇总行
+     * @return 受影响行数
+     */
+    @Insert("<script>"
+        + "INSERT INTO order_spot_stats (spot_id, order_count, revenue) VALUES "
+        + "<foreach collection='rows' item='row' separator=','>"
+        + "(#{row.spotId}, #{row.orderCount}, #{row.revenue})"
+        + "</foreach>"
+        + " ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), revenue = VALUES(revenue)"
+        + "</script>")
+    int overwriteRows(@Param("rows") List<OrderSpotStats> rows);
+
+    /**
+     * 判断累计汇总表是否已有数据。
+     *
+     * @return 有数据时返回 true
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM order_spot_stats)")
+    boolean existsAny();
+
+    /**
+     * 汇总全部景点的订单数与收入。
+     *
+     * @return 合计结果，日期为空
+     */
+    @Select("SELECT COALESCE(SUM(order_count), 0) AS order_count, COALESCE(SUM(revenue), 0) AS revenue "
+        + "FROM order_spot_stats")
+    DailyOrderStats selectTotals();
+
+    /**
+     * 取订单数最多的若干景点，走 {@code idx_order_spot_stats_count} 按索引顺序读取前 N 行。
+     *
+     * @param limit 返回条数
+     * @return 景点汇总，按订单数降序
+     */
+    @Select("SELECT spot_id, order_count, revenue FROM order_spot_stats WHERE order_count > 0 "
+        + "ORDER BY order_count DESC, spot_id ASC LIMIT #{limit}")
+    List<SpotOrderRevenueStats> selectTopSpots(@Param("limit") Integer limit);
+}
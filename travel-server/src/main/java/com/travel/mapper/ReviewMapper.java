@@ -1,14 +1,22 @@
 package com.travel.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.travel.dto.review.stats.SpotRatingStats;
 import com.travel.dto.spot.response.SpotDetailResponse;
+import com.travel.dto.spot.stats.SpotBehaviorCountStats;
 import com.travel.entity.Review;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -27,6 +35,22 @@ public interface ReviewMapper extends BaseMapper<Review> {
      */
     IPage<Review> selectUserReviewPage(Page<Review> page, @Param("userId") Long userId);
 
+    /**
+     * 按游标查询指定用户发布的评价记录，排序为 (created_at, id) 倒序，不统计总数。
+     * <p>
+     * 修改评价会刷新 updated_at，因此游标按不可变的创建时间续查，避免翻页途中被编辑的评价跳过或重复出现。
+     *
+     * @param userId 用户 ID
+     * @param cursorTime 上一页最后一条的创建时间，首页传 null
+     * @param cursorId 上一页最后一条的 ID，首页传 null
+     * @param limit 查询条数
+     * @return 评价记录
+     */
+    List<Review> selectUserReviewsAfter(@Param("userId") Long userId,
+                                       @Param("cursorTime") LocalDateTime cursorTime,
+                                       @Param("cursorId") Long cursorId,
+                                       @Param("limit") int limit);
+
     /**
      * 分页查询管理端评价列表。
      */
@@ -50,4 +74,20 @@ public interface ReviewMapper extends BaseMapper<Review> {
      * 统计指定景点的评分汇总信息。
      */
     SpotRatingStats selectSpotRatingStats(@Param("spotId") Long spotId);
+
+    /**
+     * 流式读取评分行为，供离线交互矩阵逐行累加。
+     *
+     * @param queryWrapper 查询条件
+     * @param handler 逐行处理回调
+     */
+    @Select("SELECT user_id, spot_id, score FROM user_spot_review ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    void streamInteractions(@Param(Constants.WRAPPER) Wrapper<Review> queryWrapper, ResultHandler<Review> handler);
+
+    /**
+     * 按景点分组统计有效评价数，供热度全量重算一次性取回全部景点的评价计数。
+     */
+    @Select("SELECT spot_id, COUNT(*) AS behavior_count FROM user_spot_review WHERE is_deleted = 0 GROUP BY spot_id")
+    List<SpotBehaviorCountStats> selectReviewCountsBySpot();
 }
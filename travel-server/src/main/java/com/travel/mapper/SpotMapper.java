@@ -3,12 +3,15 @@ package com.travel.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.travel.dto.dashboard.stats.DailyCountStats;
 import com.travel.dto.home.response.NearbySpotResponse;
 import com.travel.entity.Spot;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -40,4 +43,40 @@ public interface SpotMapper extends BaseMapper<Spot> {
     List<NearbySpotResponse.SpotItem> selectNearbySpots(@Param("latitude") BigDecimal latitude,
                                                         @Param("longitude") BigDecimal longitude,
                                                         @Param("limit") Integer limit);
+
+    /**
+     * 全量读取景点目录快照所需的轻量展示字段，包含已下架和已软删的景点，不含评分和热度。
+     */
+    List<Spot> selectCatalogSpots();
+
+    /**
+     * 全量读取景点的评分和热度计数，只返回 ID、热度分、平均评分和评分人数。
+     */
+    List<Spot> selectSpotCounters();
+
+    /**
+     * 批量回写景点热度分，只更新 heat_score 一列。
+     *
+     * @param spots 待回写的景点，只读取 ID 和热度分
+     * @return 受影响行数
+     */
+    int batchUpdateHeatScore(@Param("spots") List<Spot> spots);
+
+    /**
+     * 批量累加景点热度增量，结果不低于 0。
+     *
+     * @param spots 待累加的景点，热度分字段承载本次增量
+     * @return 受影响行数
+     */
+    int batchIncrementHeatScore(@Param("spots") List<Spot> spots);
+
+    /**
+     * 按创建日期统计已发布景点新增数。
+     *
+     * @param startTime 统计起始时间
+     * @return 有新增景点的日期及数量
+     */
+    @Select("SELECT DATE(created_at) AS stat_date, COUNT(*) AS total FROM spot "
+        + "WHERE is_published = 1 AND is_deleted = 0 AND created_at >= #{startTime} GROUP BY DATE(created_at)")
+    List<DailyCountStats> selectDailyNewSpotCounts(@Param("startTime") LocalDateTime startTime);
 }
@@ -1,8 +1,14 @@
 package com.travel.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.travel.dto.dashboard.stats.DailyCountStats;
 import com.travel.entity.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户数据访问接口。
@@ -11,4 +17,14 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
+
+    /**
+     * 按注册日期统计有效用户新增数，只扫描起始时间之后的索引区间。
+     *
+     * @param startTime 统计起始时间
+     * @return 有新增用户的日期及数量
+     */
+    @Select("SELECT DATE(created_at) AS stat_date, COUNT(*) AS total FROM `user` "
+        + "WHERE is_deleted = 0 AND created_at >= #{startTime} GROUP BY DATE(created_at)")
+    List<DailyCountStats> selectDailyNewUserCounts(@Param("startTime") LocalDateTime startTime);
 }
@@ -1,8 +1,18 @@
 package com.travel.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.travel.dto.spot.stats.SpotBehaviorCountStats;
 import com.travel.entity.UserSpotFavorite;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
 
 /**
  * 用户景点收藏数据访问接口。
@@ -11,5 +21,20 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface UserSpotFavoriteMapper extends BaseMapper<UserSpotFavorite> {
-}
 
+    /**
+     * 流式读取收藏行为，供离线交互矩阵逐行累加。
+     *
+     * @param queryWrapper 查询条件
+     * @param handler 逐行处理回调
+     */
+    @Select("SELECT user_id, spot_id FROM user_spot_favorite ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    void streamInteractions(@Param(Constants.WRAPPER) Wrapper<UserSpotFavorite> queryWrapper, ResultHandler<UserSpotFavorite> handler);
+
+    /**
+     * 按景点分组统计有效收藏数，供热度全量重算一次性取回全部景点的收藏计数。
+     */
+    @Select("SELECT spot_id, COUNT(*) AS behavior_count FROM user_spot_favorite WHERE is_deleted = 0 GROUP BY spot_id")
+    List<SpotBehaviorCountStats> selectFavoriteCountsBySpot();
+}
@@ -1,10 +1,17 @@
 package com.travel.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.travel.dto.home.item.RecentViewedSpotItem;
+import com.travel.dto.spot.stats.SpotBehaviorCountStats;
 import com.travel.entity.UserSpotView;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,4 +33,30 @@ public interface UserSpotViewMapper extends BaseMapper<UserSpotView> {
      */
     List<RecentViewedSpotItem> selectRecentViewedSpots(@Param("startTime") LocalDateTime startTime,
                                                        @Param("limit") Integer limit);
+
+    /**
+     * 流式读取浏览行为，供离线交互矩阵逐行累加。
+     * <p>
+     * fetchSize 取 Integer.MIN_VALUE 让 MySQL 驱动逐行返回结果，避免整表结果集先落到内存。
+     *
+     * @param queryWrapper 查询条件
+     * @param handler 逐行处理回调
+     */
+    @Select("SELECT user_id, spot_id, view_source, view_duration FROM user_spot_view ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    void streamInteractions(@Param(Constants.WRAPPER) Wrapper<UserSpotView> queryWrapper, ResultHandler<UserSpotView> handler);
+
+    /**
+     * 按景点分组统计浏览次数，供热度全量重算一次性取回全部景点的浏览计数。
+     */
+    @Select("SELECT spot_id, COUNT(*) AS behavior_count FROM user_spot_view GROUP BY spot_id")
+    List<SpotBehaviorCountStats> selectViewCountsBySpot();
+
+    /**
+     * 多行写入浏览记录，创建时间由调用方在采集时填入。
+     *
+     * @param views 浏览记录
+     * @return 写入行数
+     */
+    int insertBatch(@Param("views") List<UserSpotView> views);
 }
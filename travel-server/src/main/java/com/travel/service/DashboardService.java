@@ -19,6 +19,20 @@ public interface DashboardService {
      */
     DashboardOverviewResponse getOverview();
 
+    /**
+     * 立即重算仪表板快照，同一实例内按最小间隔限流。
+     *
+     * @return 重算后的概览数据
+     */
+    DashboardOverviewResponse refreshSnapshotManually();
+
+    /**
+     * 有管理员近期查看时重算仪表板快照，供定时任务调用。
+     *
+     * @return 是否执行了重算
+     */
+    boolean refreshSnapshotIfActive();
+
     /**
      * 获取订单趋势统计。
      *
@@ -44,4 +44,14 @@ public interface FavoriteService {
      * @return 收藏分页结果
      */
     PageResult<SpotListResponse> getFavoriteList(Long userId, Integer page, Integer pageSize);
+
+    /**
+     * 按游标获取当前用户收藏列表，不统计总数，供小程序无限滚动使用。
+     *
+     * @param userId 当前登录用户 ID
+     * @param cursor 上一页返回的游标，首页传空字符串
+     * @param pageSize 每页条数
+     * @return 游标模式的收藏分页结果
+     */
+    PageResult<SpotListResponse> getFavoriteListByCursor(Long userId, String cursor, Integer pageSize);
 }
@@ -101,6 +101,11 @@ public interface RecommendationService {
      */
     void updateSimilarityMatrix();
 
+    /**
+     * 按行为增量更新景点相似度矩阵；增量基线不可用时退回全量重建。
+     */
+    void updateSimilarityMatrixIncrementally();
+
     /**
      * 获取当前推荐配置。
      *
@@ -0,0 +1,18 @@
+package com.travel.service;
+
+import com.travel.dto.monitor.response.SlowRequestsResponse;
+
+/**
+ * 请求监控服务接口。
+ * <p>
+ * 定义后台查看接口慢请求记录的能力。
+ */
+public interface RequestMonitorService {
+
+    /**
+     * 获取最近窗口内最慢的请求。
+     *
+     * @return 慢请求记录，按总耗时倒序
+     */
+    SlowRequestsResponse getSlowRequests();
+}
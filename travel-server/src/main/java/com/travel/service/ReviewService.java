@@ -58,6 +58,16 @@ public interface ReviewService {
      */
     PageResult<ReviewResponse> getUserReviews(Long userId, Integer page, Integer pageSize);
 
+    /**
+     * 按游标获取当前用户发布的评价列表，按创建时间倒序、不统计总数，供小程序无限滚动使用。
+     *
+     * @param userId 当前登录用户 ID
+     * @param cursor 上一页返回的游标，首页传空字符串
+     * @param pageSize 每页条数
+     * @return 游标模式的用户评价分页结果
+     */
+    PageResult<ReviewResponse> getUserReviewsByCursor(Long userId, String cursor, Integer pageSize);
+
     /**
      * 删除当前用户自己的评价记录。
      *
@@ -18,4 +18,11 @@ public interface SpotHeatService {
      * 重算全部景点热度。
      */
     void refreshAllSpotHeat();
+
+    /**
+     * 把实时累计的行为增量刷写到热度分。
+     *
+     * @return 本次刷写的景点数
+     */
+    int flushHeatDeltas();
 }
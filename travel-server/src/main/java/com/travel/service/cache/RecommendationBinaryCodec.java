@@ -0,0 +1,468 @@
+package com.travel.service.cache;
+
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
+import com.travel.dto.recommendation.cache.UserRecommendationCacheDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 推荐缓存的紧凑二进制编解码。
+ * <p>
+ * 用户推荐结果和景点相似度都是“景点 ID + 分数”的有序列表，JSON 序列化会为每个值写入类型信息，
+ * 读取时还要做宽松类型转换。这里改为固定格式：ID 使用无符号变长整数，分数使用 4 字节 float，
+ * 头部带魔数与格式类型；格式不匹配的旧值（例如切换前写入的 JSON）按缓存未命中处理。
+ * 用户行为画像沿用同一套格式，浏览来源只有少量取值，以字典序号代替逐条写字符串。
+ */
+public final class RecommendationBinaryCodec {
+
+    private static final byte MAGIC = (byte) 0xB7;
+    private static final byte TYPE_SCORE_LIST = 1;
+    private static final byte TYPE_USER_RECOMMENDATION = 2;
+    private static final byte TYPE_BEHAVIOR_PROFILE = 3;
+
+    private static final int FLAG_NEED_PREFERENCE_PRESENT = 1;
+    private static final int FLAG_NEED_PREFERENCE = 1 << 1;
+    private static final int FLAG_TYPE_PRESENT = 1 << 2;
+    private static final int FLAG_GENERATED_AT_PRESENT = 1 << 3;
+
+    /**
+     * 工具类不允许实例化。
+     */
+    private RecommendationBinaryCodec() {
+    }
+
+    /**
+     * 编码景点 ID 到分数的有序映射，保留迭代顺序。
+     *
+     * @param scores 景点 ID 到分数的映射
+     * @return 编码结果
+     */
+    public static byte[] encodeScores(Map<Long, Double> scores) {
+        Writer writer = new Writer(3 + scores.size() * 9);
+        writer.writeByte(MAGIC);
+        writer.writeByte(TYPE_SCORE_LIST);
+        int count = 0;
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                count++;
+            }
+        }
+        writer.writeVarLong(count);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                writer.writeVarLong(entry.getKey());
+                writer.writeFloat(entry.getValue().floatValue());
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * 解码景点分数列表为原始类型数组。
+     *
+     * @param bytes 编码结果
+     * @return 分数列表；值为空或格式不匹配时返回 null
+     */
+    public static ScoreEntries decodeScoreEntries(byte[] bytes) {
+        Reader reader = Reader.open(bytes, TYPE_SCORE_LIST);
+        if (reader == null) {
+            return null;
+        }
+        try {
+            int count = reader.readCount();
+            long[] ids = new long[count];
+            double[] scores = new double[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = reader.readVarLong();
+                scores[i] = reader.readFloat();
+            }
+            return new ScoreEntries(ids, scores, count);
+        } catch (IndexOutOfBoundsException e) {
+            // 截断或损坏的值按未命中处理，由调用方重新计算。
+            return null;
+        }
+    }
+
+    /**
+     * 解码景点分数列表为有序映射。
+     *
+     * @param bytes 编码结果
+     * @return 景点 ID 到分数的映射；值为空或格式不匹配时返回 null
+     */
+    public static Map<Long, Double> decodeScores(byte[] bytes) {
+        ScoreEntries entries = decodeScoreEntries(bytes);
+        return entries == null ? null : entries.toMap();
+    }
+
+    /**
+     * 编码用户推荐缓存。
+     *
+     * @param cache 用户推荐缓存对象
+     * @return 编码结果
+     */
+    public static byte[] encodeUserRecommendation(UserRecommendationCacheDTO cache) {
+        List<UserRecommendationCacheDTO.CacheItem> items = cache.getItems() == null ? List.of() : cache.getItems();
+        byte[] type = cache.getType() == null ? null : cache.getType().getBytes(StandardCharsets.UTF_8);
+        Writer writer = new Writer(16 + (type == null ? 0 : type.length) + items.size() * 9);
+        writer.writeByte(MAGIC);
+        writer.writeByte(TYPE_USER_RECOMMENDATION);
+
+        int flags = 0;
+        if (cache.getNeedPreference() != null) {
+            flags |= FLAG_NEED_PREFERENCE_PRESENT;
+            if (cache.getNeedPreference()) {
+                flags |= FLAG_NEED_PREFERENCE;
+            }
+        }
+        if (type != null) {
+            flags |= FLAG_TYPE_PRESENT;
+        }
+        if (cache.getGeneratedAt() != null) {
+            flags |= FLAG_GENERATED_AT_PRESENT;
+        }
+        writer.writeByte((byte) flags);
+        if (type != null) {
+            writer.writeVarLong(type.length);
+            writer.writeBytes(type);
+        }
+        if (cache.getGeneratedAt() != null) {
+            writer.writeVarLong(cache.getGeneratedAt());
+        }
+
+        writer.writeVarLong(items.size());
+        for (UserRecommendationCacheDTO.CacheItem item : items) {
+            // 景点 ID 从 1 开始，0 用来表示空值；空分数用 NaN 表示。
+            writer.writeVarLong(item.getSpotId() == null ? 0 : item.getSpotId());
+            writer.writeFloat(item.getScore() == null ? Float.NaN : item.getScore().floatValue());
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * 解码用户推荐缓存。
+     *
+     * @param bytes 编码结果
+     * @return 用户推荐缓存对象；值为空或格式不匹配时返回 null
+     */
+    public static UserRecommendationCacheDTO decodeUserRecommendation(byte[] bytes) {
+        Reader reader = Reader.open(bytes, TYPE_USER_RECOMMENDATION);
+        if (reader == null) {
+            return null;
+        }
+        try {
+            UserRecommendationCacheDTO cache = new UserRecommendationCacheDTO();
+            int flags = reader.readByte();
+            if ((flags & FLAG_NEED_PREFERENCE_PRESENT) != 0) {
+                cache.setNeedPreference((flags & FLAG_NEED_PREFERENCE) != 0);
+            }
+            if ((flags & FLAG_TYPE_PRESENT) != 0) {
+                int length = reader.readCount();
+                cache.setType(reader.readString(length));
+            }
+            if ((flags & FLAG_GENERATED_AT_PRESENT) != 0) {
+                cache.setGeneratedAt(reader.readVarLong());
+            }
+
+            int count = reader.readCount();
+            List<UserRecommendationCacheDTO.CacheItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long spotId = reader.readVarLong();
+                float score = reader.readFloat();
+                UserRecommendationCacheDTO.CacheItem item = new UserRecommendationCacheDTO.CacheItem();
+                item.setSpotId(spotId == 0 ? null : spotId);
+                item.setScore(Float.isNaN(score) ? null : (double) score);
+                items.add(item);
+            }
+            cache.setItems(items);
+            return cache;
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 编码用户行为画像。
+     *
+     * @param profile 用户行为画像
+     * @return 编码结果
+     */
+    public static byte[] encodeBehaviorProfile(UserBehaviorProfileCacheDTO profile) {
+        List<UserBehaviorProfileCacheDTO.ViewItem> views = profile.getViews() == null ? List.of() : profile.getViews();
+        List<Long> favoriteSpotIds = profile.getFavoriteSpotIds() == null ? List.of() : profile.getFavoriteSpotIds();
+        List<UserBehaviorProfileCacheDTO.ReviewItem> reviews = profile.getReviews() == null ? List.of() : profile.getReviews();
+        List<UserBehaviorProfileCacheDTO.OrderItem> orders = profile.getOrders() == null ? List.of() : profile.getOrders();
+        Writer writer = new Writer(16 + views.size() * 5 + favoriteSpotIds.size() * 3 + (reviews.size() + orders.size()) * 4);
+        writer.writeByte(MAGIC);
+        writer.writeByte(TYPE_BEHAVIOR_PROFILE);
+        writer.writeByte((byte) (profile.getGeneratedAt() == null ? 0 : FLAG_GENERATED_AT_PRESENT));
+        if (profile.getGeneratedAt() != null) {
+            writer.writeVarLong(profile.getGeneratedAt());
+        }
+
+        // 浏览来源字典：序号 0 表示空来源，其余按首次出现顺序从 1 开始编号。
+        Map<String, Integer> sourceIndexes = new HashMap<>();
+        List<String> sources = new ArrayList<>();
+        for (UserBehaviorProfileCacheDTO.ViewItem view : views) {
+            if (view.getViewSource() != null && !sourceIndexes.containsKey(view.getViewSource())) {
+                sources.add(view.getViewSource());
+                sourceIndexes.put(view.getViewSource(), sources.size());
+            }
+        }
+        writer.writeVarLong(sources.size());
+        for (String source : sources) {
+            byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+            writer.writeVarLong(bytes.length);
+            writer.writeBytes(bytes);
+        }
+        writer.writeVarLong(views.size());
+        for (UserBehaviorProfileCacheDTO.ViewItem view : views) {
+            writer.writeVarLong(view.getSpotId() == null ? 0 : view.getSpotId());
+            writer.writeVarLong(view.getViewSource() == null ? 0 : sourceIndexes.get(view.getViewSource()));
+            writer.writeNullableInt(view.getViewDuration());
+        }
+
+        writer.writeVarLong(favoriteSpotIds.size());
+        for (Long spotId : favoriteSpotIds) {
+            writer.writeVarLong(spotId == null ? 0 : spotId);
+        }
+
+        writer.writeVarLong(reviews.size());
+        for (UserBehaviorProfileCacheDTO.ReviewItem review : reviews) {
+            writer.writeVarLong(review.getSpotId() == null ? 0 : review.getSpotId());
+            writer.writeNullableInt(review.getScore());
+        }
+
+        writer.writeVarLong(orders.size());
+        for (UserBehaviorProfileCacheDTO.OrderItem order : orders) {
+            writer.writeVarLong(order.getSpotId() == null ? 0 : order.getSpotId());
+            writer.writeNullableInt(order.getStatus());
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * 解码用户行为画像。
+     *
+     * @param bytes 编码结果
+     * @return 用户行为画像；值为空或格式不匹配时返回 null
+     */
+    public static UserBehaviorProfileCacheDTO decodeBehaviorProfile(byte[] bytes) {
+        Reader reader = Reader.open(bytes, TYPE_BEHAVIOR_PROFILE);
+        if (reader == null) {
+            return null;
+        }
+        try {
+            UserBehaviorProfileCacheDTO profile = new UserBehaviorProfileCacheDTO();
+            int flags = reader.readByte();
+            if ((flags & FLAG_GENERATED_AT_PRESENT) != 0) {
+                profile.setGeneratedAt(reader.readVarLong());
+            }
+
+            int sourceCount = reader.readCount();
+            String[] sources = new String[sourceCount + 1];
+            for (int i = 1; i <= sourceCount; i++) {
+                int length = reader.readCount();
+                sources[i] = reader.readString(length);
+            }
+            int viewCount = reader.readCount();
+            List<UserBehaviorProfileCacheDTO.ViewItem> views = new ArrayList<>(viewCount);
+            for (int i = 0; i < viewCount; i++) {
+                UserBehaviorProfileCacheDTO.ViewItem view = new UserBehaviorProfileCacheDTO.ViewItem();
+                view.setSpotId(toNullableId(reader.readVarLong()));
+                view.setViewSource(sources[(int) reader.readVarLong()]);
+                view.setViewDuration(reader.readNullableInt());
+                views.add(view);
+            }
+            profile.setViews(views);
+
+            int favoriteCount = reader.readCount();
+            List<Long> favoriteSpotIds = new ArrayList<>(favoriteCount);
+            for (int i = 0; i < favoriteCount; i++) {
+                favoriteSpotIds.add(toNullableId(reader.readVarLong()));
+            }
+            profile.setFavoriteSpotIds(favoriteSpotIds);
+
+            int reviewCount = reader.readCount();
+            List<UserBehaviorProfileCacheDTO.ReviewItem> reviews = new ArrayList<>(reviewCount);
+            for (int i = 0; i < reviewCount; i++) {
+                UserBehaviorProfileCacheDTO.ReviewItem review = new UserBehaviorProfileCacheDTO.ReviewItem();
+                review.setSpotId(toNullableId(reader.readVarLong()));
+                review.setScore(reader.readNullableInt());
+                reviews.add(review);
+            }
+            profile.setReviews(reviews);
+
+            int orderCount = reader.readCount();
+            List<UserBehaviorProfileCacheDTO.OrderItem> orders = new ArrayList<>(orderCount);
+            for (int i = 0; i < orderCount; i++) {
+                UserBehaviorProfileCacheDTO.OrderItem order = new UserBehaviorProfileCacheDTO.OrderItem();
+                order.setSpotId(toNullableId(reader.readVarLong()));
+                order.setStatus(reader.readNullableInt());
+                orders.add(order);
+            }
+            profile.setOrders(orders);
+            return profile;
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static Long toNullableId(long value) {
+        return value == 0 ? null : value;
+    }
+
+    /**
+     * 解码后的景点分数列表，按写入顺序保存景点 ID 与分数。
+     */
+    public record ScoreEntries(long[] ids, double[] scores, int size) {
+
+        /**
+         * 还原为有序映射，供非热点路径使用。
+         */
+        public Map<Long, Double> toMap() {
+            Map<Long, Double> map = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(ids[i], scores[i]);
+            }
+            return map;
+        }
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int initialCapacity) {
+            this.buffer = new byte[Math.max(initialCapacity, 16)];
+        }
+
+        private void writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        private void writeBytes(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        /**
+         * 无符号 LEB128：每字节低 7 位存数据，最高位表示后面还有字节。
+         */
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * 可空整数：0 表示空值，其余为 ZigZag 编码后加 1，负数同样保持短编码。
+         */
+        private void writeNullableInt(Integer value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong((((long) value << 1) ^ ((long) value >> 63)) + 1);
+        }
+
+        private void writeFloat(float value) {
+            ensureCapacity(4);
+            int bits = Float.floatToIntBits(value);
+            buffer[position++] = (byte) (bits >>> 24);
+            buffer[position++] = (byte) (bits >>> 16);
+            buffer[position++] = (byte) (bits >>> 8);
+            buffer[position++] = (byte) bits;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private static Reader open(byte[] bytes, byte type) {
+            if (bytes == null || bytes.length < 3 || bytes[0] != MAGIC || bytes[1] != type) {
+                return null;
+            }
+            return new Reader(bytes, 2);
+        }
+
+        private int readByte() {
+            return buffer[position++] & 0xFF;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = buffer[position++];
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+
+        /**
+         * 读取元素个数，并按剩余字节数做上限校验，避免损坏的值申请超大数组。
+         */
+        private int readCount() {
+            long count = readVarLong();
+            if (count < 0 || count > buffer.length - position) {
+                throw new IndexOutOfBoundsException("元素个数超出剩余长度：" + count);
+            }
+            return (int) count;
+        }
+
+        private Integer readNullableInt() {
+            long value = readVarLong();
+            if (value == 0) {
+                return null;
+            }
+            long zigzag = value - 1;
+            return (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+
+        private float readFloat() {
+            int bits = (buffer[position] & 0xFF) << 24
+                | (buffer[position + 1] & 0xFF) << 16
+                | (buffer[position + 2] & 0xFF) << 8
+                | (buffer[position + 3] & 0xFF);
+            position += 4;
+            return Float.intBitsToFloat(bits);
+        }
+
+        private String readString(int length) {
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
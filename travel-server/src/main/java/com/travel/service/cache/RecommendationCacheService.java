@@ -4,32 +4,100 @@ import com.travel.config.cache.AppCacheProperties;
 import com.travel.config.cache.RedisKeyManager;
 import com.travel.dto.banner.response.BannerResponse;
 import com.travel.dto.home.response.HotSpotResponse;
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
 import com.travel.dto.recommendation.cache.UserRecommendationCacheDTO;
 import com.travel.dto.recommendation.config.RecommendationAlgorithmConfigDTO;
 import com.travel.dto.recommendation.config.RecommendationCacheConfigDTO;
 import com.travel.dto.recommendation.config.RecommendationConfigBundleDTO;
 import com.travel.dto.recommendation.config.RecommendationHeatConfigDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 推荐缓存服务。
  * <p>
- * 负责管理推荐配置缓存、用户推荐结果缓存、景点相似度缓存以及推荐引擎状态缓存。
+ * 负责管理推荐配置缓存、用户推荐结果缓存、用户行为画像缓存、景点相似度缓存以及推荐引擎状态缓存。
+ * 用户推荐结果、行为画像与景点相似度使用 {@link RecommendationBinaryCodec} 编码后经字节数组模板读写，其余缓存仍为 JSON。
  */
 @Service
 @RequiredArgsConstructor
 public class RecommendationCacheService {
 
+    /**
+     * 进程内缓存相似度版本指针、内容戳与缓存代际号的时长。
+     */
+    private static final long POINTER_REFRESH_MILLIS = 5_000L;
+
+    /**
+     * 旧版本相似度在版本切换后的保留时长。
+     */
+    private static final long SIMILARITY_RETIRE_GRACE_SECONDS = 600L;
+
+    /**
+     * 后台清理旧代际缓存时每批删除的 Key 数。
+     */
+    private static final int SWEEP_DELETE_BATCH_SIZE = 500;
+
+    /**
+     * 版本号未变时才写入行为画像：KEYS[1] 为版本号，KEYS[2] 为画像；ARGV 依次为读取到的版本号、画像字节和过期秒数。
+     */
+    private static final RedisScript<Long> SAVE_BEHAVIOR_PROFILE_SCRIPT = new DefaultRedisScript<>(
+        "local current = redis.call('GET', KEYS[1]) or '0' "
+            + "if current ~= ARGV[1] then return 0 end "
+            + "redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3]) "
+            + "return 1",
+        Long.class
+    );
+
+    /**
+     * 递增行为画像版本号并删除画像：KEYS[1] 为版本号，KEYS[2] 为画像；ARGV[1] 为版本号的过期秒数。
+     */
+    private static final RedisScript<Long> EVICT_BEHAVIOR_PROFILE_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('INCR', KEYS[1]) "
+            + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+            + "return redis.call('DEL', KEYS[2])",
+        Long.class
+    );
+
+    /**
+     * 令牌匹配时才删除锁：KEYS[1] 为锁 Key；ARGV[1] 为加锁时写入的令牌。
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+            + "return 0",
+        Long.class
+    );
+
     // Redis 访问与默认配置依赖
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> redisBinaryTemplate;
     private final AppCacheProperties appCacheProperties;
 
+    private volatile CachedLong cachedSimilarityVersion;
+    private volatile CachedLong cachedSimilarityStamp;
+    private volatile CachedLong cachedUserRecommendationGeneration;
+    private volatile CachedLong cachedHomeHotSpotsGeneration;
+    private volatile CachedLong cachedSpotCatalogVersion;
+
     /**
      * 从 Redis 加载推荐配置，并与默认配置合并。
      *
@@ -71,8 +139,10 @@ public class RecommendationCacheService {
      * @return 推荐结果缓存对象；缓存不存在或结构不匹配时返回 null
      */
     public UserRecommendationCacheDTO getUserRecommendation(Long userId) {
-        Object cached = redisTemplate.opsForValue().get(RedisKeyManager.recommendationUser(userId));
-        return cached instanceof UserRecommendationCacheDTO recommendationCache ? recommendationCache : null;
+        byte[] cached = redisBinaryTemplate.opsForValue().get(
+            RedisKeyManager.recommendationUser(getUserRecommendationGeneration(false), userId)
+        );
+        return RecommendationBinaryCodec.decodeUserRecommendation(cached);
     }
 
     /**
@@ -83,9 +153,9 @@ public class RecommendationCacheService {
      * @param ttlMinutes 过期时间（分钟）
      */
     public void saveUserRecommendation(Long userId, UserRecommendationCacheDTO recommendationCache, long ttlMinutes) {
-        redisTemplate.opsForValue().set(
-            RedisKeyManager.recommendationUser(userId),
-            recommendationCache,
+        redisBinaryTemplate.opsForValue().set(
+            RedisKeyManager.recommendationUser(getUserRecommendationGeneration(false), userId),
+            RecommendationBinaryCodec.encodeUserRecommendation(recommendationCache),
             ttlMinutes,
             TimeUnit.MINUTES
         );
@@ -97,42 +167,359 @@ public class RecommendationCacheService {
      * @param userId 用户 ID
      */
     public void deleteUserRecommendation(Long userId) {
-        redisTemplate.delete(RedisKeyManager.recommendationUser(userId));
+        // 单用户失效跟随每次行为写入，不为此再读一次代际号：沿用进程内缓存的代际，
+        // 连同前后相邻代际一次 DEL 删除，覆盖本实例或其他实例的代际缓存尚未跟上切换的情况。
+        long generation = getUserRecommendationGeneration(false);
+        Set<String> keys = new LinkedHashSet<>(4);
+        for (long candidate = generation - 1; candidate <= generation + 1; candidate++) {
+            keys.add(RedisKeyManager.recommendationUser(candidate, userId));
+        }
+        redisTemplate.delete(keys);
     }
 
     /**
-     * 删除所有用户推荐结果缓存。
+     * 获取指定用户的行为画像缓存。
+     *
+     * @param userId 用户 ID
+     * @return 用户行为画像；缓存不存在或结构不匹配时返回 null
+     */
+    public UserBehaviorProfileCacheDTO getBehaviorProfile(Long userId) {
+        return RecommendationBinaryCodec.decodeBehaviorProfile(
+            redisBinaryTemplate.opsForValue().get(RedisKeyManager.recommendationBehaviorProfile(userId))
+        );
+    }
+
+    /**
+     * 获取用户行为画像版本号，查询数据库之前读取，回写时作为比对依据。
+     *
+     * @param userId 用户 ID
+     * @return 版本号；从未失效过时返回 0
+     */
+    public long getBehaviorProfileVersion(Long userId) {
+        byte[] raw = redisBinaryTemplate.opsForValue().get(RedisKeyManager.recommendationBehaviorProfileVersion(userId));
+        return raw == null ? 0L : Long.parseLong(new String(raw, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 版本号仍为查询前读取的值时保存用户行为画像，比对和写入在一个脚本内原子完成。
+     * <p>
+     * 查询期间画像被失效时版本号已递增，这份按旧数据汇总的画像不再写回，避免覆盖失效结果。
+     *
+     * @param userId 用户 ID
+     * @param expectedVersion 查询前读取的版本号
+     * @param profile 用户行为画像
+     * @param ttlMinutes 过期时间（分钟）
+     * @return 是否写入
+     */
+    public boolean saveBehaviorProfile(Long userId, long expectedVersion, UserBehaviorProfileCacheDTO profile, long ttlMinutes) {
+        Long saved = redisBinaryTemplate.execute(
+            SAVE_BEHAVIOR_PROFILE_SCRIPT,
+            List.of(RedisKeyManager.recommendationBehaviorProfileVersion(userId), RedisKeyManager.recommendationBehaviorProfile(userId)),
+            Long.toString(expectedVersion).getBytes(StandardCharsets.UTF_8),
+            RecommendationBinaryCodec.encodeBehaviorProfile(profile),
+            Long.toString(TimeUnit.MINUTES.toSeconds(ttlMinutes)).getBytes(StandardCharsets.UTF_8)
+        );
+        return saved != null && saved == 1L;
+    }
+
+    /**
+     * 删除用户行为画像缓存，同时递增画像版本号，令查询中的旧画像无法写回。
+     *
+     * @param userId 用户 ID
+     */
+    public void deleteBehaviorProfile(Long userId) {
+        // 版本号只需覆盖进行中的查询，随画像 TTL 过期即可，不为每个用户永久保留。
+        long ttlSeconds = TimeUnit.MINUTES.toSeconds(
+            Math.max(defaultInt(appCacheProperties.getRecommendation().getBehaviorProfileTtlMinutes(), 30), 1));
+        redisBinaryTemplate.execute(
+            EVICT_BEHAVIOR_PROFILE_SCRIPT,
+            List.of(RedisKeyManager.recommendationBehaviorProfileVersion(userId), RedisKeyManager.recommendationBehaviorProfile(userId)),
+            Long.toString(ttlSeconds).getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * 使所有用户推荐结果缓存失效。
+     * <p>
+     * 只递增代际号，O(1) 完成；旧代际的 Key 不再被读取，按 TTL 自然过期，也可由后台清理任务提前删除。
+     * 其他实例最多在代际号的进程内缓存时长后读到新代际。
      */
     public void deleteAllUserRecommendations() {
-        Set<String> keys = redisTemplate.keys("waytrip:recommendation:user:*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
-        }
+        long generation = bumpGeneration(RedisKeyManager.recommendationUserGeneration());
+        cachedUserRecommendationGeneration = new CachedLong(generation, System.currentTimeMillis());
     }
 
     /**
-     * 获取指定景点的相似度缓存。
+     * 删除非当前代际的用户推荐缓存，使用 SCAN 分批扫描，不阻塞 Redis。
      *
-     * @param spotId 景点 ID
-     * @return 相似度缓存对象；通常为 {@code Map<Long, Double>}
+     * @return 删除的 Key 数
      */
-    public Object getSimilarity(Long spotId) {
-        return redisTemplate.opsForValue().get(RedisKeyManager.recommendationSimilarity(spotId));
+    public long sweepStaleUserRecommendations() {
+        return sweepStaleGenerations(
+            RedisKeyManager.recommendationUserPattern(),
+            RedisKeyManager.recommendationUserPrefix(getUserRecommendationGeneration(true))
+        );
     }
 
     /**
-     * 保存景点相似度数据到 Redis。
+     * 获取指定景点的相似度缓存，读取当前生效版本下的邻居结果。
      *
      * @param spotId 景点 ID
-     * @param similarities 相似度映射（其他景点 ID -> 相似度分数）
+     * @return 相似景点 ID 到相似度的有序映射；缓存不存在时返回 null
+     */
+    public Map<Long, Double> getSimilarity(Long spotId) {
+        return RecommendationBinaryCodec.decodeScores(
+            redisBinaryTemplate.opsForValue().get(RedisKeyManager.recommendationSimilarity(getCurrentSimilarityVersion(), spotId))
+        );
+    }
+
+    /**
+     * 获取当前生效的相似度矩阵版本号。
+     * <p>
+     * 版本指针在进程内缓存几秒，避免每次读取相似度都多一次往返；本进程发布新版本时会立即刷新。
+     *
+     * @return 当前版本号；尚未发布过版本时返回 0
+     */
+    public long getCurrentSimilarityVersion() {
+        CachedLong cached = cachedSimilarityVersion;
+        if (cached != null && cached.isFresh()) {
+            return cached.value();
+        }
+        long version = toLong(redisTemplate.opsForValue().get(RedisKeyManager.recommendationSimilarityCurrentVersion()));
+        cachedSimilarityVersion = new CachedLong(version, System.currentTimeMillis());
+        return version;
+    }
+
+    /**
+     * 批量读取指定版本下多个景点的相似度缓存，一次 MGET 完成。
+     * <p>
+     * 版本由调用方传入，近端缓存据此把读到的邻居与版本号绑定，避免内容戳与版本指针各自刷新时混用两代结果。
+     *
+     * @param version 相似度矩阵版本号，通常取自 {@link #getCurrentSimilarityVersion()}
+     * @param spotIds 景点 ID 列表
+     * @return 与入参顺序一致的解码结果列表，未命中位置为 null
+     */
+    public List<RecommendationBinaryCodec.ScoreEntries> getSimilarities(long version, List<Long> spotIds) {
+        if (spotIds == null || spotIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> keys = spotIds.stream()
+            .map(spotId -> RedisKeyManager.recommendationSimilarity(version, spotId))
+            .toList();
+        List<byte[]> values = redisBinaryTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return Collections.nCopies(spotIds.size(), null);
+        }
+        List<RecommendationBinaryCodec.ScoreEntries> decoded = new ArrayList<>(values.size());
+        for (byte[] value : values) {
+            decoded.add(RecommendationBinaryCodec.decodeScoreEntries(value));
+        }
+        return decoded;
+    }
+
+    /**
+     * 获取相似度矩阵的内容戳。
+     * <p>
+     * 全量发布和增量覆盖都会刷新内容戳，进程内的相似度近端缓存据此整体失效；读取结果同样在进程内缓存几秒。
+     *
+     * @return 内容戳；尚未写入时返回 0
+     */
+    public long getSimilarityStamp() {
+        CachedLong cached = cachedSimilarityStamp;
+        if (cached != null && cached.isFresh()) {
+            return cached.value();
+        }
+        long stamp = toLong(redisTemplate.opsForValue().get(RedisKeyManager.recommendationSimilarityStamp()));
+        cachedSimilarityStamp = new CachedLong(stamp, System.currentTimeMillis());
+        return stamp;
+    }
+
+    /**
+     * 写入新的相似度矩阵内容戳。
+     *
+     * @param stamp 内容戳
+     */
+    public void saveSimilarityStamp(long stamp) {
+        redisTemplate.opsForValue().set(RedisKeyManager.recommendationSimilarityStamp(), stamp);
+        cachedSimilarityStamp = new CachedLong(stamp, System.currentTimeMillis());
+    }
+
+    /**
+     * 分配一个新的相似度矩阵版本号，全量重建先写入该版本，写完后再发布。
+     *
+     * @return 新版本号
+     */
+    public long nextSimilarityVersion() {
+        Long version = redisTemplate.opsForValue().increment(RedisKeyManager.recommendationSimilarityVersionSequence());
+        return version == null ? System.currentTimeMillis() : version;
+    }
+
+    /**
+     * 按批次管道写入指定版本的景点相似度，每批共用一次往返。
+     *
+     * @param version 相似度矩阵版本号
+     * @param neighbors 景点 ID 到相似邻居的映射
      * @param ttlHours 过期时间（小时）
      */
-    public void saveSimilarity(Long spotId, Map<Long, Double> similarities, long ttlHours) {
-        redisTemplate.opsForValue().set(
-            RedisKeyManager.recommendationSimilarity(spotId),
-            similarities,
-            ttlHours,
-            TimeUnit.HOURS
+    public void saveSimilarityBatch(long version, Map<Long, Map<Long, Double>> neighbors, long ttlHours) {
+        if (neighbors == null || neighbors.isEmpty()) {
+            return;
+        }
+        int batchSize = Math.max(defaultInt(appCacheProperties.getRecommendation().getSimilarityWriteBatchSize(), 500), 1);
+        List<Map.Entry<Long, Map<Long, Double>>> entries = new ArrayList<>(neighbors.entrySet());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Long, Map<Long, Double>>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            redisBinaryTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, byte[]> redisOperations = (RedisOperations<String, byte[]>) operations;
+                    for (Map.Entry<Long, Map<Long, Double>> entry : batch) {
+                        redisOperations.opsForValue().set(
+                            RedisKeyManager.recommendationSimilarity(version, entry.getKey()),
+                            RecommendationBinaryCodec.encodeScores(entry.getValue()),
+                            ttlHours,
+                            TimeUnit.HOURS
+                        );
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    /**
+     * 原子切换相似度矩阵版本指针，并让上一版本在宽限期后过期。
+     * <p>
+     * 读者要么读到完整的旧版本，要么读到完整的新版本；旧版本保留一段宽限期，覆盖切换瞬间仍持有旧指针的读取。
+     *
+     * @param version 新版本号
+     */
+    public void publishSimilarityVersion(long version) {
+        Object previous = redisTemplate.opsForValue().getAndSet(RedisKeyManager.recommendationSimilarityCurrentVersion(), version);
+        cachedSimilarityVersion = new CachedLong(version, System.currentTimeMillis());
+        long previousVersion = toLong(previous);
+        if (previousVersion > 0 && previousVersion != version) {
+            expireSimilarityVersion(previousVersion, SIMILARITY_RETIRE_GRACE_SECONDS);
+        }
+    }
+
+    /**
+     * 批量续期当前版本的景点相似度缓存，供增量更新时保留未变化景点的邻居结果。
+     *
+     * @param spotIds 景点 ID 集合
+     * @param ttlHours 过期时间（小时）
+     */
+    public void refreshSimilarityTtl(Collection<Long> spotIds, long ttlHours) {
+        if (spotIds == null || spotIds.isEmpty()) {
+            return;
+        }
+        long version = getCurrentSimilarityVersion();
+        long ttlSeconds = TimeUnit.HOURS.toSeconds(ttlHours);
+        // 续期只需要 EXPIRE，管道化后所有景点共用一次往返。
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long spotId : spotIds) {
+                connection.keyCommands().expire(
+                    RedisKeyManager.recommendationSimilarity(version, spotId).getBytes(StandardCharsets.UTF_8),
+                    ttlSeconds
+                );
+            }
+            return null;
+        });
+    }
+
+    private void expireSimilarityVersion(long version, long ttlSeconds) {
+        List<byte[]> keys = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> {
+            List<byte[]> matched = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisKeyManager.recommendationSimilarityPattern(version))
+                .count(1000)
+                .build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                cursor.forEachRemaining(matched::add);
+            }
+            return matched;
+        });
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            keys.forEach(key -> connection.keyCommands().expire(key, ttlSeconds));
+            return null;
+        });
+    }
+
+    /**
+     * 保存相似度矩阵增量水位线。
+     *
+     * @param watermarkMillis 水位线毫秒时间戳
+     */
+    public void saveMatrixWatermark(long watermarkMillis) {
+        redisTemplate.opsForValue().set(RedisKeyManager.recommendationMatrixWatermark(), watermarkMillis);
+    }
+
+    /**
+     * 获取相似度矩阵增量水位线。
+     *
+     * @return 水位线毫秒时间戳；尚未保存过时返回 0
+     */
+    public long getMatrixWatermark() {
+        return toLong(redisTemplate.opsForValue().get(RedisKeyManager.recommendationMatrixWatermark()));
+    }
+
+    /**
+     * 保存相似度增量基线指纹，进程重启后据此判断能否在当前相似度结果上继续增量。
+     *
+     * @param fingerprint 基线指纹
+     */
+    public void saveMatrixFingerprint(String fingerprint) {
+        redisTemplate.opsForValue().set(RedisKeyManager.recommendationMatrixFingerprint(), fingerprint);
+    }
+
+    /**
+     * 获取相似度增量基线指纹。
+     *
+     * @return 基线指纹；不存在时返回 null
+     */
+    public String getMatrixFingerprint() {
+        Object fingerprint = redisTemplate.opsForValue().get(RedisKeyManager.recommendationMatrixFingerprint());
+        return fingerprint == null ? null : fingerprint.toString();
+    }
+
+    /**
+     * 删除相似度增量基线指纹，全量重建未建立增量基线时调用。
+     */
+    public void deleteMatrixFingerprint() {
+        redisTemplate.delete(RedisKeyManager.recommendationMatrixFingerprint());
+    }
+
+    /**
+     * 尝试获取相似度矩阵计算锁，锁按配置时长自动过期，避免持有实例异常退出后永久占用。
+     *
+     * @return 加锁成功时返回本次持有令牌，释放时需原样传回；锁已被其他实例持有时返回 null
+     */
+    public String tryLockSimilarityMatrix() {
+        String token = UUID.randomUUID().toString();
+        long ttlMinutes = Math.max(defaultInt(appCacheProperties.getRecommendation().getSimilarityLockTtlMinutes(), 60), 1);
+        Boolean locked = redisBinaryTemplate.opsForValue().setIfAbsent(
+            RedisKeyManager.recommendationMatrixLock(),
+            token.getBytes(StandardCharsets.UTF_8),
+            ttlMinutes,
+            TimeUnit.MINUTES
+        );
+        return Boolean.TRUE.equals(locked) ? token : null;
+    }
+
+    /**
+     * 释放相似度矩阵计算锁；锁已过期并被其他实例重新持有时令牌不匹配，不会误删。
+     *
+     * @param token 加锁时返回的令牌
+     */
+    public void unlockSimilarityMatrix(String token) {
+        redisBinaryTemplate.execute(
+            RELEASE_LOCK_SCRIPT,
+            List.of(RedisKeyManager.recommendationMatrixLock()),
+            token.getBytes(StandardCharsets.UTF_8)
         );
     }
 
@@ -161,7 +548,7 @@ public class RecommendationCacheService {
      * @return 首页热门景点响应；缓存不存在或类型不匹配时返回 null
      */
     public HotSpotResponse getHomeHotSpots(Integer limit) {
-        Object cached = redisTemplate.opsForValue().get(RedisKeyManager.homeHotSpots(limit));
+        Object cached = redisTemplate.opsForValue().get(RedisKeyManager.homeHotSpots(getHomeHotSpotsGeneration(false), limit));
         return cached instanceof HotSpotResponse response ? response : null;
     }
 
@@ -173,7 +560,7 @@ public class RecommendationCacheService {
      */
     public void saveHomeHotSpots(Integer limit, HotSpotResponse response) {
         redisTemplate.opsForValue().set(
-            RedisKeyManager.homeHotSpots(limit),
+            RedisKeyManager.homeHotSpots(getHomeHotSpotsGeneration(false), limit),
             response,
             defaultInt(appCacheProperties.getHome().getHotSpotsTtlMinutes(), 10),
             TimeUnit.MINUTES
@@ -181,13 +568,50 @@ public class RecommendationCacheService {
     }
 
     /**
-     * 清理首页热门景点缓存（按不同 limit 全量失效）。
+     * 清理首页热门景点缓存（按不同 limit 全量失效），做法与用户推荐缓存一致，只递增代际号。
      */
     public void deleteHomeHotSpots() {
-        Set<String> keys = redisTemplate.keys("waytrip:home:hot:*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+        long generation = bumpGeneration(RedisKeyManager.homeHotSpotsGeneration());
+        cachedHomeHotSpotsGeneration = new CachedLong(generation, System.currentTimeMillis());
+    }
+
+    /**
+     * 获取景点目录版本号，进程内缓存几秒，与相似度版本指针一致。
+     *
+     * @param refresh 是否跳过进程内缓存直接读取 Redis
+     * @return 景点目录版本号；从未变更过时返回 0
+     */
+    public long getSpotCatalogVersion(boolean refresh) {
+        CachedLong cached = cachedSpotCatalogVersion;
+        if (!refresh && cached != null && cached.isFresh()) {
+            return cached.value();
         }
+        long version = toLong(redisTemplate.opsForValue().get(RedisKeyManager.spotCatalogVersion()));
+        cachedSpotCatalogVersion = new CachedLong(version, System.currentTimeMillis());
+        return version;
+    }
+
+    /**
+     * 递增景点目录版本号，其他实例最多在进程内缓存时长后感知变更。
+     *
+     * @return 递增后的版本号
+     */
+    public long bumpSpotCatalogVersion() {
+        long version = bumpGeneration(RedisKeyManager.spotCatalogVersion());
+        cachedSpotCatalogVersion = new CachedLong(version, System.currentTimeMillis());
+        return version;
+    }
+
+    /**
+     * 删除非当前代际的首页热门景点缓存。
+     *
+     * @return 删除的 Key 数
+     */
+    public long sweepStaleHomeHotSpots() {
+        return sweepStaleGenerations(
+            RedisKeyManager.homeHotSpotsPattern(),
+            RedisKeyManager.homeHotSpotsPrefix(getHomeHotSpotsGeneration(true))
+        );
     }
 
     /**
@@ -326,6 +750,9 @@ public class RecommendationCacheService {
             if (map.containsKey("topKNeighbors")) config.setTopKNeighbors(toInt(map.get("topKNeighbors")));
             if (map.containsKey("candidateExpandFactor")) config.setCandidateExpandFactor(toInt(map.get("candidateExpandFactor")));
             if (map.containsKey("coldStartExpandFactor")) config.setColdStartExpandFactor(toInt(map.get("coldStartExpandFactor")));
+            if (map.get("similarityEngine") != null) config.setSimilarityEngine(map.get("similarityEngine").toString());
+            if (map.get("incrementalSimilarityEnabled") != null) config.setIncrementalSimilarityEnabled(Boolean.parseBoolean(map.get("incrementalSimilarityEnabled").toString()));
+            if (map.get("matrixLoader") != null) config.setMatrixLoader(map.get("matrixLoader").toString());
             return config;
         } catch (Exception e) {
             return null;
@@ -362,6 +789,8 @@ public class RecommendationCacheService {
             if (map.containsKey("heatOrderPaidIncrement")) config.setHeatOrderPaidIncrement(toInt(map.get("heatOrderPaidIncrement")));
             if (map.containsKey("heatOrderCompletedIncrement")) config.setHeatOrderCompletedIncrement(toInt(map.get("heatOrderCompletedIncrement")));
             if (map.containsKey("heatRerankFactor")) config.setHeatRerankFactor(toDouble(map.get("heatRerankFactor")));
+            if (map.get("heatRefreshMode") != null) config.setHeatRefreshMode(map.get("heatRefreshMode").toString());
+            if (map.containsKey("heatRefreshBatchSize")) config.setHeatRefreshBatchSize(toInt(map.get("heatRefreshBatchSize")));
             return config;
         } catch (Exception e) {
             return null;
@@ -449,6 +878,9 @@ public class RecommendationCacheService {
         if (source.getTopKNeighbors() != null) target.setTopKNeighbors(source.getTopKNeighbors());
         if (source.getCandidateExpandFactor() != null) target.setCandidateExpandFactor(source.getCandidateExpandFactor());
         if (source.getColdStartExpandFactor() != null) target.setColdStartExpandFactor(source.getColdStartExpandFactor());
+        if (source.getSimilarityEngine() != null) target.setSimilarityEngine(source.getSimilarityEngine());
+        if (source.getIncrementalSimilarityEnabled() != null) target.setIncrementalSimilarityEnabled(source.getIncrementalSimilarityEnabled());
+        if (source.getMatrixLoader() != null) target.setMatrixLoader(source.getMatrixLoader());
     }
 
     /**
@@ -467,6 +899,8 @@ public class RecommendationCacheService {
         if (source.getHeatOrderPaidIncrement() != null) target.setHeatOrderPaidIncrement(source.getHeatOrderPaidIncrement());
         if (source.getHeatOrderCompletedIncrement() != null) target.setHeatOrderCompletedIncrement(source.getHeatOrderCompletedIncrement());
         if (source.getHeatRerankFactor() != null) target.setHeatRerankFactor(source.getHeatRerankFactor());
+        if (source.getHeatRefreshMode() != null) target.setHeatRefreshMode(source.getHeatRefreshMode());
+        if (source.getHeatRefreshBatchSize() != null) target.setHeatRefreshBatchSize(source.getHeatRefreshBatchSize());
     }
 
     /**
@@ -549,4 +983,67 @@ public class RecommendationCacheService {
     private int defaultInt(Integer value, int fallback) {
         return value == null ? fallback : value;
     }
+
+    private long getUserRecommendationGeneration(boolean refresh) {
+        CachedLong cached = cachedUserRecommendationGeneration;
+        if (!refresh && cached != null && cached.isFresh()) {
+            return cached.value();
+        }
+        long generation = toLong(redisTemplate.opsForValue().get(RedisKeyManager.recommendationUserGeneration()));
+        cachedUserRecommendationGeneration = new CachedLong(generation, System.currentTimeMillis());
+        return generation;
+    }
+
+    private long getHomeHotSpotsGeneration(boolean refresh) {
+        CachedLong cached = cachedHomeHotSpotsGeneration;
+        if (!refresh && cached != null && cached.isFresh()) {
+            return cached.value();
+        }
+        long generation = toLong(redisTemplate.opsForValue().get(RedisKeyManager.homeHotSpotsGeneration()));
+        cachedHomeHotSpotsGeneration = new CachedLong(generation, System.currentTimeMillis());
+        return generation;
+    }
+
+    private long bumpGeneration(String generationKey) {
+        Long generation = redisTemplate.opsForValue().increment(generationKey);
+        return generation == null ? 0L : generation;
+    }
+
+    private long sweepStaleGenerations(String pattern, String currentPrefix) {
+        List<byte[]> staleKeys = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> {
+            List<byte[]> matched = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                cursor.forEachRemaining(key -> {
+                    if (!new String(key, StandardCharsets.UTF_8).startsWith(currentPrefix)) {
+                        matched.add(key);
+                    }
+                });
+            }
+            return matched;
+        });
+        if (staleKeys == null || staleKeys.isEmpty()) {
+            return 0;
+        }
+        for (int from = 0; from < staleKeys.size(); from += SWEEP_DELETE_BATCH_SIZE) {
+            byte[][] batch = staleKeys.subList(from, Math.min(from + SWEEP_DELETE_BATCH_SIZE, staleKeys.size())).toArray(new byte[0][]);
+            // UNLINK 在后台线程释放内存，删除大量旧 Key 时不阻塞主线程。
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().unlink(batch));
+        }
+        return staleKeys.size();
+    }
+
+    /**
+     * 将 Redis 中的数值读取结果转换为 long，缺失时返回 0。
+     */
+    private long toLong(Object v) {
+        return v instanceof Number n ? n.longValue() : 0L;
+    }
+
+    private record CachedLong(long value, long loadedAtMillis) {
+
+        private boolean isFresh() {
+            return System.currentTimeMillis() - loadedAtMillis < POINTER_REFRESH_MILLIS;
+        }
+    }
 }
@@ -12,6 +12,7 @@ import com.travel.dto.admin.request.AdminUpdateRequest;
 import com.travel.entity.Admin;
 import com.travel.mapper.AdminMapper;
 import com.travel.service.AdminManagementService;
+import com.travel.service.support.auth.PrincipalStatusCacheSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -33,6 +34,7 @@ public class AdminManagementServiceImpl implements AdminManagementService {
 
     private final AdminMapper adminMapper;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final PrincipalStatusCacheSupport principalStatusCacheSupport;
 
     // 管理端管理员查询与维护
 
@@ -106,6 +108,7 @@ public class AdminManagementServiceImpl implements AdminManagementService {
         admin.setRealName(request.getRealName().trim());
         admin.setIsEnabled(request.getStatus());
         adminMapper.updateById(admin);
+        principalStatusCacheSupport.invalidateAdmin(id);
         log.info("管理员信息更新：adminId={}, realName={}, status={}", id, request.getRealName(), request.getStatus());
     }
 
@@ -129,6 +132,7 @@ public class AdminManagementServiceImpl implements AdminManagementService {
         Admin admin = getActiveAdmin(id);
         admin.setIsDeleted(1);
         adminMapper.updateById(admin);
+        principalStatusCacheSupport.invalidateAdmin(id);
         log.info("管理员已删除：adminId={}, username={}", id, admin.getUsername());
     }
 
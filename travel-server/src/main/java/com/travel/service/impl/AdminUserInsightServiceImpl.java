@@ -15,6 +15,7 @@ import com.travel.dto.user.request.AdminUserViewListRequest;
 import com.travel.entity.*;
 import com.travel.mapper.*;
 import com.travel.service.AdminUserInsightService;
+import com.travel.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,6 +44,9 @@ public class AdminUserInsightServiceImpl implements AdminUserInsightService {
     private final UserSpotFavoriteMapper userSpotFavoriteMapper;
     private final UserSpotViewMapper userSpotViewMapper;
 
+    // 推荐缓存联动依赖
+    private final RecommendationService recommendationService;
+
     // 用户偏好查询
     @Override
     public PageResult<AdminUserPreferenceListItem> getPreferenceList(AdminUserPreferenceListRequest request) {
@@ -176,6 +180,7 @@ public class AdminUserInsightServiceImpl implements AdminUserInsightService {
 
         favorite.setIsDeleted(1);
         userSpotFavoriteMapper.updateById(favorite);
+        recommendationService.invalidateUserRecommendationCache(favorite.getUserId());
     }
 
     // 用户浏览查询与治理
@@ -227,6 +232,7 @@ public class AdminUserInsightServiceImpl implements AdminUserInsightService {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "浏览记录不存在");
         }
         userSpotViewMapper.deleteById(viewId);
+        recommendationService.invalidateUserRecommendationCache(view.getUserId());
     }
 
     // 列表项转换方法
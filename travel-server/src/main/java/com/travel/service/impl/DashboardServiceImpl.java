@@ -2,14 +2,28 @@ package com.travel.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.travel.common.constant.ResourceDisplayText;
+import com.travel.common.exception.BusinessException;
+import com.travel.common.result.ResultCode;
 import com.travel.dto.dashboard.response.DashboardOverviewResponse;
 import com.travel.dto.dashboard.response.HotSpotsResponse;
 import com.travel.dto.dashboard.response.OrderHeatmapResponse;
 import com.travel.dto.dashboard.response.OrderTrendResponse;
-import com.travel.entity.*;
+import com.travel.dto.dashboard.stats.DailyCountStats;
+import com.travel.dto.dashboard.stats.DailyOrderStats;
+import com.travel.dto.dashboard.stats.SpotOrderRevenueStats;
+import com.travel.dto.dashboard.stats.WeekdayOrderStats;
+import com.travel.entity.Spot;
+import com.travel.entity.User;
 import com.travel.enums.OrderStatus;
-import com.travel.mapper.*;
+import com.travel.mapper.OrderDailyStatsMapper;
+import com.travel.mapper.OrderMapper;
+import com.travel.mapper.OrderSpotStatsMapper;
+import com.travel.mapper.SpotMapper;
+import com.travel.mapper.UserMapper;
 import com.travel.service.DashboardService;
+import com.travel.service.support.dashboard.DashboardSnapshotSupport;
+import com.travel.service.support.order.OrderDailyStatsSupport;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,7 +31,9 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -35,11 +51,60 @@ public class DashboardServiceImpl implements DashboardService {
     private final UserMapper userMapper;
     private final SpotMapper spotMapper;
     private final OrderMapper orderMapper;
+    private final OrderDailyStatsMapper orderDailyStatsMapper;
+    private final OrderSpotStatsMapper orderSpotStatsMapper;
+    private final SpotCatalogSupport spotCatalogSupport;
+    private final DashboardSnapshotSupport dashboardSnapshotSupport;
+    private final OrderDailyStatsSupport orderDailyStatsSupport;
 
     // 概览与趋势统计
 
+    /**
+     * 概览直接读取进程内快照，快照由后台任务周期性重算。
+     */
     @Override
     public DashboardOverviewResponse getOverview() {
+        return dashboardSnapshotSupport.get(this::buildSnapshot).overview();
+    }
+
+    @Override
+    public DashboardOverviewResponse refreshSnapshotManually() {
+        if (!dashboardSnapshotSupport.tryAcquireManualRefresh()) {
+            throw new BusinessException(
+                ResultCode.REQUEST_TOO_FREQUENT,
+                "仪表板刷新过于频繁，请 " + dashboardSnapshotSupport.getManualRefreshMinIntervalSeconds() + " 秒后再试"
+            );
+        }
+        return dashboardSnapshotSupport.refresh(this::buildSnapshot).overview();
+    }
+
+    @Override
+    public boolean refreshSnapshotIfActive() {
+        if (dashboardSnapshotSupport.isIdle()) {
+            return false;
+        }
+        dashboardSnapshotSupport.refresh(this::buildSnapshot);
+        return true;
+    }
+
+    /**
+     * 一次性重算概览和热门景点，两者共用同一个生成时间。
+     */
+    private DashboardSnapshotSupport.Snapshot buildSnapshot() {
+        long generatedAtMillis = System.currentTimeMillis();
+        LocalDateTime generatedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(generatedAtMillis), ZoneId.systemDefault());
+
+        DashboardOverviewResponse overview = buildOverview();
+        overview.setGeneratedAt(generatedAt);
+        HotSpotsResponse hotSpots = buildHotSpots(dashboardSnapshotSupport.getHotSpotsSnapshotSize());
+        hotSpots.setGeneratedAt(generatedAt);
+        return new DashboardSnapshotSupport.Snapshot(overview, hotSpots, generatedAtMillis);
+    }
+
+    /**
+     * 概览订单指标全部读取订单日汇总表，查询量与订单历史规模无关；今日、昨日数据直接取自近 10 天序列。
+     */
+    private DashboardOverviewResponse buildOverview() {
         DashboardOverviewResponse response = new DashboardOverviewResponse();
 
         // 总用户数
@@ -54,63 +119,10 @@ public class DashboardServiceImpl implements DashboardService {
                 .eq(Spot::getIsDeleted, 0)
         ));
 
-        // 已取消订单不计入总订单统计口径。
-        List<Order> allOrders = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getIsDeleted, 0)
-                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
-        );
-        response.setTotalOrders((long) allOrders.size());
-        response.setTotalRevenue(sumRevenue(allOrders));
-
-        // 今日统计统一按自然日零点切分。
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime yesterdayStart = LocalDate.now().minusDays(1).atStartOfDay();
-        
-        List<Order> todayOrders = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getIsDeleted, 0)
-                .ge(Order::getCreatedAt, todayStart)
-                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
-        );
-        response.setTodayOrders((long) todayOrders.size());
-        response.setTodayRevenue(sumRevenue(todayOrders));
-
-        List<Order> yesterdayOrders = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getIsDeleted, 0)
-                .ge(Order::getCreatedAt, yesterdayStart)
-                .lt(Order::getCreatedAt, todayStart)
-                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
-        );
-        response.setYesterdayOrders((long) yesterdayOrders.size());
-        response.setYesterdayRevenue(sumRevenue(yesterdayOrders));
-
-        response.setTodayNewUsers(userMapper.selectCount(
-            new LambdaQueryWrapper<User>()
-                .eq(User::getIsDeleted, 0)
-                .ge(User::getCreatedAt, todayStart)
-        ));
-        response.setYesterdayNewUsers(userMapper.selectCount(
-            new LambdaQueryWrapper<User>()
-                .eq(User::getIsDeleted, 0)
-                .ge(User::getCreatedAt, yesterdayStart)
-                .lt(User::getCreatedAt, todayStart)
-        ));
-
-        response.setTodayNewSpots(spotMapper.selectCount(
-            new LambdaQueryWrapper<Spot>()
-                .eq(Spot::getIsPublished, 1)
-                .eq(Spot::getIsDeleted, 0)
-                .ge(Spot::getCreatedAt, todayStart)
-        ));
-        response.setYesterdayNewSpots(spotMapper.selectCount(
-            new LambdaQueryWrapper<Spot>()
-                .eq(Spot::getIsPublished, 1)
-                .eq(Spot::getIsDeleted, 0)
-                .ge(Spot::getCreatedAt, yesterdayStart)
-                .lt(Spot::getCreatedAt, todayStart)
-        ));
+        // 已取消订单不计入总订单统计口径，汇总表维护时已排除；累计汇总每个景点一行，不随天数增长。
+        DailyOrderStats totals = orderSpotStatsMapper.selectTotals();
+        response.setTotalOrders(totals == null ? 0L : nullToZero(totals.getOrderCount()));
+        response.setTotalRevenue(totals == null ? BigDecimal.ZERO : nullToZero(totals.getRevenue()));
 
         appendRecentSeries(response);
 
@@ -128,22 +140,14 @@ public class DashboardServiceImpl implements DashboardService {
             normalizedDays = "weekday".equalsIgnoreCase(mode) ? 0 : 7;
         }
 
-        LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<Order>()
-            .eq(Order::getIsDeleted, 0)
-            .ne(Order::getStatus, OrderStatus.CANCELLED.getCode());
-
-        if (normalizedDays > 0) {
-            LocalDate startDate = LocalDate.now().minusDays(normalizedDays - 1L);
-            queryWrapper.ge(Order::getCreatedAt, startDate.atStartOfDay());
-        }
-
-        List<Order> orders = orderMapper.selectList(queryWrapper);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = normalizedDays > 0 ? endDate.minusDays(normalizedDays - 1L) : null;
 
         if ("weekday".equalsIgnoreCase(mode)) {
-            return buildWeekdayTrendResponse(orders);
+            return buildWeekdayTrendResponse(loadWeekdayStats(startDate, endDate));
         }
 
-        return buildRangeTrendResponse(normalizedDays, orders);
+        return buildRangeTrendResponse(normalizedDays, loadDailyStats(startDate, endDate));
     }
 
     @Override
@@ -152,16 +156,7 @@ public class DashboardServiceImpl implements DashboardService {
         LocalDate startDate = LocalDate.of(targetYear, 1, 1);
         LocalDate endDate = startDate.withMonth(12).withDayOfMonth(31);
 
-        List<Order> orders = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getIsDeleted, 0)
-                .ge(Order::getCreatedAt, startDate.atStartOfDay())
-                .lt(Order::getCreatedAt, endDate.plusDays(1).atStartOfDay())
-                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
-        );
-
-        Map<LocalDate, Long> orderMap = orders.stream()
-            .collect(Collectors.groupingBy(order -> order.getCreatedAt().toLocalDate(), Collectors.counting()));
+        Map<LocalDate, DailyOrderStats> orderMap = toDateMap(loadDailyStats(startDate, endDate));
 
         List<OrderHeatmapResponse.HeatmapItem> list = new ArrayList<>();
         long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
@@ -169,7 +164,7 @@ public class DashboardServiceImpl implements DashboardService {
             LocalDate date = startDate.plusDays(i);
             list.add(new OrderHeatmapResponse.HeatmapItem(
                 date.format(DateTimeFormatter.ISO_DATE),
-                orderMap.getOrDefault(date, 0L)
+                orderCountOf(orderMap.get(date))
             ));
         }
 
@@ -182,9 +177,12 @@ public class DashboardServiceImpl implements DashboardService {
     /**
      * 周内聚合默认使用周一到周日固定顺序，避免和最近 7 天口径混淆。
      */
-    private OrderTrendResponse buildWeekdayTrendResponse(List<Order> orders) {
-        Map<DayOfWeek, List<Order>> ordersByWeekday = orders.stream()
-            .collect(Collectors.groupingBy(order -> order.getCreatedAt().getDayOfWeek()));
+    private OrderTrendResponse buildWeekdayTrendResponse(List<WeekdayOrderStats> weekdayStats) {
+        // 数据库已按星期分组，这里只把 DAYOFWEEK 口径换算成周一开头的顺序。
+        Map<DayOfWeek, WeekdayOrderStats> statsByWeekday = new EnumMap<>(DayOfWeek.class);
+        for (WeekdayOrderStats stats : weekdayStats) {
+            statsByWeekday.put(toDayOfWeek(stats.getDayOfWeek()), stats);
+        }
 
         List<OrderTrendResponse.TrendItem> list = new ArrayList<>();
         DayOfWeek[] weekdayOrder = {
@@ -198,11 +196,11 @@ public class DashboardServiceImpl implements DashboardService {
         };
 
         for (DayOfWeek dayOfWeek : weekdayOrder) {
-            List<Order> dayOrders = ordersByWeekday.getOrDefault(dayOfWeek, Collections.emptyList());
             OrderTrendResponse.TrendItem item = new OrderTrendResponse.TrendItem();
             item.setDate(resolveWeekdayLabel(dayOfWeek));
-            item.setOrderCount((long) dayOrders.size());
-            item.setRevenue(sumRevenue(dayOrders));
+            WeekdayOrderStats stats = statsByWeekday.get(dayOfWeek);
+            item.setOrderCount(stats == null ? 0L : nullToZero(stats.getOrderCount()));
+            item.setRevenue(stats == null ? BigDecimal.ZERO : nullToZero(stats.getRevenue()));
             list.add(item);
         }
 
@@ -214,27 +212,23 @@ public class DashboardServiceImpl implements DashboardService {
     /**
      * 日期区间统计按自然日补齐空值，保证折线在任意跨度下连续。
      */
-    private OrderTrendResponse buildRangeTrendResponse(Integer days, List<Order> orders) {
+    private OrderTrendResponse buildRangeTrendResponse(Integer days, List<DailyOrderStats> dailyStats) {
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = resolveRangeStartDate(days, orders, endDate);
+        LocalDate startDate = resolveRangeStartDate(days, dailyStats, endDate);
         long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
 
-        // 先按日期聚合，再补齐空日期，保证前端折线连续。
-        Map<String, List<Order>> ordersByDate = orders.stream()
-            .collect(Collectors.groupingBy(o -> 
-                o.getCreatedAt().toLocalDate().format(DateTimeFormatter.ISO_DATE)
-            ));
+        // 汇总表已按日期聚合，这里只补齐空日期，保证前端折线连续。
+        Map<LocalDate, DailyOrderStats> statsByDate = toDateMap(dailyStats);
 
         List<OrderTrendResponse.TrendItem> list = new ArrayList<>();
         for (long i = 0; i < totalDays; i++) {
             LocalDate date = startDate.plusDays(i);
-            String dateStr = date.format(DateTimeFormatter.ISO_DATE);
-            List<Order> dayOrders = ordersByDate.getOrDefault(dateStr, Collections.emptyList());
+            DailyOrderStats dayStats = statsByDate.get(date);
 
             OrderTrendResponse.TrendItem item = new OrderTrendResponse.TrendItem();
-            item.setDate(dateStr);
-            item.setOrderCount((long) dayOrders.size());
-            item.setRevenue(sumRevenue(dayOrders));
+            item.setDate(date.format(DateTimeFormatter.ISO_DATE));
+            item.setOrderCount(orderCountOf(dayStats));
+            item.setRevenue(revenueOf(dayStats));
             list.add(item);
         }
 
@@ -246,13 +240,15 @@ public class DashboardServiceImpl implements DashboardService {
     /**
      * 日期趋势支持固定天数，也支持从首笔订单到今天的完整区间。
      */
-    private LocalDate resolveRangeStartDate(Integer days, List<Order> orders, LocalDate endDate) {
+    private LocalDate resolveRangeStartDate(Integer days, List<DailyOrderStats> dailyStats, LocalDate endDate) {
         if (days != null && days > 0) {
             return endDate.minusDays(days - 1L);
         }
 
-        return orders.stream()
-            .map(order -> order.getCreatedAt().toLocalDate())
+        // 订单全部取消后汇总行仍保留但计数为 0，不能作为首笔订单日期。
+        return dailyStats.stream()
+            .filter(stats -> orderCountOf(stats) > 0)
+            .map(DailyOrderStats::getStatDate)
             .min(LocalDate::compareTo)
             .orElse(endDate);
     }
@@ -274,36 +270,16 @@ public class DashboardServiceImpl implements DashboardService {
 
     /**
      * 顶部卡片使用最近 10 天真实序列，统一在概览接口返回，避免前端再做多次拼装请求。
+     * 订单序列读汇总表，新增用户和景点按日期分组计数，今日、昨日卡片直接取序列末尾两天。
      */
     private void appendRecentSeries(DashboardOverviewResponse response) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(9);
         LocalDateTime startTime = startDate.atStartOfDay();
 
-        List<Order> recentOrders = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getIsDeleted, 0)
-                .ge(Order::getCreatedAt, startTime)
-                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
-        );
-        List<User> recentUsers = userMapper.selectList(
-            new LambdaQueryWrapper<User>()
-                .eq(User::getIsDeleted, 0)
-                .ge(User::getCreatedAt, startTime)
-        );
-        List<Spot> recentSpots = spotMapper.selectList(
-            new LambdaQueryWrapper<Spot>()
-                .eq(Spot::getIsPublished, 1)
-                .eq(Spot::getIsDeleted, 0)
-                .ge(Spot::getCreatedAt, startTime)
-        );
-
-        Map<LocalDate, List<Order>> orderMap = recentOrders.stream()
-            .collect(Collectors.groupingBy(order -> order.getCreatedAt().toLocalDate()));
-        Map<LocalDate, Long> userMap = recentUsers.stream()
-            .collect(Collectors.groupingBy(user -> user.getCreatedAt().toLocalDate(), Collectors.counting()));
-        Map<LocalDate, Long> spotMap = recentSpots.stream()
-            .collect(Collectors.groupingBy(spot -> spot.getCreatedAt().toLocalDate(), Collectors.counting()));
+        Map<LocalDate, DailyOrderStats> orderMap = toDateMap(orderDailyStatsMapper.selectDailyTotals(startDate, endDate));
+        Map<LocalDate, Long> userMap = toCountMap(userMapper.selectDailyNewUserCounts(startTime));
+        Map<LocalDate, Long> spotMap = toCountMap(spotMapper.selectDailyNewSpotCounts(startTime));
 
         List<BigDecimal> revenueSeries = new ArrayList<>();
         List<Long> orderSeries = new ArrayList<>();
@@ -312,9 +288,9 @@ public class DashboardServiceImpl implements DashboardService {
 
         for (int i = 0; i < 10; i++) {
             LocalDate date = startDate.plusDays(i);
-            List<Order> dayOrders = orderMap.getOrDefault(date, Collections.emptyList());
-            revenueSeries.add(sumRevenue(dayOrders));
-            orderSeries.add((long) dayOrders.size());
+            DailyOrderStats dayStats = orderMap.get(date);
+            revenueSeries.add(revenueOf(dayStats));
+            orderSeries.add(orderCountOf(dayStats));
             userSeries.add(userMap.getOrDefault(date, 0L));
             spotSeries.add(spotMap.getOrDefault(date, 0L));
         }
@@ -323,51 +299,64 @@ public class DashboardServiceImpl implements DashboardService {
         response.setRecentOrderSeries(orderSeries);
         response.setRecentUserSeries(userSeries);
         response.setRecentSpotSeries(spotSeries);
+
+        response.setTodayOrders(orderSeries.get(9));
+        response.setTodayRevenue(revenueSeries.get(9));
+        response.setYesterdayOrders(orderSeries.get(8));
+        response.setYesterdayRevenue(revenueSeries.get(8));
+        response.setTodayNewUsers(userSeries.get(9));
+        response.setYesterdayNewUsers(userSeries.get(8));
+        response.setTodayNewSpots(spotSeries.get(9));
+        response.setYesterdayNewSpots(spotSeries.get(8));
     }
 
     // 热门景点统计
 
+    /**
+     * 请求条数不超过快照预算条数时直接从快照截取，更大的条数按需实时统计。
+     */
     @Override
     public HotSpotsResponse getHotSpots(Integer limit) {
         if (limit == null || limit <= 0) limit = 10;
 
-        // 统计订单数量 (排除已取消的订单)
-        List<Order> orders = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getIsDeleted, 0)
-                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
-        );
-
-        Map<Long, List<Order>> ordersBySpot = orders.stream()
-            .collect(Collectors.groupingBy(Order::getSpotId));
+        if (limit <= dashboardSnapshotSupport.getHotSpotsSnapshotSize()) {
+            HotSpotsResponse cached = dashboardSnapshotSupport.get(this::buildSnapshot).hotSpots();
+            HotSpotsResponse response = new HotSpotsResponse();
+            response.setList(new ArrayList<>(cached.getList().subList(0, Math.min(limit, cached.getList().size()))));
+            response.setGeneratedAt(cached.getGeneratedAt());
+            return response;
+        }
 
-        // 获取景点信息
-        List<Spot> spots = spotMapper.selectList(
-            new LambdaQueryWrapper<Spot>()
-                .eq(Spot::getIsPublished, 1)
-                .eq(Spot::getIsDeleted, 0)
-        );
+        HotSpotsResponse response = buildHotSpots(limit);
+        response.setGeneratedAt(LocalDateTime.now());
+        return response;
+    }
 
-        Map<Long, Spot> spotMap = spots.stream()
-            .collect(Collectors.toMap(Spot::getId, s -> s));
+    private HotSpotsResponse buildHotSpots(int limit) {
+        // 累计汇总已排除已取消订单，按订单数索引直接取前 N 个。
+        List<SpotOrderRevenueStats> topSpots = orderSpotStatsMapper.selectTopSpots(limit);
+
+        // 景点名称和评分读目录快照，只展示仍上架的景点信息。
+        Map<Long, Spot> spotMap = new HashMap<>();
+        for (Spot spot : spotCatalogSupport.getSpots(topSpots.stream().map(SpotOrderRevenueStats::getSpotId).toList())) {
+            if (spot.getIsPublished() != null && spot.getIsPublished() == 1
+                && spot.getIsDeleted() != null && spot.getIsDeleted() == 0) {
+                spotMap.put(spot.getId(), spot);
+            }
+        }
 
-        // 构建热门景点列表
-        List<HotSpotsResponse.SpotItem> list = ordersBySpot.entrySet().stream()
-            .map(entry -> {
-                Long spotId = entry.getKey();
-                List<Order> spotOrders = entry.getValue();
-                Spot spot = spotMap.get(spotId);
+        List<HotSpotsResponse.SpotItem> list = topSpots.stream()
+            .map(stats -> {
+                Spot spot = spotMap.get(stats.getSpotId());
 
                 HotSpotsResponse.SpotItem item = new HotSpotsResponse.SpotItem();
-                item.setId(spotId);
+                item.setId(stats.getSpotId());
                 item.setName(spot != null ? spot.getName() : ResourceDisplayText.Spot.UNKNOWN);
-                item.setOrderCount((long) spotOrders.size());
-                item.setRevenue(sumRevenue(spotOrders));
+                item.setOrderCount(nullToZero(stats.getOrderCount()));
+                item.setRevenue(nullToZero(stats.getRevenue()));
                 item.setAvgRating(spot != null ? spot.getAvgRating() : BigDecimal.ZERO);
                 return item;
             })
-            .sorted((a, b) -> Long.compare(b.getOrderCount(), a.getOrderCount()))
-            .limit(limit)
             .collect(Collectors.toList());
 
         HotSpotsResponse response = new HotSpotsResponse();
@@ -376,15 +365,72 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     /**
-     * 仪表板多个指标都复用同一套营收口径，统一收口后避免某处漏掉状态过滤。
+     * 趋势和热力图优先读日汇总表；新部署启动回填完成前汇总表为空，直接在订单表上按日期分组聚合，口径一致。
+     * 是否回填完成读取进程内标志，不在每次请求前探测汇总表。
      */
-    private BigDecimal sumRevenue(List<Order> orders) {
-        return orders.stream()
-            .filter(order -> {
-                OrderStatus status = OrderStatus.fromCode(order.getStatus());
-                return status != null && status.hasRevenue();
-            })
-            .map(Order::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private List<DailyOrderStats> loadDailyStats(LocalDate startDate, LocalDate endDate) {
+        if (orderDailyStatsSupport.isReady()) {
+            return orderDailyStatsMapper.selectDailyTotals(startDate, endDate);
+        }
+        return orderMapper.selectDailyOrderStats(
+            startDate == null ? null : startDate.atStartOfDay(),
+            endDate.plusDays(1).atStartOfDay(),
+            OrderStatus.activeCodes(),
+            OrderStatus.revenueCodes()
+        );
+    }
+
+    private List<WeekdayOrderStats> loadWeekdayStats(LocalDate startDate, LocalDate endDate) {
+        if (orderDailyStatsSupport.isReady()) {
+            return orderDailyStatsMapper.selectWeekdayTotals(startDate, endDate);
+        }
+        return orderMapper.selectWeekdayOrderStats(
+            startDate == null ? null : startDate.atStartOfDay(),
+            endDate.plusDays(1).atStartOfDay(),
+            OrderStatus.activeCodes(),
+            OrderStatus.revenueCodes()
+        );
+    }
+
+    /**
+     * MySQL DAYOFWEEK 以周日为 1、周六为 7。
+     */
+    private DayOfWeek toDayOfWeek(Integer mysqlDayOfWeek) {
+        return mysqlDayOfWeek == 1 ? DayOfWeek.SUNDAY : DayOfWeek.of(mysqlDayOfWeek - 1);
+    }
+
+    private Map<LocalDate, DailyOrderStats> toDateMap(List<DailyOrderStats> dailyStats) {
+        Map<LocalDate, DailyOrderStats> map = new HashMap<>();
+        for (DailyOrderStats stats : dailyStats) {
+            map.put(stats.getStatDate(), stats);
+        }
+        return map;
+    }
+
+    private Map<LocalDate, Long> toCountMap(List<DailyCountStats> dailyCounts) {
+        Map<LocalDate, Long> map = new HashMap<>();
+        for (DailyCountStats stats : dailyCounts) {
+            map.put(stats.getStatDate(), nullToZero(stats.getTotal()));
+        }
+        return map;
+    }
+
+    private long orderCountOf(DailyOrderStats stats) {
+        return stats == null ? 0L : nullToZero(stats.getOrderCount());
+    }
+
+    /**
+     * 营收口径在汇总表维护时统一收口：只累计已支付和已退款订单，这里只做空值兜底。
+     */
+    private BigDecimal revenueOf(DailyOrderStats stats) {
+        return stats == null ? BigDecimal.ZERO : nullToZero(stats.getRevenue());
+    }
+
+    private long nullToZero(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    private BigDecimal nullToZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
     }
 }
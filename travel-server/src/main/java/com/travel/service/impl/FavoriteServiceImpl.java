@@ -4,21 +4,20 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.travel.common.constant.ResourceDisplayText;
 import com.travel.common.exception.BusinessException;
+import com.travel.common.result.PageCursor;
 import com.travel.common.result.PageResult;
 import com.travel.common.result.ResultCode;
 import com.travel.dto.spot.response.SpotListResponse;
 import com.travel.entity.UserSpotFavorite;
-import com.travel.entity.SpotRegion;
 import com.travel.entity.Spot;
-import com.travel.entity.SpotCategory;
 import com.travel.entity.User;
 import com.travel.mapper.UserSpotFavoriteMapper;
-import com.travel.mapper.SpotRegionMapper;
-import com.travel.mapper.SpotCategoryMapper;
 import com.travel.mapper.SpotMapper;
 import com.travel.mapper.UserMapper;
 import com.travel.service.FavoriteService;
 import com.travel.service.RecommendationService;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -39,10 +38,10 @@ public class FavoriteServiceImpl implements FavoriteService {
     // 持久层与服务依赖
     private final UserSpotFavoriteMapper userSpotFavoriteMapper;
     private final SpotMapper spotMapper;
-    private final SpotRegionMapper spotRegionMapper;
-    private final SpotCategoryMapper spotCategoryMapper;
     private final UserMapper userMapper;
     private final RecommendationService recommendationService;
+    private final SpotCatalogSupport spotCatalogSupport;
+    private final SpotHeatCounterSupport spotHeatCounterSupport;
 
     // 收藏操作与状态判断
 
@@ -67,6 +66,7 @@ public class FavoriteServiceImpl implements FavoriteService {
             }
             existingFavorite.setIsDeleted(0);
             userSpotFavoriteMapper.updateById(existingFavorite);
+            spotHeatCounterSupport.recordFavorite(spotId, 1);
             recommendationService.invalidateUserRecommendationCache(userId);
             return;
         }
@@ -75,6 +75,7 @@ public class FavoriteServiceImpl implements FavoriteService {
         favorite.setUserId(userId);
         favorite.setSpotId(spotId);
         userSpotFavoriteMapper.insert(favorite);
+        spotHeatCounterSupport.recordFavorite(spotId, 1);
         recommendationService.invalidateUserRecommendationCache(userId);
         log.info("用户添加收藏: userId={}, spotId={}", userId, spotId);
     }
@@ -84,12 +85,17 @@ public class FavoriteServiceImpl implements FavoriteService {
         getActiveUser(userId);
         UserSpotFavorite deletedFavorite = new UserSpotFavorite();
         deletedFavorite.setIsDeleted(1);
-        userSpotFavoriteMapper.update(
+        // 只更新仍有效的收藏，受影响行数即可判断是否真的取消了一次收藏。
+        int removed = userSpotFavoriteMapper.update(
             deletedFavorite,
             new LambdaQueryWrapper<UserSpotFavorite>()
                 .eq(UserSpotFavorite::getUserId, userId)
                 .eq(UserSpotFavorite::getSpotId, spotId)
+                .eq(UserSpotFavorite::getIsDeleted, 0)
         );
+        if (removed > 0) {
+            spotHeatCounterSupport.recordFavorite(spotId, -removed);
+        }
         recommendationService.invalidateUserRecommendationCache(userId);
         log.info("用户取消收藏: userId={}, spotId={}", userId, spotId);
     }
@@ -126,7 +132,7 @@ public class FavoriteServiceImpl implements FavoriteService {
                 .map(UserSpotFavorite::getSpotId)
                 .collect(Collectors.toList());
 
-        Map<Long, Spot> spotMap = spotMapper.selectBatchIds(spotIds).stream()
+        Map<Long, Spot> spotMap = spotCatalogSupport.getSpots(spotIds).stream()
             .collect(Collectors.toMap(Spot::getId, spot -> spot));
 
         List<SpotListResponse> list = favoriteResult.getRecords().stream()
@@ -136,7 +142,46 @@ public class FavoriteServiceImpl implements FavoriteService {
         return PageResult.of(list, favoriteResult.getTotal(), page, pageSize);
     }
 
-    // 响应转换与名称补全
+    /**
+     * 游标模式按 (created_at, id) 倒序续查，命中 idx_user_spot_favorite_user_deleted_created，多查一行判断是否还有下一页。
+     */
+    @Override
+    public PageResult<SpotListResponse> getFavoriteListByCursor(Long userId, String cursor, Integer pageSize) {
+        getActiveUser(userId);
+        int safePageSize = PageCursor.limitPageSize(pageSize);
+        PageCursor position = PageCursor.decode(cursor);
+
+        LambdaQueryWrapper<UserSpotFavorite> wrapper = new LambdaQueryWrapper<UserSpotFavorite>()
+            .eq(UserSpotFavorite::getUserId, userId)
+            .eq(UserSpotFavorite::getIsDeleted, 0);
+        if (position != null) {
+            wrapper.and(w -> w.lt(UserSpotFavorite::getCreatedAt, position.sortTime())
+                .or(o -> o.eq(UserSpotFavorite::getCreatedAt, position.sortTime()).lt(UserSpotFavorite::getId, position.id())));
+        }
+        wrapper.orderByDesc(UserSpotFavorite::getCreatedAt)
+            .orderByDesc(UserSpotFavorite::getId)
+            .last("LIMIT " + (safePageSize + 1));
+
+        List<UserSpotFavorite> favorites = new ArrayList<>(userSpotFavoriteMapper.selectList(wrapper));
+        String nextCursor = PageCursor.sliceNext(favorites, safePageSize, UserSpotFavorite::getCreatedAt, UserSpotFavorite::getId);
+        if (favorites.isEmpty()) {
+            return PageResult.ofCursor(new ArrayList<>(), null, safePageSize);
+        }
+
+        List<Long> spotIds = favorites.stream()
+            .map(UserSpotFavorite::getSpotId)
+            .collect(Collectors.toList());
+        Map<Long, Spot> spotMap = spotCatalogSupport.getSpots(spotIds).stream()
+            .collect(Collectors.toMap(Spot::getId, spot -> spot));
+
+        List<SpotListResponse> list = favorites.stream()
+            .map(favorite -> convertToListResponse(spotMap.get(favorite.getSpotId()), favorite.getSpotId()))
+            .collect(Collectors.toList());
+
+        return PageResult.ofCursor(list, nextCursor, safePageSize);
+    }
+
+    // 响应转换（分类、地区名称由景点目录快照随景点一并补齐）
 
     /**
      * 收藏相关接口不再依赖数据库外键，先在应用层确认用户仍然有效。
@@ -180,21 +225,9 @@ public class FavoriteServiceImpl implements FavoriteService {
                 .price(spot.getPrice())
                 .avgRating(spot.getAvgRating())
                 .ratingCount(spot.getRatingCount())
-                .regionName(getRegionName(spot.getRegionId()))
-                .categoryName(getCategoryName(spot.getCategoryId()))
+                .regionName(spot.getRegionName())
+                .categoryName(spot.getCategoryName())
                 .build();
     }
 
-    private String getRegionName(Long regionId) {
-        if (regionId == null) return null;
-        SpotRegion region = spotRegionMapper.selectById(regionId);
-        return region != null && region.getIsDeleted() == 0 ? region.getName() : null;
-    }
-
-    private String getCategoryName(Long categoryId) {
-        if (categoryId == null) return null;
-        SpotCategory category = spotCategoryMapper.selectById(categoryId);
-        return category != null && category.getIsDeleted() == 0 ? category.getName() : null;
-    }
-
 }
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.travel.common.exception.BusinessException;
 import com.travel.common.constant.ResourceDisplayText;
+import com.travel.common.result.PageCursor;
 import com.travel.common.result.ResultCode;
 import com.travel.dto.order.request.AdminOrderListRequest;
 import com.travel.dto.order.request.CreateOrderRequest;
@@ -21,6 +22,9 @@ import com.travel.mapper.SpotMapper;
 import com.travel.mapper.UserMapper;
 import com.travel.service.OrderService;
 import com.travel.service.RecommendationService;
+import com.travel.service.support.order.OrderDailyStatsSupport;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,8 +32,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.List;
@@ -46,12 +52,16 @@ public class OrderServiceImpl implements OrderService {
     // 待支付订单超时阈值，需与兜底定时任务保持一致。
     private static final int PAYMENT_TIMEOUT_MINUTES = 5;
     private static final String DEACTIVATED_USER_PHONE = ResourceDisplayText.Common.EMPTY;
+    private static final String STATUS_CHANGED_MESSAGE = "订单状态已变更，请刷新后重试";
 
     // 持久层与服务依赖
     private final OrderMapper orderMapper;
     private final SpotMapper spotMapper;
     private final UserMapper userMapper;
     private final RecommendationService recommendationService;
+    private final SpotCatalogSupport spotCatalogSupport;
+    private final SpotHeatCounterSupport spotHeatCounterSupport;
+    private final OrderDailyStatsSupport orderDailyStatsSupport;
 
     // 用户端订单操作
 
@@ -79,6 +89,7 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus(OrderStatus.PENDING.getCode());
 
         orderMapper.insert(order);
+        orderDailyStatsSupport.recordCreated(order);
         recommendationService.invalidateUserRecommendationCache(userId);
 
         log.info("订单创建成功: orderNo={}, userId={}, spotId={}, quantity={}, totalAmount={}",
@@ -103,6 +114,10 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
+        if (request.getCursor() != null) {
+            return getUserOrdersByCursor(wrapper, request);
+        }
+
         wrapper.orderByDesc(Order::getCreatedAt);
 
         Page<Order> page = new Page<>(request.getPage(), request.getPageSize());
@@ -122,6 +137,35 @@ public class OrderServiceImpl implements OrderService {
         return response;
     }
 
+    /**
+     * 游标模式按 (created_at, id) 倒序续查，命中 idx_order_user_deleted_created，多查一行判断是否还有下一页，不执行 COUNT。
+     */
+    private OrderListResponse getUserOrdersByCursor(LambdaQueryWrapper<Order> wrapper, OrderListRequest request) {
+        int pageSize = PageCursor.limitPageSize(request.getPageSize());
+        PageCursor cursor = PageCursor.decode(request.getCursor());
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(Order::getCreatedAt, cursor.sortTime())
+                .or(o -> o.eq(Order::getCreatedAt, cursor.sortTime()).lt(Order::getId, cursor.id())));
+        }
+        wrapper.orderByDesc(Order::getCreatedAt).orderByDesc(Order::getId);
+        wrapper.last("LIMIT " + (pageSize + 1));
+
+        List<Order> orders = new ArrayList<>(orderMapper.selectList(wrapper));
+        String nextCursor = PageCursor.sliceNext(orders, pageSize, Order::getCreatedAt, Order::getId);
+
+        refreshPendingTimeoutOrders(orders);
+        fillSpotInfo(orders);
+
+        OrderListResponse response = new OrderListResponse();
+        response.setList(orders.stream()
+            .map(order -> buildOrderItem(order, false))
+            .collect(Collectors.toList()));
+        response.setPageSize(pageSize);
+        response.setNextCursor(nextCursor);
+        response.setHasMore(nextCursor != null);
+        return response;
+    }
+
     @Override
     public OrderDetailResponse getOrderDetail(Long userId, Long orderId) {
         Order order = getUserOrder(userId, orderId);
@@ -158,9 +202,19 @@ public class OrderServiceImpl implements OrderService {
             throw new RuntimeException("订单状态不允许支付");
         }
 
-        order.setStatus(OrderStatus.PAID.getCode());
-        order.setPaidAt(LocalDateTime.now());
-        orderMapper.updateById(order);
+        LocalDateTime now = LocalDateTime.now();
+        if (!compareAndSetStatus(order, OrderStatus.PENDING, OrderStatus.PAID, "paid_at", now)) {
+            // 超时取消或重复支付已先改动该订单，按最新状态给出结果，不重复记账。
+            if (!reloadReachedStatus(order, OrderStatus.PAID)) {
+                throw new RuntimeException(order.getStatus() == OrderStatus.CANCELLED.getCode()
+                    ? "订单已超时，已自动取消" : "订单状态不允许支付");
+            }
+            fillSpotInfoSingle(order);
+            return buildOrderDetail(order, false);
+        }
+        order.setPaidAt(now);
+        orderDailyStatsSupport.recordTransition(order, OrderStatus.PENDING.getCode(), OrderStatus.PAID.getCode());
+        spotHeatCounterSupport.recordPaidOrder(order.getSpotId(), 1);
         recommendationService.invalidateUserRecommendationCache(userId);
 
         log.info("订单支付成功: orderId={}, userId={}, orderNo={}", orderId, userId, order.getOrderNo());
@@ -185,9 +239,21 @@ public class OrderServiceImpl implements OrderService {
             throw new RuntimeException("订单状态不允许取消");
         }
 
-        order.setStatus(OrderStatus.CANCELLED.getCode());
-        order.setCancelledAt(LocalDateTime.now());
-        orderMapper.updateById(order);
+        Integer previousStatus = order.getStatus();
+        boolean wasPaid = previousStatus == OrderStatus.PAID.getCode();
+        LocalDateTime now = LocalDateTime.now();
+        if (!compareAndSetStatus(order, OrderStatus.fromCode(previousStatus), OrderStatus.CANCELLED, "cancelled_at", now)) {
+            if (!reloadReachedStatus(order, OrderStatus.CANCELLED)) {
+                throw new RuntimeException(STATUS_CHANGED_MESSAGE);
+            }
+            fillSpotInfoSingle(order);
+            return buildOrderDetail(order, false);
+        }
+        order.setCancelledAt(now);
+        orderDailyStatsSupport.recordTransition(order, previousStatus, OrderStatus.CANCELLED.getCode());
+        if (wasPaid) {
+            spotHeatCounterSupport.recordPaidOrder(order.getSpotId(), -1);
+        }
         recommendationService.invalidateUserRecommendationCache(userId);
 
         log.info("订单已取消: orderId={}, userId={}, orderNo={}", orderId, userId, order.getOrderNo());
@@ -240,10 +306,11 @@ public class OrderServiceImpl implements OrderService {
 
         refreshPendingTimeoutOrders(result.getRecords());
         fillSpotInfo(result.getRecords());
+        Map<Long, User> userMap = loadUsers(result.getRecords());
 
         AdminOrderListResponse response = new AdminOrderListResponse();
         response.setList(result.getRecords().stream()
-            .map(this::buildAdminOrderItem)
+            .map(order -> buildAdminOrderItem(order, userMap))
             .collect(Collectors.toList()));
         response.setTotal(result.getTotal());
         response.setPage(request.getPage());
@@ -270,9 +337,13 @@ public class OrderServiceImpl implements OrderService {
         if (order.getStatus() != OrderStatus.PAID.getCode()) {
             throw new RuntimeException("订单状态不允许完成");
         }
-        order.setStatus(OrderStatus.COMPLETED.getCode());
-        order.setCompletedAt(LocalDateTime.now());
-        orderMapper.updateById(order);
+        LocalDateTime now = LocalDateTime.now();
+        if (!compareAndSetStatus(order, OrderStatus.PAID, OrderStatus.COMPLETED, "completed_at", now)) {
+            return buildConcurrentAdminResult(order, OrderStatus.COMPLETED);
+        }
+        order.setCompletedAt(now);
+        orderDailyStatsSupport.recordTransition(order, OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode());
+        spotHeatCounterSupport.recordCompletedOrder(order.getSpotId(), 1);
         recommendationService.invalidateUserRecommendationCache(order.getUserId());
         log.info("订单已完成: orderId={}, orderNo={}", orderId, order.getOrderNo());
         fillSpotInfoSingle(order);
@@ -290,9 +361,13 @@ public class OrderServiceImpl implements OrderService {
         if (order.getStatus() != OrderStatus.PAID.getCode()) {
             throw new RuntimeException("订单状态不允许退款");
         }
-        order.setStatus(OrderStatus.REFUNDED.getCode());
-        order.setRefundedAt(LocalDateTime.now());
-        orderMapper.updateById(order);
+        LocalDateTime now = LocalDateTime.now();
+        if (!compareAndSetStatus(order, OrderStatus.PAID, OrderStatus.REFUNDED, "refunded_at", now)) {
+            return buildConcurrentAdminResult(order, OrderStatus.REFUNDED);
+        }
+        order.setRefundedAt(now);
+        orderDailyStatsSupport.recordTransition(order, OrderStatus.PAID.getCode(), OrderStatus.REFUNDED.getCode());
+        spotHeatCounterSupport.recordPaidOrder(order.getSpotId(), -1);
         recommendationService.invalidateUserRecommendationCache(order.getUserId());
         log.info("订单已退款: orderId={}, orderNo={}", orderId, order.getOrderNo());
         fillSpotInfoSingle(order);
@@ -310,9 +385,12 @@ public class OrderServiceImpl implements OrderService {
         if (order.getStatus() != OrderStatus.PENDING.getCode()) {
             throw new RuntimeException("订单状态不允许取消");
         }
-        order.setStatus(OrderStatus.CANCELLED.getCode());
-        order.setCancelledAt(LocalDateTime.now());
-        orderMapper.updateById(order);
+        LocalDateTime now = LocalDateTime.now();
+        if (!compareAndSetStatus(order, OrderStatus.PENDING, OrderStatus.CANCELLED, "cancelled_at", now)) {
+            return buildConcurrentAdminResult(order, OrderStatus.CANCELLED);
+        }
+        order.setCancelledAt(now);
+        orderDailyStatsSupport.recordTransition(order, OrderStatus.PENDING.getCode(), OrderStatus.CANCELLED.getCode());
         recommendationService.invalidateUserRecommendationCache(order.getUserId());
         log.info("管理员取消订单: orderId={}, orderNo={}", orderId, order.getOrderNo());
         fillSpotInfoSingle(order);
@@ -326,15 +404,13 @@ public class OrderServiceImpl implements OrderService {
         if (order.getStatus() != OrderStatus.COMPLETED.getCode()) {
             throw new RuntimeException("订单状态不允许恢复");
         }
-        UpdateWrapper<Order> updateWrapper = new UpdateWrapper<>();
-        updateWrapper.eq("id", orderId)
-                .set("status", OrderStatus.PAID.getCode())
-                .set("completed_at", null)
-                .set("updated_at", LocalDateTime.now());
-        orderMapper.update(null, updateWrapper);
-        recommendationService.invalidateUserRecommendationCache(order.getUserId());
-        order.setStatus(OrderStatus.PAID.getCode());
+        if (!compareAndSetStatus(order, OrderStatus.COMPLETED, OrderStatus.PAID, "completed_at", null)) {
+            throw new RuntimeException(STATUS_CHANGED_MESSAGE);
+        }
         order.setCompletedAt(null);
+        spotHeatCounterSupport.recordCompletedOrder(order.getSpotId(), -1);
+        orderDailyStatsSupport.recordTransition(order, OrderStatus.COMPLETED.getCode(), OrderStatus.PAID.getCode());
+        recommendationService.invalidateUserRecommendationCache(order.getUserId());
         log.info("管理员恢复订单: orderId={}, orderNo={}", orderId, order.getOrderNo());
         fillSpotInfoSingle(order);
         return buildOrderDetail(order, true);
@@ -420,14 +496,76 @@ public class OrderServiceImpl implements OrderService {
         }
 
         LocalDateTime now = LocalDateTime.now();
-        order.setStatus(OrderStatus.CANCELLED.getCode());
+        if (!compareAndSetStatus(order, OrderStatus.PENDING, OrderStatus.CANCELLED, "cancelled_at", now)) {
+            // 超时任务、并发查询或支付已先处理该订单，只同步最新状态，不重复记账。
+            reloadStatus(order);
+            return;
+        }
         order.setCancelledAt(now);
-        order.setUpdatedAt(now);
-        orderMapper.updateById(order);
+        orderDailyStatsSupport.recordTransition(order, OrderStatus.PENDING.getCode(), OrderStatus.CANCELLED.getCode());
         recommendationService.invalidateUserRecommendationCache(order.getUserId());
         log.info("即时取消超时未支付订单: orderId={}, orderNo={}", order.getId(), order.getOrderNo());
     }
 
+    /**
+     * 以当前状态为条件更新订单状态及对应的时间字段。
+     * <p>
+     * 支付、取消、超时任务和查询时的即时过期可能同时改同一笔订单，条件更新保证只有一方真正改到这一行；
+     * 只有恰好更新一行时才同步内存中的订单状态并返回 true，调用方据此回填时间字段，并只记一次日汇总和热度增量。
+     */
+    private boolean compareAndSetStatus(Order order, OrderStatus expected, OrderStatus target,
+                                        String timeColumn, LocalDateTime time) {
+        LocalDateTime now = LocalDateTime.now();
+        UpdateWrapper<Order> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("id", order.getId())
+                .eq("status", expected.getCode())
+                .set("status", target.getCode())
+                .set(timeColumn, time)
+                .set("updated_at", now);
+        int updated = orderMapper.update(null, updateWrapper);
+        if (updated != 1) {
+            return false;
+        }
+        order.setStatus(target.getCode());
+        order.setUpdatedAt(now);
+        return true;
+    }
+
+    /**
+     * 条件更新落空后重新读取订单的最新状态。
+     */
+    private void reloadStatus(Order order) {
+        Order latest = orderMapper.selectById(order.getId());
+        if (latest == null) {
+            return;
+        }
+        order.setStatus(latest.getStatus());
+        order.setPaidAt(latest.getPaidAt());
+        order.setCancelledAt(latest.getCancelledAt());
+        order.setRefundedAt(latest.getRefundedAt());
+        order.setCompletedAt(latest.getCompletedAt());
+        order.setUpdatedAt(latest.getUpdatedAt());
+    }
+
+    /**
+     * 条件更新落空后重新读取订单，判断并发请求是否已经把订单改成了目标状态，是则按幂等处理。
+     */
+    private boolean reloadReachedStatus(Order order, OrderStatus target) {
+        reloadStatus(order);
+        return order.getStatus() != null && order.getStatus() == target.getCode();
+    }
+
+    /**
+     * 管理端流转与并发请求冲突时：已是目标状态按幂等返回，否则提示刷新。
+     */
+    private OrderDetailResponse buildConcurrentAdminResult(Order order, OrderStatus target) {
+        if (!reloadReachedStatus(order, target)) {
+            throw new RuntimeException(STATUS_CHANGED_MESSAGE);
+        }
+        fillSpotInfoSingle(order);
+        return buildOrderDetail(order, true);
+    }
+
     private boolean isPendingTimeoutOrder(Order order) {
         if (order == null || order.getStatus() == null || order.getCreatedAt() == null) {
             return false;
@@ -473,7 +611,7 @@ public class OrderServiceImpl implements OrderService {
 
         if (spotIds.isEmpty()) return;
 
-        List<Spot> spots = spotMapper.selectBatchIds(spotIds);
+        List<Spot> spots = spotCatalogSupport.getSpots(spotIds);
         Map<Long, Spot> spotMap = spots.stream()
             .collect(Collectors.toMap(Spot::getId, s -> s));
 
@@ -483,9 +621,24 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /**
+     * 管理端列表一次批量读取整页下单用户，避免逐条 selectById。
+     */
+    private Map<Long, User> loadUsers(List<Order> orders) {
+        Set<Long> userIds = orders.stream()
+            .map(Order::getUserId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userMapper.selectBatchIds(userIds).stream()
+            .collect(Collectors.toMap(User::getId, user -> user, (left, right) -> left));
+    }
+
     private void fillSpotInfoSingle(Order order) {
         if (order == null || order.getSpotId() == null) return;
-        Spot spot = spotMapper.selectById(order.getSpotId());
+        Spot spot = spotCatalogSupport.getSpot(order.getSpotId());
         applySpotDisplay(order, spot);
     }
 
@@ -540,7 +693,7 @@ public class OrderServiceImpl implements OrderService {
         return item;
     }
 
-    private AdminOrderListResponse.OrderItem buildAdminOrderItem(Order order) {
+    private AdminOrderListResponse.OrderItem buildAdminOrderItem(Order order, Map<Long, User> userMap) {
         AdminOrderListResponse.OrderItem item = new AdminOrderListResponse.OrderItem();
         item.setId(order.getId());
         item.setOrderNo(order.getOrderNo());
@@ -562,8 +715,7 @@ public class OrderServiceImpl implements OrderService {
         item.setCreatedAt(order.getCreatedAt());
         item.setUpdatedAt(order.getUpdatedAt());
 
-        User user = userMapper.selectById(order.getUserId());
-        item.setUserNickname(resolveDisplayNickname(user));
+        item.setUserNickname(resolveDisplayNickname(userMap.get(order.getUserId())));
 
         return item;
     }
@@ -8,6 +8,7 @@ import com.travel.dto.home.response.HotSpotResponse;
 import com.travel.dto.home.response.NearbySpotResponse;
 import com.travel.dto.home.item.RecentViewedSpotItem;
 import com.travel.dto.home.response.RecentViewedSpotResponse;
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
 import com.travel.dto.recommendation.cache.UserRecommendationCacheDTO;
 import com.travel.dto.recommendation.config.RecommendationAlgorithmConfigDTO;
 import com.travel.dto.recommendation.config.RecommendationCacheConfigDTO;
@@ -20,10 +21,16 @@ import com.travel.entity.*;
 import com.travel.mapper.*;
 import com.travel.service.cache.RecommendationCacheService;
 import com.travel.service.RecommendationService;
+import com.travel.service.support.recommendation.RecommendationBehaviorProfileSupport;
 import com.travel.service.support.recommendation.RecommendationConfigSupport;
 import com.travel.service.support.recommendation.RecommendationColdStartSupport;
+import com.travel.service.support.recommendation.RecommendationIncrementalSimilaritySupport;
+import com.travel.service.support.recommendation.RecommendationInteractionMatrix;
 import com.travel.service.support.recommendation.RecommendationQuerySupport;
 import com.travel.service.support.recommendation.RecommendationScoreSupport;
+import com.travel.service.support.recommendation.RecommendationSimilarityNearCache;
+import com.travel.service.support.recommendation.RecommendationSingleFlight;
+import com.travel.service.support.recommendation.RecommendationTopKSelector;
 import com.travel.service.support.recommendation.RecommendationSimilaritySupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +38,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,6 +54,8 @@ public class RecommendationServiceImpl implements RecommendationService {
 
     private static final String PREVIEW_MODE_CACHE = "cache";
     private static final String PREVIEW_MODE_LATEST = "latest";
+    // 合并请求的等待上限，超过后等待方自行计算，首个调用方卡住时不拖住其余请求线程。
+    private static final Duration SINGLE_FLIGHT_MAX_WAIT = Duration.ofSeconds(3);
 
     // 持久层、缓存与推荐支持组件
 
@@ -64,8 +74,16 @@ public class RecommendationServiceImpl implements RecommendationService {
     private final RecommendationSimilaritySupport recommendationSimilaritySupport;
     private final RecommendationScoreSupport recommendationScoreSupport;
     private final RecommendationColdStartSupport recommendationColdStartSupport;
+    private final RecommendationIncrementalSimilaritySupport recommendationIncrementalSimilaritySupport;
+    private final RecommendationBehaviorProfileSupport recommendationBehaviorProfileSupport;
 
     private final AtomicBoolean computing = new AtomicBoolean(false);
+    // 缓存未命中时按“用户 + 条数”合并并发计算，小程序同时发起推荐与换一批时只算一次。
+    private final RecommendationSingleFlight<String, RecommendationResponse> recommendationFlights =
+        new RecommendationSingleFlight<>(SINGLE_FLIGHT_MAX_WAIT);
+    // 热门缓存整体失效后大量请求同时未命中，按条数合并为一次查询。
+    private final RecommendationSingleFlight<Integer, HotSpotResponse> hotSpotFlights =
+        new RecommendationSingleFlight<>(SINGLE_FLIGHT_MAX_WAIT);
     // 推荐主链路入口
 
     @Override
@@ -73,15 +91,26 @@ public class RecommendationServiceImpl implements RecommendationService {
         if (limit == null || limit <= 0) limit = 10;
 
         // 优先复用缓存，避免每次都触发协同过滤计算和多表查询。
-        UserRecommendationCacheDTO cached = recommendationCacheService.getUserRecommendation(userId);
-        if (cached != null) {
-            RecommendationResponse cachedResponse = buildRecommendationResponseFromCache(cached, limit);
-            if (cachedResponse != null) {
-                return cachedResponse;
-            }
+        RecommendationResponse cachedResponse = getCachedRecommendations(userId, limit);
+        if (cachedResponse != null) {
+            return cachedResponse;
         }
 
-        return computeRecommendations(userId, limit, false, false, false, true);
+        // 未命中时同一用户同一条数只计算一次，其余并发请求等待并共享结果。
+        // 进入合并后再查一次缓存，覆盖上一轮计算恰好在本次读缓存之后完成的情况。
+        Integer safeLimit = limit;
+        return recommendationFlights.execute(userId + ":" + safeLimit, () -> {
+            RecommendationResponse latest = getCachedRecommendations(userId, safeLimit);
+            return latest != null ? latest : computeRecommendations(userId, safeLimit, false, false, false, true);
+        });
+    }
+
+    /**
+     * 读取并还原用户推荐缓存。
+     */
+    private RecommendationResponse getCachedRecommendations(Long userId, Integer limit) {
+        UserRecommendationCacheDTO cached = recommendationCacheService.getUserRecommendation(userId);
+        return cached == null ? null : buildRecommendationResponseFromCache(cached, limit);
     }
 
     @Override
@@ -94,9 +123,14 @@ public class RecommendationServiceImpl implements RecommendationService {
             return response;
         }
 
-        response.setList(rotateRecommendationItems(response.getList(), limit));
-        saveRecommendationCache(userId, response);
-        return response;
+        // 基线结果可能正被合并请求的其他调用方共享，轮换写到新对象上，不修改原对象。
+        RecommendationResponse rotated = new RecommendationResponse();
+        rotated.setType(response.getType());
+        rotated.setNeedPreference(response.getNeedPreference());
+        rotated.setDebugInfo(response.getDebugInfo());
+        rotated.setList(rotateRecommendationItems(response.getList(), limit));
+        saveRecommendationCache(userId, rotated);
+        return rotated;
     }
 
     @Override
@@ -127,7 +161,8 @@ public class RecommendationServiceImpl implements RecommendationService {
         if (userId == null) {
             return;
         }
-        // 单用户行为变化后只清理该用户缓存，避免不必要地影响全局命中率。
+        // 单用户行为变化后只清理该用户缓存，避免不必要地影响全局命中率；行为画像随推荐结果一起失效。
+        recommendationBehaviorProfileSupport.evict(userId);
         recommendationCacheService.deleteUserRecommendation(userId);
     }
 
@@ -189,10 +224,12 @@ public class RecommendationServiceImpl implements RecommendationService {
 
         // 第 2 步：构建用户兴趣输入。
         // 这里拿到的是“用户对哪些景点有多强兴趣”的压缩表达，是整个个性化推荐的输入基线。
-        Map<Long, Double> userInteractions = buildUserInteractionWeights(userId, algorithmConfig);
+        // 行为画像只加载一次，权重计算、已交互过滤和调试统计共用同一份数据。
+        UserBehaviorProfileCacheDTO behaviorProfile = recommendationBehaviorProfileSupport.load(userId);
+        Map<Long, Double> userInteractions = buildUserInteractionWeights(behaviorProfile, algorithmConfig);
         // 调试信息与日志都围绕这份输入展开，便于先确认“输入是否合理”，再看输出结果。
-        populateBehaviorStats(debugInfo, userId);
-        populateBehaviorDetails(debugInfo, userId, algorithmConfig);
+        populateBehaviorStats(debugInfo, behaviorProfile);
+        populateBehaviorDetails(debugInfo, behaviorProfile, algorithmConfig);
         populateInteractionDebugInfo(debugInfo, userInteractions);
         logUserInteractionWeights(userId, userInteractions, debug);
 
@@ -227,7 +264,7 @@ public class RecommendationServiceImpl implements RecommendationService {
         
         // 第 5 步：过滤已消费内容。
         // 过滤后保留下来的候选，才是真正有资格进入最终推荐列表的“新增内容”。
-        List<Long> filteredIds = filterInteractedSpots(userId, recommendedIds);
+        List<Long> filteredIds = filterInteractedSpots(behaviorProfile, recommendedIds);
         populateFilteredOutDebugEntries(debugInfo, recommendedIds, filteredIds, "候选景点已与当前用户发生过交互，已被过滤");
         logFilteredRecommendations(userId, recommendedIds, filteredIds, debug);
         Map<Long, Double> filteredScores = orderScoresByIds(filteredIds, recommendedScores);
@@ -289,8 +326,8 @@ public class RecommendationServiceImpl implements RecommendationService {
      * <p>
      * 权重融合了浏览、收藏、评分、订单等行为，作为协同过滤阶段的用户兴趣输入。
      */
-    private Map<Long, Double> buildUserInteractionWeights(Long userId, RecommendationAlgorithmConfigDTO config) {
-        return recommendationScoreSupport.buildUserInteractionWeights(userId, config);
+    private Map<Long, Double> buildUserInteractionWeights(UserBehaviorProfileCacheDTO profile, RecommendationAlgorithmConfigDTO config) {
+        return recommendationScoreSupport.buildUserInteractionWeights(profile, config);
     }
 
 
@@ -738,18 +775,21 @@ public class RecommendationServiceImpl implements RecommendationService {
         // 第 1 步：初始化候选分数累加器。
         // 每个候选景点最终分数，都是来自多个“历史景点 -> 相似景点”贡献的叠加结果。
         Map<Long, Double> scores = new HashMap<>();
-        
+
+        // 第 2 步：一次取齐全部历史景点的相似邻居。
+        // 相似邻居由离线矩阵提前算好，在线链路只做查表和分数聚合；本地近端缓存未命中的景点合并成一次 MGET。
+        Map<Long, RecommendationSimilarityNearCache.Neighbors> neighborsBySpot =
+            recommendationSimilaritySupport.getSimilarNeighbors(userInteractions.keySet());
+
         for (Map.Entry<Long, Double> entry : userInteractions.entrySet()) {
             Long spotId = entry.getKey();
             Double rui = entry.getValue(); // 融合后的交互权重
+            RecommendationSimilarityNearCache.Neighbors neighbors =
+                neighborsBySpot.getOrDefault(spotId, RecommendationSimilarityNearCache.Neighbors.EMPTY);
 
-            // 第 2 步：读取当前历史景点的相似邻居。
-            // 相似邻居由离线矩阵提前算好，在线链路只做查表和分数聚合，避免实时重算相似度。
-            Map<Long, Double> similarities = recommendationSimilaritySupport.getSimilarSpots(spotId);
-            
-            for (Map.Entry<Long, Double> simEntry : similarities.entrySet()) {
-                Long similarSpotId = simEntry.getKey();
-                Double wji = simEntry.getValue(); // 相似度分数
+            for (int k = 0; k < neighbors.size(); k++) {
+                Long similarSpotId = neighbors.spotIds()[k];
+                double wji = neighbors.similarities()[k]; // 相似度分数
 
                 // 第 3 步：过滤用户已交互景点。
                 // 这里做的是在线兜底，防止离线矩阵里存在有效邻居，但对当前用户来说已经消费过。
@@ -775,16 +815,8 @@ public class RecommendationServiceImpl implements RecommendationService {
         }
 
         // 第 5 步：按分数截断候选集。
-        // 这里只保留前 N 个候选，控制后续过滤、重排和响应组装的处理规模。
-        return scores.entrySet().stream()
-            .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-            .limit(limit)
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                Map.Entry::getValue,
-                (left, right) -> left,
-                LinkedHashMap::new
-            ));
+        // 这里只保留前 N 个候选，控制后续过滤、重排和响应组装的处理规模；用有界堆选取，不对全部候选排序。
+        return RecommendationTopKSelector.top(scores, limit);
     }
 
     /**
@@ -820,8 +852,8 @@ public class RecommendationServiceImpl implements RecommendationService {
      * <p>
      * 该步骤与在线计算阶段的兜底过滤配合，确保最终结果只包含“用户尚未消费”的内容。
      */
-    private List<Long> filterInteractedSpots(Long userId, List<Long> spotIds) {
-        return recommendationScoreSupport.filterInteractedSpots(userId, spotIds);
+    private List<Long> filterInteractedSpots(UserBehaviorProfileCacheDTO profile, List<Long> spotIds) {
+        return recommendationScoreSupport.filterInteractedSpots(profile, spotIds);
     }
 
 
@@ -837,7 +869,17 @@ public class RecommendationServiceImpl implements RecommendationService {
         if (cachedResponse != null && cachedResponse.getList() != null) {
             return cachedResponse;
         }
+        Integer safeLimit = limit;
+        return hotSpotFlights.execute(safeLimit, () -> {
+            HotSpotResponse latest = recommendationCacheService.getHomeHotSpots(safeLimit);
+            return latest != null && latest.getList() != null ? latest : loadHotSpots(safeLimit);
+        });
+    }
 
+    /**
+     * 查询并缓存热门景点，由合并请求中的首个调用方执行。
+     */
+    private HotSpotResponse loadHotSpots(Integer limit) {
         // 第 2 步：按热度分查询当前有效景点。
         // 这里只拉取已发布且未删除的景点，避免热门列表出现后台不可见内容。
         List<Spot> spots = spotMapper.selectList(
@@ -927,68 +969,132 @@ public class RecommendationServiceImpl implements RecommendationService {
             return;
         }
 
+        String lockToken = null;
         try {
+            // 进程内标记只能挡住本实例的重复触发；多实例部署时再由 Redis 锁保证同一时刻只有一个实例写入共享版本。
+            lockToken = recommendationCacheService.tryLockSimilarityMatrix();
+            if (lockToken == null) {
+                log.warn("其他实例正在更新相似度矩阵，跳过本次全量重建");
+                return;
+            }
+
             // 第 1 步：加载配置并确认本次任务的输入范围。
             RecommendationConfigBundleDTO config = recommendationCacheService.loadConfig();
             RecommendationAlgorithmConfigDTO algorithmConfig = safeAlgorithmConfig(config);
             RecommendationCacheConfigDTO cacheConfig = safeCacheConfig(config);
             log.info("开始更新相似度矩阵");
+            LocalDateTime startedAt = LocalDateTime.now();
             Set<Long> activeSpotIds = recommendationSimilaritySupport.getActiveSpotIds();
             if (activeSpotIds.isEmpty()) {
                 log.info("没有有效上架景点，跳过相似度矩阵更新");
                 return;
             }
 
-            // 第 2 步：构建离线快照。
-            // 快照同时提供用户-景点交互矩阵和参与计算的景点全集，便于后续步骤统一复用。
-            RecommendationSimilaritySupport.OfflineMatrixSnapshot snapshot =
+            // 第 2 步：构建压缩交互矩阵。
+            // 矩阵同时提供按用户的交互行和按景点的用户倒排，后续步骤统一复用。
+            RecommendationInteractionMatrix matrix =
                 recommendationSimilaritySupport.buildOfflineInteractionMatrix(activeSpotIds, algorithmConfig);
-            Map<Long, Map<Long, Double>> userItemMatrix = snapshot.userItemMatrix();
-            Set<Long> allSpotIds = snapshot.allSpotIds();
 
-            if (userItemMatrix.isEmpty()) {
+            if (matrix.isEmpty()) {
                 log.info("没有交互数据，跳过相似度矩阵更新");
                 return;
             }
 
-            log.info("交互矩阵构建完成：用户数={}，景点数={}", userItemMatrix.size(), allSpotIds.size());
+            log.info("交互矩阵构建完成：用户数={}，景点数={}", matrix.userCount(), matrix.spotCount());
 
-            // 第 3 步：预计算用户活跃度。
-            // IUF 会降低高活跃用户对相似度的放大效应，因此这里先汇总每个用户的交互规模。
-            Map<Long, Integer> userActivityCount = recommendationSimilaritySupport.summarizeUserActivityCount(userItemMatrix);
+            // 第 3 步：核对用户活跃度。
+            // IUF 会降低高活跃用户对相似度的放大效应，活跃度直接取矩阵中每个用户的交互行长度。
+            recommendationSimilaritySupport.logUserActivitySamples(matrix);
 
-            // 第 4 步：构建景点倒排索引。
-            // 这样后续在计算景点两两相似度时，可以快速定位共同交互用户集合。
-            Map<Long, Set<Long>> spotUserSets = recommendationSimilaritySupport.buildSpotUserIndex(userItemMatrix);
-
-            // 第 5 步：计算并缓存 Top-K 相似邻居。
-            // 在线推荐只读裁剪后的邻居结果，离线阶段把重计算成本一次性承担掉。
+            // 第 4 步：计算并缓存 Top-K 相似邻居。
+            // 在线推荐只读裁剪后的邻居结果，离线阶段把重计算成本一次性承担掉；具体引擎由算法配置决定。
             int topK = defaultInt(algorithmConfig.getTopKNeighbors(), 20);
             int simTTL = defaultInt(cacheConfig.getSimilarityTTLHours(), 24);
-            recommendationSimilaritySupport.cacheSimilarityNeighbors(
-                allSpotIds,
-                spotUserSets,
-                userActivityCount,
-                algorithmConfig,
-                cacheConfig
-            );
+            recommendationSimilaritySupport.cacheSimilarityNeighbors(matrix, algorithmConfig, cacheConfig);
 
-            // 第 6 步：保存任务摘要并失效依赖缓存。
+            // 第 5 步：保存任务摘要并失效依赖缓存。
             // 相似度矩阵更新后，旧的个性化推荐结果已经不再代表当前模型状态，需要统一清理。
-            recommendationSimilaritySupport.saveOfflineSummary(userItemMatrix.size(), allSpotIds.size());
+            recommendationSimilaritySupport.saveOfflineSummary(matrix.userCount(), matrix.spotCount());
+            // 全量结果同时作为后续增量更新的基线，水位线取本次读取开始时间。
+            if (Boolean.TRUE.equals(algorithmConfig.getIncrementalSimilarityEnabled())) {
+                recommendationIncrementalSimilaritySupport.captureBaseline(matrix, activeSpotIds, algorithmConfig, startedAt);
+            } else {
+                recommendationIncrementalSimilaritySupport.reset();
+            }
 
             log.info(
-                "相似度矩阵更新完成：景点数={}，用户数={}，缓存时长={}小时，Top-K={}",
-                allSpotIds.size(),
-                userItemMatrix.size(),
+                "相似度矩阵更新完成：景点数={}，用户数={}，缓存时长={}小时，Top-K={}，计算引擎={}",
+                matrix.spotCount(),
+                matrix.userCount(),
                 simTTL,
-                topK
+                topK,
+                algorithmConfig.getSimilarityEngine()
             );
             invalidateGlobalRecommendationCaches();
         } finally {
-            // 无论成功还是失败，都必须释放互斥标记，避免后续任务永久无法执行。
+            // 无论成功还是失败，都必须释放互斥标记和分布式锁，避免后续任务永久无法执行。
+            if (lockToken != null) {
+                recommendationCacheService.unlockSimilarityMatrix(lockToken);
+            }
+            computing.set(false);
+        }
+    }
+
+    /**
+     * 按行为增量更新景点相似度矩阵。
+     * <p>
+     * 只读取水位线之后变化用户的行为，并重算受影响景点的 Top-K；进程内基线缺失时先尝试恢复，
+     * 恢复不了或基线已失效时退回全量重建。
+     */
+    @Override
+    public void updateSimilarityMatrixIncrementally() {
+        RecommendationConfigBundleDTO config = recommendationCacheService.loadConfig();
+        RecommendationAlgorithmConfigDTO algorithmConfig = safeAlgorithmConfig(config);
+        RecommendationCacheConfigDTO cacheConfig = safeCacheConfig(config);
+        if (!Boolean.TRUE.equals(algorithmConfig.getIncrementalSimilarityEnabled())) {
+            log.info("相似度增量更新未开启，跳过本次增量任务");
+            return;
+        }
+        if (!computing.compareAndSet(false, true)) {
+            log.warn("相似度矩阵正在更新中，跳过本次增量更新");
+            return;
+        }
+
+        boolean fallbackToFullRebuild;
+        String lockToken = null;
+        try {
+            // 增量结果直接覆盖共享的当前版本，多实例部署时只允许持有 Redis 锁的实例执行。
+            lockToken = recommendationCacheService.tryLockSimilarityMatrix();
+            if (lockToken == null) {
+                log.warn("其他实例正在更新相似度矩阵，跳过本次增量更新");
+                return;
+            }
+            Set<Long> activeSpotIds = recommendationSimilaritySupport.getActiveSpotIds();
+            // 景点上下架或算法参数变化后，增量回放已无法保证与全量结果一致；
+            // 仅是进程重启丢失基线时，按持久化的指纹和水位线在已发布结果之上恢复基线。
+            fallbackToFullRebuild = !recommendationIncrementalSimilaritySupport.isBaselineUsable(activeSpotIds, algorithmConfig)
+                && !recommendationIncrementalSimilaritySupport.restoreBaseline(activeSpotIds, algorithmConfig);
+            if (!fallbackToFullRebuild) {
+                int updatedSpots = recommendationIncrementalSimilaritySupport.applyDeltas(algorithmConfig, cacheConfig);
+                recommendationSimilaritySupport.saveOfflineSummary(
+                    recommendationIncrementalSimilaritySupport.getTotalUsers(),
+                    recommendationIncrementalSimilaritySupport.getTotalSpots()
+                );
+                if (updatedSpots > 0) {
+                    invalidateGlobalRecommendationCaches();
+                }
+            }
+        } finally {
+            if (lockToken != null) {
+                recommendationCacheService.unlockSimilarityMatrix(lockToken);
+            }
             computing.set(false);
         }
+
+        if (fallbackToFullRebuild) {
+            log.info("相似度增量基线不可用，改为全量重建");
+            updateSimilarityMatrix();
+        }
     }
 
     /**
@@ -1150,16 +1256,16 @@ public class RecommendationServiceImpl implements RecommendationService {
     /**
      * 填充行为统计摘要，例如浏览、收藏、评分和订单数量。
      */
-    private void populateBehaviorStats(RecommendationResponse.DebugInfo debugInfo, Long userId) {
-        recommendationScoreSupport.populateBehaviorStats(debugInfo, userId);
+    private void populateBehaviorStats(RecommendationResponse.DebugInfo debugInfo, UserBehaviorProfileCacheDTO profile) {
+        recommendationScoreSupport.populateBehaviorStats(debugInfo, profile);
     }
 
     /**
      * 填充行为详情，帮助后台进一步分析各行为权重的组成来源。
      */
-    private void populateBehaviorDetails(RecommendationResponse.DebugInfo debugInfo, Long userId,
+    private void populateBehaviorDetails(RecommendationResponse.DebugInfo debugInfo, UserBehaviorProfileCacheDTO profile,
                                          RecommendationAlgorithmConfigDTO config) {
-        recommendationScoreSupport.populateBehaviorDetails(debugInfo, userId, config);
+        recommendationScoreSupport.populateBehaviorDetails(debugInfo, profile, config);
     }
 
     /**
@@ -1251,13 +1357,6 @@ public class RecommendationServiceImpl implements RecommendationService {
         return recommendationScoreSupport.orderScoresByIds(orderedIds, scoreMap);
     }
 
-    /**
-     * 将缓存中的原始分数映射转换成强类型结构，兼容不同序列化场景。
-     */
-    private Map<Long, Double> castScoreMap(Map<?, ?> rawMap) {
-        return recommendationScoreSupport.castScoreMap(rawMap);
-    }
-
     // 配置管理与状态查询
 
     @Override
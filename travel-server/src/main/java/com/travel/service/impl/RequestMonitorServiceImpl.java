@@ -0,0 +1,59 @@
+package com.travel.service.impl;
+
+import com.travel.dto.monitor.response.SlowRequestsResponse;
+import com.travel.service.RequestMonitorService;
+import com.travel.service.support.monitor.SlowRequestRecorderSupport;
+import com.travel.service.support.monitor.SlowRequestRecorderSupport.SlowRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 请求监控服务实现，负责把慢请求记录换算成后台展示用的毫秒耗时。
+ */
+@Service
+@RequiredArgsConstructor
+public class RequestMonitorServiceImpl implements RequestMonitorService {
+
+    private final SlowRequestRecorderSupport slowRequestRecorderSupport;
+
+    @Override
+    public SlowRequestsResponse getSlowRequests() {
+        List<SlowRequestsResponse.RequestItem> items = slowRequestRecorderSupport.snapshot().stream()
+                .map(this::buildItem)
+                .toList();
+
+        SlowRequestsResponse response = new SlowRequestsResponse();
+        response.setWindowSeconds(slowRequestRecorderSupport.getWindowSeconds());
+        response.setCapacity(slowRequestRecorderSupport.capacity());
+        response.setList(items);
+        return response;
+    }
+
+    private SlowRequestsResponse.RequestItem buildItem(SlowRequest request) {
+        SlowRequestsResponse.RequestItem item = new SlowRequestsResponse.RequestItem();
+        item.setEndpoint(request.endpoint());
+        item.setMethod(request.httpMethod());
+        item.setUri(request.uri());
+        item.setStatus(request.status());
+        item.setStartedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(request.startedAtMillis()), ZoneId.systemDefault()));
+        item.setTotalMillis(toMillis(request.totalNanos()));
+        item.setDbMillis(toMillis(request.dbNanos()));
+        item.setDbCalls(request.dbCalls());
+        item.setRedisMillis(toMillis(request.redisNanos()));
+        item.setRedisCalls(request.redisCalls());
+        item.setSerializationMillis(toMillis(request.serializationNanos()));
+        // 各阶段按墙钟时间分别统计，剩余部分即应用内计算与等待。
+        long otherNanos = request.totalNanos() - request.dbNanos() - request.redisNanos() - request.serializationNanos();
+        item.setOtherMillis(toMillis(Math.max(0L, otherNanos)));
+        return item;
+    }
+
+    private Double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
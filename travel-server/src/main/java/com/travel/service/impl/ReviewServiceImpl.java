@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.travel.common.constant.ResourceDisplayText;
 import com.travel.common.exception.BusinessException;
+import com.travel.common.result.PageCursor;
 import com.travel.common.result.PageResult;
 import com.travel.common.result.ResultCode;
 import com.travel.dto.review.request.AdminReviewListRequest;
@@ -20,6 +21,8 @@ import com.travel.mapper.SpotMapper;
 import com.travel.mapper.UserMapper;
 import com.travel.service.RecommendationService;
 import com.travel.service.ReviewService;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,7 +30,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +50,8 @@ public class ReviewServiceImpl implements ReviewService {
     private final SpotMapper spotMapper;
     private final UserMapper userMapper;
     private final RecommendationService recommendationService;
+    private final SpotCatalogSupport spotCatalogSupport;
+    private final SpotHeatCounterSupport spotHeatCounterSupport;
 
     // 时间格式配置
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
@@ -65,10 +74,14 @@ public class ReviewServiceImpl implements ReviewService {
         );
 
         if (existingReview != null) {
+            boolean restored = existingReview.getIsDeleted() != null && existingReview.getIsDeleted() == 1;
             existingReview.setScore(request.getScore());
             existingReview.setComment(request.getComment());
             existingReview.setIsDeleted(0);
             reviewMapper.updateById(existingReview);
+            if (restored) {
+                spotHeatCounterSupport.recordReview(request.getSpotId(), 1);
+            }
         } else {
             Review review = new Review();
             review.setUserId(userId);
@@ -76,6 +89,7 @@ public class ReviewServiceImpl implements ReviewService {
             review.setScore(request.getScore());
             review.setComment(request.getComment());
             reviewMapper.insert(review);
+            spotHeatCounterSupport.recordReview(request.getSpotId(), 1);
         }
 
         // 评价变更后需要立即刷新景点评分聚合，并清理推荐缓存。
@@ -98,7 +112,7 @@ public class ReviewServiceImpl implements ReviewService {
             return null;
         }
 
-        return convertToResponse(review, false);
+        return convertToResponses(List.of(review), false).get(0);
     }
 
     @Override
@@ -106,9 +120,7 @@ public class ReviewServiceImpl implements ReviewService {
         Page<Review> pageObj = new Page<>(page, pageSize);
         pageObj = (Page<Review>) reviewMapper.selectReviewPage(pageObj, spotId);
 
-        List<ReviewResponse> list = pageObj.getRecords().stream()
-            .map(review -> convertToResponse(review, false))
-            .collect(Collectors.toList());
+        List<ReviewResponse> list = convertToResponses(pageObj.getRecords(), false);
 
         return PageResult.of(list, pageObj.getTotal(), page, pageSize);
     }
@@ -121,9 +133,7 @@ public class ReviewServiceImpl implements ReviewService {
         Page<Review> pageObj = new Page<>(request.getPage(), request.getPageSize());
         pageObj = (Page<Review>) reviewMapper.selectReviewFeedPage(pageObj, minScore, maxScore);
 
-        List<ReviewResponse> list = pageObj.getRecords().stream()
-                .map(review -> convertToResponse(review, false))
-                .collect(Collectors.toList());
+        List<ReviewResponse> list = convertToResponses(pageObj.getRecords(), false);
 
         return PageResult.of(list, pageObj.getTotal(), request.getPage(), request.getPageSize());
     }
@@ -134,13 +144,27 @@ public class ReviewServiceImpl implements ReviewService {
         Page<Review> pageObj = new Page<>(page, pageSize);
         pageObj = (Page<Review>) reviewMapper.selectUserReviewPage(pageObj, userId);
 
-        List<ReviewResponse> list = pageObj.getRecords().stream()
-            .map(review -> convertToResponse(review, false))
-            .collect(Collectors.toList());
+        List<ReviewResponse> list = convertToResponses(pageObj.getRecords(), false);
 
         return PageResult.of(list, pageObj.getTotal(), page, pageSize);
     }
 
+    @Override
+    public PageResult<ReviewResponse> getUserReviewsByCursor(Long userId, String cursor, Integer pageSize) {
+        getActiveUser(userId);
+        int safePageSize = PageCursor.limitPageSize(pageSize);
+        PageCursor position = PageCursor.decode(cursor);
+        List<Review> reviews = new ArrayList<>(reviewMapper.selectUserReviewsAfter(
+            userId,
+            position == null ? null : position.sortTime(),
+            position == null ? null : position.id(),
+            safePageSize + 1
+        ));
+        String nextCursor = PageCursor.sliceNext(reviews, safePageSize, Review::getCreatedAt, Review::getId);
+
+        return PageResult.ofCursor(convertToResponses(reviews, false), nextCursor, safePageSize);
+    }
+
     @Override
     @Transactional
     public void deleteReview(Long userId, Long reviewId) {
@@ -155,6 +179,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.setIsDeleted(1);
         reviewMapper.updateById(review);
+        spotHeatCounterSupport.recordReview(review.getSpotId(), -1);
         updateSpotAvgRating(review.getSpotId());
         recommendationService.invalidateUserRecommendationCache(userId);
         log.info("用户删除评价: userId={}, reviewId={}, spotId={}", userId, reviewId, review.getSpotId());
@@ -167,9 +192,7 @@ public class ReviewServiceImpl implements ReviewService {
         Page<Review> pageObj = new Page<>(request.getPage(), request.getPageSize());
         pageObj = (Page<Review>) reviewMapper.selectAdminReviewPage(pageObj, request.getNickname(), request.getSpotName());
 
-        List<ReviewResponse> list = pageObj.getRecords().stream()
-            .map(review -> convertToResponse(review, true))
-            .collect(Collectors.toList());
+        List<ReviewResponse> list = convertToResponses(pageObj.getRecords(), true);
 
         return PageResult.of(list, pageObj.getTotal(), request.getPage(), request.getPageSize());
     }
@@ -214,6 +237,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.setIsDeleted(1);
         reviewMapper.updateById(review);
+        spotHeatCounterSupport.recordReview(review.getSpotId(), -1);
         updateSpotAvgRating(review.getSpotId());
         recommendationService.invalidateUserRecommendationCache(review.getUserId());
         log.info("管理员删除评价: reviewId={}, userId={}, spotId={}", reviewId, review.getUserId(), review.getSpotId());
@@ -270,18 +294,54 @@ public class ReviewServiceImpl implements ReviewService {
                 .set("avg_rating", avgRating)
                 .set("rating_count", ratingCount)
         );
+        // 评分不进目录快照，只原地更新本实例的计数缓存，不递增目录版本。
+        spotCatalogSupport.updateRating(spotId, avgRating, (int) ratingCount);
     }
 
     // 响应对象转换方法
-    private ReviewResponse convertToResponse(Review review, boolean adminView) {
-        User user = null;
-        if (review.getNickname() == null || review.getAvatarUrl() == null) {
-            user = userMapper.selectById(review.getUserId());
-        }
-        Spot spot = null;
-        if (review.getSpotName() == null || review.getCoverImageUrl() == null) {
-            spot = spotMapper.selectById(review.getSpotId());
+
+    /**
+     * 整页转换评价响应。联表未带回作者或景点展示字段的评价，先按页收集 ID，
+     * 用户一次批量查询、景点走目录快照，查询次数不随页大小增长。
+     */
+    private List<ReviewResponse> convertToResponses(List<Review> reviews, boolean adminView) {
+        if (reviews.isEmpty()) {
+            return new ArrayList<>();
         }
+        Set<Long> userIds = reviews.stream()
+            .filter(this::needsUserLookup)
+            .map(Review::getUserId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> spotIds = reviews.stream()
+            .filter(this::needsSpotLookup)
+            .map(Review::getSpotId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+        Map<Long, User> userMap = userIds.isEmpty()
+            ? Map.of()
+            : userMapper.selectBatchIds(userIds).stream().collect(Collectors.toMap(User::getId, user -> user, (left, right) -> left));
+        Map<Long, Spot> spotMap = spotIds.isEmpty()
+            ? Map.of()
+            : spotCatalogSupport.getSpots(spotIds).stream().collect(Collectors.toMap(Spot::getId, spot -> spot, (left, right) -> left));
+
+        return reviews.stream()
+            .map(review -> convertToResponse(review, adminView, userMap, spotMap))
+            .collect(Collectors.toList());
+    }
+
+    private boolean needsUserLookup(Review review) {
+        return review.getNickname() == null || review.getAvatarUrl() == null;
+    }
+
+    private boolean needsSpotLookup(Review review) {
+        return review.getSpotName() == null || review.getCoverImageUrl() == null;
+    }
+
+    private ReviewResponse convertToResponse(Review review, boolean adminView, Map<Long, User> userMap, Map<Long, Spot> spotMap) {
+        User user = needsUserLookup(review) ? userMap.get(review.getUserId()) : null;
+        Spot spot = needsSpotLookup(review) ? spotMap.get(review.getSpotId()) : null;
 
         boolean isActiveUser = user != null && user.getIsDeleted() != null && user.getIsDeleted() == 0;
         String nickname = review.getNickname() != null
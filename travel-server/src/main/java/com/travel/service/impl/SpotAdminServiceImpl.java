@@ -26,6 +26,7 @@ import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.RecommendationService;
 import com.travel.service.SpotAdminService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import com.travel.service.support.spot.SpotResponseAssembler;
 import com.travel.service.support.spot.SpotTreeSupport;
 import com.travel.service.support.spot.SpotWriteSupport;
@@ -62,6 +63,7 @@ public class SpotAdminServiceImpl implements SpotAdminService {
     private final SpotTreeSupport spotTreeSupport;
     private final SpotWriteSupport spotWriteSupport;
     private final RecommendationService recommendationService;
+    private final SpotCatalogSupport spotCatalogSupport;
 
     @Override
     public PageResult<AdminSpotListResponse> getAdminSpotList(AdminSpotListRequest request) {
@@ -95,9 +97,7 @@ public class SpotAdminServiceImpl implements SpotAdminService {
         wrapper.orderByAsc(Spot::getId);
 
         Page<Spot> result = spotMapper.selectPage(page, wrapper);
-        List<AdminSpotListResponse> list = result.getRecords().stream()
-            .map(spotResponseAssembler::toAdminSpotListResponse)
-            .collect(Collectors.toList());
+        List<AdminSpotListResponse> list = spotResponseAssembler.toAdminSpotListResponses(result.getRecords());
         return PageResult.of(list, result.getTotal(), request.getPage(), request.getPageSize());
     }
 
@@ -153,6 +153,7 @@ public class SpotAdminServiceImpl implements SpotAdminService {
         spotWriteSupport.copyUpsertRequest(request, spot);
         spotMapper.insert(spot);
         spotWriteSupport.saveSpotImages(spot.getId(), request.getImages());
+        spotCatalogSupport.refresh();
         recommendationService.invalidateGlobalRecommendationCaches();
         log.info("景点创建成功: spotId={}, name={}", spot.getId(), spot.getName());
         return spot.getId();
@@ -170,6 +171,7 @@ public class SpotAdminServiceImpl implements SpotAdminService {
             spotWriteSupport.saveSpotImages(spotId, request.getImages());
         }
 
+        spotCatalogSupport.refresh();
         recommendationService.invalidateGlobalRecommendationCaches();
 
         log.info("景点更新成功: spotId={}, name={}", spotId, request.getName());
@@ -180,6 +182,7 @@ public class SpotAdminServiceImpl implements SpotAdminService {
         Spot spot = getExistingSpot(spotId);
         spot.setIsPublished(Boolean.TRUE.equals(published) ? 1 : 0);
         spotMapper.updateById(spot);
+        spotCatalogSupport.refresh();
         recommendationService.invalidateGlobalRecommendationCaches();
         log.info("景点发布状态变更: spotId={}, published={}", spotId, published);
     }
@@ -195,6 +198,7 @@ public class SpotAdminServiceImpl implements SpotAdminService {
         spotMapper.updateById(spot);
 
         markSpotImagesDeleted(spotId);
+        spotCatalogSupport.refresh();
         recommendationService.invalidateGlobalRecommendationCaches();
         log.info("景点已删除: spotId={}, name={}", spotId, spot.getName());
     }
@@ -14,6 +14,7 @@ import com.travel.mapper.SpotBannerMapper;
 import com.travel.mapper.SpotMapper;
 import com.travel.service.SpotBannerService;
 import com.travel.service.cache.RecommendationCacheService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -37,6 +38,7 @@ public class SpotBannerServiceImpl implements SpotBannerService {
     private final SpotBannerMapper spotBannerMapper;
     private final SpotMapper spotMapper;
     private final RecommendationCacheService recommendationCacheService;
+    private final SpotCatalogSupport spotCatalogSupport;
 
     // 用户端展示接口
 
@@ -298,7 +300,7 @@ public class SpotBannerServiceImpl implements SpotBannerService {
             return Map.of();
         }
 
-        Map<Long, String> spotNameMap = spotMapper.selectBatchIds(spotIds).stream()
+        Map<Long, String> spotNameMap = spotCatalogSupport.getSpots(spotIds).stream()
             .collect(Collectors.toMap(Spot::getId, this::resolveSpotDisplayName));
 
         spotIds.stream()
@@ -9,6 +9,8 @@ import com.travel.mapper.UserMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.RecommendationService;
 import com.travel.service.SpotBehaviorService;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
+import com.travel.service.support.spot.SpotViewIngestionSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
  * 景点行为服务实现，负责浏览记录和推荐缓存失效。
  * <p>
  * 行为落库失败不应阻断主业务浏览流程，因此这里采用记录失败仅告警的策略。
+ * 默认交给异步缓冲管道批量落库，关闭异步写入时沿用请求线程内逐条写入的路径。
  */
 @Slf4j
 @Service
@@ -27,6 +30,8 @@ public class SpotBehaviorServiceImpl implements SpotBehaviorService {
     private final UserMapper userMapper;
     private final SpotMapper spotMapper;
     private final RecommendationService recommendationService;
+    private final SpotHeatCounterSupport spotHeatCounterSupport;
+    private final SpotViewIngestionSupport spotViewIngestionSupport;
 
     @Override
     public void recordView(Long spotId, Long userId, String source, Integer duration) {
@@ -34,6 +39,16 @@ public class SpotBehaviorServiceImpl implements SpotBehaviorService {
         if (userId == null) {
             return;
         }
+        if (spotViewIngestionSupport.isAsyncEnabled()) {
+            UserSpotView view = new UserSpotView();
+            view.setUserId(userId);
+            view.setSpotId(spotId);
+            view.setViewSource(source);
+            view.setViewDuration(duration != null ? duration : 0);
+            // 用户、景点校验和缓存失效都移到后台批量处理，请求线程只负责入队。
+            spotViewIngestionSupport.submit(view);
+            return;
+        }
         try {
             if (!isActiveUser(userId) || !isActiveSpot(spotId)) {
                 return;
@@ -44,6 +59,7 @@ public class SpotBehaviorServiceImpl implements SpotBehaviorService {
             view.setViewSource(source);
             view.setViewDuration(duration != null ? duration : 0);
             userSpotViewMapper.insert(view);
+            spotHeatCounterSupport.recordView(spotId);
             // 浏览行为会影响推荐结果，写入后立即让当前用户推荐缓存失效。
             recommendationService.invalidateUserRecommendationCache(userId);
         } catch (Exception e) {
@@ -11,6 +11,7 @@ import com.travel.mapper.SpotMapper;
 import com.travel.mapper.SpotCategoryMapper;
 import lombok.RequiredArgsConstructor;
 import com.travel.service.SpotCategoryService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
 public class SpotCategoryServiceImpl extends ServiceImpl<SpotCategoryMapper, SpotCategory> implements SpotCategoryService {
 
     private final SpotMapper spotMapper;
+    private final SpotCatalogSupport spotCatalogSupport;
 
     // 管理端分类查询与维护
 
@@ -59,6 +61,7 @@ public class SpotCategoryServiceImpl extends ServiceImpl<SpotCategoryMapper, Spo
         category.setSortOrder(targetSortOrder);
         category.setIsDeleted(0);
         save(category);
+        spotCatalogSupport.refresh();
     }
 
     @Override
@@ -72,6 +75,7 @@ public class SpotCategoryServiceImpl extends ServiceImpl<SpotCategoryMapper, Spo
         category.setId(id);
         category.setSortOrder(targetSortOrder);
         updateById(category);
+        spotCatalogSupport.refresh();
     }
 
     @Override
@@ -98,6 +102,7 @@ public class SpotCategoryServiceImpl extends ServiceImpl<SpotCategoryMapper, Spo
         category.setIsDeleted(1);
         updateById(category);
         compactSortOrdersAfterRemoval(parentId, id, removedSortOrder);
+        spotCatalogSupport.refresh();
     }
 
     /**
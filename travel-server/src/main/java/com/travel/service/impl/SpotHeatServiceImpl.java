@@ -5,7 +5,10 @@ import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.travel.common.exception.BusinessException;
 import com.travel.common.result.ResultCode;
 import com.travel.constant.SpotHeatLevelConstants;
-import com.travel.dto.recommendation.config.RecommendationConfigBundleDTO;
+import com.travel.dto.recommendation.config.RecommendationHeatConfigDTO;
+import com.travel.dto.spot.stats.SpotBehaviorCountStats;
+import com.travel.dto.spot.stats.SpotBehaviorDelta;
+import com.travel.dto.spot.stats.SpotOrderCountStats;
 import com.travel.entity.Order;
 import com.travel.entity.Review;
 import com.travel.entity.Spot;
@@ -19,17 +22,26 @@ import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.RecommendationService;
 import com.travel.service.SpotHeatService;
+import com.travel.service.cache.RecommendationCacheService;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 景点热度服务实现，负责热度分重算和批量同步。
  * <p>
  * 热度分既受基础热度档位影响，也受用户行为影响，因此统一在这里汇总计算。
+ * 日常行为通过实时计数器增量累加到热度分，全量重算只作为定期校正。
  */
 @Slf4j
 @Service
@@ -42,35 +54,229 @@ public class SpotHeatServiceImpl implements SpotHeatService {
     private final UserSpotViewMapper userSpotViewMapper;
     private final OrderMapper orderMapper;
     private final RecommendationService recommendationService;
+    private final SpotCatalogSupport spotCatalogSupport;
+    private final SpotHeatCounterSupport spotHeatCounterSupport;
+    private final RecommendationCacheService recommendationCacheService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 全量重算与增量刷写互斥：刷写中途被重算覆盖，或重算期间刷写的增量叠加在重算结果上，都会让热度分偏离实际行为。
+     */
+    private final ReentrantLock heatWriteLock = new ReentrantLock();
 
     @Override
     @Transactional
     public void refreshSpotHeat(Long spotId) {
         Spot spot = getActiveSpot(spotId);
-        applyHeatScore(spot);
+        applyHeatScore(spot, recommendationService.getConfig().getHeat());
+        spotCatalogSupport.invalidateCounters();
         recommendationService.invalidateGlobalRecommendationCaches();
     }
 
+    /**
+     * 全量同步热度分。
+     * <p>
+     * 推荐配置每次同步只读取一次。默认按景点分组聚合行为计数并分批回写，配置为逐景点时沿用逐条统计的旧路径，
+     * 两者都会输出耗时便于对比。热度分是可随时重算的派生数据，这里不再包一个覆盖全表的长事务：
+     * 统计在一个只读事务内完成，回写在事务外分批提交，中途失败时已写入的批次保留，剩余部分由下次同步补齐。
+     * <p>
+     * 全量重算会重新统计已提交的全部行为，因此本实例尚未刷写的实时增量必须丢弃，又不能丢掉统计之后才提交的行为：
+     * 清空计数紧挨着统计事务的第一条查询，InnoDB 默认的可重复读在这条查询上建立一致性快照，
+     * 此后提交的行为不在快照内，其增量留在计数器中由下次刷写补上。重算期间增量刷写暂停，避免与回写交错。
+     */
     @Override
-    @Transactional
     public void refreshAllSpotHeat() {
-        // 批量同步只拉取必要字段，减少全量重算时的无效数据加载。
-        List<Spot> spots = spotMapper.selectList(
-            new LambdaQueryWrapper<Spot>()
-                .eq(Spot::getIsDeleted, 0)
-                .select(Spot::getId, Spot::getHeatLevel)
-        );
+        heatWriteLock.lock();
+        try {
+            RecommendationHeatConfigDTO heatConfig = recommendationService.getConfig().getHeat();
+            boolean perSpot = RecommendationHeatConfigDTO.REFRESH_MODE_PER_SPOT.equalsIgnoreCase(heatConfig.getHeatRefreshMode());
+            long startedAt = System.currentTimeMillis();
 
-        for (Spot spot : spots) {
-            applyHeatScore(spot);
+            HeatSnapshot heatSnapshot = transactionTemplate.execute(status -> {
+                spotHeatCounterSupport.clear();
+                // 批量同步只拉取必要字段，减少全量重算时的无效数据加载。
+                List<Spot> spots = spotMapper.selectList(
+                    new LambdaQueryWrapper<Spot>()
+                        .eq(Spot::getIsDeleted, 0)
+                        .select(Spot::getId, Spot::getHeatLevel, Spot::getHeatScore)
+                );
+                return new HeatSnapshot(spots.size(), perSpot ? scorePerSpot(spots, heatConfig) : scoreInBulk(spots, heatConfig));
+            });
+            int updated = perSpot
+                ? writePerSpot(heatSnapshot.scores())
+                : writeInBulk(heatSnapshot.scores(), heatConfig);
+
+            log.info(
+                "景点热度全量同步完成：同步方式={}，景点数={}，回写数={}，耗时={}ms",
+                perSpot ? RecommendationHeatConfigDTO.REFRESH_MODE_PER_SPOT : RecommendationHeatConfigDTO.REFRESH_MODE_BULK,
+                heatSnapshot.spotCount(),
+                updated,
+                System.currentTimeMillis() - startedAt
+            );
+        } finally {
+            heatWriteLock.unlock();
         }
+        spotCatalogSupport.invalidateCounters();
         recommendationService.invalidateGlobalRecommendationCaches();
     }
 
-    private void applyHeatScore(Spot spot) {
-        RecommendationConfigBundleDTO config = recommendationService.getConfig();
-        int totalHeatScore = SpotHeatLevelConstants.toBaseScore(spot.getHeatLevel())
-            + calculateBehaviorHeatScore(spot.getId(), config);
+    /**
+     * 刷写实时热度增量。
+     * <p>
+     * 增量按当前热度配置折算成分值后以原地累加的方式分批回写，多个实例各自刷写互不覆盖。
+     * 某批回写失败时，该批及后续尚未回写的增量放回计数器，等待下次刷写。
+     * 全量重算进行中时跳过本轮，增量留在计数器中。只有确实累加到行的批次才会刷新目录计数和首页热门缓存。
+     */
+    @Override
+    public int flushHeatDeltas() {
+        if (!heatWriteLock.tryLock()) {
+            log.info("景点热度全量同步进行中，跳过本轮增量刷写");
+            return 0;
+        }
+        try {
+            return doFlushHeatDeltas();
+        } finally {
+            heatWriteLock.unlock();
+        }
+    }
+
+    private int doFlushHeatDeltas() {
+        List<SpotBehaviorDelta> deltas = spotHeatCounterSupport.drain();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        long startedAt = System.currentTimeMillis();
+        RecommendationHeatConfigDTO heatConfig = recommendationService.getConfig().getHeat();
+
+        List<SpotBehaviorDelta> pending = new ArrayList<>(deltas.size());
+        List<Spot> increments = new ArrayList<>(deltas.size());
+        for (SpotBehaviorDelta delta : deltas) {
+            int scoreDelta = calculateBehaviorHeatScore(
+                delta.getViewCount(),
+                delta.getFavoriteCount(),
+                delta.getReviewCount(),
+                delta.getPaidOrderCount(),
+                delta.getCompletedOrderCount(),
+                heatConfig
+            );
+            if (scoreDelta == 0) {
+                continue;
+            }
+            Spot increment = new Spot();
+            increment.setId(delta.getSpotId());
+            increment.setHeatScore(scoreDelta);
+            increments.add(increment);
+            pending.add(delta);
+        }
+        if (increments.isEmpty()) {
+            return 0;
+        }
+
+        int batchSize = positiveOrDefault(heatConfig.getHeatRefreshBatchSize(), 500);
+        int flushed = 0;
+        int incremented = 0;
+        try {
+            for (; flushed < increments.size(); flushed += batchSize) {
+                incremented += spotMapper.batchIncrementHeatScore(
+                    increments.subList(flushed, Math.min(flushed + batchSize, increments.size())));
+            }
+        } catch (RuntimeException e) {
+            spotHeatCounterSupport.restore(pending.subList(flushed, pending.size()));
+            throw e;
+        } finally {
+            if (incremented > 0) {
+                // 热度变化会影响热门排行和推荐重排，刷写成功的部分立即对外可见；景点已被删除等未命中任何行时无需刷新。
+                spotCatalogSupport.invalidateCounters();
+                recommendationCacheService.deleteHomeHotSpots();
+            }
+        }
+        log.info("景点热度增量刷写完成：景点数={}，实际更新={}，耗时={}ms",
+            increments.size(), incremented, System.currentTimeMillis() - startedAt);
+        return incremented;
+    }
+
+    /**
+     * 逐景点统计行为计数，每个景点都回写，与旧路径口径一致。
+     */
+    private List<Spot> scorePerSpot(List<Spot> spots, RecommendationHeatConfigDTO heatConfig) {
+        List<Spot> scores = new ArrayList<>(spots.size());
+        for (Spot spot : spots) {
+            Spot update = new Spot();
+            update.setId(spot.getId());
+            update.setHeatLevel(spot.getHeatLevel());
+            update.setHeatScore(calculateHeatScore(spot, heatConfig));
+            scores.add(update);
+        }
+        return scores;
+    }
+
+    private int writePerSpot(List<Spot> scores) {
+        for (Spot spot : scores) {
+            writeHeatScore(spot, spot.getHeatScore());
+        }
+        return scores.size();
+    }
+
+    /**
+     * 四条分组聚合查询取回全部景点的行为计数，内存中算出热度分，只返回发生变化的景点。
+     */
+    private List<Spot> scoreInBulk(List<Spot> spots, RecommendationHeatConfigDTO heatConfig) {
+        Map<Long, Long> viewCounts = toCountMap(userSpotViewMapper.selectViewCountsBySpot());
+        Map<Long, Long> favoriteCounts = toCountMap(userSpotFavoriteMapper.selectFavoriteCountsBySpot());
+        Map<Long, Long> reviewCounts = toCountMap(reviewMapper.selectReviewCountsBySpot());
+        Map<Long, SpotOrderCountStats> orderCounts = new HashMap<>();
+        for (SpotOrderCountStats stats : orderMapper.selectOrderCountsBySpot(
+            OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode())) {
+            orderCounts.put(stats.getSpotId(), stats);
+        }
+
+        List<Spot> changed = new ArrayList<>();
+        for (Spot spot : spots) {
+            SpotOrderCountStats orders = orderCounts.get(spot.getId());
+            int totalHeatScore = SpotHeatLevelConstants.toBaseScore(spot.getHeatLevel()) + calculateBehaviorHeatScore(
+                viewCounts.getOrDefault(spot.getId(), 0L),
+                favoriteCounts.getOrDefault(spot.getId(), 0L),
+                reviewCounts.getOrDefault(spot.getId(), 0L),
+                orders == null || orders.getPaidCount() == null ? 0L : orders.getPaidCount(),
+                orders == null || orders.getCompletedCount() == null ? 0L : orders.getCompletedCount(),
+                heatConfig
+            );
+            if (spot.getHeatScore() != null && spot.getHeatScore() == totalHeatScore) {
+                continue;
+            }
+            Spot update = new Spot();
+            update.setId(spot.getId());
+            update.setHeatScore(totalHeatScore);
+            changed.add(update);
+        }
+        return changed;
+    }
+
+    private int writeInBulk(List<Spot> changed, RecommendationHeatConfigDTO heatConfig) {
+        int batchSize = positiveOrDefault(heatConfig.getHeatRefreshBatchSize(), 500);
+        for (int from = 0; from < changed.size(); from += batchSize) {
+            spotMapper.batchUpdateHeatScore(changed.subList(from, Math.min(from + batchSize, changed.size())));
+        }
+        return changed.size();
+    }
+
+    private Map<Long, Long> toCountMap(List<SpotBehaviorCountStats> stats) {
+        Map<Long, Long> counts = new HashMap<>(Math.max(16, stats.size() * 2));
+        for (SpotBehaviorCountStats item : stats) {
+            counts.put(item.getSpotId(), item.getBehaviorCount() == null ? 0L : item.getBehaviorCount());
+        }
+        return counts;
+    }
+
+    private void applyHeatScore(Spot spot, RecommendationHeatConfigDTO heatConfig) {
+        writeHeatScore(spot, calculateHeatScore(spot, heatConfig));
+    }
+
+    private int calculateHeatScore(Spot spot, RecommendationHeatConfigDTO heatConfig) {
+        return SpotHeatLevelConstants.toBaseScore(spot.getHeatLevel()) + calculateBehaviorHeatScore(spot.getId(), heatConfig);
+    }
+
+    private void writeHeatScore(Spot spot, int totalHeatScore) {
         spotMapper.update(
             null,
             new UpdateWrapper<Spot>()
@@ -91,8 +297,7 @@ public class SpotHeatServiceImpl implements SpotHeatService {
         return spot;
     }
 
-    private int calculateBehaviorHeatScore(Long spotId, RecommendationConfigBundleDTO config) {
-        // 各行为增量都从推荐配置读取，便于后台调参后直接复用同一套热度规则。
+    private int calculateBehaviorHeatScore(Long spotId, RecommendationHeatConfigDTO heatConfig) {
         long viewCount = userSpotViewMapper.selectCount(
             new LambdaQueryWrapper<UserSpotView>().eq(UserSpotView::getSpotId, spotId)
         );
@@ -118,12 +323,21 @@ public class SpotHeatServiceImpl implements SpotHeatService {
                 .eq(Order::getIsDeleted, 0)
                 .eq(Order::getStatus, OrderStatus.COMPLETED.getCode())
         );
+        return calculateBehaviorHeatScore(viewCount, favoriteCount, reviewCount, paidOrderCount, completedOrderCount, heatConfig);
+    }
 
-        int viewIncrement = positiveOrDefault(config.getHeat().getHeatViewIncrement(), 1);
-        int favoriteIncrement = positiveOrDefault(config.getHeat().getHeatFavoriteIncrement(), 3);
-        int reviewIncrement = positiveOrDefault(config.getHeat().getHeatReviewIncrement(), 2);
-        int paidIncrement = positiveOrDefault(config.getHeat().getHeatOrderPaidIncrement(), 5);
-        int completedIncrement = positiveOrDefault(config.getHeat().getHeatOrderCompletedIncrement(), 8);
+    private int calculateBehaviorHeatScore(long viewCount,
+                                           long favoriteCount,
+                                           long reviewCount,
+                                           long paidOrderCount,
+                                           long completedOrderCount,
+                                           RecommendationHeatConfigDTO heatConfig) {
+        // 各行为增量都从推荐配置读取，便于后台调参后直接复用同一套热度规则。
+        int viewIncrement = positiveOrDefault(heatConfig.getHeatViewIncrement(), 1);
+        int favoriteIncrement = positiveOrDefault(heatConfig.getHeatFavoriteIncrement(), 3);
+        int reviewIncrement = positiveOrDefault(heatConfig.getHeatReviewIncrement(), 2);
+        int paidIncrement = positiveOrDefault(heatConfig.getHeatOrderPaidIncrement(), 5);
+        int completedIncrement = positiveOrDefault(heatConfig.getHeatOrderCompletedIncrement(), 8);
 
         return Math.toIntExact(
             viewCount * (long) viewIncrement
@@ -138,4 +352,10 @@ public class SpotHeatServiceImpl implements SpotHeatService {
         // 配置缺失或非法时回退默认值，避免热度计算直接退化成 0。
         return value != null && value > 0 ? value : fallback;
     }
+
+    /**
+     * 统计事务内算出的热度分，回写在事务提交后进行。
+     */
+    private record HeatSnapshot(int spotCount, List<Spot> scores) {
+    }
 }
@@ -25,6 +25,7 @@ import com.travel.mapper.UserMapper;
 import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.SpotQueryService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import com.travel.service.support.spot.SpotResponseAssembler;
 import com.travel.service.support.spot.SpotTreeSupport;
 import lombok.RequiredArgsConstructor;
@@ -57,6 +58,7 @@ public class SpotQueryServiceImpl implements SpotQueryService {
     private final UserMapper userMapper;
     private final SpotResponseAssembler spotResponseAssembler;
     private final SpotTreeSupport spotTreeSupport;
+    private final SpotCatalogSupport spotCatalogSupport;
 
     @Override
     public PageResult<SpotListResponse> getSpotList(SpotListRequest request) {
@@ -94,9 +96,7 @@ public class SpotQueryServiceImpl implements SpotQueryService {
         }
 
         Page<Spot> result = spotMapper.selectPage(page, wrapper);
-        List<SpotListResponse> list = result.getRecords().stream()
-            .map(spotResponseAssembler::toSpotListResponse)
-            .collect(Collectors.toList());
+        List<SpotListResponse> list = spotResponseAssembler.toSpotListResponses(result.getRecords());
         return PageResult.of(list, result.getTotal(), request.getPage(), request.getPageSize());
     }
 
@@ -104,9 +104,7 @@ public class SpotQueryServiceImpl implements SpotQueryService {
     public PageResult<SpotListResponse> searchSpots(String keyword, Integer page, Integer pageSize) {
         Page<Spot> pageObj = new Page<>(page, pageSize);
         Page<Spot> result = (Page<Spot>) spotMapper.selectPublishedSearchPage(pageObj, keyword);
-        List<SpotListResponse> list = result.getRecords().stream()
-            .map(spotResponseAssembler::toSpotListResponse)
-            .collect(Collectors.toList());
+        List<SpotListResponse> list = spotResponseAssembler.toSpotListResponses(result.getRecords());
         return PageResult.of(list, result.getTotal(), page, pageSize);
     }
 
@@ -137,7 +135,7 @@ public class SpotQueryServiceImpl implements SpotQueryService {
         }
 
         Set<Long> spotIds = latestViews.stream().map(UserSpotView::getSpotId).collect(Collectors.toSet());
-        Map<Long, Spot> spotMap = spotMapper.selectBatchIds(spotIds).stream()
+        Map<Long, Spot> spotMap = spotCatalogSupport.getSpots(spotIds).stream()
             .collect(Collectors.toMap(Spot::getId, spot -> spot));
 
         List<SpotViewHistoryResponse> allItems = latestViews.stream()
@@ -147,8 +145,8 @@ public class SpotQueryServiceImpl implements SpotQueryService {
                     .id(view.getSpotId())
                     .name(resolveUserSpotDisplayName(spot))
                     .coverImage(isVisibleSpot(spot) ? spot.getCoverImageUrl() : null)
-                    .regionName(isVisibleSpot(spot) ? spotResponseAssembler.getRegionName(spot.getRegionId()) : null)
-                    .categoryName(isVisibleSpot(spot) ? spotResponseAssembler.getCategoryName(spot.getCategoryId()) : null)
+                    .regionName(isVisibleSpot(spot) ? spot.getRegionName() : null)
+                    .categoryName(isVisibleSpot(spot) ? spot.getCategoryName() : null)
                     .viewedAt(view.getCreatedAt() == null ? null : view.getCreatedAt().format(VIEW_TIME_FORMATTER))
                     .build();
             })
@@ -11,6 +11,7 @@ import com.travel.mapper.SpotMapper;
 import com.travel.mapper.SpotRegionMapper;
 import lombok.RequiredArgsConstructor;
 import com.travel.service.SpotRegionService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
 public class SpotRegionServiceImpl extends ServiceImpl<SpotRegionMapper, SpotRegion> implements SpotRegionService {
 
     private final SpotMapper spotMapper;
+    private final SpotCatalogSupport spotCatalogSupport;
 
     // 管理端地区查询与维护
 
@@ -59,6 +61,7 @@ public class SpotRegionServiceImpl extends ServiceImpl<SpotRegionMapper, SpotReg
         region.setSortOrder(targetSortOrder);
         region.setIsDeleted(0);
         save(region);
+        spotCatalogSupport.refresh();
     }
 
     @Override
@@ -72,6 +75,7 @@ public class SpotRegionServiceImpl extends ServiceImpl<SpotRegionMapper, SpotReg
         region.setId(id);
         region.setSortOrder(targetSortOrder);
         updateById(region);
+        spotCatalogSupport.refresh();
     }
 
     @Override
@@ -98,6 +102,7 @@ public class SpotRegionServiceImpl extends ServiceImpl<SpotRegionMapper, SpotReg
         region.setIsDeleted(1);
         updateById(region);
         compactSortOrdersAfterRemoval(parentId, id, removedSortOrder);
+        spotCatalogSupport.refresh();
     }
 
     /**
@@ -17,6 +17,7 @@ import com.travel.mapper.UserPreferenceMapper;
 import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.service.RecommendationService;
 import com.travel.service.UserAccountService;
+import com.travel.service.support.auth.PrincipalStatusCacheSupport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -44,6 +45,7 @@ public class UserAccountServiceImpl implements UserAccountService {
     private final SpotCategoryMapper spotCategoryMapper;
     private final RecommendationService recommendationService;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final PrincipalStatusCacheSupport principalStatusCacheSupport;
 
     // 账户资料与安全设置
 
@@ -230,6 +232,7 @@ public class UserAccountServiceImpl implements UserAccountService {
         softDeleteUserFavorites(userId);
         user.setIsDeleted(1);
         userMapper.updateById(user);
+        principalStatusCacheSupport.invalidateUser(userId);
         recommendationService.invalidateUserRecommendationCache(userId);
     }
 
@@ -242,6 +245,7 @@ public class UserAccountServiceImpl implements UserAccountService {
         restoreUserFavorites(userId);
         user.setIsDeleted(0);
         userMapper.updateById(user);
+        principalStatusCacheSupport.invalidateUser(userId);
         recommendationService.invalidateUserRecommendationCache(userId);
     }
 
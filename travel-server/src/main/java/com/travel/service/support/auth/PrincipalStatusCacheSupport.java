@@ -0,0 +1,227 @@
+package com.travel.service.support.auth;
+
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.entity.Admin;
+import com.travel.entity.User;
+import com.travel.mapper.AdminMapper;
+import com.travel.mapper.UserMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 登录主体状态缓存。
+ * <p>
+ * 认证拦截器每次请求都要确认 Token 对应的用户或管理员仍然有效，原先每次都查一次库。
+ * 这里按主体 ID 在进程内缓存账号状态，条目数有上限且只保留较短的 TTL；停用、恢复、删除、启停管理员等入口
+ * 在事务提交后主动失效对应条目，正常情况下拦截器不再访问数据库，TTL 只兜底未走失效入口的直接改库和其他实例的变更。
+ * 主体不存在时不写缓存，避免为伪造或过期的 ID 占用条目。
+ */
+@Slf4j
+@Component
+public class PrincipalStatusCacheSupport {
+
+    private static final String METRIC_PREFIX = "waytrip.auth.principal.cache";
+
+    private final UserMapper userMapper;
+    private final AdminMapper adminMapper;
+    private final AppCacheProperties appCacheProperties;
+
+    private final Region userRegion;
+    private final Region adminRegion;
+
+    public PrincipalStatusCacheSupport(UserMapper userMapper,
+                                       AdminMapper adminMapper,
+                                       AppCacheProperties appCacheProperties,
+                                       MeterRegistry meterRegistry) {
+        this.userMapper = userMapper;
+        this.adminMapper = adminMapper;
+        this.appCacheProperties = appCacheProperties;
+        this.userRegion = new Region("user", meterRegistry);
+        this.adminRegion = new Region("admin", meterRegistry);
+    }
+
+    /**
+     * 获取用户账号状态。
+     *
+     * @param userId 用户ID
+     * @return 账号状态，用户不存在时返回 {@link PrincipalStatus#MISSING}
+     */
+    public PrincipalStatus getUserStatus(Long userId) {
+        return userRegion.get(userId, id -> toUserStatus(userMapper.selectById(id)));
+    }
+
+    /**
+     * 获取管理员账号状态。
+     *
+     * @param adminId 管理员ID
+     * @return 账号状态，管理员不存在时返回 {@link PrincipalStatus#MISSING}
+     */
+    public PrincipalStatus getAdminStatus(Long adminId) {
+        return adminRegion.get(adminId, id -> toAdminStatus(adminMapper.selectById(id)));
+    }
+
+    /**
+     * 失效用户状态缓存。
+     * <p>
+     * 立即移除一次，处于事务中时提交后再移除一次，覆盖提交前被其他请求按旧状态回填的情况。
+     *
+     * @param userId 用户ID
+     */
+    public void invalidateUser(Long userId) {
+        invalidate(userRegion, userId);
+    }
+
+    /**
+     * 失效管理员状态缓存，时机同 {@link #invalidateUser(Long)}。
+     *
+     * @param adminId 管理员ID
+     */
+    public void invalidateAdmin(Long adminId) {
+        invalidate(adminRegion, adminId);
+    }
+
+    private void invalidate(Region region, Long id) {
+        if (id == null) {
+            return;
+        }
+        region.remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    region.remove(id);
+                }
+            });
+        }
+    }
+
+    private PrincipalStatus toUserStatus(User user) {
+        if (user == null) {
+            return PrincipalStatus.MISSING;
+        }
+        return user.getIsDeleted() != null && user.getIsDeleted() == 0 ? PrincipalStatus.ACTIVE : PrincipalStatus.DELETED;
+    }
+
+    private PrincipalStatus toAdminStatus(Admin admin) {
+        if (admin == null) {
+            return PrincipalStatus.MISSING;
+        }
+        if (admin.getIsDeleted() == null || admin.getIsDeleted() != 0) {
+            return PrincipalStatus.DELETED;
+        }
+        return admin.getIsEnabled() != null && admin.getIsEnabled() == 1 ? PrincipalStatus.ACTIVE : PrincipalStatus.DISABLED;
+    }
+
+    private AppCacheProperties.Principal principal() {
+        return appCacheProperties.getPrincipal();
+    }
+
+    private int positiveOrDefault(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    /**
+     * 主体账号状态。
+     */
+    public enum PrincipalStatus {
+        /**
+         * 账号有效。
+         */
+        ACTIVE,
+        /**
+         * 管理员已被禁用。
+         */
+        DISABLED,
+        /**
+         * 账号已软删。
+         */
+        DELETED,
+        /**
+         * 账号不存在。
+         */
+        MISSING
+    }
+
+    private record Entry(PrincipalStatus status, long expiresAt) {
+    }
+
+    /**
+     * 单类主体的缓存分区，用户和管理员 ID 空间独立，分开存放。
+     */
+    private final class Region {
+
+        private final String type;
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        // 每次失效递增，加载前后代际不一致说明加载期间发生过失效，结果不再回填，避免旧状态覆盖失效。
+        private final AtomicLong generation = new AtomicLong();
+        private final Counter hitCounter;
+        private final Counter missCounter;
+
+        private Region(String type, MeterRegistry meterRegistry) {
+            this.type = type;
+            this.hitCounter = outcomeCounter(meterRegistry, "hit");
+            this.missCounter = outcomeCounter(meterRegistry, "miss");
+            Gauge.builder(METRIC_PREFIX + ".size", entries, Map::size)
+                .description("进程内缓存的主体状态条目数")
+                .tag("type", type)
+                .register(meterRegistry);
+        }
+
+        private PrincipalStatus get(Long id, Function<Long, PrincipalStatus> loader) {
+            long now = System.currentTimeMillis();
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt() > now) {
+                hitCounter.increment();
+                return entry.status();
+            }
+            missCounter.increment();
+            long loadGeneration = generation.get();
+            PrincipalStatus status = loader.apply(id);
+            if (status != PrincipalStatus.MISSING && loadGeneration == generation.get() && ensureCapacity(now)) {
+                long ttlMillis = TimeUnit.SECONDS.toMillis(positiveOrDefault(principal().getTtlSeconds(), 30));
+                entries.put(id, new Entry(status, now + ttlMillis));
+            }
+            return status;
+        }
+
+        private void remove(Long id) {
+            generation.incrementAndGet();
+            entries.remove(id);
+        }
+
+        /**
+         * 条目达到上限时先清理过期条目，仍然满载则本次不回填，只退化为直接查库。
+         */
+        private boolean ensureCapacity(long now) {
+            int maxEntries = positiveOrDefault(principal().getMaxEntries(), 10000);
+            if (entries.size() < maxEntries) {
+                return true;
+            }
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() < maxEntries) {
+                return true;
+            }
+            log.debug("主体状态缓存已满，跳过回填：type={}，上限={}", type, maxEntries);
+            return false;
+        }
+
+        private Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+            return Counter.builder(METRIC_PREFIX + ".requests")
+                .description("认证拦截器主体状态缓存命中情况")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+}
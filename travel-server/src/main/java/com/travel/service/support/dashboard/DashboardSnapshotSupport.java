@@ -0,0 +1,138 @@
+package com.travel.service.support.dashboard;
+
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.dto.dashboard.response.DashboardOverviewResponse;
+import com.travel.dto.dashboard.response.HotSpotsResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 仪表板统计快照。
+ * <p>
+ * 概览和热门景点在进程内保存一份只读快照，由定时任务周期性重算，管理员轮询时直接读取内存，
+ * 数据库压力因此只与重算周期相关，与同时在线的管理员数量无关。快照缺失或超过最大可容忍时长时，
+ * 读取方在锁内同步重算一次，并发请求共享同一次重算结果；长时间无人读取时后台任务跳过重算。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardSnapshotSupport {
+
+    private final AppCacheProperties appCacheProperties;
+
+    private final Object refreshLock = new Object();
+    private final AtomicLong lastManualRefreshAt = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private volatile long lastReadAt;
+
+    /**
+     * 读取快照，缺失或过旧时同步重算。
+     *
+     * @param loader 快照重算逻辑
+     * @return 当前快照
+     */
+    public Snapshot get(Supplier<Snapshot> loader) {
+        long now = System.currentTimeMillis();
+        lastReadAt = now;
+        Snapshot current = snapshot;
+        if (current != null && !isStale(current, now)) {
+            return current;
+        }
+        synchronized (refreshLock) {
+            // 等锁期间可能已被其他请求或后台任务重算，二次检查避免重复查库。
+            current = snapshot;
+            if (current != null && !isStale(current, System.currentTimeMillis())) {
+                return current;
+            }
+            return doRefresh(loader);
+        }
+    }
+
+    /**
+     * 无条件重算快照。
+     *
+     * @param loader 快照重算逻辑
+     * @return 重算后的快照
+     */
+    public Snapshot refresh(Supplier<Snapshot> loader) {
+        synchronized (refreshLock) {
+            return doRefresh(loader);
+        }
+    }
+
+    /**
+     * 判断快照是否处于无人读取的空闲状态，从未被读取过也视为空闲。
+     *
+     * @return 空闲时返回 true
+     */
+    public boolean isIdle() {
+        long idleMillis = TimeUnit.SECONDS.toMillis(positiveOrDefault(dashboard().getIdleSeconds(), 600));
+        return System.currentTimeMillis() - lastReadAt > idleMillis;
+    }
+
+    /**
+     * 尝试占用一次手动刷新名额，距上次手动刷新不足最小间隔时返回 false。
+     *
+     * @return 是否允许本次手动刷新
+     */
+    public boolean tryAcquireManualRefresh() {
+        long intervalMillis = TimeUnit.SECONDS.toMillis(positiveOrDefault(dashboard().getManualRefreshMinIntervalSeconds(), 10));
+        long now = System.currentTimeMillis();
+        long previous = lastManualRefreshAt.get();
+        return now - previous >= intervalMillis && lastManualRefreshAt.compareAndSet(previous, now);
+    }
+
+    /**
+     * 获取手动刷新的最小间隔。
+     *
+     * @return 最小间隔，单位：秒
+     */
+    public int getManualRefreshMinIntervalSeconds() {
+        return positiveOrDefault(dashboard().getManualRefreshMinIntervalSeconds(), 10);
+    }
+
+    /**
+     * 获取快照中预先计算的热门景点条数。
+     *
+     * @return 热门景点条数
+     */
+    public int getHotSpotsSnapshotSize() {
+        return positiveOrDefault(dashboard().getHotSpotsSnapshotSize(), 50);
+    }
+
+    private Snapshot doRefresh(Supplier<Snapshot> loader) {
+        long start = System.currentTimeMillis();
+        Snapshot refreshed = loader.get();
+        snapshot = refreshed;
+        log.debug("仪表板快照重算完成，耗时={}ms", System.currentTimeMillis() - start);
+        return refreshed;
+    }
+
+    private boolean isStale(Snapshot current, long now) {
+        long maxStaleMillis = TimeUnit.SECONDS.toMillis(positiveOrDefault(dashboard().getMaxStaleSeconds(), 120));
+        return now - current.generatedAtMillis() > maxStaleMillis;
+    }
+
+    private AppCacheProperties.Dashboard dashboard() {
+        return appCacheProperties.getDashboard();
+    }
+
+    private int positiveOrDefault(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    /**
+     * 仪表板快照，生成后只读，多个请求直接共享同一份响应对象。
+     *
+     * @param overview 概览数据
+     * @param hotSpots 热门景点，条数为快照预算条数
+     * @param generatedAtMillis 生成时间戳
+     */
+    public record Snapshot(DashboardOverviewResponse overview, HotSpotsResponse hotSpots, long generatedAtMillis) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.travel.service.support.monitor;
+
+import com.travel.config.aspect.ApiLogProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢请求记录器。
+ * <p>
+ * 按固定窗口保留耗时最长的 N 个请求及其数据库、Redis、响应序列化阶段耗时，用于在不挂性能分析器的情况下定位回归。
+ * 每个窗口内用小顶堆维护前 N 名，堆满后耗时不超过堆顶的请求在锁外直接跳过，常态下绝大多数请求不会争用锁。
+ * 查询时合并当前窗口与上一个窗口，保证窗口刚切换时仍能看到最近一个完整窗口的数据。
+ */
+@Component
+@RequiredArgsConstructor
+public class SlowRequestRecorderSupport {
+
+    private static final Comparator<SlowRequest> BY_TOTAL = Comparator.comparingLong(SlowRequest::totalNanos);
+
+    private final ApiLogProperties apiLogProperties;
+
+    private final Object lock = new Object();
+    private Window current;
+    private Window previous;
+    // 当前窗口堆满后的准入下限和窗口结束时刻，供锁外快速判断。
+    private volatile long admissionFloorNanos;
+    private volatile long currentWindowEndsAt;
+
+    /**
+     * 记录一次请求。
+     *
+     * @param request 请求耗时明细
+     */
+    public void record(SlowRequest request) {
+        ApiLogProperties.SlowRequests config = config();
+        if (Boolean.FALSE.equals(config.getEnabled())) {
+            return;
+        }
+        long minDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.getMinDurationMillis() == null ? 0L : config.getMinDurationMillis());
+        long now = System.currentTimeMillis();
+        if (request.totalNanos() < minDurationNanos
+            || (request.totalNanos() <= admissionFloorNanos && now < currentWindowEndsAt)) {
+            return;
+        }
+        int capacity = capacity();
+        synchronized (lock) {
+            rotateIfNeeded(now);
+            PriorityQueue<SlowRequest> heap = current.heap;
+            if (heap.size() < capacity) {
+                heap.offer(request);
+            } else if (BY_TOTAL.compare(request, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(request);
+            }
+            admissionFloorNanos = heap.size() >= capacity ? heap.peek().totalNanos() : 0L;
+        }
+    }
+
+    /**
+     * 获取当前窗口与上一个窗口中最慢的请求，按耗时倒序。
+     *
+     * @return 慢请求列表，最多返回窗口容量条
+     */
+    public List<SlowRequest> snapshot() {
+        List<SlowRequest> merged = new ArrayList<>();
+        synchronized (lock) {
+            rotateIfNeeded(System.currentTimeMillis());
+            merged.addAll(current.heap);
+            if (previous != null) {
+                merged.addAll(previous.heap);
+            }
+        }
+        merged.sort(BY_TOTAL.reversed());
+        int capacity = capacity();
+        return merged.size() > capacity ? new ArrayList<>(merged.subList(0, capacity)) : merged;
+    }
+
+    /**
+     * 获取统计窗口长度。
+     *
+     * @return 窗口长度，单位：秒
+     */
+    public int getWindowSeconds() {
+        return positiveOrDefault(config().getWindowSeconds(), 300);
+    }
+
+    /**
+     * 获取每个窗口保留的条数。
+     *
+     * @return 窗口容量
+     */
+    public int capacity() {
+        return positiveOrDefault(config().getCapacity(), 50);
+    }
+
+    private void rotateIfNeeded(long now) {
+        if (current != null && now < current.endsAt) {
+            return;
+        }
+        long windowMillis = TimeUnit.SECONDS.toMillis(getWindowSeconds());
+        // 空闲超过一个完整窗口时上一个窗口已经过时，直接丢弃。
+        previous = current != null && now < current.endsAt + windowMillis ? current : null;
+        current = new Window(now + windowMillis, capacity());
+        currentWindowEndsAt = current.endsAt;
+        admissionFloorNanos = 0L;
+    }
+
+    private ApiLogProperties.SlowRequests config() {
+        return apiLogProperties.getSlowRequests();
+    }
+
+    private int positiveOrDefault(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    private static final class Window {
+
+        private final long endsAt;
+        private final PriorityQueue<SlowRequest> heap;
+
+        private Window(long endsAt, int capacity) {
+            this.endsAt = endsAt;
+            this.heap = new PriorityQueue<>(capacity + 1, BY_TOTAL);
+        }
+    }
+
+    /**
+     * 单次请求的耗时明细。
+     *
+     * @param endpoint 接口标识，未进入 Controller 时为 null
+     * @param httpMethod 请求方法
+     * @param uri 请求路径，不含查询参数
+     * @param status 响应状态码
+     * @param startedAtMillis 请求开始时间戳
+     * @param totalNanos 总耗时
+     * @param dbNanos SQL 执行耗时
+     * @param dbCalls SQL 执行次数
+     * @param redisNanos Redis 操作耗时
+     * @param redisCalls Redis 操作次数
+     * @param serializationNanos Controller 返回后到请求结束的耗时，主要是响应序列化与写出
+     */
+    public record SlowRequest(String endpoint,
+                              String httpMethod,
+                              String uri,
+                              int status,
+                              long startedAtMillis,
+                              long totalNanos,
+                              long dbNanos,
+                              int dbCalls,
+                              long redisNanos,
+                              int redisCalls,
+                              long serializationNanos) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.travel.service.support.monitor;
+
+import com.travel.config.persistence.SqlMonitorProperties;
+import com.travel.util.web.RequestProfileHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 执行监控。
+ * <p>
+ * 每条语句执行后按 Mapper 语句 ID 记录耗时指标，并计入当前请求的剖析上下文；请求结束时检查同一语句的执行次数，
+ * 超过阈值即判定为疑似 N+1 查询，输出告警日志并累加计数。指标通过 actuator 的 metrics 端点查看：
+ * {@code waytrip.sql.statements} 为各语句的执行次数与耗时，{@code waytrip.sql.request.statements} 为各接口单次请求的语句数，
+ * {@code waytrip.sql.repeated} 为各接口、各语句被判定为 N+1 的请求数。
+ */
+@Slf4j
+@Component
+public class SqlStatementMonitorSupport {
+
+    private static final String METRIC_PREFIX = "waytrip.sql";
+
+    private final SqlMonitorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    // 语句 ID 与接口都来自代码本身，数量有限，指标按需创建后缓存复用。
+    private final Map<String, Timer> statementTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> requestSummaries = new ConcurrentHashMap<>();
+
+    public SqlStatementMonitorSupport(SqlMonitorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 记录一次语句执行。
+     *
+     * @param statementId Mapper 语句 ID
+     * @param nanos 耗时，单位：纳秒
+     */
+    public void recordExecution(String statementId, long nanos) {
+        RequestProfileHolder.recordDb(statementId, nanos);
+        if (Boolean.FALSE.equals(properties.getEnabled())) {
+            return;
+        }
+        statementTimers.computeIfAbsent(statementId, id -> Timer.builder(METRIC_PREFIX + ".statements")
+                .description("Mapper 语句执行耗时")
+                .tag("statement", id)
+                .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 检查一次请求内的语句执行情况，返回疑似 N+1 的语句。
+     *
+     * @param profile 请求剖析上下文
+     * @param endpoint 接口标识
+     * @return 执行次数超过阈值的语句，按次数倒序
+     */
+    public List<RepeatedStatement> inspect(RequestProfileHolder.Profile profile, String endpoint) {
+        if (Boolean.FALSE.equals(properties.getEnabled()) || profile.getDbCalls() == 0) {
+            return List.of();
+        }
+        requestSummaries.computeIfAbsent(endpoint, key -> DistributionSummary.builder(METRIC_PREFIX + ".request.statements")
+                .description("单次请求执行的 SQL 语句数")
+                .tag("endpoint", key)
+                .register(meterRegistry))
+            .record(profile.getDbCalls());
+
+        List<RepeatedStatement> repeated = findRepeated(profile.getStatementStats(), repeatThreshold());
+        if (repeated.isEmpty()) {
+            return repeated;
+        }
+        for (RepeatedStatement statement : repeated) {
+            Counter.builder(METRIC_PREFIX + ".repeated")
+                .description("同一语句在单次请求内执行次数超过阈值的请求数")
+                .tag("endpoint", endpoint)
+                .tag("statement", statement.statementId())
+                .register(meterRegistry)
+                .increment();
+        }
+        log.warn("疑似 N+1 查询 | {} | 阈值: {} | 重复语句: {}", endpoint, repeatThreshold(), repeated);
+        return repeated;
+    }
+
+    /**
+     * 从语句汇总中找出执行次数超过阈值的语句。
+     *
+     * @param statementStats 按语句 ID 汇总的执行情况
+     * @param threshold 允许的最大执行次数
+     * @return 超过阈值的语句，按次数倒序
+     */
+    public static List<RepeatedStatement> findRepeated(Map<String, RequestProfileHolder.StatementStats> statementStats,
+                                                       int threshold) {
+        List<RepeatedStatement> repeated = new ArrayList<>();
+        statementStats.forEach((statementId, stats) -> {
+            if (stats.getCount() > threshold) {
+                repeated.add(new RepeatedStatement(statementId, stats.getCount(), TimeUnit.NANOSECONDS.toMillis(stats.getNanos())));
+            }
+        });
+        repeated.sort(Comparator.comparingInt(RepeatedStatement::count).reversed());
+        return repeated;
+    }
+
+    private int repeatThreshold() {
+        Integer threshold = properties.getRepeatThreshold();
+        return threshold != null && threshold > 0 ? threshold : 10;
+    }
+
+    /**
+     * 疑似 N+1 的语句。
+     *
+     * @param statementId Mapper 语句 ID
+     * @param count 单次请求内的执行次数
+     * @param totalMillis 累计耗时，单位：毫秒
+     */
+    public record RepeatedStatement(String statementId, int count, long totalMillis) {
+    }
+}
@@ -0,0 +1,267 @@
+package com.travel.service.support.order;
+
+import com.travel.entity.Order;
+import com.travel.entity.OrderDailyStats;
+import com.travel.entity.OrderSpotStats;
+import com.travel.enums.OrderStatus;
+import com.travel.mapper.OrderDailyStatsMapper;
+import com.travel.mapper.OrderSpotStatsMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 订单日汇总维护支撑。
+ * <p>
+ * 订单每次状态流转都按“流转前后是否计入订单数、是否计入收入”的差值累加到下单日期对应的日汇总行和景点累计汇总行，
+ * 与订单更新处于同一事务中，回滚时一并撤销。全量重建用于首次回填和定期校正：日汇总按下单日期分段从订单表重建，
+ * 之后景点累计汇总按景点分批从日汇总重新合计。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderDailyStatsSupport {
+
+    /**
+     * 分段重建时每段覆盖的天数。
+     */
+    private static final int REBUILD_CHUNK_DAYS = 31;
+
+    /**
+     * 回填汇总行时每条 INSERT 写入的行数。
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * 重建景点累计汇总时每批覆盖的景点数。
+     */
+    private static final int SPOT_BATCH_SIZE = 500;
+
+    private final OrderDailyStatsMapper orderDailyStatsMapper;
+    private final OrderSpotStatsMapper orderSpotStatsMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 汇总表是否已完成回填：启动回填或任一次重建完成后置位，之后不再回退。
+     */
+    private volatile boolean ready;
+
+    /**
+     * 记录新建订单。
+     *
+     * @param order 已落库的订单，需要包含景点、金额、状态和创建时间
+     */
+    public void recordCreated(Order order) {
+        recordTransition(order, null, order.getStatus());
+    }
+
+    /**
+     * 记录订单状态流转。
+     *
+     * @param order 订单，需要包含景点、金额和创建时间
+     * @param fromStatus 流转前状态码，新建订单传 null
+     * @param toStatus 流转后状态码
+     */
+    public void recordTransition(Order order, Integer fromStatus, Integer toStatus) {
+        if (order == null || order.getSpotId() == null) {
+            return;
+        }
+        long countDelta = countOf(toStatus) - countOf(fromStatus);
+        int revenueSign = revenueOf(toStatus) - revenueOf(fromStatus);
+        if (countDelta == 0 && revenueSign == 0) {
+            return;
+        }
+        BigDecimal amount = order.getTotalAmount() == null ? BigDecimal.ZERO : order.getTotalAmount();
+        // 创建时间由填充器在插入时写入实体，个别路径拿不到时按当天归档，与数据库默认值一致。
+        LocalDate statDate = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+        BigDecimal revenueDelta = amount.multiply(BigDecimal.valueOf(revenueSign));
+        // 先日汇总、后累计汇总，所有写入路径保持同一加锁顺序。
+        orderDailyStatsMapper.upsertDelta(statDate, order.getSpotId(), countDelta, revenueDelta);
+        orderSpotStatsMapper.upsertDelta(order.getSpotId(), countDelta, revenueDelta);
+    }
+
+    /**
+     * 批量记录多笔订单的同一状态流转，供超时取消等批量任务使用。
+     * <p>
+     * 按日期和景点合并增量后各用一条语句累加两张汇总表；行按主键排序写入，并发批次之间加锁顺序一致。
+     *
+     * @param orders 订单，需要包含景点、金额和创建时间
+     * @param fromStatus 流转前状态码
+     * @param toStatus 流转后状态码
+     */
+    public void recordTransitions(List<Order> orders, Integer fromStatus, Integer toStatus) {
+        long countDelta = countOf(toStatus) - countOf(fromStatus);
+        int revenueSign = revenueOf(toStatus) - revenueOf(fromStatus);
+        if (orders == null || orders.isEmpty() || countDelta == 0 && revenueSign == 0) {
+            return;
+        }
+        Map<LocalDate, Map<Long, OrderDailyStats>> dailyDeltas = new TreeMap<>();
+        Map<Long, OrderSpotStats> spotDeltas = new TreeMap<>();
+        for (Order order : orders) {
+            if (order.getSpotId() == null) {
+                continue;
+            }
+            BigDecimal amount = order.getTotalAmount() == null ? BigDecimal.ZERO : order.getTotalAmount();
+            BigDecimal revenueDelta = amount.multiply(BigDecimal.valueOf(revenueSign));
+            LocalDate statDate = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+            OrderDailyStats daily = dailyDeltas.computeIfAbsent(statDate, date -> new TreeMap<>())
+                .computeIfAbsent(order.getSpotId(), spotId -> {
+                    OrderDailyStats row = new OrderDailyStats();
+                    row.setStatDate(statDate);
+                    row.setSpotId(spotId);
+                    row.setOrderCount(0L);
+                    row.setRevenue(BigDecimal.ZERO);
+                    return row;
+                });
+            daily.setOrderCount(daily.getOrderCount() + countDelta);
+            daily.setRevenue(daily.getRevenue().add(revenueDelta));
+            OrderSpotStats spot = spotDeltas.computeIfAbsent(order.getSpotId(), spotId -> {
+                OrderSpotStats row = new OrderSpotStats();
+                row.setSpotId(spotId);
+                row.setOrderCount(0L);
+                row.setRevenue(BigDecimal.ZERO);
+                return row;
+            });
+            spot.setOrderCount(spot.getOrderCount() + countDelta);
+            spot.setRevenue(spot.getRevenue().add(revenueDelta));
+        }
+        if (spotDeltas.isEmpty()) {
+            return;
+        }
+        List<OrderDailyStats> dailyRows = new ArrayList<>();
+        dailyDeltas.values().forEach(bySpot -> dailyRows.addAll(bySpot.values()));
+        orderDailyStatsMapper.upsertDeltas(dailyRows);
+        orderSpotStatsMapper.upsertDeltas(new ArrayList<>(spotDeltas.values()));
+    }
+
+    /**
+     * 从订单表全量重建汇总。
+     * <p>
+     * 按下单日期每 {@value #REBUILD_CHUNK_DAYS} 天一段，每段在独立的短事务内依次：聚合该段订单并加共享锁、删除该段汇总行、写回聚合结果。
+     * 状态流转先以条件更新锁住订单、再累加汇总行，这里同样先锁订单、后改汇总，两条路径加锁顺序一致，不会互相死锁；
+     * 该段订单的状态流转等本段提交后再累加，不会丢失。其余日期的订单和新下单不受影响，不会在重建期间长时间阻塞下单和支付。
+     * 日汇总全部重建后再重新合计景点累计汇总，见 {@link #rebuildSpotTotals()}。
+     *
+     * @return 重建后的日汇总行数
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDate end = LocalDate.now().plusDays(1);
+        LocalDate from = earliestOf(orderDailyStatsMapper.selectEarliestOrderDate(),
+            orderDailyStatsMapper.selectEarliestStatDate());
+        int rows = 0;
+        int chunks = 0;
+        while (from != null && from.isBefore(end)) {
+            LocalDate chunkStart = from;
+            LocalDate next = from.plusDays(REBUILD_CHUNK_DAYS);
+            LocalDate chunkEnd = next.isBefore(end) ? next : end;
+            Integer chunkRows = transactionTemplate.execute(status -> {
+                List<OrderDailyStats> chunk = orderDailyStatsMapper.selectRangeFromOrdersForShare(
+                    chunkStart.atStartOfDay(),
+                    chunkEnd.atStartOfDay(),
+                    OrderStatus.CANCELLED.getCode(),
+                    OrderStatus.revenueCodes()
+                );
+                orderDailyStatsMapper.deleteRange(chunkStart, chunkEnd);
+                for (int i = 0; i < chunk.size(); i += INSERT_BATCH_SIZE) {
+                    orderDailyStatsMapper.insertRows(chunk.subList(i, Math.min(i + INSERT_BATCH_SIZE, chunk.size())));
+                }
+                return chunk.size();
+            });
+            rows += chunkRows == null ? 0 : chunkRows;
+            chunks++;
+            from = chunkEnd;
+        }
+        int spots = rebuildSpotTotals();
+        ready = true;
+        log.info("订单日汇总重建完成：汇总行数={}，分段数={}，景点数={}，耗时={}ms",
+            rows, chunks, spots, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * 从日汇总表重新合计景点累计汇总。
+     * <p>
+     * 按景点每 {@value #SPOT_BATCH_SIZE} 个一批，每批在独立短事务内先对这些景点的日汇总行加共享锁并合计，再覆盖写入累计汇总；
+     * 已没有日汇总行的景点写 0。加锁顺序与状态流转一致，期间发生的流转要么已计入日汇总、要么等本批提交后同时累加两张表。
+     *
+     * @return 覆盖写入的景点数
+     */
+    private int rebuildSpotTotals() {
+        List<Long> spotIds = orderSpotStatsMapper.selectAllSpotIds();
+        for (int from = 0; from < spotIds.size(); from += SPOT_BATCH_SIZE) {
+            List<Long> batch = spotIds.subList(from, Math.min(from + SPOT_BATCH_SIZE, spotIds.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, OrderSpotStats> totals = new LinkedHashMap<>();
+                for (Long spotId : batch) {
+                    OrderSpotStats empty = new OrderSpotStats();
+                    empty.setSpotId(spotId);
+                    empty.setOrderCount(0L);
+                    empty.setRevenue(BigDecimal.ZERO);
+                    totals.put(spotId, empty);
+                }
+                for (OrderSpotStats summed : orderSpotStatsMapper.sumDailyStatsForShare(batch)) {
+                    totals.put(summed.getSpotId(), summed);
+                }
+                orderSpotStatsMapper.overwriteRows(new ArrayList<>(totals.values()));
+            });
+        }
+        return spotIds.size();
+    }
+
+    /**
+     * 汇总表为空时执行一次回填，用于新部署后的首次回填。
+     * <p>
+     * 日汇总为空时全量重建；日汇总已有数据而景点累计汇总为空（累计汇总表上线前已部署的环境）时，只从日汇总合计累计汇总。
+     *
+     * @return 是否执行了回填
+     */
+    public boolean backfillIfEmpty() {
+        if (!orderDailyStatsMapper.existsAny()) {
+            rebuild();
+            return true;
+        }
+        if (!orderSpotStatsMapper.existsAny()) {
+            rebuildSpotTotals();
+            ready = true;
+            return true;
+        }
+        ready = true;
+        return false;
+    }
+
+    /**
+     * 汇总表是否可以直接用于查询。读取的是进程内标志，不访问数据库；回填完成前调用方应回退到订单表聚合。
+     *
+     * @return 已完成回填时返回 true
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    private LocalDate earliestOf(LocalDate first, LocalDate second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isBefore(second) ? first : second;
+    }
+
+    private long countOf(Integer status) {
+        OrderStatus orderStatus = OrderStatus.fromCode(status);
+        return orderStatus != null && orderStatus.isActive() ? 1L : 0L;
+    }
+
+    private int revenueOf(Integer status) {
+        OrderStatus orderStatus = OrderStatus.fromCode(status);
+        return orderStatus != null && orderStatus.hasRevenue() ? 1 : 0;
+    }
+}
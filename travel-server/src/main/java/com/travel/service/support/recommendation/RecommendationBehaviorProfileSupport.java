@@ -0,0 +1,153 @@
+package com.travel.service.support.recommendation;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
+import com.travel.entity.Order;
+import com.travel.entity.Review;
+import com.travel.entity.UserSpotFavorite;
+import com.travel.entity.UserSpotView;
+import com.travel.enums.OrderStatus;
+import com.travel.mapper.OrderMapper;
+import com.travel.mapper.ReviewMapper;
+import com.travel.mapper.UserSpotFavoriteMapper;
+import com.travel.mapper.UserSpotViewMapper;
+import com.travel.service.cache.RecommendationCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户行为画像加载支撑。
+ * <p>
+ * 在线推荐的交互权重、已交互过滤和调试统计原先各自查询四张行为表，一次请求最多要查十余次。
+ * 这里把四类行为按推荐所需的最小字段一次性汇总为画像，单次请求内共享，并以二进制形式缓存到 Redis；
+ * 用户行为写入时经 {@code invalidateUserRecommendationCache} 同步删除画像并递增画像版本号，下次读取时重建。
+ * 重建前先读取版本号，回写时版本号已变说明查询期间发生了新的行为写入，这份画像只用于本次请求，不写回缓存。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationBehaviorProfileSupport {
+
+    private final UserSpotViewMapper userSpotViewMapper;
+    private final UserSpotFavoriteMapper userSpotFavoriteMapper;
+    private final ReviewMapper reviewMapper;
+    private final OrderMapper orderMapper;
+    private final RecommendationCacheService recommendationCacheService;
+    private final AppCacheProperties appCacheProperties;
+
+    /**
+     * 读取用户行为画像，缓存未命中时从数据库汇总并回写缓存。
+     *
+     * @param userId 用户 ID
+     * @return 用户行为画像
+     */
+    public UserBehaviorProfileCacheDTO load(Long userId) {
+        UserBehaviorProfileCacheDTO cached = recommendationCacheService.getBehaviorProfile(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long version;
+        try {
+            version = recommendationCacheService.getBehaviorProfileVersion(userId);
+        } catch (Exception e) {
+            log.warn("用户行为画像版本号读取失败，本次不回写缓存：用户ID={}", userId, e);
+            return query(userId);
+        }
+        UserBehaviorProfileCacheDTO profile = query(userId);
+        try {
+            if (!recommendationCacheService.saveBehaviorProfile(userId, version, profile, resolveTtlMinutes())) {
+                log.debug("用户行为画像查询期间已失效，跳过回写：用户ID={}", userId);
+            }
+        } catch (Exception e) {
+            // 画像缓存只是加速手段，写入失败不影响本次推荐。
+            log.warn("用户行为画像写入缓存失败：用户ID={}", userId, e);
+        }
+        return profile;
+    }
+
+    /**
+     * 使用户行为画像失效并递增画像版本号，随用户行为写入调用。
+     *
+     * @param userId 用户 ID
+     */
+    public void evict(Long userId) {
+        recommendationCacheService.deleteBehaviorProfile(userId);
+    }
+
+    /**
+     * 从数据库汇总用户行为画像，每类行为只查询一次且只读取推荐需要的列。
+     *
+     * @param userId 用户 ID
+     * @return 用户行为画像
+     */
+    public UserBehaviorProfileCacheDTO query(Long userId) {
+        UserBehaviorProfileCacheDTO profile = new UserBehaviorProfileCacheDTO();
+
+        List<UserSpotView> views = userSpotViewMapper.selectList(
+            new LambdaQueryWrapper<UserSpotView>()
+                .eq(UserSpotView::getUserId, userId)
+                .select(UserSpotView::getSpotId, UserSpotView::getViewSource, UserSpotView::getViewDuration)
+        );
+        List<UserBehaviorProfileCacheDTO.ViewItem> viewItems = new ArrayList<>(views.size());
+        for (UserSpotView view : views) {
+            UserBehaviorProfileCacheDTO.ViewItem item = new UserBehaviorProfileCacheDTO.ViewItem();
+            item.setSpotId(view.getSpotId());
+            item.setViewSource(view.getViewSource());
+            item.setViewDuration(view.getViewDuration());
+            viewItems.add(item);
+        }
+        profile.setViews(viewItems);
+
+        profile.setFavoriteSpotIds(userSpotFavoriteMapper.selectList(
+            new LambdaQueryWrapper<UserSpotFavorite>()
+                .eq(UserSpotFavorite::getUserId, userId)
+                .eq(UserSpotFavorite::getIsDeleted, 0)
+                .select(UserSpotFavorite::getSpotId)
+        ).stream().map(UserSpotFavorite::getSpotId).toList());
+
+        List<Review> reviews = reviewMapper.selectList(
+            new LambdaQueryWrapper<Review>()
+                .eq(Review::getUserId, userId)
+                .eq(Review::getIsDeleted, 0)
+                .select(Review::getSpotId, Review::getScore)
+        );
+        List<UserBehaviorProfileCacheDTO.ReviewItem> reviewItems = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            UserBehaviorProfileCacheDTO.ReviewItem item = new UserBehaviorProfileCacheDTO.ReviewItem();
+            item.setSpotId(review.getSpotId());
+            item.setScore(review.getScore());
+            reviewItems.add(item);
+        }
+        profile.setReviews(reviewItems);
+
+        // 已交互过滤需要全部未取消订单，权重只取其中已支付和已完成的部分，因此按较宽的口径一次查出。
+        List<Order> orders = orderMapper.selectList(
+            new LambdaQueryWrapper<Order>()
+                .eq(Order::getUserId, userId)
+                .eq(Order::getIsDeleted, 0)
+                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
+                .select(Order::getSpotId, Order::getStatus)
+        );
+        List<UserBehaviorProfileCacheDTO.OrderItem> orderItems = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            UserBehaviorProfileCacheDTO.OrderItem item = new UserBehaviorProfileCacheDTO.OrderItem();
+            item.setSpotId(order.getSpotId());
+            item.setStatus(order.getStatus());
+            orderItems.add(item);
+        }
+        profile.setOrders(orderItems);
+
+        profile.setGeneratedAt(System.currentTimeMillis());
+        return profile;
+    }
+
+    private long resolveTtlMinutes() {
+        Integer ttl = appCacheProperties.getRecommendation().getBehaviorProfileTtlMinutes();
+        return ttl == null || ttl <= 0 ? 30L : ttl;
+    }
+}
@@ -0,0 +1,136 @@
+package com.travel.service.support.recommendation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 共现相似度引擎，按用户交互列表一次遍历累加景点对的 IUF 权重。
+ * <p>
+ * 两两比较需要对每一对景点求用户集合交集；这里改为从景点出发，沿压缩矩阵的“景点 -> 用户 -> 用户交互过的其他景点”
+ * 累加共现权重，只访问真实存在的共现对，并按景点区间拆分给 fork-join 并行计算。
+ * 计算口径与 {@link RecommendationSimilaritySupport#computeIUFSimilarity} 保持一致。
+ */
+@Component
+public class RecommendationCooccurrenceEngine {
+
+    private static final int MIN_SPLIT_SIZE = 32;
+
+    /**
+     * 计算每个景点的 Top-K 相似邻居。
+     *
+     * @param matrix 压缩交互矩阵
+     * @param topK 每个景点保留的邻居数
+     * @return 景点 ID 到有序相似邻居的映射，按景点 ID 升序排列
+     */
+    public Map<Long, Map<Long, Double>> computeTopNeighbors(RecommendationInteractionMatrix matrix, int topK) {
+        int spotCount = matrix.spotCount();
+
+        // 第 1 步：预先算好每个用户的 IUF 权重，叶子任务内只做数组访问。
+        double[] userIuf = new double[matrix.userCount()];
+        for (int user = 0; user < userIuf.length; user++) {
+            userIuf[user] = matrix.userIuf(user);
+        }
+
+        // 第 2 步：按景点区间拆分并行计算，每个叶子任务复用一份稀疏累加器。
+        @SuppressWarnings("unchecked")
+        Map<Long, Double>[] neighbors = new Map[spotCount];
+        int parallelism = Math.max(ForkJoinPool.commonPool().getParallelism(), 1);
+        int splitSize = Math.max(MIN_SPLIT_SIZE, spotCount / (parallelism * 4));
+        NeighborContext context = new NeighborContext(matrix, userIuf, Math.max(topK, 1), neighbors);
+        ForkJoinPool.commonPool().invoke(new NeighborTask(context, 0, spotCount, splitSize));
+
+        Map<Long, Map<Long, Double>> result = new LinkedHashMap<>();
+        for (int i = 0; i < spotCount; i++) {
+            if (neighbors[i] != null) {
+                result.put(matrix.spotId(i), neighbors[i]);
+            }
+        }
+        return result;
+    }
+
+    private record NeighborContext(
+        RecommendationInteractionMatrix matrix,
+        double[] userIuf,
+        int topK,
+        Map<Long, Double>[] neighbors
+    ) {
+    }
+
+    private static final class NeighborTask extends RecursiveAction {
+
+        private final NeighborContext context;
+        private final int from;
+        private final int to;
+        private final int splitSize;
+
+        private NeighborTask(NeighborContext context, int from, int to, int splitSize) {
+            this.context = context;
+            this.from = from;
+            this.to = to;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > splitSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                    new NeighborTask(context, from, middle, splitSize),
+                    new NeighborTask(context, middle, to, splitSize)
+                );
+                return;
+            }
+
+            RecommendationInteractionMatrix matrix = context.matrix();
+            int[] spotOffsets = matrix.spotOffsets();
+            int[] spotUsers = matrix.spotUsers();
+            int[] userOffsets = matrix.userOffsets();
+            int[] userSpots = matrix.userSpots();
+            int spotCount = matrix.spotCount();
+            double[] accumulator = new double[spotCount];
+            boolean[] touched = new boolean[spotCount];
+            int[] touchedSpots = new int[spotCount];
+            RecommendationTopKSelector selector = new RecommendationTopKSelector(context.topK());
+            for (int spot = from; spot < to; spot++) {
+                int userCount = spotOffsets[spot + 1] - spotOffsets[spot];
+                if (userCount == 0) {
+                    continue;
+                }
+
+                int touchedCount = 0;
+                for (int p = spotOffsets[spot]; p < spotOffsets[spot + 1]; p++) {
+                    int user = spotUsers[p];
+                    double iuf = context.userIuf()[user];
+                    for (int q = userOffsets[user]; q < userOffsets[user + 1]; q++) {
+                        int other = userSpots[q];
+                        if (other == spot) {
+                            continue;
+                        }
+                        if (!touched[other]) {
+                            touched[other] = true;
+                            touchedSpots[touchedCount++] = other;
+                        }
+                        accumulator[other] += iuf;
+                    }
+                }
+
+                // 候选直接进入有界堆，分数相同时按景点 ID 升序，保证多次运行得到稳定的 Top-K。
+                double normI = Math.sqrt(userCount);
+                for (int k = 0; k < touchedCount; k++) {
+                    int other = touchedSpots[k];
+                    double score = accumulator[other] / (normI * Math.sqrt(matrix.spotUserCount(other)));
+                    if (score > 0) {
+                        selector.offer(matrix.spotId(other), score);
+                    }
+                    accumulator[other] = 0;
+                    touched[other] = false;
+                }
+                context.neighbors()[spot] = selector.toOrderedMap();
+            }
+        }
+    }
+}
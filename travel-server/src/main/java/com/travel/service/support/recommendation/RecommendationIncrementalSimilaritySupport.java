@@ -0,0 +1,568 @@
+package com.travel.service.support.recommendation;
+
+import com.travel.dto.recommendation.config.RecommendationAlgorithmConfigDTO;
+import com.travel.dto.recommendation.config.RecommendationCacheConfigDTO;
+import com.travel.service.cache.RecommendationCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 相似度矩阵增量更新支撑，在上一次全量计算的压缩交互矩阵之上只按行为增量重算受影响景点。
+ * <p>
+ * 基线直接复用全量重建得到的 {@link RecommendationInteractionMatrix}，不再另存装箱的用户集合和景点对共现表：
+ * 之后行为有变化的用户以有序景点下标数组覆盖在基线之上，受影响景点的共现权重按“景点 -> 用户 -> 其他景点”
+ * 现算，口径与 {@link RecommendationCooccurrenceEngine} 一致。变化用户通过流式加载器按用户重读。
+ * <p>
+ * 基线本身只在当前进程内，但全量重建时会把有效景点与算法配置的指纹和水位线写入 Redis。
+ * 进程重启后若指纹仍匹配，就流式重新加载一份压缩矩阵作为基线，并把水位线之后行为有变化的景点及其共现邻居
+ * 标记为待重算，无需整体重建和发布新版本。景点上下架或算法配置变化时指纹失配，仍需先走一次全量重建。
+ * 状态读写由推荐服务的离线计算互斥标记保护，这里不再额外加锁。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationIncrementalSimilaritySupport {
+
+    /**
+     * 增量读取时回看的秒数，覆盖事务提交时间晚于记录时间的行为。
+     */
+    private static final long WATERMARK_OVERLAP_SECONDS = 60;
+
+    private static final int[] EMPTY_ROW = new int[0];
+
+    private final RecommendationSimilaritySupport recommendationSimilaritySupport;
+    private final RecommendationInteractionStreamLoader recommendationInteractionStreamLoader;
+    private final RecommendationCacheService recommendationCacheService;
+    private final RecommendationScoreSupport recommendationScoreSupport;
+
+    private IncrementalState state;
+
+    /**
+     * 以全量重建结果作为增量基线，并持久化基线指纹与水位线。
+     *
+     * @param matrix 全量压缩交互矩阵
+     * @param activeSpotIds 本次参与计算的有效景点
+     * @param algorithmConfig 本次使用的算法配置
+     * @param watermark 全量读取开始时间
+     */
+    public void captureBaseline(
+        RecommendationInteractionMatrix matrix,
+        Set<Long> activeSpotIds,
+        RecommendationAlgorithmConfigDTO algorithmConfig,
+        LocalDateTime watermark
+    ) {
+        IncrementalState baseline = new IncrementalState(matrix, activeSpotIds, algorithmConfig, watermark);
+        state = baseline;
+        recommendationCacheService.saveMatrixFingerprint(fingerprint(activeSpotIds, algorithmConfig));
+        recommendationCacheService.saveMatrixWatermark(toEpochMilli(watermark));
+        log.info("相似度增量基线已建立：用户数={}，景点数={}，水位线={}", baseline.userCount, baseline.spotCount(), watermark);
+    }
+
+    /**
+     * 丢弃当前增量基线及其持久化指纹，下一次增量更新会退回全量重建。
+     */
+    public void reset() {
+        state = null;
+        recommendationCacheService.deleteMatrixFingerprint();
+    }
+
+    /**
+     * 判断当前基线能否承接本次增量更新。
+     *
+     * @param activeSpotIds 当前有效景点
+     * @param algorithmConfig 当前算法配置
+     * @return 基线可用时返回 true
+     */
+    public boolean isBaselineUsable(Set<Long> activeSpotIds, RecommendationAlgorithmConfigDTO algorithmConfig) {
+        IncrementalState current = state;
+        return current != null
+            && Arrays.equals(current.spotIds, toSortedArray(activeSpotIds))
+            && Objects.equals(current.algorithmConfig, algorithmConfig);
+    }
+
+    /**
+     * 进程内没有基线时，尝试在 Redis 中已发布的相似度结果之上恢复基线。
+     * <p>
+     * 先流式加载当前的压缩矩阵，再查询持久化水位线之后有变化的景点和用户：这些景点、它们在当前矩阵中的共现邻居，
+     * 以及变化用户交互过的全部景点都标记为待重算，由紧接着的 {@link #applyDeltas} 一并回写。
+     * 变化查询放在加载之后，加载读到的行为一定落在查询窗口内。
+     *
+     * @param activeSpotIds 当前有效景点
+     * @param algorithmConfig 当前算法配置
+     * @return 恢复成功时返回 true；指纹不匹配、尚无已发布结果或没有交互数据时返回 false
+     */
+    public boolean restoreBaseline(Set<Long> activeSpotIds, RecommendationAlgorithmConfigDTO algorithmConfig) {
+        if (recommendationCacheService.getCurrentSimilarityVersion() <= 0) {
+            return false;
+        }
+        if (!fingerprint(activeSpotIds, algorithmConfig).equals(recommendationCacheService.getMatrixFingerprint())) {
+            return false;
+        }
+        long watermarkMillis = recommendationCacheService.getMatrixWatermark();
+        if (watermarkMillis <= 0) {
+            return false;
+        }
+
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        RecommendationInteractionMatrix matrix = recommendationSimilaritySupport.buildOfflineInteractionMatrix(activeSpotIds, algorithmConfig);
+        if (matrix.isEmpty()) {
+            return false;
+        }
+        IncrementalState restored = new IncrementalState(matrix, activeSpotIds, algorithmConfig, loadStartedAt);
+        LocalDateTime since = toLocalDateTime(watermarkMillis).minusSeconds(WATERMARK_OVERLAP_SECONDS);
+        Set<Long> changedSpotIds = recommendationSimilaritySupport.findChangedSpotIds(since);
+        Set<Long> changedUserIds = recommendationSimilaritySupport.findChangedUserIds(since);
+        restored.markChangedSince(changedSpotIds, changedUserIds);
+        state = restored;
+        log.info(
+            "相似度增量基线已从持久化水位线恢复：用户数={}，景点数={}，变化景点数={}，变化用户数={}，待重算景点数={}，原水位线={}",
+            restored.userCount,
+            restored.spotCount(),
+            changedSpotIds.size(),
+            changedUserIds.size(),
+            restored.dirtySpots.cardinality(),
+            toLocalDateTime(watermarkMillis)
+        );
+        return true;
+    }
+
+    /**
+     * 读取水位线之后的行为变化，并只重算受影响景点的 Top-K 邻居。
+     *
+     * @param algorithmConfig 当前算法配置
+     * @param cacheConfig 当前缓存配置
+     * @return 本次重算并回写的景点数
+     */
+    public int applyDeltas(RecommendationAlgorithmConfigDTO algorithmConfig, RecommendationCacheConfigDTO cacheConfig) {
+        IncrementalState current = Objects.requireNonNull(state, "增量基线不存在");
+        LocalDateTime runStartedAt = LocalDateTime.now();
+        int topK = algorithmConfig.getTopKNeighbors() == null ? 20 : Math.max(algorithmConfig.getTopKNeighbors(), 1);
+        int simTTL = cacheConfig.getSimilarityTTLHours() == null ? 24 : cacheConfig.getSimilarityTTLHours();
+
+        // 第 1 步：按水位线找出行为有变化的用户，并经流式加载器重新读取这些用户的完整交互集合。
+        Set<Long> changedUserIds = recommendationSimilaritySupport.findChangedUserIds(
+            current.watermark.minusSeconds(WATERMARK_OVERLAP_SECONDS)
+        );
+        RecommendationInteractionMatrix changedMatrix = changedUserIds.isEmpty()
+            ? null
+            : recommendationInteractionStreamLoader.load(current.activeSpotIds, algorithmConfig, changedUserIds);
+
+        // 第 2 步：用新交互集合覆盖变化用户的基线行，同时收集需要重算的景点。
+        for (Long userId : changedUserIds) {
+            current.applyUser(userId, current.rowOf(changedMatrix, userId));
+        }
+        current.markCountChangedNeighbors();
+
+        // 第 3 步：只为受影响景点重算 Top-K，其余景点仅续期缓存。
+        BitSet dirtySpots = current.dirtySpots;
+        current.dirtySpots = new BitSet(current.spotCount());
+        Map<Long, Map<Long, Double>> updatedNeighbors = new LinkedHashMap<>();
+        CooccurrenceScratch scratch = current.newScratch(topK);
+        for (int spot = dirtySpots.nextSetBit(0); spot >= 0; spot = dirtySpots.nextSetBit(spot + 1)) {
+            updatedNeighbors.put(current.spotIds[spot], current.computeTopNeighbors(spot, scratch));
+        }
+        // 增量结果直接覆盖当前生效版本中的单个景点，单 Key 写入本身是原子的。
+        recommendationCacheService.saveSimilarityBatch(
+            recommendationCacheService.getCurrentSimilarityVersion(),
+            updatedNeighbors,
+            simTTL
+        );
+        updatedNeighbors.forEach(recommendationScoreSupport::logSpotSimilaritySummary);
+        List<Long> untouchedSpots = new ArrayList<>();
+        for (int spot = 0; spot < current.spotCount(); spot++) {
+            if (current.spotUserCount[spot] > 0 && !dirtySpots.get(spot)) {
+                untouchedSpots.add(current.spotIds[spot]);
+            }
+        }
+        recommendationCacheService.refreshSimilarityTtl(untouchedSpots, simTTL);
+
+        current.watermark = runStartedAt;
+        recommendationCacheService.saveMatrixWatermark(toEpochMilli(runStartedAt));
+        log.info(
+            "相似度增量更新完成：变化用户数={}，覆盖用户数={}，重算景点数={}，续期景点数={}，新水位线={}",
+            changedUserIds.size(),
+            current.overlaySlots.size(),
+            updatedNeighbors.size(),
+            untouchedSpots.size(),
+            runStartedAt
+        );
+        return updatedNeighbors.size();
+    }
+
+    /**
+     * 当前基线中的有交互用户数。
+     */
+    public int getTotalUsers() {
+        IncrementalState current = state;
+        return current == null ? 0 : current.userCount;
+    }
+
+    /**
+     * 当前基线中的有交互景点数。
+     */
+    public int getTotalSpots() {
+        IncrementalState current = state;
+        if (current == null) {
+            return 0;
+        }
+        int spots = 0;
+        for (int count : current.spotUserCount) {
+            if (count > 0) {
+                spots++;
+            }
+        }
+        return spots;
+    }
+
+    /**
+     * 基线指纹：有效景点集合与算法配置任一变化，已发布的相似度结果都不能再作为增量起点。
+     */
+    private String fingerprint(Set<Long> activeSpotIds, RecommendationAlgorithmConfigDTO algorithmConfig) {
+        String source = Arrays.toString(toSortedArray(activeSpotIds)) + "|" + algorithmConfig;
+        return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    /**
+     * 单次重算复用的稀疏累加器，与共现引擎叶子任务的做法一致。
+     */
+    private record CooccurrenceScratch(double[] accumulator, boolean[] touched, int[] touchedSpots, RecommendationTopKSelector selector) {
+    }
+
+    /**
+     * 增量基线：全量压缩矩阵、变化用户的覆盖行与景点交互用户数。
+     * <p>
+     * 景点统一使用有效景点升序下标，基线矩阵的景点下标经 {@code baseToState} 映射过来；
+     * 覆盖行为空数组表示该用户已没有有效交互。
+     * 覆盖行按槽位存放，并维护“景点 -> 覆盖行槽位”的倒排，重算单个景点时只访问真正包含该景点的覆盖行，
+     * 覆盖用户在基线中的下标另记一份位图，遍历基线倒排时不再按用户 ID 查表。
+     */
+    private static final class IncrementalState {
+
+        private final long[] spotIds;
+        private final Set<Long> activeSpotIds;
+        private final RecommendationAlgorithmConfigDTO algorithmConfig;
+        private final RecommendationInteractionMatrix baseline;
+        private final int[] baseToState;
+        private final Map<Long, Integer> overlaySlots = new HashMap<>();
+        private final List<int[]> overlayRows = new ArrayList<>();
+        private final BitSet overlaidBaseUsers;
+        private final int[][] spotOverlaySlots;
+        private final int[] spotOverlaySize;
+        private final int[] spotUserCount;
+        private final BitSet countChangedSpots;
+        private BitSet dirtySpots;
+        private int userCount;
+        private LocalDateTime watermark;
+
+        private IncrementalState(
+            RecommendationInteractionMatrix baseline,
+            Set<Long> activeSpotIds,
+            RecommendationAlgorithmConfigDTO algorithmConfig,
+            LocalDateTime watermark
+        ) {
+            this.spotIds = toSortedArray(activeSpotIds);
+            this.activeSpotIds = Set.copyOf(activeSpotIds);
+            this.algorithmConfig = algorithmConfig;
+            this.baseline = baseline;
+            this.watermark = watermark;
+            this.baseToState = new int[baseline.spotCount()];
+            this.spotUserCount = new int[spotIds.length];
+            for (int baseSpot = 0; baseSpot < baseline.spotCount(); baseSpot++) {
+                int spot = Arrays.binarySearch(spotIds, baseline.spotId(baseSpot));
+                baseToState[baseSpot] = spot;
+                if (spot >= 0) {
+                    spotUserCount[spot] = baseline.spotUserCount(baseSpot);
+                }
+            }
+            this.userCount = baseline.userCount();
+            this.countChangedSpots = new BitSet(spotIds.length);
+            this.dirtySpots = new BitSet(spotIds.length);
+            this.overlaidBaseUsers = new BitSet(baseline.userCount());
+            this.spotOverlaySlots = new int[spotIds.length][];
+            this.spotOverlaySize = new int[spotIds.length];
+        }
+
+        private int spotCount() {
+            return spotIds.length;
+        }
+
+        /**
+         * 从变化用户矩阵中取出用户的新交互行，转换为有效景点下标；矩阵中没有该用户时返回空行。
+         */
+        private int[] rowOf(RecommendationInteractionMatrix changedMatrix, Long userId) {
+            int user = changedMatrix == null ? -1 : changedMatrix.userIndex(userId);
+            if (user < 0) {
+                return EMPTY_ROW;
+            }
+            int[] offsets = changedMatrix.userOffsets();
+            int[] spots = changedMatrix.userSpots();
+            int[] row = new int[offsets[user + 1] - offsets[user]];
+            int size = 0;
+            for (int k = offsets[user]; k < offsets[user + 1]; k++) {
+                int spot = Arrays.binarySearch(spotIds, changedMatrix.spotId(spots[k]));
+                if (spot >= 0) {
+                    row[size++] = spot;
+                }
+            }
+            return size == row.length ? row : Arrays.copyOf(row, size);
+        }
+
+        /**
+         * 用户当前的交互行：有覆盖行时取覆盖行，否则取基线矩阵中的行。
+         */
+        private int[] currentRow(Long userId) {
+            Integer slot = overlaySlots.get(userId);
+            if (slot != null) {
+                return overlayRows.get(slot);
+            }
+            int user = baseline.userIndex(userId);
+            if (user < 0) {
+                return EMPTY_ROW;
+            }
+            int[] offsets = baseline.userOffsets();
+            int[] spots = baseline.userSpots();
+            int[] row = new int[offsets[user + 1] - offsets[user]];
+            for (int k = offsets[user]; k < offsets[user + 1]; k++) {
+                row[k - offsets[user]] = baseToState[spots[k]];
+            }
+            return row;
+        }
+
+        /**
+         * 用新交互行替换旧行：新旧行都进入待重算，交互用户数发生变化的景点留待统一扩散到共现邻居。
+         * IUF 随用户活跃度变化，旧行和新行中的每个景点都会受到影响。
+         */
+        private void applyUser(Long userId, int[] latest) {
+            int[] previous = currentRow(userId);
+            if (Arrays.equals(previous, latest)) {
+                return;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < previous.length || j < latest.length) {
+                if (j == latest.length || (i < previous.length && previous[i] < latest[j])) {
+                    spotUserCount[previous[i]]--;
+                    countChangedSpots.set(previous[i++]);
+                } else if (i == previous.length || latest[j] < previous[i]) {
+                    spotUserCount[latest[j]]++;
+                    countChangedSpots.set(latest[j++]);
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            for (int spot : previous) {
+                dirtySpots.set(spot);
+            }
+            for (int spot : latest) {
+                dirtySpots.set(spot);
+            }
+            if (previous.length == 0) {
+                userCount++;
+            } else if (latest.length == 0) {
+                userCount--;
+            }
+            setOverlayRow(userId, previous, latest);
+        }
+
+        /**
+         * 写入用户的覆盖行并同步景点倒排：已有槽位时先从旧行景点的倒排中摘除，再登记到新行景点下。
+         */
+        private void setOverlayRow(Long userId, int[] previous, int[] latest) {
+            Integer existing = overlaySlots.get(userId);
+            int slot;
+            if (existing == null) {
+                slot = overlayRows.size();
+                overlayRows.add(latest);
+                overlaySlots.put(userId, slot);
+                int baseUser = baseline.userIndex(userId);
+                if (baseUser >= 0) {
+                    overlaidBaseUsers.set(baseUser);
+                }
+            } else {
+                slot = existing;
+                overlayRows.set(slot, latest);
+                for (int spot : previous) {
+                    removeSpotOverlaySlot(spot, slot);
+                }
+            }
+            for (int spot : latest) {
+                addSpotOverlaySlot(spot, slot);
+            }
+        }
+
+        private void addSpotOverlaySlot(int spot, int slot) {
+            int[] slots = spotOverlaySlots[spot];
+            int size = spotOverlaySize[spot];
+            if (slots == null) {
+                slots = new int[4];
+            } else if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size] = slot;
+            spotOverlaySlots[spot] = slots;
+            spotOverlaySize[spot] = size + 1;
+        }
+
+        private void removeSpotOverlaySlot(int spot, int slot) {
+            int[] slots = spotOverlaySlots[spot];
+            int size = spotOverlaySize[spot];
+            for (int k = 0; k < size; k++) {
+                if (slots[k] == slot) {
+                    // 倒排内顺序无关，用末尾元素填补空位。
+                    slots[k] = slots[size - 1];
+                    spotOverlaySize[spot] = size - 1;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 景点交互用户数变化会改变所有共现邻居的归一化分母，因此把这些景点当前的共现邻居也标记为待重算。
+         * 变化前的邻居只会经由本次变化用户的旧行产生，已在 {@link #applyUser} 中标记。
+         */
+        private void markCountChangedNeighbors() {
+            for (int spot = countChangedSpots.nextSetBit(0); spot >= 0; spot = countChangedSpots.nextSetBit(spot + 1)) {
+                forEachCooccurrence(spot, (other, userIuf) -> dirtySpots.set(other));
+            }
+            countChangedSpots.clear();
+        }
+
+        /**
+         * 恢复基线时标记持久化水位线之后受影响的景点：变化景点及其共现邻居，加上变化用户交互过的全部景点。
+         * 被撤回的交互不在当前矩阵中，但撤回的景点本身出现在变化景点里，失去的共现邻居都在变化用户的当前行里。
+         */
+        private void markChangedSince(Collection<Long> changedSpotIds, Collection<Long> changedUserIds) {
+            for (Long spotId : changedSpotIds) {
+                int spot = Arrays.binarySearch(spotIds, spotId);
+                if (spot >= 0) {
+                    dirtySpots.set(spot);
+                    countChangedSpots.set(spot);
+                }
+            }
+            for (Long userId : changedUserIds) {
+                for (int spot : currentRow(userId)) {
+                    dirtySpots.set(spot);
+                }
+            }
+            markCountChangedNeighbors();
+        }
+
+        private CooccurrenceScratch newScratch(int topK) {
+            return new CooccurrenceScratch(
+                new double[spotIds.length],
+                new boolean[spotIds.length],
+                new int[spotIds.length],
+                new RecommendationTopKSelector(Math.max(topK, 1))
+            );
+        }
+
+        /**
+         * 沿“景点 -> 用户 -> 其他景点”累加共现权重并取 Top-K，计算口径与共现引擎一致。
+         */
+        private Map<Long, Double> computeTopNeighbors(int spot, CooccurrenceScratch scratch) {
+            int usersI = spotUserCount[spot];
+            if (usersI <= 0) {
+                return new LinkedHashMap<>();
+            }
+            double[] accumulator = scratch.accumulator();
+            boolean[] touched = scratch.touched();
+            int[] touchedSpots = scratch.touchedSpots();
+            int[] touchedCount = new int[1];
+            forEachCooccurrence(spot, (other, userIuf) -> {
+                if (other == spot) {
+                    return;
+                }
+                if (!touched[other]) {
+                    touched[other] = true;
+                    touchedSpots[touchedCount[0]++] = other;
+                }
+                accumulator[other] += userIuf;
+            });
+
+            double normI = Math.sqrt(usersI);
+            RecommendationTopKSelector selector = scratch.selector();
+            for (int k = 0; k < touchedCount[0]; k++) {
+                int other = touchedSpots[k];
+                double score = accumulator[other] / (normI * Math.sqrt(Math.max(spotUserCount[other], 1)));
+                if (score > 0) {
+                    selector.offer(spotIds[other], score);
+                }
+                accumulator[other] = 0;
+                touched[other] = false;
+            }
+            return selector.toOrderedMap();
+        }
+
+        /**
+         * 遍历当前与景点共现的每个（用户，其他景点）组合：基线倒排中未被覆盖的用户取基线行，
+         * 再经景点倒排加上覆盖行中包含该景点的用户。访问到的景点包含景点自身，由调用方按需跳过。
+         */
+        private void forEachCooccurrence(int spot, CooccurrenceVisitor visitor) {
+            int baseSpot = baseline.spotIndex(spotIds[spot]);
+            if (baseSpot >= 0) {
+                int[] spotOffsets = baseline.spotOffsets();
+                int[] spotUsers = baseline.spotUsers();
+                int[] userOffsets = baseline.userOffsets();
+                int[] userSpots = baseline.userSpots();
+                for (int p = spotOffsets[baseSpot]; p < spotOffsets[baseSpot + 1]; p++) {
+                    int user = spotUsers[p];
+                    if (overlaidBaseUsers.get(user)) {
+                        continue;
+                    }
+                    double userIuf = baseline.userIuf(user);
+                    for (int q = userOffsets[user]; q < userOffsets[user + 1]; q++) {
+                        visitor.visit(baseToState[userSpots[q]], userIuf);
+                    }
+                }
+            }
+            int[] slots = spotOverlaySlots[spot];
+            for (int k = 0; k < spotOverlaySize[spot]; k++) {
+                int[] row = overlayRows.get(slots[k]);
+                double userIuf = iuf(row.length);
+                for (int other : row) {
+                    visitor.visit(other, userIuf);
+                }
+            }
+        }
+
+        private static double iuf(int activity) {
+            return activity == 0 ? 0 : 1.0 / Math.log(1 + activity);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CooccurrenceVisitor {
+
+        void visit(int otherSpot, double userIuf);
+    }
+}
@@ -0,0 +1,267 @@
+package com.travel.service.support.recommendation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 离线用户-景点交互矩阵的压缩存储（CSR），替代按用户嵌套的 {@code Map<Long, Map<Long, Double>>}。
+ * <p>
+ * 用户 ID 与景点 ID 均按升序重映射为连续下标：按用户存一份行偏移、景点下标与权重，
+ * 同时按景点存一份转置的用户下标倒排。两份下标数组在每一行内都有序，相似度计算可以直接做有序归并求交集，
+ * 不再依赖装箱集合的 {@code contains}。矩阵构建完成后只读，可以在多个计算线程之间共享。
+ */
+public final class RecommendationInteractionMatrix {
+
+    private final long[] userIds;
+    private final long[] spotIds;
+    private final int[] userOffsets;
+    private final int[] userSpots;
+    private final float[] userWeights;
+    private final int[] spotOffsets;
+    private final int[] spotUsers;
+
+    private RecommendationInteractionMatrix(
+        long[] userIds,
+        long[] spotIds,
+        int[] userOffsets,
+        int[] userSpots,
+        float[] userWeights,
+        int[] spotOffsets,
+        int[] spotUsers
+    ) {
+        this.userIds = userIds;
+        this.spotIds = spotIds;
+        this.userOffsets = userOffsets;
+        this.userSpots = userSpots;
+        this.userWeights = userWeights;
+        this.spotOffsets = spotOffsets;
+        this.spotUsers = spotUsers;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 由按用户嵌套的交互映射构建矩阵，供列表加载路径和测试复用。
+     */
+    public static RecommendationInteractionMatrix fromMap(Map<Long, Map<Long, Double>> userItemMatrix) {
+        Builder builder = new Builder();
+        userItemMatrix.forEach((userId, spotWeights) ->
+            spotWeights.forEach((spotId, weight) -> builder.add(userId, spotId, weight))
+        );
+        return builder.build();
+    }
+
+    public boolean isEmpty() {
+        return userSpots.length == 0;
+    }
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int spotCount() {
+        return spotIds.length;
+    }
+
+    public int interactionCount() {
+        return userSpots.length;
+    }
+
+    public long userId(int userIndex) {
+        return userIds[userIndex];
+    }
+
+    public long spotId(int spotIndex) {
+        return spotIds[spotIndex];
+    }
+
+    /**
+     * 查询用户 ID 对应的下标。
+     *
+     * @return 用户下标；用户不在矩阵中时返回负数
+     */
+    public int userIndex(long userId) {
+        return Arrays.binarySearch(userIds, userId);
+    }
+
+    /**
+     * 查询景点 ID 对应的下标。
+     *
+     * @return 景点下标；景点不在矩阵中时返回负数
+     */
+    public int spotIndex(long spotId) {
+        return Arrays.binarySearch(spotIds, spotId);
+    }
+
+    /**
+     * 用户交互过的景点数，即 IUF 中的用户活跃度。
+     */
+    public int userActivity(int userIndex) {
+        return userOffsets[userIndex + 1] - userOffsets[userIndex];
+    }
+
+    /**
+     * 与景点有交互的用户数。
+     */
+    public int spotUserCount(int spotIndex) {
+        return spotOffsets[spotIndex + 1] - spotOffsets[spotIndex];
+    }
+
+    /**
+     * 用户的 IUF 权重：活跃度越高，对共现的贡献越低。
+     */
+    public double userIuf(int userIndex) {
+        return 1.0 / Math.log(1 + userActivity(userIndex));
+    }
+
+    /**
+     * 把单个用户的交互行还原为景点 ID 到权重的映射，仅用于日志样本和增量基线等少量场景。
+     */
+    public Map<Long, Double> userRow(int userIndex) {
+        Map<Long, Double> row = new LinkedHashMap<>();
+        for (int k = userOffsets[userIndex]; k < userOffsets[userIndex + 1]; k++) {
+            row.put(spotIds[userSpots[k]], (double) userWeights[k]);
+        }
+        return row;
+    }
+
+    int[] userOffsets() {
+        return userOffsets;
+    }
+
+    int[] userSpots() {
+        return userSpots;
+    }
+
+    int[] spotOffsets() {
+        return spotOffsets;
+    }
+
+    int[] spotUsers() {
+        return spotUsers;
+    }
+
+    /**
+     * 矩阵构建器，以三元组形式追加交互，构建时统一排序、去重并压缩。
+     * <p>
+     * 同一用户对同一景点的多次追加按权重累加，与原先“不同行为之间累加”的合并口径一致；
+     * 行为内部取最大值的去重需要调用方在追加前完成。构建时会释放三元组缓冲区，每个构建器只能构建一次。
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] users = new long[INITIAL_CAPACITY];
+        private long[] spots = new long[INITIAL_CAPACITY];
+        private float[] weights = new float[INITIAL_CAPACITY];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * 追加一条交互，非正权重会被忽略。
+         */
+        public Builder add(Long userId, Long spotId, Double weight) {
+            if (userId == null || spotId == null || weight == null || weight <= 0) {
+                return this;
+            }
+            if (size == users.length) {
+                int capacity = size + (size >> 1);
+                users = Arrays.copyOf(users, capacity);
+                spots = Arrays.copyOf(spots, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            users[size] = userId;
+            spots[size] = spotId;
+            weights[size] = weight.floatValue();
+            size++;
+            return this;
+        }
+
+        public RecommendationInteractionMatrix build() {
+            long[] userIds = distinctSorted(users, size);
+            long[] spotIds = distinctSorted(spots, size);
+            int userCount = userIds.length;
+            int spotCount = spotIds.length;
+
+            // 第 1 步：按用户分桶，桶内把“景点下标 + 权重位”打包成 long，排序后同一景点自然相邻。
+            int[] userIndexes = new int[size];
+            int[] rowStarts = new int[userCount + 1];
+            for (int k = 0; k < size; k++) {
+                userIndexes[k] = Arrays.binarySearch(userIds, users[k]);
+                rowStarts[userIndexes[k] + 1]++;
+            }
+            for (int u = 0; u < userCount; u++) {
+                rowStarts[u + 1] += rowStarts[u];
+            }
+            long[] packed = new long[size];
+            int[] fillCursor = Arrays.copyOf(rowStarts, userCount);
+            for (int k = 0; k < size; k++) {
+                long spotIndex = Arrays.binarySearch(spotIds, spots[k]);
+                packed[fillCursor[userIndexes[k]]++] = (spotIndex << 32) | (Float.floatToRawIntBits(weights[k]) & 0xFFFFFFFFL);
+            }
+            users = null;
+            spots = null;
+            weights = null;
+
+            // 第 2 步：逐行排序并合并重复景点，得到按用户压缩的行存储。
+            int[] userOffsets = new int[userCount + 1];
+            int[] userSpots = new int[size];
+            float[] userWeights = new float[size];
+            int[] spotUserCounts = new int[spotCount + 1];
+            int cursor = 0;
+            for (int u = 0; u < userCount; u++) {
+                Arrays.sort(packed, rowStarts[u], rowStarts[u + 1]);
+                int previousSpot = -1;
+                for (int k = rowStarts[u]; k < rowStarts[u + 1]; k++) {
+                    int spotIndex = (int) (packed[k] >>> 32);
+                    float weight = Float.intBitsToFloat((int) packed[k]);
+                    if (spotIndex == previousSpot) {
+                        userWeights[cursor - 1] += weight;
+                        continue;
+                    }
+                    userSpots[cursor] = spotIndex;
+                    userWeights[cursor] = weight;
+                    spotUserCounts[spotIndex + 1]++;
+                    previousSpot = spotIndex;
+                    cursor++;
+                }
+                userOffsets[u + 1] = cursor;
+            }
+            if (cursor < size) {
+                userSpots = Arrays.copyOf(userSpots, cursor);
+                userWeights = Arrays.copyOf(userWeights, cursor);
+            }
+
+            // 第 3 步：按用户顺序回填景点倒排，每个景点下的用户下标天然有序。
+            for (int s = 0; s < spotCount; s++) {
+                spotUserCounts[s + 1] += spotUserCounts[s];
+            }
+            int[] spotOffsets = spotUserCounts;
+            int[] spotUsers = new int[cursor];
+            int[] spotCursor = Arrays.copyOf(spotOffsets, spotCount);
+            for (int u = 0; u < userCount; u++) {
+                for (int k = userOffsets[u]; k < userOffsets[u + 1]; k++) {
+                    spotUsers[spotCursor[userSpots[k]]++] = u;
+                }
+            }
+            return new RecommendationInteractionMatrix(userIds, spotIds, userOffsets, userSpots, userWeights, spotOffsets, spotUsers);
+        }
+
+        private static long[] distinctSorted(long[] values, int length) {
+            long[] sorted = Arrays.copyOf(values, length);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return distinct == length ? sorted : Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
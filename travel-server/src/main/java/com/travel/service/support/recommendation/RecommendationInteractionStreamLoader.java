@@ -0,0 +1,197 @@
+package com.travel.service.support.recommendation;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.travel.dto.recommendation.config.RecommendationAlgorithmConfigDTO;
+import com.travel.entity.Order;
+import com.travel.entity.Review;
+import com.travel.entity.UserSpotFavorite;
+import com.travel.entity.UserSpotView;
+import com.travel.enums.OrderStatus;
+import com.travel.mapper.OrderMapper;
+import com.travel.mapper.ReviewMapper;
+import com.travel.mapper.UserSpotFavoriteMapper;
+import com.travel.mapper.UserSpotViewMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 离线交互矩阵的流式加载器，逐行读取四类行为并直接折叠进同一份压缩交互矩阵。
+ * <p>
+ * 行为口径与列表加载保持一致：同一行为内对同一景点取最大权重，不同行为之间累加。
+ * 每类行为按用户 ID 顺序读取，因此只需为“当前用户”保留一份行为内去重表，用户切换时即合并进矩阵，
+ * 不再需要整表行为列表和按行为拆开的中间矩阵；不同行为之间的累加由矩阵构建器完成。
+ * 增量更新只重读变化用户时同样走这里，按用户分批追加 IN 条件，得到的也是压缩矩阵。
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationInteractionStreamLoader {
+
+    /**
+     * 按用户过滤时每批 IN 条件的用户数，避免一次增量涉及大量用户时 SQL 过长。
+     */
+    private static final int USER_BATCH_SIZE = 500;
+
+    private final UserSpotViewMapper userSpotViewMapper;
+    private final UserSpotFavoriteMapper userSpotFavoriteMapper;
+    private final ReviewMapper reviewMapper;
+    private final OrderMapper orderMapper;
+    private final RecommendationScoreSupport recommendationScoreSupport;
+
+    /**
+     * 流式读取全量行为并构建压缩交互矩阵。
+     *
+     * @param activeSpotIds 有效景点 ID
+     * @param algorithmConfig 推荐算法配置
+     * @return 压缩交互矩阵
+     */
+    public RecommendationInteractionMatrix load(Set<Long> activeSpotIds, RecommendationAlgorithmConfigDTO algorithmConfig) {
+        RecommendationInteractionMatrix.Builder matrixBuilder = RecommendationInteractionMatrix.builder();
+        loadInto(matrixBuilder, activeSpotIds, algorithmConfig, null, null);
+        return matrixBuilder.build();
+    }
+
+    /**
+     * 只流式读取指定用户的行为并构建压缩交互矩阵，供增量更新重读变化用户的交互集合。
+     *
+     * @param activeSpotIds 有效景点 ID
+     * @param algorithmConfig 推荐算法配置
+     * @param userIds 需要读取的用户 ID
+     * @return 压缩交互矩阵；没有有效交互的用户不会出现在矩阵中
+     */
+    public RecommendationInteractionMatrix load(
+        Set<Long> activeSpotIds,
+        RecommendationAlgorithmConfigDTO algorithmConfig,
+        Collection<Long> userIds
+    ) {
+        RecommendationInteractionMatrix.Builder matrixBuilder = RecommendationInteractionMatrix.builder();
+        List<Long> userIdList = new ArrayList<>(new HashSet<>(userIds));
+        for (int from = 0; from < userIdList.size(); from += USER_BATCH_SIZE) {
+            List<Long> batch = userIdList.subList(from, Math.min(from + USER_BATCH_SIZE, userIdList.size()));
+            loadInto(matrixBuilder, activeSpotIds, algorithmConfig, batch, new HashSet<>(batch));
+        }
+        return matrixBuilder.build();
+    }
+
+    /**
+     * 把四类行为折叠进矩阵构建器；userBatch 为空时读取全量，否则只读取这一批用户。
+     */
+    private void loadInto(
+        RecommendationInteractionMatrix.Builder matrixBuilder,
+        Set<Long> activeSpotIds,
+        RecommendationAlgorithmConfigDTO algorithmConfig,
+        List<Long> userBatch,
+        Set<Long> userFilter
+    ) {
+        boolean filterUsers = userBatch != null;
+        BehaviorFolder viewFolder = new BehaviorFolder(matrixBuilder, activeSpotIds, userFilter);
+        userSpotViewMapper.streamInteractions(
+            new LambdaQueryWrapper<UserSpotView>()
+                .in(filterUsers, UserSpotView::getUserId, userBatch)
+                .orderByAsc(UserSpotView::getUserId),
+            context -> {
+                UserSpotView view = context.getResultObject();
+                viewFolder.accept(view.getUserId(), view.getSpotId(), recommendationScoreSupport.calculateViewWeight(view, algorithmConfig));
+            }
+        );
+        viewFolder.finish();
+
+        double favoriteWeight = algorithmConfig.getWeightFavorite() == null ? 1.0 : algorithmConfig.getWeightFavorite();
+        BehaviorFolder favoriteFolder = new BehaviorFolder(matrixBuilder, activeSpotIds, userFilter);
+        userSpotFavoriteMapper.streamInteractions(
+            new LambdaQueryWrapper<UserSpotFavorite>()
+                .eq(UserSpotFavorite::getIsDeleted, 0)
+                .in(filterUsers, UserSpotFavorite::getUserId, userBatch)
+                .orderByAsc(UserSpotFavorite::getUserId),
+            context -> {
+                UserSpotFavorite favorite = context.getResultObject();
+                favoriteFolder.accept(favorite.getUserId(), favorite.getSpotId(), favoriteWeight);
+            }
+        );
+        favoriteFolder.finish();
+
+        double reviewFactor = algorithmConfig.getWeightReviewFactor() == null ? 0.4 : algorithmConfig.getWeightReviewFactor();
+        BehaviorFolder reviewFolder = new BehaviorFolder(matrixBuilder, activeSpotIds, userFilter);
+        reviewMapper.streamInteractions(
+            new LambdaQueryWrapper<Review>()
+                .eq(Review::getIsDeleted, 0)
+                .in(filterUsers, Review::getUserId, userBatch)
+                .orderByAsc(Review::getUserId),
+            context -> {
+                Review review = context.getResultObject();
+                reviewFolder.accept(review.getUserId(), review.getSpotId(), review.getScore() * reviewFactor);
+            }
+        );
+        reviewFolder.finish();
+
+        double orderPaidWeight = algorithmConfig.getWeightOrderPaid() == null ? 3.0 : algorithmConfig.getWeightOrderPaid();
+        double orderCompletedWeight = algorithmConfig.getWeightOrderCompleted() == null ? 4.0 : algorithmConfig.getWeightOrderCompleted();
+        BehaviorFolder orderFolder = new BehaviorFolder(matrixBuilder, activeSpotIds, userFilter);
+        orderMapper.streamInteractions(
+            new LambdaQueryWrapper<Order>()
+                .eq(Order::getIsDeleted, 0)
+                .in(Order::getStatus, OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode())
+                .in(filterUsers, Order::getUserId, userBatch)
+                .orderByAsc(Order::getUserId),
+            context -> {
+                Order order = context.getResultObject();
+                orderFolder.accept(
+                    order.getUserId(),
+                    order.getSpotId(),
+                    order.getStatus() == OrderStatus.COMPLETED.getCode() ? orderCompletedWeight : orderPaidWeight
+                );
+            }
+        );
+        orderFolder.finish();
+    }
+
+    /**
+     * 单类行为的折叠器：缓存当前用户在该行为内的景点最大权重，用户切换时追加进矩阵构建器。
+     * 指定了用户过滤集合时，集合外的用户直接跳过。
+     */
+    private final class BehaviorFolder {
+
+        private final RecommendationInteractionMatrix.Builder matrixBuilder;
+        private final Set<Long> activeSpotIds;
+        private final Set<Long> userFilter;
+        private final Map<Long, Double> currentWeights = new HashMap<>();
+        private Long currentUserId;
+
+        private BehaviorFolder(RecommendationInteractionMatrix.Builder matrixBuilder, Set<Long> activeSpotIds, Set<Long> userFilter) {
+            this.matrixBuilder = matrixBuilder;
+            this.activeSpotIds = activeSpotIds;
+            this.userFilter = userFilter;
+        }
+
+        private void accept(Long userId, Long spotId, double weight) {
+            if (!activeSpotIds.contains(spotId) || (userFilter != null && !userFilter.contains(userId))) {
+                return;
+            }
+            if (!userId.equals(currentUserId)) {
+                flush();
+                currentUserId = userId;
+            }
+            recommendationScoreSupport.mergeBehaviorWeight(currentWeights, spotId, weight);
+        }
+
+        private void finish() {
+            flush();
+            currentUserId = null;
+        }
+
+        private void flush() {
+            if (currentUserId == null) {
+                return;
+            }
+            currentWeights.forEach((spotId, weight) -> matrixBuilder.add(currentUserId, spotId, weight));
+            currentWeights.clear();
+        }
+    }
+}
@@ -1,14 +1,9 @@
 package com.travel.service.support.recommendation;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.travel.common.constant.ResourceDisplayText;
 import com.travel.dto.recommendation.response.RecommendationResponse;
 import com.travel.entity.Spot;
-import com.travel.entity.SpotCategory;
-import com.travel.entity.SpotRegion;
-import com.travel.mapper.SpotCategoryMapper;
-import com.travel.mapper.SpotMapper;
-import com.travel.mapper.SpotRegionMapper;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -20,41 +15,37 @@ import java.util.stream.Collectors;
 /**
  * 推荐查询支撑，集中处理景点名称、分类地区字典和推荐响应组装。
  * <p>
- * 推荐结果最终都要补齐展示字段，因此查询装配逻辑统一放在这里，避免主流程反复查字典。
+ * 推荐结果最终都要补齐展示字段，因此查询装配逻辑统一放在这里；景点与字典均从进程内景点目录快照读取，避免主流程反复查库。
  */
 @Component
 @RequiredArgsConstructor
 public class RecommendationQuerySupport {
 
-    private final SpotMapper spotMapper;
-    private final SpotCategoryMapper categoryMapper;
-    private final SpotRegionMapper spotRegionMapper;
+    private final SpotCatalogSupport spotCatalogSupport;
 
     /**
      * 构建分类名称字典。
      *
-     * @return 分类映射
+     * @return 分类映射，只读
      */
     public Map<Long, String> getCategoryMap() {
-        return categoryMapper.selectList(new LambdaQueryWrapper<SpotCategory>().eq(SpotCategory::getIsDeleted, 0)).stream()
-            .collect(Collectors.toMap(SpotCategory::getId, SpotCategory::getName));
+        return spotCatalogSupport.getCategoryNames();
     }
 
     /**
      * 构建地区名称字典。
      *
-     * @return 地区映射
+     * @return 地区映射，只读
      */
     public Map<Long, String> getRegionMap() {
-        return spotRegionMapper.selectList(new LambdaQueryWrapper<SpotRegion>().eq(SpotRegion::getIsDeleted, 0)).stream()
-            .collect(Collectors.toMap(SpotRegion::getId, SpotRegion::getName));
+        return spotCatalogSupport.getRegionNames();
     }
 
     public String getSpotName(Long spotId) {
         if (spotId == null) {
             return ResourceDisplayText.Spot.UNKNOWN;
         }
-        Spot spot = spotMapper.selectById(spotId);
+        Spot spot = spotCatalogSupport.getSpot(spotId);
         return spot == null || spot.getName() == null ? ResourceDisplayText.Spot.UNKNOWN : spot.getName();
     }
 
@@ -82,9 +73,7 @@ public class RecommendationQuerySupport {
         }
 
         // 推荐结果按输入顺序回放，避免批量查询后顺序被数据库返回结果打乱。
-        List<Spot> spots = spotMapper.selectBatchIds(limitedIds);
-        Map<Long, String> categoryMap = getCategoryMap();
-        Map<Long, String> regionMap = getRegionMap();
+        List<Spot> spots = spotCatalogSupport.getSpots(limitedIds);
         Map<Long, Spot> spotMap = spots.stream().collect(Collectors.toMap(Spot::getId, spot -> spot));
 
         if (debugInfo != null) {
@@ -102,8 +91,8 @@ public class RecommendationQuerySupport {
                 item.setPrice(spot.getPrice());
                 item.setAvgRating(spot.getAvgRating());
                 item.setRatingCount(spot.getRatingCount());
-                item.setCategoryName(categoryMap.get(spot.getCategoryId()));
-                item.setRegionName(regionMap.get(spot.getRegionId()));
+                item.setCategoryName(spot.getCategoryName());
+                item.setRegionName(spot.getRegionName());
                 item.setScore(scoreMap == null ? null : scoreMap.get(spot.getId()));
                 return item;
             })
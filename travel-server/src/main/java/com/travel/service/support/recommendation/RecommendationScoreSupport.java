@@ -1,20 +1,13 @@
 package com.travel.service.support.recommendation;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
 import com.travel.dto.recommendation.config.RecommendationAlgorithmConfigDTO;
 import com.travel.dto.recommendation.config.RecommendationHeatConfigDTO;
 import com.travel.dto.recommendation.response.RecommendationResponse;
-import com.travel.entity.Order;
-import com.travel.entity.Review;
 import com.travel.entity.Spot;
-import com.travel.entity.UserSpotFavorite;
 import com.travel.entity.UserSpotView;
 import com.travel.enums.OrderStatus;
-import com.travel.mapper.OrderMapper;
-import com.travel.mapper.ReviewMapper;
-import com.travel.mapper.SpotMapper;
-import com.travel.mapper.UserSpotFavoriteMapper;
-import com.travel.mapper.UserSpotViewMapper;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -43,59 +36,39 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RecommendationScoreSupport {
 
-    private final SpotMapper spotMapper;
-    private final UserSpotViewMapper userSpotViewMapper;
-    private final UserSpotFavoriteMapper userSpotFavoriteMapper;
-    private final ReviewMapper reviewMapper;
-    private final OrderMapper orderMapper;
+    private final SpotCatalogSupport spotCatalogSupport;
     private final RecommendationQuerySupport recommendationQuerySupport;
     private final RecommendationViewSourceClassifier recommendationViewSourceClassifier;
 
     /**
      * 汇总用户在各类行为上的景点交互权重。
      *
-     * @param userId 用户 ID
+     * @param profile 用户行为画像
      * @param config 推荐算法配置
      * @return 景点交互权重
      */
-    public Map<Long, Double> buildUserInteractionWeights(Long userId, RecommendationAlgorithmConfigDTO config) {
+    public Map<Long, Double> buildUserInteractionWeights(UserBehaviorProfileCacheDTO profile, RecommendationAlgorithmConfigDTO config) {
         Map<Long, Double> weights = new HashMap<>();
         Map<Long, Double> viewWeights = new HashMap<>();
         Map<Long, Double> favoriteWeights = new HashMap<>();
         Map<Long, Double> reviewWeights = new HashMap<>();
         Map<Long, Double> orderWeights = new HashMap<>();
 
-        userSpotViewMapper.selectList(
-            new LambdaQueryWrapper<UserSpotView>()
-                .eq(UserSpotView::getUserId, userId)
-                .select(UserSpotView::getSpotId, UserSpotView::getViewSource, UserSpotView::getViewDuration)
-        ).forEach(view -> mergeBehaviorWeight(viewWeights, view.getSpotId(), calculateViewWeight(view, config)));
-
-        userSpotFavoriteMapper.selectList(
-            new LambdaQueryWrapper<UserSpotFavorite>()
-                .eq(UserSpotFavorite::getUserId, userId)
-                .eq(UserSpotFavorite::getIsDeleted, 0)
-                .select(UserSpotFavorite::getSpotId)
-        ).forEach(favorite -> mergeBehaviorWeight(favoriteWeights, favorite.getSpotId(), config.getWeightFavorite()));
-
-        reviewMapper.selectList(
-            new LambdaQueryWrapper<Review>()
-                .eq(Review::getUserId, userId)
-                .eq(Review::getIsDeleted, 0)
-                .select(Review::getSpotId, Review::getScore)
-        ).forEach(review -> mergeBehaviorWeight(
+        profile.getViews().forEach(view -> mergeBehaviorWeight(
+            viewWeights,
+            view.getSpotId(),
+            calculateViewWeight(view.getViewSource(), view.getViewDuration(), config)
+        ));
+
+        profile.getFavoriteSpotIds().forEach(spotId -> mergeBehaviorWeight(favoriteWeights, spotId, config.getWeightFavorite()));
+
+        profile.getReviews().forEach(review -> mergeBehaviorWeight(
             reviewWeights,
             review.getSpotId(),
             review.getScore() * config.getWeightReviewFactor()
         ));
 
-        orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getUserId, userId)
-                .eq(Order::getIsDeleted, 0)
-                .in(Order::getStatus, OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode())
-                .select(Order::getSpotId, Order::getStatus)
-        ).forEach(order -> {
+        profile.getOrders().stream().filter(this::isWeightedOrder).forEach(order -> {
             double weight = order.getStatus() == OrderStatus.COMPLETED.getCode()
                 ? config.getWeightOrderCompleted()
                 : config.getWeightOrderPaid();
@@ -117,10 +90,22 @@ public class RecommendationScoreSupport {
      * @return 浏览权重
      */
     public double calculateViewWeight(UserSpotView view, RecommendationAlgorithmConfigDTO config) {
+        return calculateViewWeight(view.getViewSource(), view.getViewDuration(), config);
+    }
+
+    /**
+     * 按浏览来源和停留时长计算单次浏览行为的权重。
+     *
+     * @param viewSource 浏览来源
+     * @param viewDuration 停留时长（秒）
+     * @param config 推荐算法配置
+     * @return 浏览权重
+     */
+    public double calculateViewWeight(String viewSource, Integer viewDuration, RecommendationAlgorithmConfigDTO config) {
         double baseWeight = config.getWeightView() == null ? 0.5 : config.getWeightView();
         return baseWeight
-            * getViewSourceFactor(view.getViewSource(), config)
-            * getViewDurationFactor(view.getViewDuration(), config);
+            * getViewSourceFactor(viewSource, config)
+            * getViewDurationFactor(viewDuration, config);
     }
 
     public void mergeInteractionWeight(Map<Long, Double> weights, Long spotId, Double weight) {
@@ -157,7 +142,7 @@ public class RecommendationScoreSupport {
             return new LinkedHashMap<>(scoreMap);
         }
 
-        List<Spot> spots = spotMapper.selectBatchIds(scoreMap.keySet());
+        List<Spot> spots = spotCatalogSupport.getSpots(scoreMap.keySet());
         Map<Long, Integer> heatMap = spots.stream()
             .filter(spot -> spot.getIsDeleted() == 0 && spot.getIsPublished() == 1)
             .collect(Collectors.toMap(Spot::getId, spot -> Optional.ofNullable(spot.getHeatScore()).orElse(0)));
@@ -193,35 +178,16 @@ public class RecommendationScoreSupport {
         return rerankedScores;
     }
 
-    public List<Long> filterInteractedSpots(Long userId, List<Long> spotIds) {
+    public List<Long> filterInteractedSpots(UserBehaviorProfileCacheDTO profile, List<Long> spotIds) {
         if (spotIds == null || spotIds.isEmpty()) {
             return spotIds;
         }
 
-        // 已评分、已收藏和已下单景点默认从推荐结果中过滤，减少重复推荐。
-        Set<Long> ratedIds = reviewMapper.selectList(
-            new LambdaQueryWrapper<Review>()
-                .eq(Review::getUserId, userId)
-                .eq(Review::getIsDeleted, 0)
-        ).stream().map(Review::getSpotId).collect(Collectors.toSet());
-
-        Set<Long> favoriteIds = userSpotFavoriteMapper.selectList(
-            new LambdaQueryWrapper<UserSpotFavorite>()
-                .eq(UserSpotFavorite::getUserId, userId)
-                .eq(UserSpotFavorite::getIsDeleted, 0)
-        ).stream().map(UserSpotFavorite::getSpotId).collect(Collectors.toSet());
-
-        Set<Long> orderedIds = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getUserId, userId)
-                .eq(Order::getIsDeleted, 0)
-                .ne(Order::getStatus, OrderStatus.CANCELLED.getCode())
-        ).stream().map(Order::getSpotId).collect(Collectors.toSet());
-
+        // 已评分、已收藏和已下单景点默认从推荐结果中过滤，减少重复推荐；订单口径为全部未取消订单。
         Set<Long> excludeIds = new HashSet<>();
-        excludeIds.addAll(ratedIds);
-        excludeIds.addAll(favoriteIds);
-        excludeIds.addAll(orderedIds);
+        profile.getReviews().forEach(review -> excludeIds.add(review.getSpotId()));
+        excludeIds.addAll(profile.getFavoriteSpotIds());
+        profile.getOrders().forEach(order -> excludeIds.add(order.getSpotId()));
 
         return spotIds.stream()
             .filter(id -> !excludeIds.contains(id))
@@ -242,19 +208,6 @@ public class RecommendationScoreSupport {
         return orderedScores;
     }
 
-    public Map<Long, Double> castScoreMap(Map<?, ?> rawMap) {
-        // Redis 取出的结构类型不稳定，这里统一做一次宽松转换。
-        Map<Long, Double> scoreMap = new LinkedHashMap<>();
-        for (Map.Entry<?, ?> entry : rawMap.entrySet()) {
-            Long spotId = castToLong(entry.getKey());
-            Double score = castToDouble(entry.getValue());
-            if (spotId != null && score != null) {
-                scoreMap.put(spotId, score);
-            }
-        }
-        return scoreMap;
-    }
-
     public Long castToLong(Object value) {
         if (value instanceof Long longValue) {
             return longValue;
@@ -312,59 +265,33 @@ public class RecommendationScoreSupport {
         debugInfo.setUserInteractions(toDebugEntries(userInteractions, "用户对该景点的融合交互权重"));
     }
 
-    public void populateBehaviorStats(RecommendationResponse.DebugInfo debugInfo, Long userId) {
-        if (debugInfo == null || userId == null) {
+    public void populateBehaviorStats(RecommendationResponse.DebugInfo debugInfo, UserBehaviorProfileCacheDTO profile) {
+        if (debugInfo == null || profile == null) {
             return;
         }
 
-        List<UserSpotView> views = userSpotViewMapper.selectList(
-            new LambdaQueryWrapper<UserSpotView>().eq(UserSpotView::getUserId, userId).select(UserSpotView::getSpotId)
-        );
-        List<UserSpotFavorite> favorites = userSpotFavoriteMapper.selectList(
-            new LambdaQueryWrapper<UserSpotFavorite>()
-                .eq(UserSpotFavorite::getUserId, userId)
-                .eq(UserSpotFavorite::getIsDeleted, 0)
-                .select(UserSpotFavorite::getSpotId)
-        );
-        List<Review> reviews = reviewMapper.selectList(
-            new LambdaQueryWrapper<Review>()
-                .eq(Review::getUserId, userId)
-                .eq(Review::getIsDeleted, 0)
-                .select(Review::getSpotId)
-        );
-        List<Order> orders = orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getUserId, userId)
-                .eq(Order::getIsDeleted, 0)
-                .in(Order::getStatus, OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode())
-                .select(Order::getSpotId)
-        );
-
         debugInfo.setBehaviorStats(List.of(
-            buildBehaviorStat("浏览", views.stream().map(UserSpotView::getSpotId).collect(Collectors.toList()), "来源表 user_spot_view，统计所有浏览记录"),
-            buildBehaviorStat("收藏", favorites.stream().map(UserSpotFavorite::getSpotId).collect(Collectors.toList()), "仅统计 is_deleted = 0 的有效收藏"),
-            buildBehaviorStat("评分", reviews.stream().map(Review::getSpotId).collect(Collectors.toList()), "仅统计 is_deleted = 0 的有效评分"),
-            buildBehaviorStat("订单", orders.stream().map(Order::getSpotId).collect(Collectors.toList()), "仅统计 PAID 和 COMPLETED 的有效订单"),
+            buildBehaviorStat("浏览", profile.getViews().stream().map(UserBehaviorProfileCacheDTO.ViewItem::getSpotId).collect(Collectors.toList()), "来源表 user_spot_view，统计所有浏览记录"),
+            buildBehaviorStat("收藏", profile.getFavoriteSpotIds(), "仅统计 is_deleted = 0 的有效收藏"),
+            buildBehaviorStat("评分", profile.getReviews().stream().map(UserBehaviorProfileCacheDTO.ReviewItem::getSpotId).collect(Collectors.toList()), "仅统计 is_deleted = 0 的有效评分"),
+            buildBehaviorStat("订单", profile.getOrders().stream().filter(this::isWeightedOrder).map(UserBehaviorProfileCacheDTO.OrderItem::getSpotId).collect(Collectors.toList()), "仅统计 PAID 和 COMPLETED 的有效订单"),
             new RecommendationResponse.BehaviorStat("合并后", null, debugInfo.getInteractionCount(), "四类行为按景点合并并加权后，最终进入 r_ui 计算的唯一景点数")
         ));
     }
 
-    public void populateBehaviorDetails(RecommendationResponse.DebugInfo debugInfo, Long userId, RecommendationAlgorithmConfigDTO config) {
-        if (debugInfo == null || userId == null) {
+    public void populateBehaviorDetails(RecommendationResponse.DebugInfo debugInfo, UserBehaviorProfileCacheDTO profile,
+                                        RecommendationAlgorithmConfigDTO config) {
+        if (debugInfo == null || profile == null) {
             return;
         }
 
         List<RecommendationResponse.BehaviorDetail> details = new ArrayList<>();
 
-        userSpotViewMapper.selectList(
-            new LambdaQueryWrapper<UserSpotView>()
-                .eq(UserSpotView::getUserId, userId)
-                .select(UserSpotView::getSpotId, UserSpotView::getViewSource, UserSpotView::getViewDuration)
-        ).forEach(view -> details.add(new RecommendationResponse.BehaviorDetail(
+        profile.getViews().forEach(view -> details.add(new RecommendationResponse.BehaviorDetail(
             "浏览",
             view.getSpotId(),
             recommendationQuerySupport.getSpotName(view.getSpotId()),
-            calculateViewWeight(view, config),
+            calculateViewWeight(view.getViewSource(), view.getViewDuration(), config),
             String.format(
                 Locale.ROOT,
                 "来源=%s，停留=%s秒",
@@ -373,25 +300,15 @@ public class RecommendationScoreSupport {
             )
         )));
 
-        userSpotFavoriteMapper.selectList(
-            new LambdaQueryWrapper<UserSpotFavorite>()
-                .eq(UserSpotFavorite::getUserId, userId)
-                .eq(UserSpotFavorite::getIsDeleted, 0)
-                .select(UserSpotFavorite::getSpotId)
-        ).forEach(favorite -> details.add(new RecommendationResponse.BehaviorDetail(
+        profile.getFavoriteSpotIds().forEach(spotId -> details.add(new RecommendationResponse.BehaviorDetail(
             "收藏",
-            favorite.getSpotId(),
-            recommendationQuerySupport.getSpotName(favorite.getSpotId()),
+            spotId,
+            recommendationQuerySupport.getSpotName(spotId),
             defaultDouble(config.getWeightFavorite(), 1.0),
             "有效收藏记录"
         )));
 
-        reviewMapper.selectList(
-            new LambdaQueryWrapper<Review>()
-                .eq(Review::getUserId, userId)
-                .eq(Review::getIsDeleted, 0)
-                .select(Review::getSpotId, Review::getScore)
-        ).forEach(review -> details.add(new RecommendationResponse.BehaviorDetail(
+        profile.getReviews().forEach(review -> details.add(new RecommendationResponse.BehaviorDetail(
             "评分",
             review.getSpotId(),
             recommendationQuerySupport.getSpotName(review.getSpotId()),
@@ -399,13 +316,7 @@ public class RecommendationScoreSupport {
             String.format(Locale.ROOT, "评分=%s，因子=%.2f", review.getScore(), defaultDouble(config.getWeightReviewFactor(), 0.4))
         )));
 
-        orderMapper.selectList(
-            new LambdaQueryWrapper<Order>()
-                .eq(Order::getUserId, userId)
-                .eq(Order::getIsDeleted, 0)
-                .in(Order::getStatus, OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode())
-                .select(Order::getSpotId, Order::getStatus)
-        ).forEach(order -> {
+        profile.getOrders().stream().filter(this::isWeightedOrder).forEach(order -> {
             boolean completed = order.getStatus() == OrderStatus.COMPLETED.getCode();
             details.add(new RecommendationResponse.BehaviorDetail(
                 completed ? "订单(已完成)" : "订单(已支付)",
@@ -696,6 +607,15 @@ public class RecommendationScoreSupport {
         );
     }
 
+    /**
+     * 画像中的订单包含全部未取消订单，只有 PAID 和 COMPLETED 计入交互权重与调试统计。
+     */
+    private boolean isWeightedOrder(UserBehaviorProfileCacheDTO.OrderItem order) {
+        Integer status = order.getStatus();
+        return status != null
+            && (status == OrderStatus.PAID.getCode() || status == OrderStatus.COMPLETED.getCode());
+    }
+
     private double getViewSourceFactor(String source, RecommendationAlgorithmConfigDTO config) {
         return switch (recommendationViewSourceClassifier.normalize(source)) {
             case "search" -> defaultDouble(config.getViewSourceFactorSearch(), 1.2);
@@ -0,0 +1,144 @@
+package com.travel.service.support.recommendation;
+
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.service.cache.RecommendationBinaryCodec;
+import com.travel.service.cache.RecommendationCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 相似邻居的进程内近端缓存。
+ * <p>
+ * 在线 ItemCF 每个历史景点都要读一次相似邻居；这里把 Redis 中的二进制邻居列表解码成原始类型数组后按景点缓存，
+ * 未命中的景点合并成一次 MGET。缓存按 LRU 控制容量，并以“内容戳 + 版本号”整体失效：
+ * 全量发布或增量覆盖后内容戳变化，下一次读取时清空本地缓存。
+ * <p>
+ * 内容戳和版本指针在进程内各自缓存几秒，可能先看到新内容戳、后看到新版本；因此 MGET 固定读取校验时的版本，
+ * 版本号也参与失效判断，按旧版本回填的条目在版本指针刷新后随即清空，不会在新内容戳下保留到下一次发布。
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationSimilarityNearCache {
+
+    private final RecommendationCacheService recommendationCacheService;
+    private final AppCacheProperties appCacheProperties;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<Long, Neighbors> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long entriesStamp = Long.MIN_VALUE;
+    private long entriesVersion = Long.MIN_VALUE;
+
+    /**
+     * 读取单个景点的相似邻居。
+     *
+     * @param spotId 景点 ID
+     * @return 相似邻居；没有缓存时返回空邻居
+     */
+    public Neighbors get(Long spotId) {
+        return getAll(List.of(spotId)).getOrDefault(spotId, Neighbors.EMPTY);
+    }
+
+    /**
+     * 批量读取多个景点的相似邻居，本地未命中的景点一次 MGET 补齐。
+     *
+     * @param spotIds 景点 ID 集合
+     * @return 景点 ID 到相似邻居的映射；每个入参景点都有对应值
+     */
+    public Map<Long, Neighbors> getAll(Collection<Long> spotIds) {
+        Map<Long, Neighbors> result = new HashMap<>(spotIds.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        long stamp = recommendationCacheService.getSimilarityStamp();
+        long version = recommendationCacheService.getCurrentSimilarityVersion();
+        synchronized (lock) {
+            if (stamp != entriesStamp || version != entriesVersion) {
+                entries.clear();
+                entriesStamp = stamp;
+                entriesVersion = version;
+            }
+            for (Long spotId : spotIds) {
+                Neighbors cached = entries.get(spotId);
+                if (cached != null) {
+                    result.put(spotId, cached);
+                } else {
+                    misses.add(spotId);
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        List<RecommendationBinaryCodec.ScoreEntries> loaded = recommendationCacheService.getSimilarities(version, misses);
+        Map<Long, Neighbors> decoded = new HashMap<>(misses.size() * 2);
+        for (int i = 0; i < misses.size(); i++) {
+            decoded.put(misses.get(i), decode(i < loaded.size() ? loaded.get(i) : null));
+        }
+        result.putAll(decoded);
+
+        synchronized (lock) {
+            // 加载期间内容戳或版本可能已被其他线程刷新，这种情况下不回填，避免把旧结果写进新一代缓存。
+            if (stamp == entriesStamp && version == entriesVersion) {
+                entries.putAll(decoded);
+                int maxEntries = Math.max(defaultInt(appCacheProperties.getRecommendation().getSimilarityNearCacheMaxEntries(), 10000), 1);
+                Iterator<Map.Entry<Long, Neighbors>> iterator = entries.entrySet().iterator();
+                while (entries.size() > maxEntries && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 立即清空本地缓存，供本进程刚写完相似度矩阵时使用。
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            entries.clear();
+            entriesStamp = Long.MIN_VALUE;
+            entriesVersion = Long.MIN_VALUE;
+        }
+    }
+
+    private Neighbors decode(RecommendationBinaryCodec.ScoreEntries cached) {
+        return cached == null || cached.size() == 0
+            ? Neighbors.EMPTY
+            : new Neighbors(cached.ids(), cached.scores(), cached.size());
+    }
+
+    private int defaultInt(Integer value, int fallback) {
+        return value == null ? fallback : value;
+    }
+
+    /**
+     * 解码后的相似邻居，按离线写入顺序保存景点 ID 与相似度。
+     */
+    public record Neighbors(long[] spotIds, double[] similarities, int size) {
+
+        public static final Neighbors EMPTY = new Neighbors(new long[0], new double[0], 0);
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * 还原为有序映射，供后台预览等非热点路径使用。
+         */
+        public Map<Long, Double> toMap() {
+            Map<Long, Double> map = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(spotIds[i], similarities[i]);
+            }
+            return map;
+        }
+    }
+}
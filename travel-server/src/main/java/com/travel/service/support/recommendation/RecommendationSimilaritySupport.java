@@ -18,18 +18,24 @@ import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.cache.RecommendationCacheService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -38,10 +44,14 @@ import java.util.stream.Collectors;
  * <p>
  * 相似度矩阵的读取、构建和预览都收在这里，便于后台调试与定时任务共用同一套逻辑。
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class RecommendationSimilaritySupport {
 
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    private static final int LOG_SAMPLE_SIZE = 10;
+
     private final SpotMapper spotMapper;
     private final UserSpotViewMapper userSpotViewMapper;
     private final UserSpotFavoriteMapper userSpotFavoriteMapper;
@@ -50,29 +60,28 @@ public class RecommendationSimilaritySupport {
     private final RecommendationCacheService recommendationCacheService;
     private final RecommendationQuerySupport recommendationQuerySupport;
     private final RecommendationScoreSupport recommendationScoreSupport;
+    private final RecommendationCooccurrenceEngine recommendationCooccurrenceEngine;
+    private final RecommendationInteractionStreamLoader recommendationInteractionStreamLoader;
+    private final RecommendationSimilarityNearCache recommendationSimilarityNearCache;
 
-    @SuppressWarnings("unchecked")
     /**
      * 读取缓存中的相似景点集合。
      *
      * @param spotId 景点 ID
-     * @return 相似度映射
+     * @return 相似度映射，按相似度从高到低排列
      */
     public Map<Long, Double> getSimilarSpots(Long spotId) {
-        Object cached = recommendationCacheService.getSimilarity(spotId);
-        if (!(cached instanceof Map<?, ?> rawMap) || rawMap.isEmpty()) {
-            return Collections.emptyMap();
-        }
+        return recommendationSimilarityNearCache.get(spotId).toMap();
+    }
 
-        Map<Long, Double> similarities = new HashMap<>();
-        for (Map.Entry<?, ?> entry : rawMap.entrySet()) {
-            Long similarSpotId = recommendationScoreSupport.castToLong(entry.getKey());
-            Double similarity = recommendationScoreSupport.castToDouble(entry.getValue());
-            if (similarSpotId != null && similarity != null) {
-                similarities.put(similarSpotId, similarity);
-            }
-        }
-        return similarities;
+    /**
+     * 批量读取多个景点的相似邻居，供在线 ItemCF 一次取齐用户全部历史景点的邻居。
+     *
+     * @param spotIds 景点 ID 集合
+     * @return 景点 ID 到相似邻居的映射；每个入参景点都有对应值
+     */
+    public Map<Long, RecommendationSimilarityNearCache.Neighbors> getSimilarNeighbors(Collection<Long> spotIds) {
+        return recommendationSimilarityNearCache.getAll(spotIds);
     }
 
     /**
@@ -91,28 +100,41 @@ public class RecommendationSimilaritySupport {
 
     /**
      * 基于 IUF 思路计算两景点的相似度。
+     * <p>
+     * 两个景点的用户倒排在压缩矩阵中都按用户下标有序，这里直接归并求交集。
      *
-     * @param usersI 景点 I 的交互用户集合
-     * @param usersJ 景点 J 的交互用户集合
-     * @param userActivityCount 用户活跃度统计
+     * @param matrix 压缩交互矩阵
+     * @param spotI 景点 I 的下标
+     * @param spotJ 景点 J 的下标
      * @return 相似度
      */
-    public double computeIUFSimilarity(Set<Long> usersI, Set<Long> usersJ, Map<Long, Integer> userActivityCount) {
-        Set<Long> smaller = usersI.size() < usersJ.size() ? usersI : usersJ;
-        Set<Long> larger = smaller == usersI ? usersJ : usersI;
+    public double computeIUFSimilarity(RecommendationInteractionMatrix matrix, int spotI, int spotJ) {
+        int[] spotOffsets = matrix.spotOffsets();
+        int[] spotUsers = matrix.spotUsers();
+        int i = spotOffsets[spotI];
+        int endI = spotOffsets[spotI + 1];
+        int j = spotOffsets[spotJ];
+        int endJ = spotOffsets[spotJ + 1];
 
         double iufSum = 0.0;
-        for (Long userId : smaller) {
-            if (larger.contains(userId)) {
-                int nu = userActivityCount.getOrDefault(userId, 1);
-                iufSum += 1.0 / Math.log(1 + nu);
+        while (i < endI && j < endJ) {
+            int userI = spotUsers[i];
+            int userJ = spotUsers[j];
+            if (userI == userJ) {
+                iufSum += matrix.userIuf(userI);
+                i++;
+                j++;
+            } else if (userI < userJ) {
+                i++;
+            } else {
+                j++;
             }
         }
 
         if (iufSum == 0) {
             return 0;
         }
-        double denominator = Math.sqrt(usersI.size()) * Math.sqrt(usersJ.size());
+        double denominator = Math.sqrt(matrix.spotUserCount(spotI)) * Math.sqrt(matrix.spotUserCount(spotJ));
         return iufSum / denominator;
     }
 
@@ -156,17 +178,133 @@ public class RecommendationSimilaritySupport {
 
     /**
      * 读取全量行为并构建离线交互矩阵，供后续相似度批量计算复用。
+     * <p>
+     * 默认走流式加载；配置为列表加载时沿用整表读取再合并的旧路径，两者都会输出堆内存峰值便于对比。
      */
-    public OfflineMatrixSnapshot buildOfflineInteractionMatrix(Set<Long> activeSpotIds, RecommendationAlgorithmConfigDTO algorithmConfig) {
+    public RecommendationInteractionMatrix buildOfflineInteractionMatrix(Set<Long> activeSpotIds, RecommendationAlgorithmConfigDTO algorithmConfig) {
+        boolean listLoader = RecommendationAlgorithmConfigDTO.MATRIX_LOADER_LIST.equalsIgnoreCase(algorithmConfig.getMatrixLoader());
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+            .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long startedAt = System.currentTimeMillis();
+
+        RecommendationInteractionMatrix matrix = listLoader
+            ? RecommendationInteractionMatrix.fromMap(loadInteractionMatrix(activeSpotIds, algorithmConfig, null))
+            : recommendationInteractionStreamLoader.load(activeSpotIds, algorithmConfig);
+
+        // 各内存池峰值出现的时刻不一定相同，求和是偏保守的上界，用于对比两种加载方式已经足够。
+        long heapPeak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        log.info(
+            "离线交互矩阵加载完成：加载方式={}，用户数={}，景点数={}，交互数={}，耗时={}ms，加载前堆内存={}MB，堆内存峰值={}MB",
+            listLoader ? RecommendationAlgorithmConfigDTO.MATRIX_LOADER_LIST : RecommendationAlgorithmConfigDTO.MATRIX_LOADER_STREAMING,
+            matrix.userCount(),
+            matrix.spotCount(),
+            matrix.interactionCount(),
+            System.currentTimeMillis() - startedAt,
+            heapBefore / BYTES_PER_MB,
+            heapPeak / BYTES_PER_MB
+        );
+        Map<Long, Map<Long, Double>> samples = new LinkedHashMap<>();
+        for (int user = 0; user < Math.min(matrix.userCount(), LOG_SAMPLE_SIZE); user++) {
+            samples.put(matrix.userId(user), matrix.userRow(user));
+        }
+        recommendationScoreSupport.logUserItemMatrixSamples(samples);
+        return matrix;
+    }
+
+    /**
+     * 查询指定时间之后发生过行为变化的用户。
+     * <p>
+     * 浏览只会新增，按创建时间判断；收藏、评分和订单存在取消或状态流转，按更新时间判断。
+     *
+     * @param since 起始时间（不含）
+     * @return 行为有变化的用户 ID
+     */
+    public Set<Long> findChangedUserIds(LocalDateTime since) {
+        Set<Long> userIds = new HashSet<>();
+        userSpotViewMapper.selectList(
+            new LambdaQueryWrapper<UserSpotView>()
+                .gt(UserSpotView::getCreatedAt, since)
+                .select(UserSpotView::getUserId)
+                .groupBy(UserSpotView::getUserId)
+        ).forEach(view -> userIds.add(view.getUserId()));
+        userSpotFavoriteMapper.selectList(
+            new LambdaQueryWrapper<UserSpotFavorite>()
+                .gt(UserSpotFavorite::getUpdatedAt, since)
+                .select(UserSpotFavorite::getUserId)
+                .groupBy(UserSpotFavorite::getUserId)
+        ).forEach(favorite -> userIds.add(favorite.getUserId()));
+        reviewMapper.selectList(
+            new LambdaQueryWrapper<Review>()
+                .gt(Review::getUpdatedAt, since)
+                .select(Review::getUserId)
+                .groupBy(Review::getUserId)
+        ).forEach(review -> userIds.add(review.getUserId()));
+        orderMapper.selectList(
+            new LambdaQueryWrapper<Order>()
+                .gt(Order::getUpdatedAt, since)
+                .select(Order::getUserId)
+                .groupBy(Order::getUserId)
+        ).forEach(order -> userIds.add(order.getUserId()));
+        userIds.remove(null);
+        return userIds;
+    }
+
+    /**
+     * 查询指定时间之后行为发生过变化的景点，口径与 {@link #findChangedUserIds} 一致。
+     * <p>
+     * 取消收藏、删除评价和订单取消都保留原记录并更新时间，因此被撤回交互的景点同样会出现在结果中。
+     *
+     * @param since 起始时间（不含）
+     * @return 行为有变化的景点 ID
+     */
+    public Set<Long> findChangedSpotIds(LocalDateTime since) {
+        Set<Long> spotIds = new HashSet<>();
+        userSpotViewMapper.selectList(
+            new LambdaQueryWrapper<UserSpotView>()
+                .gt(UserSpotView::getCreatedAt, since)
+                .select(UserSpotView::getSpotId)
+                .groupBy(UserSpotView::getSpotId)
+        ).forEach(view -> spotIds.add(view.getSpotId()));
+        userSpotFavoriteMapper.selectList(
+            new LambdaQueryWrapper<UserSpotFavorite>()
+                .gt(UserSpotFavorite::getUpdatedAt, since)
+                .select(UserSpotFavorite::getSpotId)
+                .groupBy(UserSpotFavorite::getSpotId)
+        ).forEach(favorite -> spotIds.add(favorite.getSpotId()));
+        reviewMapper.selectList(
+            new LambdaQueryWrapper<Review>()
+                .gt(Review::getUpdatedAt, since)
+                .select(Review::getSpotId)
+                .groupBy(Review::getSpotId)
+        ).forEach(review -> spotIds.add(review.getSpotId()));
+        orderMapper.selectList(
+            new LambdaQueryWrapper<Order>()
+                .gt(Order::getUpdatedAt, since)
+                .select(Order::getSpotId)
+                .groupBy(Order::getSpotId)
+        ).forEach(order -> spotIds.add(order.getSpotId()));
+        spotIds.remove(null);
+        return spotIds;
+    }
+
+    private Map<Long, Map<Long, Double>> loadInteractionMatrix(
+        Set<Long> activeSpotIds,
+        RecommendationAlgorithmConfigDTO algorithmConfig,
+        Collection<Long> userIds
+    ) {
+        boolean filterUsers = userIds != null;
         Map<Long, Map<Long, Double>> userItemMatrix = new HashMap<>();
         Map<Long, Map<Long, Double>> viewMatrix = new HashMap<>();
         Map<Long, Map<Long, Double>> favoriteMatrix = new HashMap<>();
         Map<Long, Map<Long, Double>> reviewMatrix = new HashMap<>();
         Map<Long, Map<Long, Double>> orderMatrix = new HashMap<>();
-        Set<Long> allSpotIds = new HashSet<>();
 
         List<UserSpotView> allViews = userSpotViewMapper.selectList(
             new LambdaQueryWrapper<UserSpotView>()
+                .in(filterUsers, UserSpotView::getUserId, userIds)
                 .select(UserSpotView::getUserId, UserSpotView::getSpotId, UserSpotView::getViewSource, UserSpotView::getViewDuration)
         );
         for (UserSpotView view : allViews) {
@@ -178,11 +316,11 @@ public class RecommendationSimilaritySupport {
                 view.getSpotId(),
                 recommendationScoreSupport.calculateViewWeight(view, algorithmConfig)
             );
-            allSpotIds.add(view.getSpotId());
         }
 
         List<UserSpotFavorite> allFavorites = userSpotFavoriteMapper.selectList(
             new LambdaQueryWrapper<UserSpotFavorite>()
+                .in(filterUsers, UserSpotFavorite::getUserId, userIds)
                 .eq(UserSpotFavorite::getIsDeleted, 0)
                 .select(UserSpotFavorite::getUserId, UserSpotFavorite::getSpotId)
         );
@@ -195,11 +333,11 @@ public class RecommendationSimilaritySupport {
                 favorite.getSpotId(),
                 algorithmConfig.getWeightFavorite() == null ? 1.0 : algorithmConfig.getWeightFavorite()
             );
-            allSpotIds.add(favorite.getSpotId());
         }
 
         List<Review> allRatings = reviewMapper.selectList(
             new LambdaQueryWrapper<Review>()
+                .in(filterUsers, Review::getUserId, userIds)
                 .eq(Review::getIsDeleted, 0)
                 .select(Review::getUserId, Review::getSpotId, Review::getScore)
         );
@@ -212,11 +350,11 @@ public class RecommendationSimilaritySupport {
                 review.getSpotId(),
                 review.getScore() * (algorithmConfig.getWeightReviewFactor() == null ? 0.4 : algorithmConfig.getWeightReviewFactor())
             );
-            allSpotIds.add(review.getSpotId());
         }
 
         List<Order> allOrders = orderMapper.selectList(
             new LambdaQueryWrapper<Order>()
+                .in(filterUsers, Order::getUserId, userIds)
                 .eq(Order::getIsDeleted, 0)
                 .in(Order::getStatus, OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode())
                 .select(Order::getUserId, Order::getSpotId, Order::getStatus)
@@ -232,7 +370,6 @@ public class RecommendationSimilaritySupport {
                     ? (algorithmConfig.getWeightOrderCompleted() == null ? 4.0 : algorithmConfig.getWeightOrderCompleted())
                     : (algorithmConfig.getWeightOrderPaid() == null ? 3.0 : algorithmConfig.getWeightOrderPaid())
             );
-            allSpotIds.add(order.getSpotId());
         }
 
         mergeBehaviorMatrix(userItemMatrix, viewMatrix);
@@ -240,8 +377,7 @@ public class RecommendationSimilaritySupport {
         mergeBehaviorMatrix(userItemMatrix, reviewMatrix);
         mergeBehaviorMatrix(userItemMatrix, orderMatrix);
 
-        recommendationScoreSupport.logUserItemMatrixSamples(userItemMatrix);
-        return new OfflineMatrixSnapshot(userItemMatrix, allSpotIds);
+        return userItemMatrix;
     }
 
     private void mergeBehaviorMatrix(Map<Long, Map<Long, Double>> userItemMatrix, Map<Long, Map<Long, Double>> behaviorMatrix) {
@@ -252,76 +388,71 @@ public class RecommendationSimilaritySupport {
         });
     }
 
-    public Map<Long, Integer> summarizeUserActivityCount(Map<Long, Map<Long, Double>> userItemMatrix) {
-        Map<Long, Integer> userActivityCount = new HashMap<>();
-        for (Map.Entry<Long, Map<Long, Double>> entry : userItemMatrix.entrySet()) {
-            userActivityCount.put(entry.getKey(), entry.getValue().size());
-        }
-        recommendationScoreSupport.logUserActivitySamples(userActivityCount);
-        return userActivityCount;
-    }
-
-    public Map<Long, Set<Long>> buildSpotUserIndex(Map<Long, Map<Long, Double>> userItemMatrix) {
-        Map<Long, Set<Long>> spotUserSets = new HashMap<>();
-        for (Map.Entry<Long, Map<Long, Double>> entry : userItemMatrix.entrySet()) {
-            Long userId = entry.getKey();
-            for (Long spotId : entry.getValue().keySet()) {
-                spotUserSets.computeIfAbsent(spotId, key -> new HashSet<>()).add(userId);
+    /**
+     * 输出交互景点数最多的用户样本，便于核对 IUF 的降权对象。
+     */
+    public void logUserActivitySamples(RecommendationInteractionMatrix matrix) {
+        PriorityQueue<Integer> mostActive = new PriorityQueue<>(Comparator.comparingInt(matrix::userActivity));
+        for (int user = 0; user < matrix.userCount(); user++) {
+            mostActive.offer(user);
+            if (mostActive.size() > LOG_SAMPLE_SIZE) {
+                mostActive.poll();
             }
         }
-        return spotUserSets;
+        Map<Long, Integer> samples = new HashMap<>();
+        mostActive.forEach(user -> samples.put(matrix.userId(user), matrix.userActivity(user)));
+        recommendationScoreSupport.logUserActivitySamples(samples);
     }
 
+    /**
+     * 计算并缓存每个景点的 Top-K 相似邻居。
+     * <p>
+     * 按算法配置选择引擎：共现引擎沿用户交互列表累加并行计算，逐对引擎保留原有两两比较实现，两者产出一致。
+     */
     public void cacheSimilarityNeighbors(
-        Set<Long> allSpotIds,
-        Map<Long, Set<Long>> spotUserSets,
-        Map<Long, Integer> userActivityCount,
+        RecommendationInteractionMatrix matrix,
         RecommendationAlgorithmConfigDTO algorithmConfig,
         RecommendationCacheConfigDTO cacheConfig
     ) {
-        List<Long> spotIdList = new ArrayList<>(allSpotIds);
         int topK = algorithmConfig.getTopKNeighbors() == null ? 20 : Math.max(algorithmConfig.getTopKNeighbors(), 1);
         int simTTL = cacheConfig.getSimilarityTTLHours() == null ? 24 : cacheConfig.getSimilarityTTLHours();
 
-        // 离线阶段按景点两两计算后只缓存 Top-K，避免矩阵无限膨胀。
-        for (int i = 0; i < spotIdList.size(); i++) {
-            Long spotI = spotIdList.get(i);
-            Set<Long> usersI = spotUserSets.getOrDefault(spotI, Collections.emptySet());
-            if (usersI.isEmpty()) {
-                continue;
-            }
+        Map<Long, Map<Long, Double>> neighbors = isPairwiseEngine(algorithmConfig)
+            ? computePairwiseNeighbors(matrix, topK)
+            : recommendationCooccurrenceEngine.computeTopNeighbors(matrix, topK);
 
-            Map<Long, Double> similarities = new HashMap<>();
-            for (int j = 0; j < spotIdList.size(); j++) {
-                if (i == j) {
-                    continue;
-                }
+        // 整份矩阵先写入新版本命名空间，全部写完后再切换版本指针，在线读取不会看到写到一半的矩阵。
+        long version = recommendationCacheService.nextSimilarityVersion();
+        recommendationCacheService.saveSimilarityBatch(version, neighbors, simTTL);
+        recommendationCacheService.publishSimilarityVersion(version);
+        neighbors.forEach(recommendationScoreSupport::logSpotSimilaritySummary);
+    }
+
+    private boolean isPairwiseEngine(RecommendationAlgorithmConfigDTO algorithmConfig) {
+        return RecommendationAlgorithmConfigDTO.SIMILARITY_ENGINE_PAIRWISE.equals(algorithmConfig.getSimilarityEngine());
+    }
 
-                Long spotJ = spotIdList.get(j);
-                Set<Long> usersJ = spotUserSets.getOrDefault(spotJ, Collections.emptySet());
-                if (usersJ.isEmpty()) {
+    private Map<Long, Map<Long, Double>> computePairwiseNeighbors(RecommendationInteractionMatrix matrix, int topK) {
+        Map<Long, Map<Long, Double>> neighbors = new LinkedHashMap<>();
+        RecommendationTopKSelector selector = new RecommendationTopKSelector(topK);
+
+        // 离线阶段按景点两两计算后只缓存 Top-K，避免矩阵无限膨胀。
+        for (int i = 0; i < matrix.spotCount(); i++) {
+            for (int j = 0; j < matrix.spotCount(); j++) {
+                if (i == j) {
                     continue;
                 }
 
-                double similarity = computeIUFSimilarity(usersI, usersJ, userActivityCount);
+                double similarity = computeIUFSimilarity(matrix, i, j);
                 if (similarity > 0) {
-                    similarities.put(spotJ, similarity);
+                    selector.offer(matrix.spotId(j), similarity);
                 }
             }
 
-            Map<Long, Double> topSimilarities = similarities.entrySet().stream()
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-                .limit(topK)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (left, right) -> left,
-                    LinkedHashMap::new
-                ));
-
-            recommendationCacheService.saveSimilarity(spotI, Objects.requireNonNull(topSimilarities), simTTL);
-            recommendationScoreSupport.logSpotSimilaritySummary(spotI, topSimilarities);
+            // 分数相同时按景点 ID 升序，保证与共现引擎得到同一份 Top-K。
+            neighbors.put(matrix.spotId(i), selector.toOrderedMap());
         }
+        return neighbors;
     }
 
     public void saveOfflineSummary(int totalUsers, int totalSpots) {
@@ -330,11 +461,8 @@ public class RecommendationSimilaritySupport {
         statusMap.put("totalUsers", totalUsers);
         statusMap.put("totalSpots", totalSpots);
         recommendationCacheService.saveStatus(statusMap);
-    }
-
-    public record OfflineMatrixSnapshot(
-        Map<Long, Map<Long, Double>> userItemMatrix,
-        Set<Long> allSpotIds
-    ) {
+        // 全量发布和增量覆盖都会走到这里，刷新内容戳让各实例的相似度近端缓存整体失效。
+        recommendationCacheService.saveSimilarityStamp(System.currentTimeMillis());
+        recommendationSimilarityNearCache.invalidateAll();
     }
 }
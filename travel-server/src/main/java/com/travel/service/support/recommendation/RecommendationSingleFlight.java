@@ -0,0 +1,88 @@
+package com.travel.service.support.recommendation;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 进程内的请求合并（single-flight）。
+ * <p>
+ * 同一个 Key 同时只允许一次计算：第一个调用方负责执行，其余调用方等待并共享同一份结果；
+ * 计算结束后立即移除登记，之后的调用重新走缓存或计算。计算抛出的异常同样传递给所有等待方。
+ * 共享结果会被多个调用方同时持有，调用方不应原地修改返回对象。
+ * <p>
+ * 等待方最多等待构造时给定的时长，首个调用方卡在慢查询或外部依赖上时，超时的等待方改为自行计算，
+ * 不会无限期占住请求线程。
+ *
+ * @param <K> 合并 Key 类型
+ * @param <V> 结果类型
+ */
+public final class RecommendationSingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+
+    /**
+     * @param maxWait 等待方等待共享结果的最长时长
+     */
+    public RecommendationSingleFlight(Duration maxWait) {
+        this.maxWaitMillis = Math.max(maxWait.toMillis(), 1L);
+    }
+
+    /**
+     * 以 Key 合并并发计算。
+     *
+     * @param key 合并 Key
+     * @param loader 实际计算逻辑，通常只由其中一个调用方执行；等待超时的调用方会自行再执行一次
+     * @return 计算结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing, loader);
+        }
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 当前正在执行的计算数，供监控与测试使用。
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 首个调用方迟迟未完成，本次不再等待，直接自行计算。
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并计算结果时线程被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.travel.service.support.recommendation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基于原始类型数组的有界小顶堆，从大量候选中选出分数最高的 K 个景点。
+ * <p>
+ * 排序口径：分数降序，分数相同时景点 ID 升序，与原先“全量排序后截断”的结果一致，但只需 O(n log k) 比较且不装箱。
+ * 堆顶始终是当前保留集合中最差的候选，新候选只有优于堆顶时才替换。
+ * 选择器非线程安全，可在单线程内通过 {@link #clear()} 反复复用。
+ */
+public final class RecommendationTopKSelector {
+
+    private final int capacity;
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    /**
+     * @param capacity 保留的候选数 K，小于 1 时按 1 处理
+     */
+    public RecommendationTopKSelector(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        this.ids = new long[this.capacity];
+        this.scores = new double[this.capacity];
+    }
+
+    /**
+     * 便捷入口：从分数映射中选出 Top-K，返回按排序口径排列的有序映射。
+     *
+     * @param scoreMap 景点 ID 到分数的映射
+     * @param k 保留数量
+     * @return 有序的 Top-K 映射
+     */
+    public static Map<Long, Double> top(Map<Long, Double> scoreMap, int k) {
+        if (k <= 0 || scoreMap.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        RecommendationTopKSelector selector = new RecommendationTopKSelector(Math.min(k, scoreMap.size()));
+        for (Map.Entry<Long, Double> entry : scoreMap.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                selector.offer(entry.getKey(), entry.getValue());
+            }
+        }
+        return selector.toOrderedMap();
+    }
+
+    /**
+     * 提交一个候选。
+     *
+     * @param id 景点 ID
+     * @param score 分数
+     */
+    public void offer(long id, double score) {
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return;
+        }
+        if (isWorse(id, score, ids[0], scores[0])) {
+            return;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 清空已保留的候选，复用底层数组。
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 按分数降序、景点 ID 升序输出当前保留的候选，并清空选择器。
+     *
+     * @return 有序映射
+     */
+    public Map<Long, Double> toOrderedMap() {
+        int count = size;
+        long[] orderedIds = new long[count];
+        double[] orderedScores = new double[count];
+        // 依次弹出堆顶（最差者）并从尾部回填，得到从好到差的顺序。
+        for (int i = count - 1; i >= 0; i--) {
+            orderedIds[i] = ids[0];
+            orderedScores[i] = scores[0];
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        Map<Long, Double> result = new LinkedHashMap<>(Math.max(count * 2, 4));
+        for (int i = 0; i < count; i++) {
+            result.put(orderedIds[i], orderedScores[i]);
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        long id = ids[index];
+        double score = scores[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(id, score, ids[parent], scores[parent])) {
+                break;
+            }
+            ids[index] = ids[parent];
+            scores[index] = scores[parent];
+            index = parent;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+
+    private void siftDown(int index) {
+        long id = ids[index];
+        double score = scores[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && isWorse(ids[right], scores[right], ids[child], scores[child])) {
+                child = right;
+            }
+            if (!isWorse(ids[child], scores[child], id, score)) {
+                break;
+            }
+            ids[index] = ids[child];
+            scores[index] = scores[child];
+            index = child;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+
+    /**
+     * 判断左侧候选是否排在右侧之后：分数更低，或分数相同但景点 ID 更大。
+     */
+    private static boolean isWorse(long leftId, double leftScore, long rightId, double rightScore) {
+        int compare = Double.compare(leftScore, rightScore);
+        return compare < 0 || (compare == 0 && leftId > rightId);
+    }
+}
@@ -0,0 +1,312 @@
+package com.travel.service.support.spot;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.entity.Spot;
+import com.travel.entity.SpotCategory;
+import com.travel.entity.SpotRegion;
+import com.travel.mapper.SpotCategoryMapper;
+import com.travel.mapper.SpotMapper;
+import com.travel.mapper.SpotRegionMapper;
+import com.travel.service.cache.RecommendationCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内景点目录快照。
+ * <p>
+ * 推荐、热门、收藏、浏览历史、订单和轮播图补齐展示字段时都要按 ID 查景点，并反复全量读取分类和地区表。
+ * 这里把景点列表展示所需的轻量字段连同分类、地区名称整体加载为一份不可变快照，读取时不再访问数据库。
+ * 快照以 Redis 中的目录版本号标识：只有后台编辑景点、分类、地区时递增版本，各实例在版本指针的进程内缓存过期后
+ * 发现版本变化，再整体重建并原子替换快照。快照中查不到的景点（如其他实例刚新增的景点）回退数据库查询。
+ * <p>
+ * 评分和热度随评价、热度刷写频繁变化，不放进快照，避免每次写入都让所有实例重建整份目录：
+ * 它们单独按 TTL 整体读取一列窄表，本实例的评分变更提交后原地更新对应条目，其他实例最多滞后一个 TTL。
+ * <p>
+ * 返回的景点只是列表展示视图：仅包含 ID、名称、价格、封面、分类、地区、评分、热度、上架和删除状态，
+ * 描述、地址、坐标等详情字段始终为 null，需要完整实体时直接查询 {@link SpotMapper}。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpotCatalogSupport {
+
+    private final SpotMapper spotMapper;
+    private final SpotCategoryMapper categoryMapper;
+    private final SpotRegionMapper spotRegionMapper;
+    private final RecommendationCacheService recommendationCacheService;
+    private final AppCacheProperties appCacheProperties;
+
+    private final Object rebuildLock = new Object();
+    private final Object countersLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile Counters counters;
+
+    /**
+     * 按 ID 读取景点展示视图，返回的对象已补齐分类、地区名称和评分热度，调用方可以自由修改。
+     *
+     * @param spotId 景点 ID
+     * @return 景点展示视图；不存在时返回 null
+     */
+    public Spot getSpot(Long spotId) {
+        if (spotId == null) {
+            return null;
+        }
+        Snapshot current = current();
+        Spot cached = current.spots.get(spotId);
+        if (cached != null) {
+            return current.enrich(cached, counters().get(spotId));
+        }
+        Spot loaded = spotMapper.selectById(spotId);
+        return loaded == null ? null : current.enrich(loaded, null);
+    }
+
+    /**
+     * 批量读取景点，快照未命中的景点合并成一次数据库查询。
+     * <p>
+     * 返回顺序与入参顺序一致，不存在的景点直接跳过；已下架和已删除的景点同样返回，由调用方按场景过滤。
+     *
+     * @param spotIds 景点 ID 集合
+     * @return 景点展示视图列表
+     */
+    public List<Spot> getSpots(Collection<Long> spotIds) {
+        if (spotIds == null || spotIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Snapshot current = current();
+        Set<Long> orderedIds = new LinkedHashSet<>(spotIds);
+        orderedIds.remove(null);
+        Map<Long, Spot> found = new HashMap<>(orderedIds.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        for (Long spotId : orderedIds) {
+            Spot cached = current.spots.get(spotId);
+            if (cached != null) {
+                found.put(spotId, cached);
+            } else {
+                misses.add(spotId);
+            }
+        }
+        // 数据库回退查询得到的是完整实体，自带最新的评分热度，只有快照命中的景点需要叠加计数。
+        Set<Long> loadedIds = new HashSet<>();
+        if (!misses.isEmpty()) {
+            for (Spot spot : spotMapper.selectBatchIds(misses)) {
+                found.put(spot.getId(), spot);
+                loadedIds.add(spot.getId());
+            }
+        }
+
+        Map<Long, SpotCounters> currentCounters = loadedIds.size() == found.size() ? Map.of() : counters();
+        List<Spot> result = new ArrayList<>(found.size());
+        for (Long spotId : orderedIds) {
+            Spot spot = found.get(spotId);
+            if (spot != null) {
+                result.add(current.enrich(spot, loadedIds.contains(spotId) ? null : currentCounters.get(spotId)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取未删除分类的名称字典。
+     *
+     * @return 分类 ID 到名称的只读映射
+     */
+    public Map<Long, String> getCategoryNames() {
+        return current().categoryNames;
+    }
+
+    /**
+     * 获取未删除地区的名称字典。
+     *
+     * @return 地区 ID 到名称的只读映射
+     */
+    public Map<Long, String> getRegionNames() {
+        return current().regionNames;
+    }
+
+    /**
+     * 标记景点目录已变更，仅供后台编辑景点、分类、地区使用。
+     * <p>
+     * 处于事务中时推迟到提交之后再递增版本，避免其他实例在提交前按旧数据重建快照。
+     */
+    public void refresh() {
+        runAfterCommit(this::doRefresh);
+    }
+
+    /**
+     * 原地更新本实例缓存的景点评分，不递增目录版本；其他实例在计数 TTL 到期后读到新评分。
+     *
+     * @param spotId 景点 ID
+     * @param avgRating 平均评分
+     * @param ratingCount 评分人数
+     */
+    public void updateRating(Long spotId, BigDecimal avgRating, Integer ratingCount) {
+        runAfterCommit(() -> {
+            Counters current = counters;
+            if (current != null) {
+                current.values.compute(spotId, (id, previous) ->
+                    new SpotCounters(previous == null ? null : previous.heatScore(), avgRating, ratingCount));
+            }
+        });
+    }
+
+    /**
+     * 丢弃本实例缓存的评分热度，下次读取时重新加载，不递增目录版本。热度批量回写后使用。
+     */
+    public void invalidateCounters() {
+        runAfterCommit(() -> counters = null);
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private void doRefresh() {
+        try {
+            recommendationCacheService.bumpSpotCatalogVersion();
+        } catch (Exception e) {
+            // 版本号递增失败时其他实例会延迟感知变更，本实例仍然丢弃快照保证自身读到最新数据。
+            log.warn("景点目录版本号递增失败", e);
+        }
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        long version = recommendationCacheService.getSpotCatalogVersion(false);
+        Snapshot current = snapshot;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            current = snapshot;
+            if (current != null && current.version == version) {
+                return current;
+            }
+            current = load(version);
+            snapshot = current;
+            // 目录变化可能带来新景点，评分热度随快照一起重新加载。
+            counters = null;
+            return current;
+        }
+    }
+
+    private Map<Long, SpotCounters> counters() {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(positiveOrDefault(appCacheProperties.getCatalog().getCountersTtlSeconds(), 60));
+        Counters current = counters;
+        if (current != null && System.currentTimeMillis() - current.loadedAtMillis < ttlMillis) {
+            return current.values;
+        }
+        synchronized (countersLock) {
+            current = counters;
+            if (current != null && System.currentTimeMillis() - current.loadedAtMillis < ttlMillis) {
+                return current.values;
+            }
+            List<Spot> rows = spotMapper.selectSpotCounters();
+            Map<Long, SpotCounters> values = new ConcurrentHashMap<>(Math.max(16, rows.size() * 2));
+            for (Spot row : rows) {
+                values.put(row.getId(), new SpotCounters(row.getHeatScore(), row.getAvgRating(), row.getRatingCount()));
+            }
+            counters = new Counters(System.currentTimeMillis(), values);
+            return values;
+        }
+    }
+
+    private int positiveOrDefault(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    private Snapshot load(long version) {
+        long start = System.currentTimeMillis();
+        List<Spot> spots = spotMapper.selectCatalogSpots();
+        Map<Long, Spot> spotMap = new HashMap<>(Math.max(16, spots.size() * 2));
+        for (Spot spot : spots) {
+            spotMap.put(spot.getId(), spot);
+        }
+        Map<Long, String> categoryNames = new HashMap<>();
+        for (SpotCategory category : categoryMapper.selectList(
+            new LambdaQueryWrapper<SpotCategory>().eq(SpotCategory::getIsDeleted, 0))) {
+            categoryNames.put(category.getId(), category.getName());
+        }
+        Map<Long, String> regionNames = new HashMap<>();
+        for (SpotRegion region : spotRegionMapper.selectList(
+            new LambdaQueryWrapper<SpotRegion>().eq(SpotRegion::getIsDeleted, 0))) {
+            regionNames.put(region.getId(), region.getName());
+        }
+        log.info("景点目录快照重建完成：版本={}，景点数={}，分类数={}，地区数={}，耗时={}ms",
+            version, spotMap.size(), categoryNames.size(), regionNames.size(), System.currentTimeMillis() - start);
+        return new Snapshot(
+            version,
+            Collections.unmodifiableMap(spotMap),
+            Collections.unmodifiableMap(categoryNames),
+            Collections.unmodifiableMap(regionNames)
+        );
+    }
+
+    /**
+     * 不可变目录快照，重建时整体替换，读取方不会看到半成品。
+     */
+    private record Snapshot(long version,
+                            Map<Long, Spot> spots,
+                            Map<Long, String> categoryNames,
+                            Map<Long, String> regionNames) {
+
+        /**
+         * 复制景点的展示字段并补齐分类、地区名称和评分热度，快照内的对象不对外暴露。
+         * 计数为空时沿用来源对象自身的评分热度，即数据库回退查询得到的完整实体。
+         */
+        private Spot enrich(Spot source, SpotCounters spotCounters) {
+            Spot copy = new Spot();
+            copy.setId(source.getId());
+            copy.setName(source.getName());
+            copy.setPrice(source.getPrice());
+            copy.setCoverImageUrl(source.getCoverImageUrl());
+            copy.setCategoryId(source.getCategoryId());
+            copy.setRegionId(source.getRegionId());
+            copy.setIsPublished(source.getIsPublished());
+            copy.setIsDeleted(source.getIsDeleted());
+            copy.setHeatScore(spotCounters == null ? source.getHeatScore() : spotCounters.heatScore());
+            copy.setAvgRating(spotCounters == null ? source.getAvgRating() : spotCounters.avgRating());
+            copy.setRatingCount(spotCounters == null ? source.getRatingCount() : spotCounters.ratingCount());
+            copy.setCategoryName(source.getCategoryId() == null ? null : categoryNames.get(source.getCategoryId()));
+            copy.setRegionName(source.getRegionId() == null ? null : regionNames.get(source.getRegionId()));
+            return copy;
+        }
+    }
+
+    /**
+     * 按 TTL 整体替换的评分热度缓存，条目可被本实例的评分变更原地更新。
+     */
+    private record Counters(long loadedAtMillis, Map<Long, SpotCounters> values) {
+    }
+
+    /**
+     * 单个景点的易变计数。
+     */
+    private record SpotCounters(Integer heatScore, BigDecimal avgRating, Integer ratingCount) {
+    }
+}
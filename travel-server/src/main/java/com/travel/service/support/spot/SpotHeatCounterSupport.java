@@ -0,0 +1,165 @@
+package com.travel.service.support.spot;
+
+import com.travel.dto.spot.stats.SpotBehaviorDelta;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 景点热度实时计数器。
+ * <p>
+ * 浏览、收藏、评价和订单状态变化时按景点累计行为增量，由定时任务周期性取走并累加回热度分，
+ * 热门排行因此不必等待夜间全量重算。计数按景点分散在并发 Map 的各个桶中，累加和取走都在桶锁内完成，
+ * 取走后的增量不会再被并发写入修改。计数只保存在本实例内存中，进程异常退出会丢失未刷写的部分，
+ * 由定期的全量重算校正。
+ */
+@Component
+public class SpotHeatCounterSupport {
+
+    private static final int VIEW = 0;
+    private static final int FAVORITE = 1;
+    private static final int REVIEW = 2;
+    private static final int PAID_ORDER = 3;
+    private static final int COMPLETED_ORDER = 4;
+    private static final int BEHAVIOR_TYPES = 5;
+
+    private final ConcurrentHashMap<Long, long[]> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次浏览。
+     *
+     * @param spotId 景点 ID
+     */
+    public void recordView(Long spotId) {
+        record(spotId, VIEW, 1);
+    }
+
+    /**
+     * 记录收藏数变化，取消收藏传入负值。
+     *
+     * @param spotId 景点 ID
+     * @param delta 变化量
+     */
+    public void recordFavorite(Long spotId, int delta) {
+        record(spotId, FAVORITE, delta);
+    }
+
+    /**
+     * 记录有效评价数变化，删除评价传入负值。
+     *
+     * @param spotId 景点 ID
+     * @param delta 变化量
+     */
+    public void recordReview(Long spotId, int delta) {
+        record(spotId, REVIEW, delta);
+    }
+
+    /**
+     * 记录已支付订单数变化，口径与全量重算一致，包含已完成订单。
+     *
+     * @param spotId 景点 ID
+     * @param delta 变化量
+     */
+    public void recordPaidOrder(Long spotId, int delta) {
+        record(spotId, PAID_ORDER, delta);
+    }
+
+    /**
+     * 记录已完成订单数变化。
+     *
+     * @param spotId 景点 ID
+     * @param delta 变化量
+     */
+    public void recordCompletedOrder(Long spotId, int delta) {
+        record(spotId, COMPLETED_ORDER, delta);
+    }
+
+    /**
+     * 取走全部待刷写的增量并清空计数。
+     *
+     * @return 各景点的行为增量
+     */
+    public List<SpotBehaviorDelta> drain() {
+        List<SpotBehaviorDelta> deltas = new ArrayList<>(counters.size());
+        for (Long spotId : counters.keySet()) {
+            long[] counts = counters.remove(spotId);
+            if (counts == null) {
+                continue;
+            }
+            SpotBehaviorDelta delta = new SpotBehaviorDelta();
+            delta.setSpotId(spotId);
+            delta.setViewCount(counts[VIEW]);
+            delta.setFavoriteCount(counts[FAVORITE]);
+            delta.setReviewCount(counts[REVIEW]);
+            delta.setPaidOrderCount(counts[PAID_ORDER]);
+            delta.setCompletedOrderCount(counts[COMPLETED_ORDER]);
+            deltas.add(delta);
+        }
+        return deltas;
+    }
+
+    /**
+     * 把刷写失败的增量放回计数器，与期间新产生的增量合并，等待下次刷写。
+     *
+     * @param deltas 未能落库的行为增量
+     */
+    public void restore(Collection<SpotBehaviorDelta> deltas) {
+        for (SpotBehaviorDelta delta : deltas) {
+            counters.compute(delta.getSpotId(), (spotId, counts) -> {
+                long[] merged = counts == null ? new long[BEHAVIOR_TYPES] : counts;
+                merged[VIEW] += delta.getViewCount();
+                merged[FAVORITE] += delta.getFavoriteCount();
+                merged[REVIEW] += delta.getReviewCount();
+                merged[PAID_ORDER] += delta.getPaidOrderCount();
+                merged[COMPLETED_ORDER] += delta.getCompletedOrderCount();
+                return merged;
+            });
+        }
+    }
+
+    /**
+     * 丢弃全部待刷写的增量，全量重算开始前调用，避免已被重新统计的行为再次累加。
+     */
+    public void clear() {
+        counters.clear();
+    }
+
+    /**
+     * 获取当前有待刷写增量的景点数。
+     *
+     * @return 景点数
+     */
+    public int pendingSpotCount() {
+        return counters.size();
+    }
+
+    private void record(Long spotId, int type, int delta) {
+        if (spotId == null || delta == 0) {
+            return;
+        }
+        // 事务中的行为要等提交后才计入，回滚的操作不应影响热度。
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(spotId, type, delta);
+                }
+            });
+            return;
+        }
+        increment(spotId, type, delta);
+    }
+
+    private void increment(Long spotId, int type, int delta) {
+        counters.compute(spotId, (key, counts) -> {
+            long[] updated = counts == null ? new long[BEHAVIOR_TYPES] : counts;
+            updated[type] += delta;
+            return updated;
+        });
+    }
+}
@@ -3,27 +3,79 @@ package com.travel.service.support.spot;
 import com.travel.dto.spot.response.AdminSpotListResponse;
 import com.travel.dto.spot.response.SpotListResponse;
 import com.travel.entity.Spot;
-import com.travel.entity.SpotCategory;
-import com.travel.entity.SpotRegion;
-import com.travel.mapper.SpotCategoryMapper;
-import com.travel.mapper.SpotRegionMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 景点响应装配器，统一处理景点列表响应和分类地区名称补齐。
+ * <p>
+ * 分类和地区名称统一从景点目录快照的字典读取；整页装配时只取一次字典，不随列表长度增加查询。
  */
 @Component
 @RequiredArgsConstructor
 public class SpotResponseAssembler {
 
-    private final SpotRegionMapper spotRegionMapper;
-    private final SpotCategoryMapper spotCategoryMapper;
+    private final SpotCatalogSupport spotCatalogSupport;
 
     /**
      * 用户端列表项保持轻量字段，避免装配逻辑散落在查询服务里。
      */
     public SpotListResponse toSpotListResponse(Spot spot) {
+        return toSpotListResponse(spot, spotCatalogSupport.getRegionNames(), spotCatalogSupport.getCategoryNames());
+    }
+
+    /**
+     * 整页装配用户端列表项，分类和地区名称按同一份字典批量补齐。
+     */
+    public List<SpotListResponse> toSpotListResponses(List<Spot> spots) {
+        Map<Long, String> regionNames = spotCatalogSupport.getRegionNames();
+        Map<Long, String> categoryNames = spotCatalogSupport.getCategoryNames();
+        List<SpotListResponse> list = new ArrayList<>(spots.size());
+        for (Spot spot : spots) {
+            list.add(toSpotListResponse(spot, regionNames, categoryNames));
+        }
+        return list;
+    }
+
+    /**
+     * 管理端列表项补齐后台关注字段，和用户端响应装配分开处理。
+     */
+    public AdminSpotListResponse toAdminSpotListResponse(Spot spot) {
+        return toAdminSpotListResponse(spot, spotCatalogSupport.getRegionNames(), spotCatalogSupport.getCategoryNames());
+    }
+
+    /**
+     * 整页装配管理端列表项，分类和地区名称按同一份字典批量补齐。
+     */
+    public List<AdminSpotListResponse> toAdminSpotListResponses(List<Spot> spots) {
+        Map<Long, String> regionNames = spotCatalogSupport.getRegionNames();
+        Map<Long, String> categoryNames = spotCatalogSupport.getCategoryNames();
+        List<AdminSpotListResponse> list = new ArrayList<>(spots.size());
+        for (Spot spot : spots) {
+            list.add(toAdminSpotListResponse(spot, regionNames, categoryNames));
+        }
+        return list;
+    }
+
+    /**
+     * 名称补齐统一走这里，避免查询层重复直接访问字典表。
+     */
+    public String getRegionName(Long regionId) {
+        return regionId == null ? null : spotCatalogSupport.getRegionNames().get(regionId);
+    }
+
+    /**
+     * 分类名称读取与地区保持同一入口，减少装配代码分叉。
+     */
+    public String getCategoryName(Long categoryId) {
+        return categoryId == null ? null : spotCatalogSupport.getCategoryNames().get(categoryId);
+    }
+
+    private SpotListResponse toSpotListResponse(Spot spot, Map<Long, String> regionNames, Map<Long, String> categoryNames) {
         return SpotListResponse.builder()
             .id(spot.getId())
             .name(spot.getName())
@@ -31,22 +83,19 @@ public class SpotResponseAssembler {
             .price(spot.getPrice())
             .avgRating(spot.getAvgRating())
             .ratingCount(spot.getRatingCount())
-            .regionName(getRegionName(spot.getRegionId()))
-            .categoryName(getCategoryName(spot.getCategoryId()))
+            .regionName(lookupName(regionNames, spot.getRegionId()))
+            .categoryName(lookupName(categoryNames, spot.getCategoryId()))
             .build();
     }
 
-    /**
-     * 管理端列表项补齐后台关注字段，和用户端响应装配分开处理。
-     */
-    public AdminSpotListResponse toAdminSpotListResponse(Spot spot) {
+    private AdminSpotListResponse toAdminSpotListResponse(Spot spot, Map<Long, String> regionNames, Map<Long, String> categoryNames) {
         return AdminSpotListResponse.builder()
             .id(spot.getId())
             .name(spot.getName())
             .coverImage(spot.getCoverImageUrl())
             .price(spot.getPrice())
-            .regionName(getRegionName(spot.getRegionId()))
-            .categoryName(getCategoryName(spot.getCategoryId()))
+            .regionName(lookupName(regionNames, spot.getRegionId()))
+            .categoryName(lookupName(categoryNames, spot.getCategoryId()))
             .avgRating(spot.getAvgRating())
             .ratingCount(spot.getRatingCount())
             .heatLevel(spot.getHeatLevel())
@@ -57,25 +106,7 @@ public class SpotResponseAssembler {
             .build();
     }
 
-    /**
-     * 名称补齐统一走这里，避免查询层重复直接访问字典表。
-     */
-    public String getRegionName(Long regionId) {
-        if (regionId == null) {
-            return null;
-        }
-        SpotRegion region = spotRegionMapper.selectById(regionId);
-        return region != null && region.getIsDeleted() == 0 ? region.getName() : null;
-    }
-
-    /**
-     * 分类名称读取与地区保持同一入口，减少装配代码分叉。
-     */
-    public String getCategoryName(Long categoryId) {
-        if (categoryId == null) {
-            return null;
-        }
-        SpotCategory category = spotCategoryMapper.selectById(categoryId);
-        return category != null && category.getIsDeleted() == 0 ? category.getName() : null;
+    private String lookupName(Map<Long, String> names, Long id) {
+        return id == null ? null : names.get(id);
     }
 }
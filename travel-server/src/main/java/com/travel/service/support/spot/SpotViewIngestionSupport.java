@@ -0,0 +1,304 @@
+package com.travel.service.support.spot;
+
+import com.travel.config.behavior.ViewTrackingProperties;
+import com.travel.entity.Spot;
+import com.travel.entity.User;
+import com.travel.entity.UserSpotView;
+import com.travel.mapper.UserMapper;
+import com.travel.mapper.UserSpotViewMapper;
+import com.travel.service.RecommendationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 浏览行为异步缓冲写入管道。
+ * <p>
+ * 浏览上报是写入量最大的接口，原先每次请求都要在请求线程内查用户、查景点、单行插入并删除推荐缓存。
+ * 这里请求线程只把记录放入有界队列，由单个后台线程按刷写窗口攒批：用户有效性按 TTL 缓存、景点有效性读目录快照，
+ * 通过校验的记录合并成一条多行 INSERT，同一窗口内同一用户的推荐缓存只失效一次。
+ * 队列满时新记录直接丢弃，不阻塞请求线程；队列水位、接收、丢弃、落库和失败数量通过 Micrometer 指标暴露到 actuator。
+ */
+@Slf4j
+@Component
+public class SpotViewIngestionSupport {
+
+    private static final String METRIC_PREFIX = "waytrip.view.tracking";
+
+    private final UserSpotViewMapper userSpotViewMapper;
+    private final UserMapper userMapper;
+    private final SpotCatalogSupport spotCatalogSupport;
+    private final SpotHeatCounterSupport spotHeatCounterSupport;
+    private final RecommendationService recommendationService;
+    private final ViewTrackingProperties properties;
+
+    private final BlockingQueue<UserSpotView> queue;
+    // 停机时 stop 的兜底刷写可能与尚未退出的后台线程并发访问
+    private final Map<Long, Long> validUserExpiry = new ConcurrentHashMap<>();
+    private final Counter acceptedCounter;
+    private final Counter droppedCounter;
+    private final Counter persistedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public SpotViewIngestionSupport(UserSpotViewMapper userSpotViewMapper,
+                                    UserMapper userMapper,
+                                    SpotCatalogSupport spotCatalogSupport,
+                                    SpotHeatCounterSupport spotHeatCounterSupport,
+                                    RecommendationService recommendationService,
+                                    ViewTrackingProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.userSpotViewMapper = userSpotViewMapper;
+        this.userMapper = userMapper;
+        this.spotCatalogSupport = spotCatalogSupport;
+        this.spotHeatCounterSupport = spotHeatCounterSupport;
+        this.recommendationService = recommendationService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(positiveOrDefault(properties.getQueueCapacity(), 10000));
+
+        Gauge.builder(METRIC_PREFIX + ".queue.size", queue, BlockingQueue::size)
+            .description("待落库的浏览记录数")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.remaining", queue, BlockingQueue::remainingCapacity)
+            .description("缓冲队列剩余容量，持续接近 0 说明写入跟不上上报")
+            .register(meterRegistry);
+        this.acceptedCounter = outcomeCounter(meterRegistry, "accepted");
+        this.droppedCounter = outcomeCounter(meterRegistry, "dropped");
+        this.persistedCounter = outcomeCounter(meterRegistry, "persisted");
+        this.rejectedCounter = outcomeCounter(meterRegistry, "rejected");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush")
+            .description("单批浏览记录校验与落库耗时")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 是否启用异步缓冲写入。
+     *
+     * @return 启用时返回 true
+     */
+    public boolean isAsyncEnabled() {
+        return !Boolean.FALSE.equals(properties.getAsyncEnabled());
+    }
+
+    /**
+     * 提交一条浏览记录，队列已满时直接丢弃。
+     *
+     * @param view 浏览记录
+     * @return 是否成功进入队列
+     */
+    public boolean submit(UserSpotView view) {
+        if (view.getCreatedAt() == null) {
+            view.setCreatedAt(LocalDateTime.now());
+        }
+        if (queue.offer(view)) {
+            acceptedCounter.increment();
+            return true;
+        }
+        droppedCounter.increment();
+        long dropped = (long) droppedCounter.count();
+        if (dropped == 1 || dropped % 1000 == 0) {
+            log.warn("浏览记录缓冲队列已满，丢弃新记录：累计丢弃={}，队列容量={}", dropped, properties.getQueueCapacity());
+        }
+        return false;
+    }
+
+    /**
+     * 同步刷写队列中现有的全部记录，供停机和测试使用。
+     */
+    public void flushPending() {
+        int batchSize = positiveOrDefault(properties.getBatchSize(), 500);
+        List<UserSpotView> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isAsyncEnabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "view-ingestion");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            try {
+                // 先等后台线程自然结束当前窗口，超时仍未退出再中断等待。
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+                if (worker.isAlive()) {
+                    worker.interrupt();
+                    worker.join(TimeUnit.SECONDS.toMillis(5));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 后台线程退出后把剩余记录落库，减少停机丢失。
+        flushPending();
+    }
+
+    private void runLoop() {
+        int batchSize = positiveOrDefault(properties.getBatchSize(), 500);
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, properties.getFlushIntervalMillis() == null
+            ? 1000L : properties.getFlushIntervalMillis()));
+        List<UserSpotView> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                UserSpotView first = queue.poll(windowNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 以第一条记录为起点攒满一个窗口或一批，窗口内的重复失效由 flush 合并。
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    UserSpotView next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 停机时中断等待，已取出的记录仍然落库，剩余部分由 stop 处理。
+                flush(batch);
+                return;
+            } catch (Exception e) {
+                log.error("浏览记录刷写线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<UserSpotView> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        flushTimer.record(() -> doFlush(batch));
+    }
+
+    private void doFlush(List<UserSpotView> batch) {
+        Set<Long> activeUserIds = resolveActiveUsers(batch);
+        Set<Long> activeSpotIds = resolveActiveSpots(batch);
+        List<UserSpotView> accepted = new ArrayList<>(batch.size());
+        for (UserSpotView view : batch) {
+            if (activeUserIds.contains(view.getUserId()) && activeSpotIds.contains(view.getSpotId())) {
+                accepted.add(view);
+            }
+        }
+        rejectedCounter.increment(batch.size() - accepted.size());
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            userSpotViewMapper.insertBatch(accepted);
+        } catch (Exception e) {
+            failedCounter.increment(accepted.size());
+            log.warn("浏览记录批量写入失败：记录数={}", accepted.size(), e);
+            return;
+        }
+        persistedCounter.increment(accepted.size());
+
+        Set<Long> touchedUsers = new LinkedHashSet<>();
+        for (UserSpotView view : accepted) {
+            spotHeatCounterSupport.recordView(view.getSpotId());
+            touchedUsers.add(view.getUserId());
+        }
+        for (Long userId : touchedUsers) {
+            try {
+                recommendationService.invalidateUserRecommendationCache(userId);
+            } catch (Exception e) {
+                log.warn("浏览记录落库后推荐缓存失效失败：userId={}", userId, e);
+            }
+        }
+    }
+
+    /**
+     * 只缓存有效用户，注销用户不进缓存，TTL 内被注销的用户最多多记录一个 TTL 的浏览。
+     */
+    private Set<Long> resolveActiveUsers(List<UserSpotView> batch) {
+        long now = System.currentTimeMillis();
+        Set<Long> active = new HashSet<>();
+        Set<Long> misses = new HashSet<>();
+        for (UserSpotView view : batch) {
+            Long expiry = validUserExpiry.get(view.getUserId());
+            if (expiry != null && expiry > now) {
+                active.add(view.getUserId());
+            } else {
+                misses.add(view.getUserId());
+            }
+        }
+        if (!misses.isEmpty()) {
+            long ttlMillis = TimeUnit.SECONDS.toMillis(positiveOrDefault(properties.getUserValidityTtlSeconds(), 60));
+            validUserExpiry.values().removeIf(expiry -> expiry <= now);
+            for (User user : userMapper.selectBatchIds(misses)) {
+                if (user.getIsDeleted() != null && user.getIsDeleted() == 0) {
+                    active.add(user.getId());
+                    validUserExpiry.put(user.getId(), now + ttlMillis);
+                }
+            }
+        }
+        return active;
+    }
+
+    private Set<Long> resolveActiveSpots(List<UserSpotView> batch) {
+        Set<Long> spotIds = new HashSet<>();
+        for (UserSpotView view : batch) {
+            spotIds.add(view.getSpotId());
+        }
+        Set<Long> active = new HashSet<>();
+        for (Spot spot : spotCatalogSupport.getSpots(spotIds)) {
+            if (spot.getIsDeleted() != null && spot.getIsDeleted() == 0) {
+                active.add(spot.getId());
+            }
+        }
+        return active;
+    }
+
+    private Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC_PREFIX + ".events")
+            .description("浏览记录按处理结果统计的数量")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private int positiveOrDefault(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+}
@@ -0,0 +1,32 @@
+package com.travel.task.dashboard;
+
+import com.travel.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 仪表板快照重算任务。
+ * <p>
+ * 周期性在后台重算概览和热门景点快照，管理员轮询只读内存；近期无人查看时跳过，不产生数据库查询。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardSnapshotRefreshTask {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * 默认每 30 秒重算一次。
+     */
+    @Scheduled(cron = "${app.task.dashboard-snapshot-refresh-cron:*/30 * * * * ?}")
+    public void refreshSnapshot() {
+        try {
+            dashboardService.refreshSnapshotIfActive();
+        } catch (Exception e) {
+            log.error("定时任务：仪表板快照重算失败", e);
+        }
+    }
+}
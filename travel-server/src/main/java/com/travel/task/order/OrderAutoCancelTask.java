@@ -1,15 +1,19 @@
 package com.travel.task.order;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.travel.entity.Order;
 import com.travel.enums.OrderStatus;
 import com.travel.mapper.OrderMapper;
+import com.travel.service.support.order.OrderDailyStatsSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 订单自动取消任务，负责清理超时未支付订单。
@@ -22,27 +26,69 @@ public class OrderAutoCancelTask {
     // 超时阈值配置
     private static final int TIMEOUT_MINUTES = 5;
 
+    /**
+     * 每个短事务取消的订单数。
+     */
+    private static final int CANCEL_BATCH_SIZE = 100;
+
     // 持久层依赖
     private final OrderMapper orderMapper;
+    private final OrderDailyStatsSupport orderDailyStatsSupport;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 每分钟扫描一次，取消超时未支付订单。
+     * <p>
+     * 超时订单按每 {@value #CANCEL_BATCH_SIZE} 笔一批，每批在独立短事务内：先以“仍为待支付”为条件加排他锁读出订单，
+     * 再用一条 UPDATE 取消这些订单，最后合并增量累减订单日汇总。锁住的订单只有本任务能改，
+     * 与用户支付、取消和查询时的即时过期互斥，汇总只为本任务真正取消的订单扣减；一批提交后即释放锁，不会拖住其余订单。
      */
     @Scheduled(cron = "0 */1 * * * ?")
     public void cancelTimeoutOrders() {
-        // 将创建时间早于阈值的待支付订单统一更新为已取消。
         LocalDateTime cutoff = LocalDateTime.now().minusMinutes(TIMEOUT_MINUTES);
-        UpdateWrapper<Order> updateWrapper = new UpdateWrapper<>();
-        updateWrapper.eq("status", OrderStatus.PENDING.getCode())
-                .eq("is_deleted", 0)
-                .le("created_at", cutoff)
-                .set("status", OrderStatus.CANCELLED.getCode())
-                .set("cancelled_at", LocalDateTime.now())
-                .set("updated_at", LocalDateTime.now());
+        List<Long> timeoutOrderIds = orderMapper.selectList(
+            new LambdaQueryWrapper<Order>()
+                .eq(Order::getStatus, OrderStatus.PENDING.getCode())
+                .eq(Order::getIsDeleted, 0)
+                .le(Order::getCreatedAt, cutoff)
+                .select(Order::getId)
+        ).stream().map(Order::getId).toList();
+        if (timeoutOrderIds.isEmpty()) {
+            return;
+        }
 
-        int updated = orderMapper.update(null, updateWrapper);
-        if (updated > 0) {
-            log.info("自动取消超时未支付订单，数量={}", updated);
+        int cancelled = 0;
+        for (int from = 0; from < timeoutOrderIds.size(); from += CANCEL_BATCH_SIZE) {
+            List<Long> batch = timeoutOrderIds.subList(from, Math.min(from + CANCEL_BATCH_SIZE, timeoutOrderIds.size()));
+            Integer batchCancelled = transactionTemplate.execute(status -> cancelBatch(batch));
+            cancelled += batchCancelled == null ? 0 : batchCancelled;
+        }
+        if (cancelled > 0) {
+            log.info("自动取消超时未支付订单，数量={}", cancelled);
         }
     }
+
+    private int cancelBatch(List<Long> orderIds) {
+        List<Order> locked = orderMapper.selectList(
+            new LambdaQueryWrapper<Order>()
+                .in(Order::getId, orderIds)
+                .eq(Order::getStatus, OrderStatus.PENDING.getCode())
+                .select(Order::getId, Order::getSpotId, Order::getTotalAmount, Order::getCreatedAt)
+                .last("FOR UPDATE")
+        );
+        if (locked.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        UpdateWrapper<Order> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.in("id", locked.stream().map(Order::getId).toList())
+                .eq("status", OrderStatus.PENDING.getCode())
+                .set("status", OrderStatus.CANCELLED.getCode())
+                .set("cancelled_at", now)
+                .set("updated_at", now);
+        orderMapper.update(null, updateWrapper);
+        orderDailyStatsSupport.recordTransitions(locked, OrderStatus.PENDING.getCode(), OrderStatus.CANCELLED.getCode());
+        return locked.size();
+    }
 }
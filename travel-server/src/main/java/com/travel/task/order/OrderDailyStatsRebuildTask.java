@@ -0,0 +1,51 @@
+package com.travel.task.order;
+
+import com.travel.service.support.order.OrderDailyStatsSupport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订单日汇总重建任务。
+ * <p>
+ * 汇总表由订单状态流转增量维护；应用启动时若汇总表为空先回填一次，之后定期从订单表全量重建，
+ * 校正手工改库等绕过业务入口的变更。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderDailyStatsRebuildTask {
+
+    private final OrderDailyStatsSupport orderDailyStatsSupport;
+
+    /**
+     * 新部署或汇总表被清空后的首次回填。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            if (orderDailyStatsSupport.backfillIfEmpty()) {
+                log.info("订单日汇总为空，已完成首次回填");
+            }
+        } catch (Exception e) {
+            log.error("订单日汇总首次回填失败", e);
+        }
+    }
+
+    /**
+     * 默认每天凌晨全量重建一次。
+     */
+    @Scheduled(cron = "${app.task.order-daily-stats-rebuild-cron:0 10 4 * * ?}")
+    public void rebuild() {
+        log.info("定时任务：开始重建订单日汇总");
+        try {
+            orderDailyStatsSupport.rebuild();
+            log.info("定时任务：订单日汇总重建完成");
+        } catch (Exception e) {
+            log.error("定时任务：订单日汇总重建失败", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.travel.task.recommendation;
+
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.service.cache.RecommendationCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 旧代际缓存清理任务。
+ * <p>
+ * 用户推荐与首页热门缓存通过递增代际号整体失效，旧代际 Key 本身会按 TTL 过期；
+ * 开启后本任务用 SCAN 提前删除这些 Key，缩短旧数据占用内存的时间。默认关闭。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationCacheSweepTask {
+
+    private final RecommendationCacheService recommendationCacheService;
+    private final AppCacheProperties appCacheProperties;
+
+    /**
+     * 每小时扫描一次旧代际缓存。
+     */
+    @Scheduled(cron = "${app.task.cache-generation-sweep-cron:0 45 * * * ?}")
+    public void sweepStaleGenerations() {
+        if (!Boolean.TRUE.equals(appCacheProperties.getGenerationSweepEnabled())) {
+            return;
+        }
+        try {
+            long userKeys = recommendationCacheService.sweepStaleUserRecommendations();
+            long hotSpotKeys = recommendationCacheService.sweepStaleHomeHotSpots();
+            log.info("定时任务：旧代际缓存清理完成，用户推荐 Key={}，热门景点 Key={}", userKeys, hotSpotKeys);
+        } catch (Exception e) {
+            log.error("定时任务：旧代际缓存清理失败", e);
+        }
+    }
+}
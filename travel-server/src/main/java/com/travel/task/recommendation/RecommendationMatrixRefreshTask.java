@@ -7,7 +7,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
- * 推荐系统定时任务，负责周期性刷新物品相似度矩阵。
+ * 推荐系统定时任务，负责周期性刷新物品相似度矩阵：夜间全量重建，白天按小时增量更新。
  * <p>
  * 定时任务和后台手动触发共用同一服务入口，确保矩阵重建逻辑始终只有一份实现。
  */
@@ -34,4 +34,18 @@ public class RecommendationMatrixRefreshTask {
             log.error("定时任务：物品相似度矩阵更新失败", e);
         }
     }
+
+    /**
+     * 每小时按行为增量刷新一次相似度矩阵，夜间全量任务负责兜底校准。
+     */
+    @Scheduled(cron = "${app.task.recommendation-incremental-cron:0 15 * * * ?}")
+    public void updateSimilarityMatrixIncrementally() {
+        log.info("定时任务：开始增量更新物品相似度矩阵");
+        try {
+            recommendationService.updateSimilarityMatrixIncrementally();
+            log.info("定时任务：物品相似度矩阵增量更新完成");
+        } catch (Exception e) {
+            log.error("定时任务：物品相似度矩阵增量更新失败", e);
+        }
+    }
 }
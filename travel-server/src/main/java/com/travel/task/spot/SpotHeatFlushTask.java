@@ -0,0 +1,44 @@
+package com.travel.task.spot;
+
+import com.travel.service.SpotHeatService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 景点热度增量刷写任务。
+ * <p>
+ * 周期性把实时计数器中累计的行为增量写回热度分，让热门排行接近实时；应用关闭前再刷写一次，减少增量丢失。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpotHeatFlushTask {
+
+    private final SpotHeatService spotHeatService;
+
+    /**
+     * 默认每三分钟刷写一次热度增量。
+     */
+    @Scheduled(cron = "${app.task.spot-heat-flush-cron:0 */3 * * * ?}")
+    public void flushHeatDeltas() {
+        try {
+            int flushed = spotHeatService.flushHeatDeltas();
+            if (flushed > 0) {
+                log.info("定时任务：景点热度增量刷写完成，景点数={}", flushed);
+            }
+        } catch (Exception e) {
+            log.error("定时任务：景点热度增量刷写失败", e);
+        }
+    }
+
+    /**
+     * 应用关闭前刷写剩余增量。
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushHeatDeltas();
+    }
+}
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Component;
 /**
  * 景点热度同步任务。
  * <p>
- * 通过定时批量重算热度，保证行为累积后的热度分能周期性回写到景点表。
+ * 日常热度变化由实时计数器增量刷写，本任务定期按全部行为数据重新统计，校正增量丢失或规则调整带来的偏差。
  */
 @Slf4j
 @Component
@@ -21,9 +21,9 @@ public class SpotHeatSyncTask {
     private final SpotService spotService;
 
     /**
-     * 定时按热度档位和行为数据同步全部景点热度。
+     * 默认每周一次按热度档位和行为数据同步全部景点热度。
      */
-    @Scheduled(cron = "${app.task.spot-heat-sync-cron:0 30 3 * * ?}")
+    @Scheduled(cron = "${app.task.spot-heat-sync-cron:0 30 3 ? * MON}")
     public void refreshAllSpotHeat() {
         // 任务异常只记日志，避免调度线程因为一次统计失败停止后续执行。
         log.info("定时任务：开始同步全部景点热度");
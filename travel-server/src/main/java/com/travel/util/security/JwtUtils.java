@@ -5,16 +5,28 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * JWT 工具类。
  * <p>
  * 负责生成和解析用户端、管理端 Token，并提供过期时间换算能力。
+ * 同一个会话在有效期内会反复携带同一个 Token，验签通过后按 Token 的 SHA-256 摘要缓存主体 ID、类型和过期时间，
+ * 再次出现时只计算一次摘要，不再重复验签和解析载荷 JSON。缓存条目数有上限，过期条目在访问和定期清理时移除，
+ * 验签失败的 Token 不进缓存。
  */
 @Component
 public class JwtUtils {
@@ -29,9 +41,26 @@ public class JwtUtils {
     @Value("${jwt.admin-expiration}")
     private long adminExpiration;
 
+    // 验签结果缓存上限，小于等于 0 时关闭缓存，每次都完整验签。
+    @Value("${jwt.claims-cache-max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
     // 运行时密钥
     private SecretKey key;
 
+    // 验签结果缓存，键为 Token 摘要，避免在内存中长期保留原始凭证。
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepAt = new AtomicLong();
+
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前运行环境不支持 SHA-256", e);
+        }
+    });
+
     // Token 声明字段
     private static final String CLAIM_USER_ID = "userId";
     private static final String CLAIM_ADMIN_ID = "adminId";
@@ -92,11 +121,11 @@ public class JwtUtils {
      * @return 用户 ID；若 Token 非用户端 Token 或解析失败则返回 {@code null}
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = parseToken(token);
-        if (claims == null || !TYPE_USER.equals(claims.get(CLAIM_TYPE))) {
+        VerifiedToken verified = verifyToken(token);
+        if (verified == null || !TYPE_USER.equals(verified.type())) {
             return null;
         }
-        return claims.get(CLAIM_USER_ID, Long.class);
+        return verified.subjectId();
     }
 
     /**
@@ -106,11 +135,86 @@ public class JwtUtils {
      * @return 管理员 ID；若 Token 非管理端 Token 或解析失败则返回 {@code null}
      */
     public Long getAdminIdFromToken(String token) {
-        Claims claims = parseToken(token);
-        if (claims == null || !TYPE_ADMIN.equals(claims.get(CLAIM_TYPE))) {
+        VerifiedToken verified = verifyToken(token);
+        if (verified == null || !TYPE_ADMIN.equals(verified.type())) {
+            return null;
+        }
+        return verified.subjectId();
+    }
+
+    /**
+     * 校验 Token 并返回主体信息，优先读取验签结果缓存。
+     *
+     * @param token JWT Token
+     * @return 主体信息；Token 无效或已过期时返回 {@code null}
+     */
+    private VerifiedToken verifyToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        if (claimsCacheMaxEntries <= 0) {
+            return toVerifiedToken(parseToken(token));
+        }
+
+        long now = System.currentTimeMillis();
+        ByteBuffer digest = digest(token);
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached;
+            }
+            // 缓存的过期时间取自已验签的载荷，到期后完整验签同样会失败，直接移除即可。
+            verifiedTokens.remove(digest, cached);
             return null;
         }
-        return claims.get(CLAIM_ADMIN_ID, Long.class);
+
+        VerifiedToken verified = toVerifiedToken(parseToken(token));
+        if (verified != null && verified.expiresAtMillis() > now) {
+            evictIfNeeded(now);
+            verifiedTokens.put(digest, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * 写入前维护缓存容量：定期清理过期条目，达到上限时先清过期条目，仍然满载则随机淘汰约十分之一。
+     * ConcurrentHashMap 的遍历顺序与访问时间无关，被淘汰的活跃会话下次请求时重新验签回填。
+     */
+    private void evictIfNeeded(long now) {
+        long lastSweep = lastSweepAt.get();
+        if (now - lastSweep >= SWEEP_INTERVAL_MILLIS && lastSweepAt.compareAndSet(lastSweep, now)) {
+            verifiedTokens.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        }
+        if (verifiedTokens.size() < claimsCacheMaxEntries) {
+            return;
+        }
+        verifiedTokens.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        int overflow = verifiedTokens.size() - claimsCacheMaxEntries + Math.max(1, claimsCacheMaxEntries / 10);
+        Iterator<ByteBuffer> iterator = verifiedTokens.keySet().iterator();
+        while (overflow-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        if (claims == null || claims.getExpiration() == null) {
+            return null;
+        }
+        Object type = claims.get(CLAIM_TYPE);
+        Long subjectId;
+        if (TYPE_USER.equals(type)) {
+            subjectId = claims.get(CLAIM_USER_ID, Long.class);
+        } else if (TYPE_ADMIN.equals(type)) {
+            subjectId = claims.get(CLAIM_ADMIN_ID, Long.class);
+        } else {
+            return null;
+        }
+        return subjectId == null ? null : new VerifiedToken(subjectId, (String) type, claims.getExpiration().getTime());
     }
 
     /**
@@ -148,4 +252,14 @@ public class JwtUtils {
     public long getAdminExpirationSeconds() {
         return adminExpiration / 1000;
     }
+
+    /**
+     * 验签通过的 Token 主体信息。
+     *
+     * @param subjectId 用户 ID 或管理员 ID
+     * @param type Token 类型
+     * @param expiresAtMillis 过期时间戳
+     */
+    private record VerifiedToken(Long subjectId, String type, long expiresAtMillis) {
+    }
 }
@@ -0,0 +1,176 @@
+package com.travel.util.web;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 请求耗时剖析上下文。
+ * <p>
+ * 基于 {@link ThreadLocal} 在单次请求线程内累加数据库、Redis 等阶段耗时和按语句的 SQL 执行次数，由请求过滤器开启和清理。
+ * 未开启剖析的线程（定时任务、后台刷写线程等）调用记录方法时直接忽略。
+ */
+public class RequestProfileHolder {
+
+    private static final ThreadLocal<Profile> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 在当前线程开启一次请求剖析。
+     *
+     * @return 新的剖析上下文
+     */
+    public static Profile start() {
+        Profile profile = new Profile(System.nanoTime());
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * 获取当前线程的剖析上下文。
+     *
+     * @return 剖析上下文；未开启时返回 {@code null}
+     */
+    public static Profile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 累加一次 SQL 执行耗时。
+     *
+     * @param statementId Mapper 语句 ID
+     * @param nanos 耗时，单位：纳秒
+     */
+    public static void recordDb(String statementId, long nanos) {
+        Profile profile = CURRENT.get();
+        if (profile != null) {
+            profile.dbNanos += nanos;
+            profile.dbCalls++;
+            StatementStats stats = profile.statementStats.computeIfAbsent(statementId, key -> new StatementStats());
+            stats.count++;
+            stats.nanos += nanos;
+        }
+    }
+
+    /**
+     * 开始一次 Redis 操作，返回是否为最外层调用，嵌套调用不重复计时。
+     *
+     * @return 最外层调用返回 true
+     */
+    public static boolean enterRedis() {
+        Profile profile = CURRENT.get();
+        return profile != null && profile.redisDepth++ == 0;
+    }
+
+    /**
+     * 结束一次 Redis 操作。
+     *
+     * @param outermost {@link #enterRedis()} 的返回值
+     * @param nanos 耗时，单位：纳秒
+     */
+    public static void exitRedis(boolean outermost, long nanos) {
+        Profile profile = CURRENT.get();
+        if (profile == null) {
+            return;
+        }
+        profile.redisDepth--;
+        if (outermost) {
+            profile.redisNanos += nanos;
+            profile.redisCalls++;
+        }
+    }
+
+    /**
+     * 标记 Controller 方法执行结束，之后到请求结束的耗时计为响应序列化与写出。
+     *
+     * @param endpoint 接口标识，格式为 {@code 控制器.方法}
+     */
+    public static void markHandlerCompleted(String endpoint) {
+        Profile profile = CURRENT.get();
+        if (profile != null) {
+            profile.endpoint = endpoint;
+            profile.handlerCompletedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * 清理当前线程中的剖析上下文。
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 单次请求的阶段耗时，只在请求线程内读写。
+     */
+    public static class Profile {
+
+        private final long startedAt;
+        private String endpoint;
+        private long handlerCompletedAt;
+        private long dbNanos;
+        private int dbCalls;
+        private long redisNanos;
+        private int redisCalls;
+        private int redisDepth;
+        private final Map<String, StatementStats> statementStats = new HashMap<>();
+
+        private Profile(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * @return Controller 执行结束时刻；请求未进入 Controller 时为 0
+         */
+        public long getHandlerCompletedAt() {
+            return handlerCompletedAt;
+        }
+
+        public long getDbNanos() {
+            return dbNanos;
+        }
+
+        public int getDbCalls() {
+            return dbCalls;
+        }
+
+        public long getRedisNanos() {
+            return redisNanos;
+        }
+
+        public int getRedisCalls() {
+            return redisCalls;
+        }
+
+        /**
+         * @return 按 Mapper 语句 ID 汇总的执行次数与耗时
+         */
+        public Map<String, StatementStats> getStatementStats() {
+            return Collections.unmodifiableMap(statementStats);
+        }
+    }
+
+    /**
+     * 单条 Mapper 语句在一次请求内的执行汇总。
+     */
+    public static class StatementStats {
+
+        private int count;
+        private long nanos;
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
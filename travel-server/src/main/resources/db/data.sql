@@ -10,6 +10,8 @@ USE `waytrip_db`;
 SET NAMES utf8mb4;
 SET FOREIGN_KEY_CHECKS = 0;
 
+TRUNCATE TABLE `order_spot_stats`;
+TRUNCATE TABLE `order_daily_stats`;
 TRUNCATE TABLE `user_spot_view`;
 TRUNCATE TABLE `user_spot_review`;
 TRUNCATE TABLE `user_spot_favorite`;
@@ -426,3 +428,17 @@ VALUES
   (24, 'ORD202603220001', 1, 3, 2, 950.00, 3, '2026-04-05', '林舟', '13800000001', '2026-03-22 18:06:00', NULL, '2026-03-25 09:20:00', NULL, 0, '2026-03-22 18:00:00', '2026-03-25 09:20:00'),
   (25, 'ORD202603240001', 5, 12, 1, 230.00, 3, '2026-04-07', '江月', '13800000005', '2026-03-24 11:12:00', NULL, '2026-03-27 16:40:00', NULL, 0, '2026-03-24 11:05:00', '2026-03-27 16:40:00'),
   (26, 'ORD202603260001', 9, 11, 1, 150.00, 3, '2026-04-09', '阿曜', '13800000009', '2026-03-26 19:48:00', NULL, '2026-03-29 10:15:00', NULL, 0, '2026-03-26 19:40:00', '2026-03-29 10:15:00');
+
+-- 订单日汇总：演示订单导入后按统计口径回填（未取消订单计数，已支付与已退款计入收入）
+INSERT INTO `order_daily_stats` (`stat_date`, `spot_id`, `order_count`, `revenue`)
+SELECT DATE(`created_at`), `spot_id`, COUNT(*),
+       COALESCE(SUM(CASE WHEN `status` IN (1, 3) THEN `total_amount` ELSE 0 END), 0)
+FROM `order`
+WHERE `is_deleted` = 0 AND `status` <> 2
+GROUP BY DATE(`created_at`), `spot_id`;
+
+-- 订单景点累计汇总：由日汇总按景点合计
+INSERT INTO `order_spot_stats` (`spot_id`, `order_count`, `revenue`)
+SELECT `spot_id`, SUM(`order_count`), SUM(`revenue`)
+FROM `order_daily_stats`
+GROUP BY `spot_id`;
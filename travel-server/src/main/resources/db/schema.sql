@@ -15,6 +15,8 @@ SET NAMES utf8mb4;
 SET FOREIGN_KEY_CHECKS = 0;
 
 -- 按依赖逆序删除，确保脚本可重复执行
+DROP TABLE IF EXISTS `order_spot_stats`;
+DROP TABLE IF EXISTS `order_daily_stats`;
 DROP TABLE IF EXISTS `user_spot_view`;
 DROP TABLE IF EXISTS `user_spot_review`;
 DROP TABLE IF EXISTS `user_spot_favorite`;
@@ -205,7 +207,8 @@ CREATE TABLE `user_spot_favorite` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_user_spot_favorite` (`user_id`, `spot_id`),
   KEY `idx_user_spot_favorite_user_deleted_created` (`user_id`, `is_deleted`, `created_at`),
-  KEY `idx_user_spot_favorite_spot_deleted` (`spot_id`, `is_deleted`)
+  KEY `idx_user_spot_favorite_spot_deleted` (`spot_id`, `is_deleted`),
+  KEY `idx_user_spot_favorite_updated_at` (`updated_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='收藏表';
 
 CREATE TABLE `user_spot_review` (
@@ -221,6 +224,8 @@ CREATE TABLE `user_spot_review` (
   UNIQUE KEY `uk_user_spot_review` (`user_id`, `spot_id`),
   KEY `idx_user_spot_review_created_at` (`created_at`),
   KEY `idx_user_spot_review_spot_deleted_created` (`spot_id`, `is_deleted`, `created_at`),
+  KEY `idx_user_spot_review_updated_at` (`updated_at`),
+  KEY `idx_user_spot_review_user_deleted_created` (`user_id`, `is_deleted`, `created_at`),
   CONSTRAINT `chk_user_spot_review_score` CHECK (`score` BETWEEN 1 AND 5)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='评价表';
 
@@ -260,11 +265,31 @@ CREATE TABLE `order` (
   UNIQUE KEY `uk_order_order_no` (`order_no`),
   KEY `idx_order_spot_id` (`spot_id`),
   KEY `idx_order_status` (`status`),
-  KEY `idx_order_status_deleted_created` (`status`, `is_deleted`, `created_at`),
+  KEY `idx_order_status_deleted_created` (`status`, `is_deleted`, `created_at`, `total_amount`),
   KEY `idx_order_created_at` (`created_at`),
   KEY `idx_order_user_deleted_created` (`user_id`, `is_deleted`, `created_at`),
   KEY `idx_order_user_status_deleted` (`user_id`, `status`, `is_deleted`),
   KEY `idx_order_spot_status_deleted` (`spot_id`, `status`, `is_deleted`),
   KEY `idx_order_user_spot` (`user_id`, `spot_id`),
+  KEY `idx_order_updated_at` (`updated_at`),
   CONSTRAINT `chk_order_status` CHECK (`status` IN (0, 1, 2, 3, 4))
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
+
+CREATE TABLE `order_daily_stats` (
+  `stat_date` date NOT NULL COMMENT '下单日期',
+  `spot_id` bigint unsigned NOT NULL COMMENT '景点ID',
+  `order_count` int NOT NULL DEFAULT 0 COMMENT '未取消订单数',
+  `revenue` decimal(14,2) NOT NULL DEFAULT 0.00 COMMENT '计入收入口径的订单金额合计',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_date`, `spot_id`),
+  KEY `idx_order_daily_stats_spot` (`spot_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单日汇总表：按下单日期和景点增量维护，供仪表板统计';
+
+CREATE TABLE `order_spot_stats` (
+  `spot_id` bigint unsigned NOT NULL COMMENT '景点ID',
+  `order_count` int NOT NULL DEFAULT 0 COMMENT '未取消订单数',
+  `revenue` decimal(14,2) NOT NULL DEFAULT 0.00 COMMENT '计入收入口径的订单金额合计',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`spot_id`),
+  KEY `idx_order_spot_stats_count` (`order_count` DESC, `spot_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单景点累计汇总表：与日汇总同事务增量维护，供仪表板总量和热门景点读取';
@@ -0,0 +1,130 @@
+package com.travel.config.aspect;
+
+import com.travel.controller.app.AuthController;
+import com.travel.dto.auth.request.WebLoginRequest;
+import com.travel.util.web.RequestProfileHolder;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 接口请求日志切面测试，覆盖字段级脱敏和按接口记录的耗时指标。
+ */
+class ApiLogAspectTest {
+
+    private ApiLogProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ApiLogAspect apiLogAspect;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApiLogProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        apiLogAspect = new ApiLogAspect(properties, meterRegistry);
+        apiLogAspect.init();
+    }
+
+    @Test
+    void formatParams_masksSensitiveDtoFieldsMapKeysAndParamNames() {
+        WebLoginRequest loginRequest = new WebLoginRequest();
+        loginRequest.setPhone("13800138000");
+        loginRequest.setPassword("plain-password");
+        Map<String, Object> extra = new LinkedHashMap<>();
+        extra.put("accessToken", "raw-token");
+        extra.put("items", List.of(Map.of("wxCode", "raw-code")));
+        extra.put("nickname", "旅行者");
+
+        String params = apiLogAspect.formatParams(
+                new String[]{"request", "extra", "smsCode"},
+                new Object[]{loginRequest, extra, "123456"});
+
+        assertFalse(params.contains("plain-password"));
+        assertFalse(params.contains("raw-token"));
+        assertFalse(params.contains("raw-code"));
+        assertFalse(params.contains("123456"));
+        assertTrue(params.contains("13800138000"));
+        assertTrue(params.contains("旅行者"));
+        assertTrue(params.contains("\"password\":\"******\""));
+    }
+
+    @Test
+    void around_metricsModeWithZeroSampleRate_recordsTimerWithoutSerializingParams() throws Throwable {
+        properties.setMode(ApiLogProperties.Mode.METRICS);
+        properties.setParamSampleRate(0.0);
+        ProceedingJoinPoint joinPoint = joinPoint();
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        apiLogAspect.around(joinPoint);
+        apiLogAspect.around(joinPoint);
+
+        verify(joinPoint, never()).getArgs();
+        Timer timer = meterRegistry.get("waytrip.api.requests")
+                .tag("controller", "AuthController")
+                .tag("outcome", "success")
+                .timer();
+        assertEquals(2L, timer.count());
+    }
+
+    @Test
+    void around_recordsErrorOutcomeAndRethrows() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint();
+        when(joinPoint.getArgs()).thenReturn(new Object[]{null});
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> apiLogAspect.around(joinPoint));
+
+        assertEquals(1L, meterRegistry.get("waytrip.api.requests").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void around_publishesPercentilesAndMarksHandlerCompletion() throws Throwable {
+        properties.setMode(ApiLogProperties.Mode.METRICS);
+        properties.setParamSampleRate(0.0);
+        ProceedingJoinPoint joinPoint = joinPoint();
+        when(joinPoint.proceed()).thenReturn("ok");
+        RequestProfileHolder.Profile profile = RequestProfileHolder.start();
+        try {
+            apiLogAspect.around(joinPoint);
+        } finally {
+            RequestProfileHolder.clear();
+        }
+
+        String methodName = joinPoint.getSignature().getName();
+        assertEquals("AuthController." + methodName, profile.getEndpoint());
+        assertTrue(profile.getHandlerCompletedAt() > 0);
+        assertNotNull(meterRegistry.find("waytrip.api.requests.percentile")
+                .tag("controller", "AuthController")
+                .tag("phi", "0.99")
+                .gauge());
+    }
+
+    private ProceedingJoinPoint joinPoint() {
+        Method method = AuthController.class.getDeclaredMethods()[0];
+        MethodSignature signature = Mockito.mock(MethodSignature.class);
+        when(signature.getDeclaringType()).thenReturn(AuthController.class);
+        when(signature.getName()).thenReturn(method.getName());
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getParameterNames()).thenReturn(new String[]{"request"});
+        ProceedingJoinPoint joinPoint = Mockito.mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        return joinPoint;
+    }
+}
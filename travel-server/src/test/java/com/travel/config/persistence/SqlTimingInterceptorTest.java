@@ -0,0 +1,90 @@
+package com.travel.config.persistence;
+
+import com.travel.service.support.monitor.SqlStatementMonitorSupport;
+import com.travel.support.SqlStatementAssertions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.RoutingStatementHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.opentest4j.AssertionFailedError;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * SQL 计时插件测试，经由 MyBatis 插件代理执行语句，覆盖语句 ID 解析和请求内计数。
+ */
+class SqlTimingInterceptorTest {
+
+    private static final String SELECT_USER = "com.travel.mapper.UserMapper.selectById";
+    private static final String SELECT_USERS = "com.travel.mapper.UserMapper.selectBatchIds";
+
+    private Configuration configuration;
+    private SqlTimingInterceptor interceptor;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        configuration = new Configuration();
+        interceptor = new SqlTimingInterceptor(
+            new SqlStatementMonitorSupport(new SqlMonitorProperties(), new SimpleMeterRegistry()));
+        statement = Mockito.mock(PreparedStatement.class);
+        // 没有结果集且没有更多结果，结果处理器直接返回空列表。
+        when(statement.getUpdateCount()).thenReturn(-1);
+    }
+
+    @Test
+    void capture_countsPerRowLookupsThroughPluginProxy() {
+        Map<String, Integer> counts = SqlStatementAssertions.capture(() -> {
+            for (int i = 0; i < 5; i++) {
+                query(SELECT_USER);
+            }
+            query(SELECT_USERS);
+        });
+
+        assertEquals(5, counts.get(SELECT_USER));
+        assertEquals(1, counts.get(SELECT_USERS));
+        SqlStatementAssertions.assertExecutedAtMost(counts, SELECT_USERS, 1);
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> SqlStatementAssertions.assertNoRepeatedStatements(counts, 1));
+        assertTrue(error.getMessage().contains(SELECT_USER));
+    }
+
+    @Test
+    void capture_batchedLookupStaysWithinThreshold() {
+        Map<String, Integer> counts = SqlStatementAssertions.capture(() -> query(SELECT_USERS));
+
+        SqlStatementAssertions.assertNoRepeatedStatements(counts, 1);
+        SqlStatementAssertions.assertExecutedAtMost(counts, SELECT_USER, 0);
+    }
+
+    /**
+     * 构造与运行期一致的 RoutingStatementHandler，并通过插件代理执行一次查询。
+     */
+    private void query(String statementId) {
+        MappedStatement mappedStatement = new MappedStatement.Builder(
+            configuration, statementId, new StaticSqlSource(configuration, "SELECT 1"), SqlCommandType.SELECT).build();
+        StatementHandler handler = new RoutingStatementHandler(Mockito.mock(Executor.class), mappedStatement, null,
+            RowBounds.DEFAULT, null, mappedStatement.getBoundSql(null));
+        StatementHandler proxy = (StatementHandler) interceptor.plugin(handler);
+        try {
+            proxy.query(statement, null);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.travel.service.cache;
+
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
+import com.travel.dto.recommendation.cache.UserRecommendationCacheDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 推荐缓存二进制编解码测试，覆盖各类型往返、空值与边界 ID，以及损坏或旧格式的值按未命中处理。
+ */
+class RecommendationBinaryCodecTest {
+
+    private static final byte[] LEGACY_JSON = "[\"java.util.LinkedHashMap\",{\"101\":0.5}]".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void scores_roundTripKeepsOrderAndLargeIds() {
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        scores.put(Long.MAX_VALUE, 0.9);
+        scores.put(1L, 0.5);
+        scores.put(-7L, -0.25);
+        scores.put(300L, 0.0);
+
+        Map<Long, Double> decoded = RecommendationBinaryCodec.decodeScores(RecommendationBinaryCodec.encodeScores(scores));
+
+        assertEquals(List.of(Long.MAX_VALUE, 1L, -7L, 300L), new ArrayList<>(decoded.keySet()));
+        assertEquals(0.5, decoded.get(1L));
+        assertEquals(-0.25, decoded.get(-7L));
+        assertEquals(0.0, decoded.get(300L));
+    }
+
+    @Test
+    void scores_roundedToFloatPrecision() {
+        RecommendationBinaryCodec.ScoreEntries entries = RecommendationBinaryCodec.decodeScoreEntries(
+            RecommendationBinaryCodec.encodeScores(Map.of(101L, 0.123456789)));
+
+        assertEquals(1, entries.size());
+        assertEquals(101L, entries.ids()[0]);
+        assertEquals((double) 0.123456789f, entries.scores()[0]);
+        assertEquals(0.123456789, entries.scores()[0], 1e-7);
+    }
+
+    @Test
+    void scores_skipNullEntriesAndEncodeEmptyMap() {
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        scores.put(101L, null);
+        scores.put(null, 0.3);
+        scores.put(102L, 0.4);
+
+        Map<Long, Double> decoded = RecommendationBinaryCodec.decodeScores(RecommendationBinaryCodec.encodeScores(scores));
+
+        assertEquals(List.of(102L), new ArrayList<>(decoded.keySet()));
+        assertTrue(RecommendationBinaryCodec.decodeScores(RecommendationBinaryCodec.encodeScores(Map.of())).isEmpty());
+    }
+
+    @Test
+    void userRecommendation_roundTripKeepsFieldsAndNullItems() {
+        UserRecommendationCacheDTO cache = new UserRecommendationCacheDTO();
+        cache.setType("personalized");
+        cache.setNeedPreference(true);
+        cache.setGeneratedAt(1_790_000_000_000L);
+        cache.setItems(List.of(item(Long.MAX_VALUE, 0.75), item(null, 0.5), item(102L, null), item(103L, -1.5)));
+
+        UserRecommendationCacheDTO decoded = RecommendationBinaryCodec.decodeUserRecommendation(
+            RecommendationBinaryCodec.encodeUserRecommendation(cache));
+
+        assertEquals(cache, decoded);
+    }
+
+    @Test
+    void userRecommendation_absentFieldsStayNull() {
+        UserRecommendationCacheDTO cache = new UserRecommendationCacheDTO();
+        UserRecommendationCacheDTO falsePreference = new UserRecommendationCacheDTO();
+        falsePreference.setNeedPreference(false);
+        falsePreference.setType("");
+
+        UserRecommendationCacheDTO decoded = RecommendationBinaryCodec.decodeUserRecommendation(
+            RecommendationBinaryCodec.encodeUserRecommendation(cache));
+        UserRecommendationCacheDTO decodedFalse = RecommendationBinaryCodec.decodeUserRecommendation(
+            RecommendationBinaryCodec.encodeUserRecommendation(falsePreference));
+
+        assertNull(decoded.getType());
+        assertNull(decoded.getNeedPreference());
+        assertNull(decoded.getGeneratedAt());
+        assertEquals(List.of(), decoded.getItems());
+        assertEquals(Boolean.FALSE, decodedFalse.getNeedPreference());
+        assertEquals("", decodedFalse.getType());
+    }
+
+    @Test
+    void behaviorProfile_roundTripSharesSourceDictionaryAndKeepsNulls() {
+        UserBehaviorProfileCacheDTO profile = new UserBehaviorProfileCacheDTO();
+        profile.setGeneratedAt(1_790_000_000_000L);
+        profile.setViews(List.of(
+            view(101L, "search", 30),
+            view(102L, "推荐", -5),
+            view(103L, "search", null),
+            view(null, null, Integer.MIN_VALUE),
+            view(Long.MAX_VALUE, "推荐", Integer.MAX_VALUE)
+        ));
+        profile.setFavoriteSpotIds(Arrays.asList(101L, null, 1L << 40));
+        profile.setReviews(List.of(review(101L, 5), review(102L, null)));
+        profile.setOrders(List.of(order(103L, 0), order(null, -1)));
+
+        byte[] encoded = RecommendationBinaryCodec.encodeBehaviorProfile(profile);
+        UserBehaviorProfileCacheDTO decoded = RecommendationBinaryCodec.decodeBehaviorProfile(encoded);
+
+        assertEquals(profile, decoded);
+        // 重复来源只写一次字符串。
+        String raw = new String(encoded, StandardCharsets.ISO_8859_1);
+        assertEquals(raw.indexOf("search"), raw.lastIndexOf("search"));
+    }
+
+    @Test
+    void behaviorProfile_emptyAndNullListsDecodeAsEmpty() {
+        UserBehaviorProfileCacheDTO decoded = RecommendationBinaryCodec.decodeBehaviorProfile(
+            RecommendationBinaryCodec.encodeBehaviorProfile(new UserBehaviorProfileCacheDTO()));
+
+        assertNull(decoded.getGeneratedAt());
+        assertEquals(List.of(), decoded.getViews());
+        assertEquals(List.of(), decoded.getFavoriteSpotIds());
+        assertEquals(List.of(), decoded.getReviews());
+        assertEquals(List.of(), decoded.getOrders());
+    }
+
+    @Test
+    void decode_returnsNullForTruncatedBytes() {
+        byte[] scores = RecommendationBinaryCodec.encodeScores(Map.of(101L, 0.5, 1L << 40, 0.25));
+        UserRecommendationCacheDTO cache = new UserRecommendationCacheDTO();
+        cache.setType("hot");
+        cache.setItems(List.of(item(101L, 0.5)));
+        byte[] recommendation = RecommendationBinaryCodec.encodeUserRecommendation(cache);
+        UserBehaviorProfileCacheDTO profile = new UserBehaviorProfileCacheDTO();
+        profile.setViews(List.of(view(101L, "search", 30)));
+        profile.setOrders(List.of(order(102L, 1)));
+        byte[] behavior = RecommendationBinaryCodec.encodeBehaviorProfile(profile);
+
+        for (int length = 0; length < scores.length; length++) {
+            assertNull(RecommendationBinaryCodec.decodeScoreEntries(Arrays.copyOf(scores, length)), "长度 " + length);
+        }
+        for (int length = 0; length < recommendation.length; length++) {
+            assertNull(RecommendationBinaryCodec.decodeUserRecommendation(Arrays.copyOf(recommendation, length)), "长度 " + length);
+        }
+        for (int length = 0; length < behavior.length; length++) {
+            assertNull(RecommendationBinaryCodec.decodeBehaviorProfile(Arrays.copyOf(behavior, length)), "长度 " + length);
+        }
+    }
+
+    @Test
+    void decode_returnsNullForWrongMagicOrType() {
+        byte[] scores = RecommendationBinaryCodec.encodeScores(Map.of(101L, 0.5));
+        byte[] wrongMagic = scores.clone();
+        wrongMagic[0] = 0x00;
+
+        assertNull(RecommendationBinaryCodec.decodeScoreEntries(wrongMagic));
+        assertNull(RecommendationBinaryCodec.decodeUserRecommendation(scores));
+        assertNull(RecommendationBinaryCodec.decodeBehaviorProfile(scores));
+        assertNull(RecommendationBinaryCodec.decodeScoreEntries(
+            RecommendationBinaryCodec.encodeUserRecommendation(new UserRecommendationCacheDTO())));
+        assertNull(RecommendationBinaryCodec.decodeScoreEntries(null));
+    }
+
+    @Test
+    void decode_returnsNullForLegacyJson() {
+        assertNull(RecommendationBinaryCodec.decodeScoreEntries(LEGACY_JSON));
+        assertNull(RecommendationBinaryCodec.decodeUserRecommendation(
+            "{\"@class\":\"com.travel.dto.recommendation.cache.UserRecommendationCacheDTO\",\"type\":\"hot\"}"
+                .getBytes(StandardCharsets.UTF_8)));
+        assertNull(RecommendationBinaryCodec.decodeBehaviorProfile("{\"views\":[]}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void decode_returnsNullWhenCountExceedsRemainingBytes() {
+        byte[] corrupted = RecommendationBinaryCodec.encodeScores(Map.of(101L, 0.5));
+        // 元素个数改为一个远大于剩余字节数的值，不应按该值申请数组。
+        byte[] oversized = Arrays.copyOf(corrupted, corrupted.length + 4);
+        System.arraycopy(corrupted, 3, oversized, 7, corrupted.length - 3);
+        oversized[2] = (byte) 0xFF;
+        oversized[3] = (byte) 0xFF;
+        oversized[4] = (byte) 0xFF;
+        oversized[5] = (byte) 0xFF;
+        oversized[6] = 0x07;
+
+        assertNull(RecommendationBinaryCodec.decodeScoreEntries(oversized));
+        assertArrayEquals(new long[]{101L}, RecommendationBinaryCodec.decodeScoreEntries(corrupted).ids());
+    }
+
+    private UserRecommendationCacheDTO.CacheItem item(Long spotId, Double score) {
+        UserRecommendationCacheDTO.CacheItem item = new UserRecommendationCacheDTO.CacheItem();
+        item.setSpotId(spotId);
+        item.setScore(score);
+        return item;
+    }
+
+    private UserBehaviorProfileCacheDTO.ViewItem view(Long spotId, String source, Integer duration) {
+        UserBehaviorProfileCacheDTO.ViewItem view = new UserBehaviorProfileCacheDTO.ViewItem();
+        view.setSpotId(spotId);
+        view.setViewSource(source);
+        view.setViewDuration(duration);
+        return view;
+    }
+
+    private UserBehaviorProfileCacheDTO.ReviewItem review(Long spotId, Integer score) {
+        UserBehaviorProfileCacheDTO.ReviewItem review = new UserBehaviorProfileCacheDTO.ReviewItem();
+        review.setSpotId(spotId);
+        review.setScore(score);
+        return review;
+    }
+
+    private UserBehaviorProfileCacheDTO.OrderItem order(Long spotId, Integer status) {
+        UserBehaviorProfileCacheDTO.OrderItem order = new UserBehaviorProfileCacheDTO.OrderItem();
+        order.setSpotId(spotId);
+        order.setStatus(status);
+        return order;
+    }
+}
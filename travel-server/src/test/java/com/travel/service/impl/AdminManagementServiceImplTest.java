@@ -4,6 +4,7 @@ import com.travel.common.exception.BusinessException;
 import com.travel.common.result.ResultCode;
 import com.travel.entity.Admin;
 import com.travel.mapper.AdminMapper;
+import com.travel.service.support.auth.PrincipalStatusCacheSupport;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -15,6 +16,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -30,6 +32,9 @@ class AdminManagementServiceImplTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalStatusCacheSupport principalStatusCacheSupport;
+
     @InjectMocks
     private AdminManagementServiceImpl adminManagementService;
 
@@ -44,6 +49,7 @@ class AdminManagementServiceImplTest {
         adminManagementService.deleteAdmin(2L, 1L);
 
         verify(adminMapper).updateById(any(Admin.class));
+        verify(principalStatusCacheSupport).invalidateAdmin(2L);
     }
 
     @Test
@@ -52,5 +58,6 @@ class AdminManagementServiceImplTest {
             () -> adminManagementService.deleteAdmin(2L, 2L));
 
         assertEquals(ResultCode.ADMIN_SELF_OPERATION_FORBIDDEN.getCode(), ex.getCode());
+        verifyNoInteractions(principalStatusCacheSupport);
     }
 }
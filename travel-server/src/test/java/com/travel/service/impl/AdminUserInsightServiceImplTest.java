@@ -20,6 +20,7 @@ import com.travel.mapper.UserMapper;
 import com.travel.mapper.UserPreferenceMapper;
 import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
+import com.travel.service.RecommendationService;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.BeforeAll;
@@ -77,6 +78,9 @@ class AdminUserInsightServiceImplTest {
     @Mock
     private UserSpotViewMapper userSpotViewMapper;
 
+    @Mock
+    private RecommendationService recommendationService;
+
     @InjectMocks
     private AdminUserInsightServiceImpl service;
 
@@ -181,5 +185,18 @@ class AdminUserInsightServiceImplTest {
 
         assertEquals("已清除用户", result.getList().get(0).getNickname());
     }
-}
 
+    @Test
+    void deleteView_invalidatesRecommendationCacheOfViewOwner() {
+        UserSpotView view = new UserSpotView();
+        view.setId(5L);
+        view.setUserId(20L);
+        view.setSpotId(200L);
+        when(userSpotViewMapper.selectById(5L)).thenReturn(view);
+
+        service.deleteView(5L);
+
+        verify(userSpotViewMapper).deleteById(5L);
+        verify(recommendationService).invalidateUserRecommendationCache(20L);
+    }
+}
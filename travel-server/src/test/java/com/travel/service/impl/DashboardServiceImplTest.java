@@ -1,12 +1,27 @@
 package com.travel.service.impl;
 
+import com.travel.common.constant.ResourceDisplayText;
+import com.travel.common.exception.BusinessException;
+import com.travel.common.result.ResultCode;
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.dto.dashboard.response.DashboardOverviewResponse;
+import com.travel.dto.dashboard.response.HotSpotsResponse;
 import com.travel.dto.dashboard.response.OrderTrendResponse;
 import com.travel.dto.dashboard.response.OrderHeatmapResponse;
-import com.travel.entity.Order;
+import com.travel.dto.dashboard.stats.DailyCountStats;
+import com.travel.dto.dashboard.stats.DailyOrderStats;
+import com.travel.dto.dashboard.stats.SpotOrderRevenueStats;
+import com.travel.dto.dashboard.stats.WeekdayOrderStats;
+import com.travel.entity.Spot;
 import com.travel.enums.OrderStatus;
+import com.travel.mapper.OrderDailyStatsMapper;
 import com.travel.mapper.OrderMapper;
+import com.travel.mapper.OrderSpotStatsMapper;
 import com.travel.mapper.SpotMapper;
 import com.travel.mapper.UserMapper;
+import com.travel.service.support.dashboard.DashboardSnapshotSupport;
+import com.travel.service.support.order.OrderDailyStatsSupport;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,16 +30,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
  * 仪表盘趋势统计测试
- * 重点覆盖按星期聚合与按日期区间补齐两种展示口径。
+ * 重点覆盖按星期聚合与按日期区间补齐两种展示口径，订单数据均来自日汇总表。
  */
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceImplTest {
@@ -38,19 +63,44 @@ class DashboardServiceImplTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderDailyStatsMapper orderDailyStatsMapper;
+
+    @Mock
+    private OrderSpotStatsMapper orderSpotStatsMapper;
+
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
+    @Mock
+    private OrderDailyStatsSupport orderDailyStatsSupport;
+
+    private DashboardSnapshotSupport dashboardSnapshotSupport;
     private DashboardServiceImpl dashboardService;
 
     @BeforeEach
     void setUp() {
-        dashboardService = new DashboardServiceImpl(userMapper, spotMapper, orderMapper);
+        dashboardSnapshotSupport = new DashboardSnapshotSupport(new AppCacheProperties());
+        dashboardService = new DashboardServiceImpl(
+            userMapper,
+            spotMapper,
+            orderMapper,
+            orderDailyStatsMapper,
+            orderSpotStatsMapper,
+            spotCatalogSupport,
+            dashboardSnapshotSupport,
+            orderDailyStatsSupport
+        );
     }
 
     @Test
     void getOrderTrend_shouldAggregateByWeekday_whenModeIsWeekday() {
-        Order monday = buildOrder(1L, LocalDate.now().minusDays(45).with(java.time.temporal.TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY)).atTime(10, 0), "100.00");
-        Order sunday = buildOrder(2L, LocalDate.now().minusDays(12).with(java.time.temporal.TemporalAdjusters.previousOrSame(java.time.DayOfWeek.SUNDAY)).atTime(11, 0), "200.00");
+        // DAYOFWEEK 口径：2 为周一，1 为周日。
+        WeekdayOrderStats monday = buildWeekdayStats(2, 1L, "100.00");
+        WeekdayOrderStats sunday = buildWeekdayStats(1, 1L, "200.00");
 
-        when(orderMapper.selectList(any())).thenReturn(List.of(monday, sunday));
+        when(orderDailyStatsSupport.isReady()).thenReturn(true);
+        when(orderDailyStatsMapper.selectWeekdayTotals(isNull(), eq(LocalDate.now()))).thenReturn(List.of(monday, sunday));
 
         OrderTrendResponse response = dashboardService.getOrderTrend(0, "weekday");
 
@@ -66,9 +116,10 @@ class DashboardServiceImplTest {
     @Test
     void getOrderTrend_shouldFillMissingDates_whenModeIsRange() {
         LocalDate today = LocalDate.now();
-        Order todayOrder = buildOrder(1L, today.atTime(12, 0), "88.00");
+        DailyOrderStats todayStats = buildDailyStats(today, 1L, "88.00");
 
-        when(orderMapper.selectList(any())).thenReturn(List.of(todayOrder));
+        when(orderDailyStatsSupport.isReady()).thenReturn(true);
+        when(orderDailyStatsMapper.selectDailyTotals(today.minusDays(2), today)).thenReturn(List.of(todayStats));
 
         OrderTrendResponse response = dashboardService.getOrderTrend(3, "range");
 
@@ -84,10 +135,13 @@ class DashboardServiceImplTest {
     @Test
     void getOrderTrend_shouldStartFromEarliestOrder_whenRangeUsesAllTime() {
         LocalDate today = LocalDate.now();
-        Order oldestOrder = buildOrder(1L, today.minusDays(2).atTime(9, 0), "66.00");
-        Order latestOrder = buildOrder(2L, today.atTime(14, 0), "99.00");
+        // 订单全部取消的日期汇总行计数为 0，不应作为全量区间的起点。
+        DailyOrderStats cancelledOnly = buildDailyStats(today.minusDays(5), 0L, "0.00");
+        DailyOrderStats oldestStats = buildDailyStats(today.minusDays(2), 1L, "66.00");
+        DailyOrderStats latestStats = buildDailyStats(today, 1L, "99.00");
 
-        when(orderMapper.selectList(any())).thenReturn(List.of(oldestOrder, latestOrder));
+        when(orderDailyStatsSupport.isReady()).thenReturn(true);
+        when(orderDailyStatsMapper.selectDailyTotals(isNull(), eq(today))).thenReturn(List.of(cancelledOnly, oldestStats, latestStats));
 
         OrderTrendResponse response = dashboardService.getOrderTrend(0, "range");
 
@@ -100,10 +154,12 @@ class DashboardServiceImplTest {
 
     @Test
     void getOrderHeatmap_shouldFillWholeYear_whenSomeDatesHaveNoOrders() {
-        Order firstOrder = buildOrder(1L, LocalDate.of(2026, 1, 2).atTime(10, 0), "50.00");
-        Order secondOrder = buildOrder(2L, LocalDate.of(2026, 12, 31).atTime(15, 0), "70.00");
+        DailyOrderStats firstDay = buildDailyStats(LocalDate.of(2026, 1, 2), 1L, "50.00");
+        DailyOrderStats lastDay = buildDailyStats(LocalDate.of(2026, 12, 31), 1L, "70.00");
 
-        when(orderMapper.selectList(any())).thenReturn(List.of(firstOrder, secondOrder));
+        when(orderDailyStatsSupport.isReady()).thenReturn(true);
+        when(orderDailyStatsMapper.selectDailyTotals(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+            .thenReturn(List.of(firstDay, lastDay));
 
         OrderHeatmapResponse response = dashboardService.getOrderHeatmap(2026);
 
@@ -117,16 +173,166 @@ class DashboardServiceImplTest {
         assertEquals(1L, response.getList().get(364).getOrderCount());
     }
 
+    @Test
+    void getOrderHeatmap_shouldAggregateOnOrderTable_whenRollupIsNotBackfilledYet() {
+        DailyOrderStats firstDay = buildDailyStats(LocalDate.of(2026, 3, 1), 4L, "400.00");
+
+        when(orderDailyStatsSupport.isReady()).thenReturn(false);
+        when(orderMapper.selectDailyOrderStats(
+            LocalDate.of(2026, 1, 1).atStartOfDay(),
+            LocalDate.of(2027, 1, 1).atStartOfDay(),
+            OrderStatus.activeCodes(),
+            OrderStatus.revenueCodes()
+        )).thenReturn(List.of(firstDay));
+
+        OrderHeatmapResponse response = dashboardService.getOrderHeatmap(2026);
+
+        assertEquals(365, response.getList().size());
+        assertEquals("2026-03-01", response.getList().get(59).getDate());
+        assertEquals(4L, response.getList().get(59).getOrderCount());
+        verify(orderDailyStatsMapper, never()).selectDailyTotals(any(), any());
+        verify(orderMapper, never()).selectList(any());
+    }
+
+    @Test
+    void getOverview_shouldReadOrderMetricsFromDailyRollup() {
+        LocalDate today = LocalDate.now();
+        DailyOrderStats totals = buildDailyStats(null, 120L, "9800.00");
+        when(userMapper.selectCount(any())).thenReturn(50L);
+        when(spotMapper.selectCount(any())).thenReturn(20L);
+        when(orderSpotStatsMapper.selectTotals()).thenReturn(totals);
+        when(orderDailyStatsMapper.selectDailyTotals(today.minusDays(9), today)).thenReturn(List.of(
+            buildDailyStats(today.minusDays(9), 2L, "200.00"),
+            buildDailyStats(today.minusDays(1), 3L, "300.00"),
+            buildDailyStats(today, 4L, null)
+        ));
+        when(userMapper.selectDailyNewUserCounts(today.minusDays(9).atStartOfDay()))
+            .thenReturn(List.of(buildDailyCount(today, 6L)));
+        when(spotMapper.selectDailyNewSpotCounts(today.minusDays(9).atStartOfDay()))
+            .thenReturn(List.of(buildDailyCount(today.minusDays(1), 1L)));
+
+        DashboardOverviewResponse response = dashboardService.getOverview();
+
+        assertEquals(120L, response.getTotalOrders());
+        assertEquals(new BigDecimal("9800.00"), response.getTotalRevenue());
+        assertEquals(4L, response.getTodayOrders());
+        assertEquals(BigDecimal.ZERO, response.getTodayRevenue());
+        assertEquals(3L, response.getYesterdayOrders());
+        assertEquals(new BigDecimal("300.00"), response.getYesterdayRevenue());
+        assertEquals(6L, response.getTodayNewUsers());
+        assertEquals(0L, response.getYesterdayNewUsers());
+        assertEquals(0L, response.getTodayNewSpots());
+        assertEquals(1L, response.getYesterdayNewSpots());
+        assertEquals(10, response.getRecentOrderSeries().size());
+        assertEquals(2L, response.getRecentOrderSeries().get(0));
+        assertEquals(0L, response.getRecentOrderSeries().get(1));
+    }
+
+    @Test
+    void getHotSpots_shouldUseRollupRanking_andHideUnpublishedSpotNames() {
+        SpotOrderRevenueStats first = buildSpotStats(1L, 8L, "800.00");
+        SpotOrderRevenueStats second = buildSpotStats(2L, 5L, "500.00");
+        Spot published = buildSpot(1L, "西湖", 1, new BigDecimal("4.8"));
+        Spot unpublished = buildSpot(2L, "下架景点", 0, new BigDecimal("4.1"));
+        // 快照按预算条数一次取出，请求条数再从快照截取。
+        when(orderSpotStatsMapper.selectTopSpots(50)).thenReturn(List.of(first, second));
+        when(spotCatalogSupport.getSpots(anyCollection())).thenReturn(List.of(published, unpublished));
+
+        HotSpotsResponse response = dashboardService.getHotSpots(2);
+
+        assertEquals(2, response.getList().size());
+        assertEquals("西湖", response.getList().get(0).getName());
+        assertEquals(8L, response.getList().get(0).getOrderCount());
+        assertEquals(new BigDecimal("4.8"), response.getList().get(0).getAvgRating());
+        assertEquals(ResourceDisplayText.Spot.UNKNOWN, response.getList().get(1).getName());
+        assertEquals(BigDecimal.ZERO, response.getList().get(1).getAvgRating());
+        assertNotNull(response.getGeneratedAt());
+
+        HotSpotsResponse top1 = dashboardService.getHotSpots(1);
+
+        assertEquals(1, top1.getList().size());
+        assertEquals(response.getGeneratedAt(), top1.getGeneratedAt());
+        // 响应列表是快照的副本，修改它不能影响后续请求。
+        top1.getList().clear();
+        assertEquals(2, dashboardService.getHotSpots(2).getList().size());
+        verify(orderSpotStatsMapper, times(1)).selectTopSpots(50);
+    }
+
+    @Test
+    void getOverview_shouldServeRepeatedPollsFromSnapshot() {
+        when(orderSpotStatsMapper.selectTotals()).thenReturn(buildDailyStats(null, 10L, "100.00"));
+
+        DashboardOverviewResponse first = dashboardService.getOverview();
+        DashboardOverviewResponse second = dashboardService.getOverview();
+
+        assertSame(first, second);
+        assertNotNull(first.getGeneratedAt());
+        verify(orderSpotStatsMapper, times(1)).selectTotals();
+        verify(userMapper, times(1)).selectCount(any());
+    }
+
+    @Test
+    void refreshSnapshotIfActive_shouldSkipWhenNobodyIsWatching() {
+        assertFalse(dashboardService.refreshSnapshotIfActive());
+        verify(orderSpotStatsMapper, never()).selectTotals();
+
+        dashboardService.getOverview();
+
+        assertTrue(dashboardService.refreshSnapshotIfActive());
+        verify(orderSpotStatsMapper, times(2)).selectTotals();
+    }
+
+    @Test
+    void refreshSnapshotManually_shouldRejectRefreshWithinMinInterval() {
+        dashboardService.refreshSnapshotManually();
+
+        BusinessException exception = assertThrows(BusinessException.class, dashboardService::refreshSnapshotManually);
+
+        assertEquals(ResultCode.REQUEST_TOO_FREQUENT.getCode(), exception.getCode());
+        verify(orderSpotStatsMapper, times(1)).selectTotals();
+    }
+
     /**
-     * 构造满足统计口径的有效订单夹具，便于聚焦趋势聚合逻辑。
+     * 构造日汇总夹具，便于聚焦趋势聚合逻辑。
      */
-    private Order buildOrder(Long id, LocalDateTime createdAt, String amount) {
-        Order order = new Order();
-        order.setId(id);
-        order.setCreatedAt(createdAt);
-        order.setStatus(OrderStatus.PAID.getCode());
-        order.setTotalAmount(new BigDecimal(amount));
-        order.setIsDeleted(0);
-        return order;
+    private DailyOrderStats buildDailyStats(LocalDate statDate, Long orderCount, String revenue) {
+        DailyOrderStats stats = new DailyOrderStats();
+        stats.setStatDate(statDate);
+        stats.setOrderCount(orderCount);
+        stats.setRevenue(revenue == null ? null : new BigDecimal(revenue));
+        return stats;
+    }
+
+    private WeekdayOrderStats buildWeekdayStats(Integer dayOfWeek, Long orderCount, String revenue) {
+        WeekdayOrderStats stats = new WeekdayOrderStats();
+        stats.setDayOfWeek(dayOfWeek);
+        stats.setOrderCount(orderCount);
+        stats.setRevenue(new BigDecimal(revenue));
+        return stats;
+    }
+
+    private DailyCountStats buildDailyCount(LocalDate statDate, Long total) {
+        DailyCountStats stats = new DailyCountStats();
+        stats.setStatDate(statDate);
+        stats.setTotal(total);
+        return stats;
+    }
+
+    private SpotOrderRevenueStats buildSpotStats(Long spotId, Long orderCount, String revenue) {
+        SpotOrderRevenueStats stats = new SpotOrderRevenueStats();
+        stats.setSpotId(spotId);
+        stats.setOrderCount(orderCount);
+        stats.setRevenue(new BigDecimal(revenue));
+        return stats;
+    }
+
+    private Spot buildSpot(Long id, String name, Integer isPublished, BigDecimal avgRating) {
+        Spot spot = new Spot();
+        spot.setId(id);
+        spot.setName(name);
+        spot.setIsPublished(isPublished);
+        spot.setIsDeleted(0);
+        spot.setAvgRating(avgRating);
+        return spot;
     }
 }
@@ -1,5 +1,7 @@
 package com.travel.service.impl;
 
+import com.travel.common.result.PageCursor;
+import com.travel.config.cache.AppCacheProperties;
 import com.travel.dto.order.request.CreateOrderRequest;
 import com.travel.dto.order.request.AdminOrderListRequest;
 import com.travel.dto.order.response.AdminOrderListResponse;
@@ -8,17 +10,24 @@ import com.travel.entity.Spot;
 import com.travel.entity.User;
 import com.travel.enums.OrderStatus;
 import com.travel.mapper.OrderMapper;
+import com.travel.mapper.SpotCategoryMapper;
 import com.travel.mapper.SpotMapper;
+import com.travel.mapper.SpotRegionMapper;
 import com.travel.mapper.UserMapper;
 import com.travel.service.RecommendationService;
+import com.travel.service.cache.RecommendationCacheService;
+import com.travel.service.support.order.OrderDailyStatsSupport;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
+import com.travel.support.SqlStatementAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,6 +40,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -53,7 +63,18 @@ class OrderServiceImplTest {
     @Mock
     private RecommendationService recommendationService;
 
-    @InjectMocks
+    @Mock
+    private SpotCategoryMapper spotCategoryMapper;
+
+    @Mock
+    private SpotRegionMapper spotRegionMapper;
+
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
+
+    @Mock
+    private OrderDailyStatsSupport orderDailyStatsSupport;
+
     private OrderServiceImpl orderService;
 
     private Spot spot;
@@ -62,8 +83,22 @@ class OrderServiceImplTest {
     /**
      * 构建基础景点夹具，供订单响应断言使用。
      */
+    private SpotHeatCounterSupport spotHeatCounterSupport;
+
     @BeforeEach
     void setUp() {
+        spotHeatCounterSupport = new SpotHeatCounterSupport();
+        // 目录快照为空时按 ID 回退数据库查询，景点补齐仍然落在 spotMapper 的桩上。
+        orderService = new OrderServiceImpl(
+            orderMapper,
+            spotMapper,
+            userMapper,
+            recommendationService,
+            new SpotCatalogSupport(spotMapper, spotCategoryMapper, spotRegionMapper, recommendationCacheService, new AppCacheProperties()),
+            spotHeatCounterSupport,
+            orderDailyStatsSupport
+        );
+
         spot = new Spot();
         spot.setId(100L);
         spot.setName("西湖");
@@ -81,7 +116,7 @@ class OrderServiceImplTest {
         Order order = buildOrder(OrderStatus.PAID);
         when(userMapper.selectById(1L)).thenReturn(user);
         when(orderMapper.selectOne(any())).thenReturn(order);
-        when(orderMapper.updateById(order)).thenReturn(1);
+        when(orderMapper.update(any(), any())).thenReturn(1);
         when(spotMapper.selectById(order.getSpotId())).thenReturn(spot);
 
         var response = orderService.cancelOrder(1L, order.getId());
@@ -91,7 +126,14 @@ class OrderServiceImplTest {
         assertNotNull(response.getCancelledAt());
         assertFalse(response.getCanPay());
         assertFalse(response.getCanCancel());
-        verify(orderMapper).updateById(order);
+        verify(orderMapper).update(any(), any());
+        // 已支付订单取消后要撤回一次支付热度。
+        var deltas = spotHeatCounterSupport.drain();
+        assertEquals(1, deltas.size());
+        assertEquals(order.getSpotId(), deltas.get(0).getSpotId());
+        assertEquals(-1L, deltas.get(0).getPaidOrderCount());
+        // 日汇总按流转前后口径差值维护，已支付订单取消后同时扣减订单数和收入。
+        verify(orderDailyStatsSupport).recordTransition(order, OrderStatus.PAID.getCode(), OrderStatus.CANCELLED.getCode());
     }
 
     @Test
@@ -107,6 +149,7 @@ class OrderServiceImplTest {
         assertEquals("cancelled", response.getStatus());
         assertNotNull(response.getCancelledAt());
         assertFalse(response.getCanCancel());
+        assertEquals(0, spotHeatCounterSupport.pendingSpotCount());
     }
 
     @Test
@@ -134,6 +177,10 @@ class OrderServiceImplTest {
         assertNull(response.getCompletedAt());
         assertFalse(response.getCanPay());
         assertTrue(response.getCanCancel());
+        var deltas = spotHeatCounterSupport.drain();
+        assertEquals(1, deltas.size());
+        assertEquals(-1L, deltas.get(0).getCompletedOrderCount());
+        assertEquals(0L, deltas.get(0).getPaidOrderCount());
     }
 
     @Test
@@ -142,7 +189,7 @@ class OrderServiceImplTest {
         order.setCreatedAt(LocalDateTime.now().minusMinutes(6));
         when(userMapper.selectById(1L)).thenReturn(user);
         when(orderMapper.selectOne(any())).thenReturn(order);
-        when(orderMapper.updateById(order)).thenReturn(1);
+        when(orderMapper.update(any(), any())).thenReturn(1);
         when(spotMapper.selectById(order.getSpotId())).thenReturn(spot);
 
         var response = orderService.getOrderDetail(1L, order.getId());
@@ -151,7 +198,7 @@ class OrderServiceImplTest {
         assertEquals("已取消", response.getStatusText());
         assertNotNull(response.getCancelledAt());
         assertFalse(response.getCanPay());
-        verify(orderMapper).updateById(order);
+        verify(orderMapper).update(any(), any());
     }
 
     @Test
@@ -170,7 +217,7 @@ class OrderServiceImplTest {
 
         when(userMapper.selectById(1L)).thenReturn(user);
         when(orderMapper.selectPage(any(), any())).thenReturn(page);
-        when(orderMapper.updateById(timeoutOrder)).thenReturn(1);
+        when(orderMapper.update(any(), any())).thenReturn(1);
         when(spotMapper.selectBatchIds(any())).thenReturn(List.of(spot));
 
         var response = orderService.getUserOrders(1L, new com.travel.dto.order.request.OrderListRequest());
@@ -178,8 +225,34 @@ class OrderServiceImplTest {
         assertEquals(2, response.getList().size());
         assertEquals("cancelled", response.getList().get(0).getStatus());
         assertEquals("pending", response.getList().get(1).getStatus());
-        verify(orderMapper).updateById(timeoutOrder);
-        verify(orderMapper, never()).updateById(freshOrder);
+        // 只有超时订单触发条件更新，未超时订单保持原样。
+        verify(orderMapper, times(1)).update(any(), any());
+    }
+
+    @Test
+    void getUserOrders_usesKeysetQueryWithoutCount_whenCursorModeRequested() {
+        Order newer = buildOrder(OrderStatus.PAID);
+        Order older = buildOrder(OrderStatus.PAID);
+        older.setId(9L);
+        older.setCreatedAt(newer.getCreatedAt().minusMinutes(1));
+        Order extra = buildOrder(OrderStatus.PAID);
+        extra.setId(8L);
+        extra.setCreatedAt(newer.getCreatedAt().minusMinutes(2));
+
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(orderMapper.selectList(any())).thenReturn(List.of(newer, older, extra));
+        when(spotMapper.selectBatchIds(any())).thenReturn(List.of(spot));
+
+        var request = new com.travel.dto.order.request.OrderListRequest();
+        request.setCursor("");
+        request.setPageSize(2);
+        var response = orderService.getUserOrders(1L, request);
+
+        assertEquals(2, response.getList().size());
+        assertTrue(response.getHasMore());
+        assertNull(response.getTotal());
+        assertEquals(new PageCursor(older.getCreatedAt(), 9L), PageCursor.decode(response.getNextCursor()));
+        verify(orderMapper, never()).selectPage(any(), any());
     }
 
     @Test
@@ -188,12 +261,50 @@ class OrderServiceImplTest {
         order.setCreatedAt(LocalDateTime.now().minusMinutes(6));
         when(userMapper.selectById(1L)).thenReturn(user);
         when(orderMapper.selectOne(any())).thenReturn(order);
-        when(orderMapper.updateById(order)).thenReturn(1);
+        when(orderMapper.update(any(), any())).thenReturn(1);
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> orderService.payOrder(1L, order.getId(), "idem-1"));
 
         assertEquals("订单已超时，已自动取消", ex.getMessage());
-        verify(orderMapper).updateById(order);
+        verify(orderMapper).update(any(), any());
+    }
+
+    @Test
+    void getOrderDetail_skipsStatsWhenTimeoutAlreadyCancelledConcurrently() {
+        Order order = buildOrder(OrderStatus.PENDING);
+        order.setCreatedAt(LocalDateTime.now().minusMinutes(6));
+        Order latest = buildOrder(OrderStatus.CANCELLED);
+        latest.setCancelledAt(LocalDateTime.now().minusSeconds(1));
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(orderMapper.selectOne(any())).thenReturn(order);
+        when(orderMapper.update(any(), any())).thenReturn(0);
+        when(orderMapper.selectById(order.getId())).thenReturn(latest);
+        when(spotMapper.selectById(order.getSpotId())).thenReturn(spot);
+
+        var response = orderService.getOrderDetail(1L, order.getId());
+
+        assertEquals("cancelled", response.getStatus());
+        assertEquals(latest.getCancelledAt(), order.getCancelledAt());
+        // 超时任务已经记过这次取消，本次查询不能再扣减一次日汇总。
+        verify(orderDailyStatsSupport, never()).recordTransition(any(), any(), any());
+    }
+
+    @Test
+    void payOrder_skipsStatsWhenOrderCancelledConcurrently() {
+        Order order = buildOrder(OrderStatus.PENDING);
+        order.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        Order latest = buildOrder(OrderStatus.CANCELLED);
+        latest.setCancelledAt(LocalDateTime.now());
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(orderMapper.selectOne(any())).thenReturn(order);
+        when(orderMapper.update(any(), any())).thenReturn(0);
+        when(orderMapper.selectById(order.getId())).thenReturn(latest);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> orderService.payOrder(1L, order.getId(), "idem-race"));
+
+        assertEquals("订单已超时，已自动取消", ex.getMessage());
+        verify(orderDailyStatsSupport, never()).recordTransition(any(), any(), any());
+        assertTrue(spotHeatCounterSupport.drain().isEmpty());
     }
 
     @Test
@@ -202,14 +313,14 @@ class OrderServiceImplTest {
         order.setCreatedAt(LocalDateTime.now().minusMinutes(5));
         when(userMapper.selectById(1L)).thenReturn(user);
         when(orderMapper.selectOne(any())).thenReturn(order);
-        when(orderMapper.updateById(order)).thenReturn(1);
+        when(orderMapper.update(any(), any())).thenReturn(1);
         when(spotMapper.selectById(order.getSpotId())).thenReturn(spot);
 
         var response = orderService.getOrderDetail(1L, order.getId());
 
         assertEquals("cancelled", response.getStatus());
         assertNotNull(response.getCancelledAt());
-        verify(orderMapper).updateById(order);
+        verify(orderMapper).update(any(), any());
     }
 
     @Test
@@ -223,14 +334,14 @@ class OrderServiceImplTest {
 
         assertEquals("paid", response.getStatus());
         assertNotNull(response.getPaidAt());
-        verify(orderMapper, never()).updateById(order);
+        verify(orderMapper, never()).update(any(), any());
     }
 
     @Test
     void refundOrder_marksPaidOrderAsRefunded() {
         Order order = buildOrder(OrderStatus.PAID);
         when(orderMapper.selectById(order.getId())).thenReturn(order);
-        when(orderMapper.updateById(order)).thenReturn(1);
+        when(orderMapper.update(any(), any())).thenReturn(1);
         when(spotMapper.selectById(order.getSpotId())).thenReturn(spot);
 
         var response = orderService.refundOrder(order.getId());
@@ -240,7 +351,8 @@ class OrderServiceImplTest {
         assertNotNull(response.getRefundedAt());
         assertFalse(response.getCanPay());
         assertFalse(response.getCanCancel());
-        verify(orderMapper).updateById(order);
+        verify(orderMapper).update(any(), any());
+        verify(orderDailyStatsSupport).recordTransition(order, OrderStatus.PAID.getCode(), OrderStatus.REFUNDED.getCode());
     }
 
     @Test
@@ -311,7 +423,7 @@ class OrderServiceImplTest {
 
         when(orderMapper.selectPage(any(), any())).thenReturn(page);
         when(spotMapper.selectBatchIds(any())).thenReturn(List.of(spot));
-        when(userMapper.selectById(1L)).thenReturn(deletedUser);
+        when(userMapper.selectBatchIds(any())).thenReturn(List.of(deletedUser));
 
         AdminOrderListRequest request = new AdminOrderListRequest();
         request.setPage(1);
@@ -334,7 +446,7 @@ class OrderServiceImplTest {
 
         when(orderMapper.selectPage(any(), any())).thenReturn(page);
         when(spotMapper.selectBatchIds(any())).thenReturn(List.of(spot));
-        when(userMapper.selectById(1L)).thenReturn(null);
+        when(userMapper.selectBatchIds(any())).thenReturn(List.of());
 
         AdminOrderListRequest request = new AdminOrderListRequest();
         request.setPage(1);
@@ -346,6 +458,44 @@ class OrderServiceImplTest {
         assertEquals("已清除用户", response.getList().get(0).getUserNickname());
     }
 
+    @Test
+    void getAdminOrders_resolvesUsersAndSpotsWithConstantQueries_regardlessOfPageSize() {
+        for (int pageSize : new int[]{1, 20, 100}) {
+            org.mockito.Mockito.clearInvocations(userMapper, spotMapper);
+            List<Order> records = new ArrayList<>();
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                Order order = buildOrder(OrderStatus.PAID);
+                order.setId(1000L + i);
+                order.setUserId(2000L + i);
+                records.add(order);
+                User pageUser = new User();
+                pageUser.setId(2000L + i);
+                pageUser.setNickname("用户" + i);
+                pageUser.setIsDeleted(0);
+                users.add(pageUser);
+            }
+            com.baomidou.mybatisplus.extension.plugins.pagination.Page<Order> page =
+                    new com.baomidou.mybatisplus.extension.plugins.pagination.Page<>(1, pageSize);
+            page.setRecords(records);
+            page.setTotal(pageSize);
+            when(orderMapper.selectPage(any(), any())).thenReturn(page);
+            when(spotMapper.selectBatchIds(any())).thenReturn(List.of(spot));
+            when(userMapper.selectBatchIds(any())).thenReturn(users);
+
+            AdminOrderListRequest request = new AdminOrderListRequest();
+            request.setPage(1);
+            request.setPageSize(pageSize);
+
+            AdminOrderListResponse response = orderService.getAdminOrders(request);
+
+            assertEquals(pageSize, response.getList().size());
+            assertEquals("用户" + (pageSize - 1), response.getList().get(pageSize - 1).getUserNickname());
+            // 逐行查询下单用户或景点时，同一语句会随页大小增长并在这里失败。
+            SqlStatementAssertions.assertNoRepeatedMapperCalls(1, userMapper, spotMapper);
+        }
+    }
+
     /**
      * 按指定状态构造订单夹具。
      */
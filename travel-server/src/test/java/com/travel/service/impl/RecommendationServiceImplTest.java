@@ -1,7 +1,9 @@
 package com.travel.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.travel.config.cache.AppCacheProperties;
 import com.travel.dto.home.response.HotSpotResponse;
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
 import com.travel.dto.recommendation.cache.UserRecommendationCacheDTO;
 import com.travel.dto.recommendation.config.RecommendationCacheConfigDTO;
 import com.travel.dto.recommendation.config.RecommendationAlgorithmConfigDTO;
@@ -28,31 +30,50 @@ import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.cache.RecommendationCacheService;
 import com.travel.service.support.recommendation.RecommendationConfigSupport;
+import com.travel.service.support.recommendation.RecommendationCooccurrenceEngine;
+import com.travel.service.support.recommendation.RecommendationBehaviorProfileSupport;
 import com.travel.service.support.recommendation.RecommendationColdStartSupport;
+import com.travel.service.support.recommendation.RecommendationIncrementalSimilaritySupport;
+import com.travel.service.support.recommendation.RecommendationInteractionStreamLoader;
 import com.travel.service.support.recommendation.RecommendationQuerySupport;
 import com.travel.service.support.recommendation.RecommendationScoreSupport;
+import com.travel.service.support.recommendation.RecommendationSimilarityNearCache;
 import com.travel.service.support.recommendation.RecommendationSimilaritySupport;
 import com.travel.service.support.recommendation.RecommendationViewSourceClassifier;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -114,26 +135,37 @@ class RecommendationServiceImplTest {
 
     private RecommendationServiceImpl recommendationService;
 
+    private RecommendationBehaviorProfileSupport recommendationBehaviorProfileSupport;
+
+    private RecommendationIncrementalSimilaritySupport recommendationIncrementalSimilaritySupport;
+
     /**
      * 构建推荐服务测试对象及其缓存依赖。
      */
     @BeforeEach
     void setUp() {
-        RecommendationQuerySupport recommendationQuerySupport = new RecommendationQuerySupport(
+        // 测试中的目录快照为空，景点查询会回退到 spotMapper 的批量查询桩。
+        SpotCatalogSupport spotCatalogSupport = new SpotCatalogSupport(
             spotMapper,
             categoryMapper,
-            spotRegionMapper
+            spotRegionMapper,
+            recommendationCacheService,
+            new AppCacheProperties()
         );
+        RecommendationQuerySupport recommendationQuerySupport = new RecommendationQuerySupport(spotCatalogSupport);
         RecommendationConfigSupport recommendationConfigSupport = new RecommendationConfigSupport(recommendationCacheService);
         RecommendationViewSourceClassifier recommendationViewSourceClassifier = new RecommendationViewSourceClassifier();
         RecommendationScoreSupport recommendationScoreSupport = new RecommendationScoreSupport(
-            spotMapper,
+            spotCatalogSupport,
+            recommendationQuerySupport,
+            recommendationViewSourceClassifier
+        );
+        RecommendationInteractionStreamLoader recommendationInteractionStreamLoader = new RecommendationInteractionStreamLoader(
             userSpotViewMapper,
             userSpotFavoriteMapper,
             reviewMapper,
             orderMapper,
-            recommendationQuerySupport,
-            recommendationViewSourceClassifier
+            recommendationScoreSupport
         );
         RecommendationSimilaritySupport recommendationSimilaritySupport = new RecommendationSimilaritySupport(
             spotMapper,
@@ -143,13 +175,31 @@ class RecommendationServiceImplTest {
             orderMapper,
             recommendationCacheService,
             recommendationQuerySupport,
-            recommendationScoreSupport
+            recommendationScoreSupport,
+            new RecommendationCooccurrenceEngine(),
+            recommendationInteractionStreamLoader,
+            new RecommendationSimilarityNearCache(recommendationCacheService, new AppCacheProperties())
+        );
+        recommendationBehaviorProfileSupport = new RecommendationBehaviorProfileSupport(
+            userSpotViewMapper,
+            userSpotFavoriteMapper,
+            reviewMapper,
+            orderMapper,
+            recommendationCacheService,
+            new AppCacheProperties()
         );
         RecommendationColdStartSupport recommendationColdStartSupport = new RecommendationColdStartSupport(
             spotMapper,
             userPreferenceMapper
         );
 
+        recommendationIncrementalSimilaritySupport = new RecommendationIncrementalSimilaritySupport(
+            recommendationSimilaritySupport,
+            recommendationInteractionStreamLoader,
+            recommendationCacheService,
+            recommendationScoreSupport
+        );
+
         recommendationService = new RecommendationServiceImpl(
             spotMapper,
             reviewMapper,
@@ -165,7 +215,9 @@ class RecommendationServiceImplTest {
             recommendationConfigSupport,
             recommendationSimilaritySupport,
             recommendationScoreSupport,
-            recommendationColdStartSupport
+            recommendationColdStartSupport,
+            recommendationIncrementalSimilaritySupport,
+            recommendationBehaviorProfileSupport
         );
     }
 
@@ -204,7 +256,7 @@ class RecommendationServiceImplTest {
         Map<Long, Double> weights = (Map<Long, Double>) ReflectionTestUtils.invokeMethod(
             recommendationService,
             "buildUserInteractionWeights",
-            1L,
+            recommendationBehaviorProfileSupport.load(1L),
             config
         );
 
@@ -212,6 +264,35 @@ class RecommendationServiceImplTest {
         assertEquals(6.6, weights.get(100L), 0.0001);
     }
 
+    @Test
+    void recomputeRecommendations_reusesCachedBehaviorProfile() {
+        UserBehaviorProfileCacheDTO profile = new UserBehaviorProfileCacheDTO();
+        profile.setViews(List.of());
+        profile.setFavoriteSpotIds(List.of());
+        profile.setReviews(List.of());
+        profile.setOrders(List.of());
+
+        when(recommendationCacheService.loadConfig()).thenReturn(defaultCacheConfig());
+        when(recommendationCacheService.getBehaviorProfile(4L)).thenReturn(profile);
+        when(userPreferenceMapper.selectList(any())).thenReturn(List.of());
+        when(recommendationCacheService.getHomeHotSpots(2)).thenReturn(null);
+        when(spotMapper.selectList(any())).thenReturn(List.of(buildSpot(701L, "重算景点", 10L)));
+
+        RecommendationResponse response = recommendationService.recomputeRecommendations(4L, 2);
+
+        assertEquals("hot", response.getType());
+        verifyNoInteractions(userSpotViewMapper, userSpotFavoriteMapper, reviewMapper, orderMapper);
+        verify(recommendationCacheService, never()).saveBehaviorProfile(any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void invalidateUserRecommendationCache_evictsBehaviorProfile() {
+        recommendationService.invalidateUserRecommendationCache(7L);
+
+        verify(recommendationCacheService).deleteBehaviorProfile(7L);
+        verify(recommendationCacheService).deleteUserRecommendation(7L);
+    }
+
     @Test
     void handleColdStart_fallsBackToHotWhenPreferredCategoriesHaveNoSpots() {
         UserPreference preference = new UserPreference();
@@ -330,6 +411,30 @@ class RecommendationServiceImplTest {
         assertNull(response.getList().get(0).getScore());
     }
 
+    @Test
+    void getRecommendations_enrichesFromSpotCatalog_withoutPerRequestQueries() {
+        Spot publishedSpot = buildSpot(451L, "目录景点", 10L);
+
+        when(recommendationCacheService.getUserRecommendation(4L)).thenReturn(buildCachedRecommendation(
+            "personalized",
+            false,
+            List.of(cacheItem(451L, 1.2D))
+        ));
+        when(spotMapper.selectCatalogSpots()).thenReturn(List.of(publishedSpot));
+        mockCategoryAndRegionMaps();
+
+        RecommendationResponse first = recommendationService.getRecommendations(4L, 3);
+        RecommendationResponse second = recommendationService.getRecommendations(4L, 3);
+
+        assertEquals("目录景点", first.getList().get(0).getName());
+        assertEquals("分类", second.getList().get(0).getCategoryName());
+        // 目录版本未变化时，两次请求共用同一份快照，既不按 ID 查景点也不重复加载字典。
+        verify(spotMapper, times(1)).selectCatalogSpots();
+        verify(spotMapper, never()).selectBatchIds(any());
+        verify(categoryMapper, times(1)).selectList(any());
+        verify(spotRegionMapper, times(1)).selectList(any());
+    }
+
     @Test
     void rotateRecommendations_rotatesCachedResults_andWritesBackCache() {
         Spot firstSpot = buildSpot(601L, "缓存景点1", 10L);
@@ -541,6 +646,290 @@ class RecommendationServiceImplTest {
         verify(recommendationCacheService).saveHomeHotSpots(2, response);
     }
 
+    @Test
+    void getHotSpots_coalescesConcurrentMisses() throws Exception {
+        Spot hotSpot = buildSpot(501L, "热门景点", 10L);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(recommendationCacheService.getHomeHotSpots(2)).thenReturn(null);
+        when(spotMapper.selectList(any())).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            assertTrue(releaseQuery.await(5, TimeUnit.SECONDS));
+            return List.of(hotSpot);
+        });
+
+        FutureTask<HotSpotResponse> leader = new FutureTask<>(() -> recommendationService.getHotSpots(2));
+        FutureTask<HotSpotResponse> follower = new FutureTask<>(() -> recommendationService.getHotSpots(2));
+        new Thread(leader).start();
+        assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+        Thread followerThread = new Thread(follower);
+        followerThread.start();
+        // 等到跟随方限时挂起在首个调用方的结果上，再放行数据库查询。
+        long deadline = System.currentTimeMillis() + 5000;
+        while (followerThread.getState() != Thread.State.TIMED_WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        releaseQuery.countDown();
+
+        assertSame(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+        verify(spotMapper, times(1)).selectList(any());
+        verify(recommendationCacheService, times(1)).saveHomeHotSpots(any(), any());
+    }
+
+    @Test
+    void updateSimilarityMatrix_cooccurrenceEngineMatchesPairwiseNeighbors() {
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn("lock-token");
+        RecommendationConfigBundleDTO pairwiseConfig = defaultCacheConfig();
+        pairwiseConfig.getAlgorithm().setSimilarityEngine(RecommendationAlgorithmConfigDTO.SIMILARITY_ENGINE_PAIRWISE);
+        RecommendationConfigBundleDTO cooccurrenceConfig = defaultCacheConfig();
+        cooccurrenceConfig.getAlgorithm().setSimilarityEngine(RecommendationAlgorithmConfigDTO.SIMILARITY_ENGINE_COOCCURRENCE);
+        when(recommendationCacheService.loadConfig()).thenReturn(pairwiseConfig, cooccurrenceConfig);
+        when(spotMapper.selectList(any())).thenReturn(List.of(
+            buildSpot(101L, "景点101", 10L),
+            buildSpot(102L, "景点102", 10L),
+            buildSpot(103L, "景点103", 10L),
+            buildSpot(104L, "景点104", 10L)
+        ));
+        mockStreamedViews(List.of(
+            buildView(1L, 101L), buildView(1L, 102L), buildView(1L, 103L),
+            buildView(2L, 101L), buildView(2L, 102L),
+            buildView(3L, 102L), buildView(3L, 103L), buildView(3L, 104L),
+            buildView(4L, 101L), buildView(4L, 104L)
+        ));
+
+        recommendationService.updateSimilarityMatrix();
+        recommendationService.updateSimilarityMatrix();
+
+        List<Map<Long, Map<Long, Double>>> batches = captureSavedSimilarityBatches(2);
+        assertEquals(batches.get(0).keySet(), batches.get(1).keySet());
+        assertSameNeighbors(batches.get(0), batches.get(1));
+        verify(recommendationCacheService, times(2)).publishSimilarityVersion(anyLong());
+    }
+
+    @Test
+    void updateSimilarityMatrixIncrementally_matchesFullRebuildForAffectedSpots() {
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn("lock-token");
+        when(recommendationCacheService.loadConfig()).thenReturn(defaultCacheConfig());
+        when(spotMapper.selectList(any())).thenReturn(List.of(
+            buildSpot(101L, "景点101", 10L),
+            buildSpot(102L, "景点102", 10L),
+            buildSpot(103L, "景点103", 10L),
+            buildSpot(104L, "景点104", 10L)
+        ));
+        List<UserSpotView> baselineViews = List.of(
+            buildView(1L, 101L), buildView(1L, 102L), buildView(1L, 103L),
+            buildView(2L, 101L), buildView(2L, 102L),
+            buildView(3L, 102L), buildView(3L, 103L), buildView(3L, 104L)
+        );
+        List<UserSpotView> changedUserViews = List.of(buildView(4L, 101L), buildView(4L, 104L));
+        List<UserSpotView> latestViews = new ArrayList<>(baselineViews);
+        latestViews.addAll(changedUserViews);
+        // 全量重建走流式读取；增量先查询变化用户，再按用户重读交互。
+        mockStreamedViews(baselineViews, latestViews);
+        when(userSpotViewMapper.selectList(any())).thenReturn(List.of(buildView(4L, 101L)), changedUserViews);
+
+        recommendationService.updateSimilarityMatrix();
+        recommendationService.updateSimilarityMatrixIncrementally();
+        recommendationService.updateSimilarityMatrix();
+
+        // 依次对应：首次全量发布、增量覆盖、第二次全量发布；增量只应写入受影响景点，且与全量结果一致。
+        List<Map<Long, Map<Long, Double>>> batches = captureSavedSimilarityBatches(3);
+        Map<Long, Map<Long, Double>> incrementalNeighbors = batches.get(1);
+        Map<Long, Map<Long, Double>> rebuiltNeighbors = batches.get(2);
+        assertTrue(incrementalNeighbors.keySet().containsAll(List.of(101L, 104L)));
+        assertSameNeighbors(rebuiltNeighbors, incrementalNeighbors);
+        verify(recommendationCacheService, times(2)).publishSimilarityVersion(anyLong());
+    }
+
+    @Test
+    void updateSimilarityMatrixIncrementally_matchesFullRebuildWhenInteractionWithdrawn() {
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn("lock-token");
+        when(recommendationCacheService.loadConfig()).thenReturn(defaultCacheConfig());
+        when(spotMapper.selectList(any())).thenReturn(List.of(
+            buildSpot(101L, "景点101", 10L),
+            buildSpot(102L, "景点102", 10L),
+            buildSpot(103L, "景点103", 10L),
+            buildSpot(104L, "景点104", 10L)
+        ));
+        List<UserSpotView> baselineViews = List.of(
+            buildView(1L, 101L), buildView(1L, 102L), buildView(1L, 103L),
+            buildView(2L, 101L), buildView(2L, 102L),
+            buildView(3L, 102L), buildView(3L, 103L), buildView(3L, 104L)
+        );
+        // 用户 1 撤回了对 103 的交互，103 的交互用户数和用户 1 的 IUF 同时变化。
+        List<UserSpotView> latestViews = List.of(
+            buildView(1L, 101L), buildView(1L, 102L),
+            buildView(2L, 101L), buildView(2L, 102L),
+            buildView(3L, 102L), buildView(3L, 103L), buildView(3L, 104L)
+        );
+        mockStreamedViews(baselineViews, latestViews);
+        when(userSpotViewMapper.selectList(any())).thenReturn(List.of(buildView(1L, 101L)));
+
+        recommendationService.updateSimilarityMatrix();
+        recommendationService.updateSimilarityMatrixIncrementally();
+        recommendationService.updateSimilarityMatrix();
+
+        List<Map<Long, Map<Long, Double>>> batches = captureSavedSimilarityBatches(3);
+        Map<Long, Map<Long, Double>> incrementalNeighbors = batches.get(1);
+        assertTrue(incrementalNeighbors.keySet().containsAll(List.of(101L, 102L, 103L, 104L)));
+        assertSameNeighbors(batches.get(2), incrementalNeighbors);
+    }
+
+    @Test
+    void updateSimilarityMatrixIncrementally_restoresBaselineAfterRestartWithoutFullRebuild() {
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn("lock-token");
+        when(recommendationCacheService.loadConfig()).thenReturn(defaultCacheConfig());
+        when(spotMapper.selectList(any())).thenReturn(List.of(
+            buildSpot(101L, "景点101", 10L),
+            buildSpot(102L, "景点102", 10L),
+            buildSpot(103L, "景点103", 10L),
+            buildSpot(104L, "景点104", 10L)
+        ));
+        List<UserSpotView> baselineViews = List.of(
+            buildView(1L, 101L), buildView(1L, 102L), buildView(1L, 103L),
+            buildView(2L, 101L), buildView(2L, 102L),
+            buildView(3L, 102L), buildView(3L, 103L), buildView(3L, 104L)
+        );
+        List<UserSpotView> changedUserViews = List.of(buildView(4L, 101L), buildView(4L, 104L));
+        List<UserSpotView> latestViews = new ArrayList<>(baselineViews);
+        latestViews.addAll(changedUserViews);
+        mockStreamedViews(baselineViews, latestViews);
+        // 恢复时依次查询变化景点和变化用户，随后的增量回放不再有新变化。
+        when(userSpotViewMapper.selectList(any())).thenReturn(changedUserViews, changedUserViews, List.of());
+
+        recommendationService.updateSimilarityMatrix();
+        ArgumentCaptor<String> fingerprintCaptor = ArgumentCaptor.forClass(String.class);
+        verify(recommendationCacheService).saveMatrixFingerprint(fingerprintCaptor.capture());
+        // 模拟进程重启：进程内基线丢失，Redis 中仍保留已发布版本、指纹和水位线。
+        recommendationIncrementalSimilaritySupport.reset();
+        when(recommendationCacheService.getCurrentSimilarityVersion()).thenReturn(1L);
+        when(recommendationCacheService.getMatrixFingerprint()).thenReturn(fingerprintCaptor.getValue());
+        when(recommendationCacheService.getMatrixWatermark()).thenReturn(System.currentTimeMillis() - 60_000L);
+
+        recommendationService.updateSimilarityMatrixIncrementally();
+        recommendationService.updateSimilarityMatrix();
+
+        // 依次对应：首次全量发布、恢复后的增量覆盖、第二次全量发布；恢复本身不发布新版本。
+        List<Map<Long, Map<Long, Double>>> batches = captureSavedSimilarityBatches(3);
+        Map<Long, Map<Long, Double>> restoredNeighbors = batches.get(1);
+        assertTrue(restoredNeighbors.keySet().containsAll(List.of(101L, 104L)));
+        assertSameNeighbors(batches.get(2), restoredNeighbors);
+        verify(recommendationCacheService, times(2)).publishSimilarityVersion(anyLong());
+    }
+
+    @Test
+    void updateSimilarityMatrixIncrementally_matchesFullRebuildWhenSameUserChangesAcrossRuns() {
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn("lock-token");
+        when(recommendationCacheService.loadConfig()).thenReturn(defaultCacheConfig());
+        when(spotMapper.selectList(any())).thenReturn(List.of(
+            buildSpot(101L, "景点101", 10L),
+            buildSpot(102L, "景点102", 10L),
+            buildSpot(103L, "景点103", 10L),
+            buildSpot(104L, "景点104", 10L)
+        ));
+        List<UserSpotView> baselineViews = List.of(
+            buildView(1L, 101L), buildView(1L, 102L), buildView(1L, 103L),
+            buildView(2L, 101L), buildView(2L, 102L),
+            buildView(3L, 102L), buildView(3L, 103L), buildView(3L, 104L)
+        );
+        // 用户 4 第一次增量新增 101、104，第二次改为 102、103：覆盖行需从旧景点的倒排中摘除。
+        List<UserSpotView> firstChange = List.of(buildView(4L, 101L), buildView(4L, 104L));
+        List<UserSpotView> secondChange = List.of(buildView(4L, 102L), buildView(4L, 103L));
+        List<UserSpotView> firstViews = new ArrayList<>(baselineViews);
+        firstViews.addAll(firstChange);
+        List<UserSpotView> latestViews = new ArrayList<>(baselineViews);
+        latestViews.addAll(secondChange);
+        // 流式读取依次对应：首次全量、两次增量按用户重读、第二次全量；变化用户查询走普通列表查询。
+        mockStreamedViews(baselineViews, firstViews, latestViews);
+        when(userSpotViewMapper.selectList(any())).thenReturn(firstChange, secondChange);
+
+        recommendationService.updateSimilarityMatrix();
+        recommendationService.updateSimilarityMatrixIncrementally();
+        recommendationService.updateSimilarityMatrixIncrementally();
+        recommendationService.updateSimilarityMatrix();
+
+        List<Map<Long, Map<Long, Double>>> batches = captureSavedSimilarityBatches(4);
+        Map<Long, Map<Long, Double>> secondIncremental = batches.get(2);
+        assertTrue(secondIncremental.keySet().containsAll(List.of(101L, 102L, 103L, 104L)));
+        assertSameNeighbors(batches.get(3), secondIncremental);
+    }
+
+    @Test
+    void updateSimilarityMatrix_skipsWhenAnotherInstanceHoldsLock() {
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn(null);
+
+        recommendationService.updateSimilarityMatrix();
+
+        verifyNoInteractions(spotMapper, userSpotViewMapper);
+        verify(recommendationCacheService, never()).publishSimilarityVersion(anyLong());
+        verify(recommendationCacheService, never()).unlockSimilarityMatrix(any());
+    }
+
+    @Test
+    void updateSimilarityMatrixIncrementally_skipsWhenAnotherInstanceHoldsLock() {
+        when(recommendationCacheService.loadConfig()).thenReturn(defaultCacheConfig());
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn(null);
+
+        recommendationService.updateSimilarityMatrixIncrementally();
+
+        // 未拿到锁时既不回放增量，也不退回全量重建。
+        verifyNoInteractions(spotMapper, userSpotViewMapper);
+        verify(recommendationCacheService, never()).saveSimilarityBatch(anyLong(), any(), anyLong());
+        verify(recommendationCacheService, never()).unlockSimilarityMatrix(any());
+    }
+
+    @Test
+    void updateSimilarityMatrixIncrementally_releasesLockWithAcquiredToken() {
+        when(recommendationCacheService.loadConfig()).thenReturn(defaultCacheConfig());
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn("lock-token");
+        when(spotMapper.selectList(any())).thenReturn(List.of(buildSpot(101L, "景点101", 10L), buildSpot(102L, "景点102", 10L)));
+        mockStreamedViews(List.of(buildView(1L, 101L), buildView(1L, 102L)));
+
+        recommendationService.updateSimilarityMatrix();
+        recommendationService.updateSimilarityMatrixIncrementally();
+
+        verify(recommendationCacheService, times(2)).tryLockSimilarityMatrix();
+        verify(recommendationCacheService, times(2)).unlockSimilarityMatrix("lock-token");
+    }
+
+    @Test
+    void updateSimilarityMatrix_streamingLoaderMatchesListLoader() {
+        when(recommendationCacheService.tryLockSimilarityMatrix()).thenReturn("lock-token");
+        RecommendationConfigBundleDTO listConfig = defaultCacheConfig();
+        listConfig.getAlgorithm().setMatrixLoader(RecommendationAlgorithmConfigDTO.MATRIX_LOADER_LIST);
+        RecommendationConfigBundleDTO streamingConfig = defaultCacheConfig();
+        streamingConfig.getAlgorithm().setMatrixLoader(RecommendationAlgorithmConfigDTO.MATRIX_LOADER_STREAMING);
+        when(recommendationCacheService.loadConfig()).thenReturn(listConfig, streamingConfig);
+        when(spotMapper.selectList(any())).thenReturn(List.of(
+            buildSpot(101L, "景点101", 10L),
+            buildSpot(102L, "景点102", 10L),
+            buildSpot(103L, "景点103", 10L)
+        ));
+        UserSpotView longView = buildView(1L, 101L);
+        longView.setViewDuration(600);
+        // 同一用户重复浏览同一景点时按最大权重计，不同行为之间再累加。
+        List<UserSpotView> views = List.of(
+            buildView(1L, 101L), longView, buildView(1L, 102L),
+            buildView(2L, 101L), buildView(2L, 103L),
+            buildView(3L, 102L), buildView(3L, 103L)
+        );
+        when(userSpotViewMapper.selectList(any())).thenReturn(views);
+        mockStreamedViews(views);
+
+        recommendationService.updateSimilarityMatrix();
+        recommendationService.updateSimilarityMatrix();
+
+        List<Map<Long, Map<Long, Double>>> batches = captureSavedSimilarityBatches(2);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> statusCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(recommendationCacheService, times(2)).saveStatus(statusCaptor.capture());
+        assertEquals(statusCaptor.getAllValues().get(0).get("totalUsers"), statusCaptor.getAllValues().get(1).get("totalUsers"));
+        assertEquals(statusCaptor.getAllValues().get(0).get("totalSpots"), statusCaptor.getAllValues().get(1).get("totalSpots"));
+
+        assertEquals(new ArrayList<>(batches.get(0).keySet()), new ArrayList<>(batches.get(1).keySet()));
+        assertSameNeighbors(batches.get(0), batches.get(1));
+    }
+
     /**
      * 构造推荐结果中的景点夹具。
      */
@@ -597,6 +986,56 @@ class RecommendationServiceImplTest {
         return config;
     }
 
+    private UserSpotView buildView(Long userId, Long spotId) {
+        UserSpotView view = new UserSpotView();
+        view.setUserId(userId);
+        view.setSpotId(spotId);
+        view.setViewSource("detail");
+        view.setViewDuration(30);
+        return view;
+    }
+
+    /**
+     * 捕获每次批量写入的相似度矩阵，按调用顺序返回。
+     */
+    private List<Map<Long, Map<Long, Double>>> captureSavedSimilarityBatches(int expectedCalls) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Map<Long, Double>>> neighborCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(recommendationCacheService, times(expectedCalls)).saveSimilarityBatch(anyLong(), neighborCaptor.capture(), anyLong());
+        return neighborCaptor.getAllValues();
+    }
+
+    /**
+     * 逐个景点比对邻居顺序与相似度；actual 中出现的景点都必须与 expected 一致。
+     */
+    private void assertSameNeighbors(Map<Long, Map<Long, Double>> expected, Map<Long, Map<Long, Double>> actual) {
+        actual.forEach((spotId, actualNeighbors) -> {
+            Map<Long, Double> expectedNeighbors = expected.get(spotId);
+            assertNotNull(expectedNeighbors);
+            assertEquals(new ArrayList<>(expectedNeighbors.keySet()), new ArrayList<>(actualNeighbors.keySet()));
+            expectedNeighbors.forEach((neighborId, similarity) -> assertEquals(similarity, actualNeighbors.get(neighborId), 1e-9));
+        });
+    }
+
+    /**
+     * 模拟浏览记录的流式读取，按调用次数依次返回各批数据，并按用户 ID 排序以贴合查询条件。
+     */
+    @SafeVarargs
+    private void mockStreamedViews(List<UserSpotView>... batches) {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            ResultHandler<UserSpotView> handler = invocation.getArgument(1);
+            DefaultResultContext<UserSpotView> context = new DefaultResultContext<>();
+            batches[Math.min(calls.getAndIncrement(), batches.length - 1)].stream()
+                .sorted(Comparator.comparing(UserSpotView::getUserId))
+                .forEach(view -> {
+                    context.nextResultObject(view);
+                    handler.handleResult(context);
+                });
+            return null;
+        }).when(userSpotViewMapper).streamInteractions(any(), any());
+    }
+
     private User buildUser(Long id, String nickname) {
         User user = new User();
         user.setId(id);
@@ -0,0 +1,83 @@
+package com.travel.service.impl;
+
+import com.travel.config.aspect.ApiLogProperties;
+import com.travel.dto.monitor.response.SlowRequestsResponse;
+import com.travel.service.support.monitor.SlowRequestRecorderSupport;
+import com.travel.service.support.monitor.SlowRequestRecorderSupport.SlowRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 请求监控服务测试，覆盖慢请求窗口的准入、排序和阶段耗时换算。
+ */
+class RequestMonitorServiceImplTest {
+
+    private ApiLogProperties properties;
+    private SlowRequestRecorderSupport recorder;
+    private RequestMonitorServiceImpl requestMonitorService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApiLogProperties();
+        properties.getSlowRequests().setCapacity(3);
+        properties.getSlowRequests().setMinDurationMillis(100L);
+        recorder = new SlowRequestRecorderSupport(properties);
+        requestMonitorService = new RequestMonitorServiceImpl(recorder);
+    }
+
+    @Test
+    void getSlowRequests_keepsSlowestWithinCapacity_inDescendingOrder() {
+        for (long millis : new long[]{150, 900, 50, 300, 120, 600}) {
+            recorder.record(request("Controller.m" + millis, millis));
+        }
+
+        List<SlowRequestsResponse.RequestItem> items = requestMonitorService.getSlowRequests().getList();
+
+        assertEquals(3, items.size());
+        assertEquals("Controller.m900", items.get(0).getEndpoint());
+        assertEquals("Controller.m600", items.get(1).getEndpoint());
+        assertEquals("Controller.m300", items.get(2).getEndpoint());
+    }
+
+    @Test
+    void getSlowRequests_splitsStagesInMillis() {
+        recorder.record(new SlowRequest(
+                "DashboardController.getOverview", "GET", "/api/admin/v1/dashboard/overview", 200,
+                System.currentTimeMillis(),
+                TimeUnit.MILLISECONDS.toNanos(500),
+                TimeUnit.MILLISECONDS.toNanos(320), 12,
+                TimeUnit.MILLISECONDS.toNanos(30), 4,
+                TimeUnit.MILLISECONDS.toNanos(50)));
+
+        SlowRequestsResponse response = requestMonitorService.getSlowRequests();
+        SlowRequestsResponse.RequestItem item = response.getList().get(0);
+
+        assertEquals(500.0, item.getTotalMillis());
+        assertEquals(320.0, item.getDbMillis());
+        assertEquals(12, item.getDbCalls());
+        assertEquals(30.0, item.getRedisMillis());
+        assertEquals(50.0, item.getSerializationMillis());
+        assertEquals(100.0, item.getOtherMillis());
+        assertEquals(3, response.getCapacity());
+        assertEquals(300, response.getWindowSeconds());
+    }
+
+    @Test
+    void getSlowRequests_returnsEmptyWhenDisabled() {
+        properties.getSlowRequests().setEnabled(false);
+
+        recorder.record(request("Controller.slow", 5000));
+
+        assertEquals(0, requestMonitorService.getSlowRequests().getList().size());
+    }
+
+    private SlowRequest request(String endpoint, long totalMillis) {
+        return new SlowRequest(endpoint, "GET", "/api/v1/test", 200, System.currentTimeMillis(),
+                TimeUnit.MILLISECONDS.toNanos(totalMillis), 0L, 0, 0L, 0, 0L);
+    }
+}
@@ -3,6 +3,8 @@ package com.travel.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.travel.common.exception.BusinessException;
+import com.travel.common.result.PageCursor;
+import com.travel.common.result.PageResult;
 import com.travel.common.result.ResultCode;
 import com.travel.dto.review.request.ReviewRequest;
 import com.travel.dto.review.response.ReviewResponse;
@@ -15,6 +17,9 @@ import com.travel.mapper.ReviewMapper;
 import com.travel.mapper.SpotMapper;
 import com.travel.mapper.UserMapper;
 import com.travel.service.RecommendationService;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
+import com.travel.support.SqlStatementAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,11 +28,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -52,6 +64,12 @@ class ReviewServiceImplTest {
     @Mock
     private RecommendationService recommendationService;
 
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
+    @Mock
+    private SpotHeatCounterSupport spotHeatCounterSupport;
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -86,6 +104,60 @@ class ReviewServiceImplTest {
         assertEquals(1, review.getIsDeleted());
         verify(reviewMapper).updateById(review);
         verify(spotMapper).update(isNull(), any(UpdateWrapper.class));
+        verify(spotHeatCounterSupport).recordReview(100L, -1);
+    }
+
+    @Test
+    void getUserReviewsByCursor_trimsExtraRow_andReturnsCursorOfLastItem() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 10, 0);
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(reviewMapper.selectUserReviewsAfter(1L, createdAt, 30L, 3))
+            .thenReturn(new ArrayList<>(List.of(
+                buildJoinedReview(29L, createdAt),
+                buildJoinedReview(28L, createdAt.minusMinutes(1)),
+                buildJoinedReview(27L, createdAt.minusMinutes(2))
+            )));
+
+        PageResult<ReviewResponse> result = reviewService.getUserReviewsByCursor(1L, PageCursor.encode(createdAt, 30L), 2);
+
+        assertEquals(2, result.getList().size());
+        assertTrue(result.getHasMore());
+        assertNull(result.getTotal());
+        assertEquals(new PageCursor(createdAt.minusMinutes(1), 28L), PageCursor.decode(result.getNextCursor()));
+        verify(reviewMapper, never()).selectUserReviewPage(any(), any());
+    }
+
+    @Test
+    void getUserReviewsByCursor_capsOversizedPageSize() {
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(reviewMapper.selectUserReviewsAfter(1L, null, null, 101)).thenReturn(new ArrayList<>());
+
+        PageResult<ReviewResponse> result = reviewService.getUserReviewsByCursor(1L, "", Integer.MAX_VALUE);
+
+        assertFalse(result.getHasMore());
+        verify(reviewMapper).selectUserReviewsAfter(1L, null, null, 101);
+    }
+
+    @Test
+    void getUserReviewsByCursor_returnsNoCursorOnLastPage() {
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(reviewMapper.selectUserReviewsAfter(1L, null, null, 11)).thenReturn(new ArrayList<>());
+
+        PageResult<ReviewResponse> result = reviewService.getUserReviewsByCursor(1L, "", 10);
+
+        assertFalse(result.getHasMore());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getUserReviewsByCursor_rejectsMalformedCursor() {
+        when(userMapper.selectById(1L)).thenReturn(user);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> reviewService.getUserReviewsByCursor(1L, "not-a-cursor", 10));
+
+        assertEquals(ResultCode.PARAM_ERROR.getCode(), exception.getCode());
+        verify(reviewMapper, never()).selectUserReviewsAfter(any(), any(), any(), anyInt());
     }
 
     @Test
@@ -138,6 +210,8 @@ class ReviewServiceImplTest {
         verify(reviewMapper).updateById(review);
         verify(spotMapper).update(isNull(), any(UpdateWrapper.class));
         verify(recommendationService).invalidateUserRecommendationCache(1L);
+        // 修改仍有效的评价不改变评价数，不产生热度增量。
+        verify(spotHeatCounterSupport, never()).recordReview(any(), anyInt());
     }
 
     @Test
@@ -171,7 +245,8 @@ class ReviewServiceImplTest {
         deletedUser.setId(1L);
         deletedUser.setIsDeleted(1);
 
-        when(userMapper.selectById(1L)).thenReturn(user, deletedUser);
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(userMapper.selectBatchIds(any())).thenReturn(List.of(deletedUser));
         when(reviewMapper.selectOne(any(LambdaQueryWrapper.class))).thenReturn(deletedAuthorReview);
 
         ReviewResponse response = reviewService.getUserReview(1L, 100L);
@@ -192,12 +267,12 @@ class ReviewServiceImplTest {
 
         com.baomidou.mybatisplus.extension.plugins.pagination.Page<Review> page =
             new com.baomidou.mybatisplus.extension.plugins.pagination.Page<>(1, 10);
-        page.setRecords(java.util.List.of(purgedAuthorReview));
+        page.setRecords(List.of(purgedAuthorReview));
         page.setTotal(1L);
 
         when(reviewMapper.selectReviewPage(any(), eq(100L))).thenReturn(page);
-        when(userMapper.selectById(9L)).thenReturn(null);
-        when(spotMapper.selectById(100L)).thenReturn(null);
+        when(userMapper.selectBatchIds(any())).thenReturn(List.of());
+        when(spotCatalogSupport.getSpots(any())).thenReturn(List.of());
 
         var result = reviewService.getSpotReviews(100L, 1, 10);
 
@@ -219,7 +294,7 @@ class ReviewServiceImplTest {
 
         com.baomidou.mybatisplus.extension.plugins.pagination.Page<Review> page =
             new com.baomidou.mybatisplus.extension.plugins.pagination.Page<>(1, 10);
-        page.setRecords(java.util.List.of(adminReview));
+        page.setRecords(List.of(adminReview));
         page.setTotal(1L);
 
         when(reviewMapper.selectAdminReviewPage(any(), any(), any())).thenReturn(page);
@@ -234,6 +309,42 @@ class ReviewServiceImplTest {
         assertEquals("/uploads/spot/xihu.jpg", result.getList().get(0).getCoverImageUrl());
     }
 
+    @Test
+    void getReviewFeed_resolvesAuthorsAndSpotsWithConstantQueries_regardlessOfPageSize() {
+        for (int pageSize : new int[]{1, 20, 100}) {
+            org.mockito.Mockito.clearInvocations(userMapper, spotMapper, spotCatalogSupport);
+            List<Review> records = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                Review feedReview = new Review();
+                feedReview.setId(1000L + i);
+                feedReview.setUserId(2000L + i);
+                feedReview.setSpotId(3000L + i);
+                feedReview.setScore(5);
+                records.add(feedReview);
+            }
+            com.baomidou.mybatisplus.extension.plugins.pagination.Page<Review> page =
+                new com.baomidou.mybatisplus.extension.plugins.pagination.Page<>(1, pageSize);
+            page.setRecords(records);
+            page.setTotal(pageSize);
+            when(reviewMapper.selectReviewFeedPage(any(), eq(4), eq(5))).thenReturn(page);
+
+            var request = new com.travel.dto.review.request.ReviewFeedRequest();
+            request.setType("positive");
+            request.setPage(1);
+            request.setPageSize(pageSize);
+
+            var result = reviewService.getReviewFeed(request);
+
+            assertEquals(pageSize, result.getList().size());
+            // 无论页大小，作者只批量查询一次、景点只读一次目录快照，不再逐条 selectById。
+            verify(userMapper).selectBatchIds(any());
+            verify(spotCatalogSupport).getSpots(any());
+            verify(userMapper, never()).selectById(any());
+            verify(spotMapper, never()).selectById(any());
+            SqlStatementAssertions.assertNoRepeatedMapperCalls(1, userMapper, spotMapper);
+        }
+    }
+
     /**
      * 构造评分统计结果，模拟聚合查询返回值。
      */
@@ -243,4 +354,24 @@ class ReviewServiceImplTest {
         stats.setRatingCount(ratingCount);
         return stats;
     }
+
+    /**
+     * 构造游标查询返回的评价行，用户和景点信息已由联表查询带出。
+     */
+    private Review buildJoinedReview(Long id, LocalDateTime createdAt) {
+        Review joined = new Review();
+        joined.setId(id);
+        joined.setUserId(1L);
+        joined.setSpotId(100L);
+        joined.setScore(4);
+        joined.setIsDeleted(0);
+        joined.setNickname("游客");
+        joined.setAvatarUrl("avatar.png");
+        joined.setSpotName("西湖");
+        joined.setCoverImageUrl("cover.png");
+        joined.setCreatedAt(createdAt);
+        // 模拟评价被编辑过，游标必须取创建时间而不是更新时间
+        joined.setUpdatedAt(createdAt.plusDays(1));
+        return joined;
+    }
 }
@@ -12,6 +12,7 @@ import com.travel.mapper.SpotMapper;
 import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.RecommendationService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import com.travel.service.support.spot.SpotResponseAssembler;
 import com.travel.service.support.spot.SpotTreeSupport;
 import com.travel.service.support.spot.SpotWriteSupport;
@@ -71,6 +72,9 @@ class SpotAdminServiceImplTest {
     @Mock
     private RecommendationService recommendationService;
 
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
     @InjectMocks
     private SpotAdminServiceImpl spotAdminService;
 
@@ -8,6 +8,7 @@ import com.travel.entity.SpotBanner;
 import com.travel.mapper.SpotBannerMapper;
 import com.travel.mapper.SpotMapper;
 import com.travel.service.cache.RecommendationCacheService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.BeforeAll;
@@ -56,6 +57,9 @@ class SpotBannerServiceImplTest {
     @Mock
     private RecommendationCacheService recommendationCacheService;
 
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
     private SpotBannerServiceImpl spotBannerService;
 
     /**
@@ -63,7 +67,7 @@ class SpotBannerServiceImplTest {
      */
     @BeforeEach
     void setUp() {
-        spotBannerService = new SpotBannerServiceImpl(spotBannerMapper, spotMapper, recommendationCacheService);
+        spotBannerService = new SpotBannerServiceImpl(spotBannerMapper, spotMapper, recommendationCacheService, spotCatalogSupport);
     }
 
     @Test
@@ -0,0 +1,179 @@
+package com.travel.service.impl;
+
+import com.travel.config.behavior.ViewTrackingProperties;
+import com.travel.entity.Spot;
+import com.travel.entity.User;
+import com.travel.entity.UserSpotView;
+import com.travel.mapper.SpotMapper;
+import com.travel.mapper.UserMapper;
+import com.travel.mapper.UserSpotViewMapper;
+import com.travel.service.RecommendationService;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
+import com.travel.service.support.spot.SpotViewIngestionSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 景点行为服务测试，覆盖浏览记录的异步缓冲写入。
+ */
+@ExtendWith(MockitoExtension.class)
+class SpotBehaviorServiceImplTest {
+
+    @Mock
+    private UserSpotViewMapper userSpotViewMapper;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private SpotMapper spotMapper;
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
+    private SpotHeatCounterSupport spotHeatCounterSupport;
+    private ViewTrackingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SpotViewIngestionSupport ingestionSupport;
+    private SpotBehaviorServiceImpl spotBehaviorService;
+
+    /**
+     * 管道不启动后台线程，测试中直接调用 flushPending 模拟一次刷写窗口。
+     */
+    @BeforeEach
+    void setUp() {
+        spotHeatCounterSupport = new SpotHeatCounterSupport();
+        properties = new ViewTrackingProperties();
+        properties.setQueueCapacity(4);
+        meterRegistry = new SimpleMeterRegistry();
+        ingestionSupport = new SpotViewIngestionSupport(
+            userSpotViewMapper,
+            userMapper,
+            spotCatalogSupport,
+            spotHeatCounterSupport,
+            recommendationService,
+            properties,
+            meterRegistry
+        );
+        spotBehaviorService = new SpotBehaviorServiceImpl(
+            userSpotViewMapper,
+            userMapper,
+            spotMapper,
+            recommendationService,
+            spotHeatCounterSupport,
+            ingestionSupport
+        );
+    }
+
+    @Test
+    void recordView_onlyEnqueuesOnRequestThread() {
+        spotBehaviorService.recordView(100L, 1L, "home", null);
+
+        verifyNoInteractions(userMapper, spotMapper, userSpotViewMapper, recommendationService, spotCatalogSupport);
+        assertEquals(1.0, meterRegistry.get("waytrip.view.tracking.queue.size").gauge().value());
+    }
+
+    @Test
+    void flushPending_writesOneMultiRowInsert_filtersInvalidRows_andInvalidatesEachUserOnce() {
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user(1L, 0), user(2L, 1)));
+        when(spotCatalogSupport.getSpots(anyCollection())).thenReturn(List.of(spot(100L, 0), spot(200L, 1)));
+
+        spotBehaviorService.recordView(100L, 1L, "home", 30);
+        spotBehaviorService.recordView(100L, 1L, "detail", null);
+        spotBehaviorService.recordView(200L, 1L, "search", 10);
+        spotBehaviorService.recordView(100L, 2L, "home", 5);
+        ingestionSupport.flushPending();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserSpotView>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userSpotViewMapper).insertBatch(batchCaptor.capture());
+        List<UserSpotView> written = batchCaptor.getValue();
+        assertEquals(2, written.size());
+        assertEquals(0, written.get(1).getViewDuration());
+        assertNotNull(written.get(0).getCreatedAt());
+        verify(userSpotViewMapper, never()).insert(any(UserSpotView.class));
+        // 同一刷写窗口内同一用户的推荐缓存只失效一次，无效用户不触发失效。
+        verify(recommendationService, times(1)).invalidateUserRecommendationCache(1L);
+        verify(recommendationService, never()).invalidateUserRecommendationCache(2L);
+        assertEquals(2L, spotHeatCounterSupport.drain().get(0).getViewCount());
+        assertEquals(2.0, outcome("persisted"));
+        assertEquals(2.0, outcome("rejected"));
+    }
+
+    @Test
+    void flushPending_reusesCachedUserValidityAcrossWindows() {
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user(1L, 0)));
+        when(spotCatalogSupport.getSpots(anyCollection())).thenReturn(List.of(spot(100L, 0)));
+
+        spotBehaviorService.recordView(100L, 1L, "home", 30);
+        ingestionSupport.flushPending();
+        spotBehaviorService.recordView(100L, 1L, "home", 30);
+        ingestionSupport.flushPending();
+
+        verify(userMapper, times(1)).selectBatchIds(anyCollection());
+        verify(userSpotViewMapper, times(2)).insertBatch(any());
+    }
+
+    @Test
+    void recordView_dropsWhenQueueIsFull_andCountsDrops() {
+        for (int i = 0; i < 6; i++) {
+            spotBehaviorService.recordView(100L, 1L, "home", 30);
+        }
+
+        assertEquals(4.0, outcome("accepted"));
+        assertEquals(2.0, outcome("dropped"));
+        assertEquals(0.0, meterRegistry.get("waytrip.view.tracking.queue.remaining").gauge().value());
+    }
+
+    @Test
+    void recordView_writesSynchronouslyWhenAsyncDisabled() {
+        properties.setAsyncEnabled(false);
+        when(userMapper.selectById(1L)).thenReturn(user(1L, 0));
+        when(spotMapper.selectOne(any())).thenReturn(spot(100L, 0));
+
+        spotBehaviorService.recordView(100L, 1L, "home", 30);
+
+        verify(userSpotViewMapper).insert(any(UserSpotView.class));
+        verify(recommendationService).invalidateUserRecommendationCache(1L);
+        assertEquals(0.0, outcome("accepted"));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("waytrip.view.tracking.events").tag("outcome", outcome).counter().count();
+    }
+
+    private User user(Long id, int isDeleted) {
+        User user = new User();
+        user.setId(id);
+        user.setIsDeleted(isDeleted);
+        return user;
+    }
+
+    private Spot spot(Long id, int isDeleted) {
+        Spot spot = new Spot();
+        spot.setId(id);
+        spot.setIsDeleted(isDeleted);
+        return spot;
+    }
+}
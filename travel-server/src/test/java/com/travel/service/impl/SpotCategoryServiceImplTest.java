@@ -5,6 +5,7 @@ import com.travel.entity.Spot;
 import com.travel.entity.SpotCategory;
 import com.travel.mapper.SpotMapper;
 import com.travel.mapper.SpotCategoryMapper;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +36,9 @@ class SpotCategoryServiceImplTest {
     @Mock
     private SpotMapper spotMapper;
 
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
     private SpotCategoryServiceImpl spotCategoryService;
 
     /**
@@ -42,7 +46,7 @@ class SpotCategoryServiceImplTest {
      */
     @BeforeEach
     void setUp() {
-        spotCategoryService = new SpotCategoryServiceImpl(spotMapper);
+        spotCategoryService = new SpotCategoryServiceImpl(spotMapper, spotCatalogSupport);
         ReflectionTestUtils.setField(spotCategoryService, "baseMapper", spotCategoryMapper);
     }
 
@@ -112,6 +116,7 @@ class SpotCategoryServiceImplTest {
         verify(spotCategoryMapper).updateById(argThat(item -> item.getId().equals(2L) && item.getIsDeleted() == 1));
         verify(spotCategoryMapper).updateById(argThat(item -> item.getId().equals(3L) && item.getSortOrder() == 2));
         assertEquals(2, following.getSortOrder());
+        verify(spotCatalogSupport).refresh();
     }
 
     @Test
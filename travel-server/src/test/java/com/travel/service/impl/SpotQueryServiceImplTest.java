@@ -4,19 +4,26 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.travel.common.exception.BusinessException;
+import com.travel.config.cache.AppCacheProperties;
 import com.travel.common.result.ResultCode;
 import com.travel.dto.spot.request.SpotListRequest;
 import com.travel.entity.Review;
 import com.travel.entity.Spot;
+import com.travel.entity.SpotCategory;
 import com.travel.entity.SpotImage;
+import com.travel.entity.SpotRegion;
 import com.travel.entity.UserSpotFavorite;
 import com.travel.entity.UserSpotView;
 import com.travel.mapper.ReviewMapper;
+import com.travel.mapper.SpotCategoryMapper;
 import com.travel.mapper.SpotImageMapper;
 import com.travel.mapper.SpotMapper;
+import com.travel.mapper.SpotRegionMapper;
 import com.travel.mapper.UserMapper;
 import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
+import com.travel.service.cache.RecommendationCacheService;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import com.travel.service.support.spot.SpotResponseAssembler;
 import com.travel.service.support.spot.SpotTreeSupport;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
@@ -29,14 +36,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -87,6 +97,18 @@ class SpotQueryServiceImplTest {
     @Mock
     private SpotTreeSupport spotTreeSupport;
 
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
+    @Mock
+    private SpotCategoryMapper spotCategoryMapper;
+
+    @Mock
+    private SpotRegionMapper spotRegionMapper;
+
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
+
     private SpotQueryServiceImpl spotQueryService;
 
     @BeforeEach
@@ -99,7 +121,8 @@ class SpotQueryServiceImplTest {
             userSpotViewMapper,
             userMapper,
             spotResponseAssembler,
-            spotTreeSupport
+            spotTreeSupport,
+            spotCatalogSupport
         );
     }
 
@@ -116,9 +139,9 @@ class SpotQueryServiceImplTest {
         when(spotTreeSupport.findRegionAndChildrenIds(7L)).thenReturn(Set.of(7L));
         when(spotTreeSupport.findCategoryAndChildrenIds(9L)).thenReturn(Set.of(9L));
         when(spotMapper.selectPage(any(), any())).thenReturn(page);
-        when(spotResponseAssembler.toSpotListResponse(spot)).thenReturn(
+        when(spotResponseAssembler.toSpotListResponses(List.of(spot))).thenReturn(List.of(
             com.travel.dto.spot.response.SpotListResponse.builder().id(10L).name("已上架景点").build()
-        );
+        ));
 
         var response = spotQueryService.getSpotList(request);
 
@@ -127,6 +150,55 @@ class SpotQueryServiceImplTest {
         assertEquals(10L, response.getList().get(0).getId());
     }
 
+    @Test
+    void getSpotList_resolvesNamesWithConstantQueries_regardlessOfPageSize() {
+        SpotCatalogSupport catalog = new SpotCatalogSupport(spotMapper, spotCategoryMapper, spotRegionMapper, recommendationCacheService, new AppCacheProperties());
+        SpotQueryServiceImpl service = new SpotQueryServiceImpl(
+            spotMapper,
+            spotImageMapper,
+            userSpotFavoriteMapper,
+            reviewMapper,
+            userSpotViewMapper,
+            userMapper,
+            new SpotResponseAssembler(catalog),
+            spotTreeSupport,
+            catalog
+        );
+        SpotCategory category = new SpotCategory();
+        category.setId(1L);
+        category.setName("分类");
+        SpotRegion region = new SpotRegion();
+        region.setId(1L);
+        region.setName("区域");
+        when(spotCategoryMapper.selectList(any())).thenReturn(List.of(category));
+        when(spotRegionMapper.selectList(any())).thenReturn(List.of(region));
+
+        for (int pageSize : new int[]{1, 20, 100}) {
+            List<Spot> records = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                records.add(buildSpot(500L + i, 1));
+            }
+            Page<Spot> page = new Page<>(1, pageSize);
+            page.setRecords(records);
+            page.setTotal(pageSize);
+            when(spotMapper.selectPage(any(), any())).thenReturn(page);
+
+            SpotListRequest request = new SpotListRequest();
+            request.setPageSize(pageSize);
+            var response = service.getSpotList(request);
+
+            assertEquals(pageSize, response.getList().size());
+            assertEquals("区域", response.getList().get(pageSize - 1).getRegionName());
+            assertEquals("分类", response.getList().get(pageSize - 1).getCategoryName());
+        }
+
+        // 字典随目录快照只加载一次，任何页大小都不再逐条查询分类和地区。
+        verify(spotCategoryMapper, times(1)).selectList(any());
+        verify(spotRegionMapper, times(1)).selectList(any());
+        verify(spotCategoryMapper, never()).selectById(any());
+        verify(spotRegionMapper, never()).selectById(any());
+    }
+
     @Test
     void getViewHistory_keepsOfflineSpotsButDowngradesThemToUnknown() {
         UserSpotView publishedView = new UserSpotView();
@@ -140,12 +212,12 @@ class SpotQueryServiceImplTest {
         offlineView.setCreatedAt(LocalDateTime.now().minusMinutes(1));
 
         Spot publishedSpot = buildSpot(31L, 1);
+        publishedSpot.setRegionName("区域");
+        publishedSpot.setCategoryName("分类");
         Spot offlineSpot = buildSpot(32L, 0);
 
         when(userSpotViewMapper.selectList(any())).thenReturn(List.of(offlineView, publishedView));
-        when(spotMapper.selectBatchIds(any())).thenReturn(List.of(publishedSpot, offlineSpot));
-        when(spotResponseAssembler.getRegionName(any())).thenReturn("区域");
-        when(spotResponseAssembler.getCategoryName(any())).thenReturn("分类");
+        when(spotCatalogSupport.getSpots(any())).thenReturn(List.of(publishedSpot, offlineSpot));
 
         var response = spotQueryService.getViewHistory(1L, 1, 10);
 
@@ -154,6 +226,9 @@ class SpotQueryServiceImplTest {
         assertEquals(32L, response.getList().get(0).getId());
         assertEquals("未知景点", response.getList().get(0).getName());
         assertEquals(31L, response.getList().get(1).getId());
+        assertEquals("区域", response.getList().get(1).getRegionName());
+        assertNull(response.getList().get(0).getCategoryName());
+        verifyNoInteractions(spotResponseAssembler);
     }
 
     @Test
@@ -177,9 +252,9 @@ class SpotQueryServiceImplTest {
         page.setTotal(1L);
 
         when(spotMapper.selectPublishedSearchPage(any(), any())).thenReturn(page);
-        when(spotResponseAssembler.toSpotListResponse(spot)).thenReturn(
+        when(spotResponseAssembler.toSpotListResponses(List.of(spot))).thenReturn(List.of(
             com.travel.dto.spot.response.SpotListResponse.builder().id(66L).name("已发布景点").build()
-        );
+        ));
 
         var response = spotQueryService.searchSpots("西湖", 1, 10);
 
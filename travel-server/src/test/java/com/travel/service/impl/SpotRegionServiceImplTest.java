@@ -5,6 +5,7 @@ import com.travel.entity.Spot;
 import com.travel.entity.SpotRegion;
 import com.travel.mapper.SpotMapper;
 import com.travel.mapper.SpotRegionMapper;
+import com.travel.service.support.spot.SpotCatalogSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,6 +35,9 @@ class SpotRegionServiceImplTest {
     @Mock
     private SpotMapper spotMapper;
 
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
     private SpotRegionServiceImpl spotRegionService;
 
     /**
@@ -41,7 +45,7 @@ class SpotRegionServiceImplTest {
      */
     @BeforeEach
     void setUp() {
-        spotRegionService = new SpotRegionServiceImpl(spotMapper);
+        spotRegionService = new SpotRegionServiceImpl(spotMapper, spotCatalogSupport);
         ReflectionTestUtils.setField(spotRegionService, "baseMapper", spotRegionMapper);
     }
 
@@ -93,6 +97,7 @@ class SpotRegionServiceImplTest {
         verify(spotRegionMapper).updateById(argThat(item -> item.getId().equals(2L) && item.getIsDeleted() == 1));
         verify(spotRegionMapper).updateById(argThat(item -> item.getId().equals(3L) && item.getSortOrder() == 2));
         assertEquals(2, following.getSortOrder());
+        verify(spotCatalogSupport).refresh();
     }
 
     @Test
@@ -3,6 +3,9 @@ package com.travel.service.impl;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.travel.dto.recommendation.config.RecommendationConfigBundleDTO;
+import com.travel.dto.recommendation.config.RecommendationHeatConfigDTO;
+import com.travel.dto.spot.stats.SpotBehaviorCountStats;
+import com.travel.dto.spot.stats.SpotOrderCountStats;
 import com.travel.entity.Order;
 import com.travel.entity.Review;
 import com.travel.entity.Spot;
@@ -11,12 +14,16 @@ import com.travel.entity.SpotImage;
 import com.travel.entity.SpotRegion;
 import com.travel.entity.UserSpotFavorite;
 import com.travel.entity.UserSpotView;
+import com.travel.enums.OrderStatus;
 import com.travel.mapper.OrderMapper;
 import com.travel.mapper.ReviewMapper;
 import com.travel.mapper.SpotMapper;
 import com.travel.mapper.UserSpotFavoriteMapper;
 import com.travel.mapper.UserSpotViewMapper;
 import com.travel.service.RecommendationService;
+import com.travel.service.cache.RecommendationCacheService;
+import com.travel.service.support.spot.SpotCatalogSupport;
+import com.travel.service.support.spot.SpotHeatCounterSupport;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.BeforeAll;
@@ -26,13 +33,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -80,17 +93,33 @@ class SpotServiceImplTest {
     @Mock
     private RecommendationService recommendationService;
 
+    @Mock
+    private SpotCatalogSupport spotCatalogSupport;
+
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SpotHeatCounterSupport spotHeatCounterSupport;
+
     private SpotHeatServiceImpl spotHeatService;
 
     @BeforeEach
     void setUp() {
+        spotHeatCounterSupport = new SpotHeatCounterSupport();
         spotHeatService = new SpotHeatServiceImpl(
             spotMapper,
             userSpotFavoriteMapper,
             reviewMapper,
             userSpotViewMapper,
             orderMapper,
-            recommendationService
+            recommendationService,
+            spotCatalogSupport,
+            spotHeatCounterSupport,
+            recommendationCacheService,
+            new TransactionTemplate(transactionManager)
         );
     }
 
@@ -126,8 +155,10 @@ class SpotServiceImplTest {
         second.setId(2L);
         second.setHeatLevel(1);
 
+        RecommendationConfigBundleDTO config = new RecommendationConfigBundleDTO();
+        config.getHeat().setHeatRefreshMode(RecommendationHeatConfigDTO.REFRESH_MODE_PER_SPOT);
         when(spotMapper.selectList(any())).thenReturn(List.of(first, second));
-        when(recommendationService.getConfig()).thenReturn(new RecommendationConfigBundleDTO());
+        when(recommendationService.getConfig()).thenReturn(config);
 
         spotHeatService.refreshAllSpotHeat();
 
@@ -137,4 +168,150 @@ class SpotServiceImplTest {
         assertEquals(0, wrappers.get(0).getParamNameValuePairs().values().iterator().next());
         assertEquals(200, wrappers.get(1).getParamNameValuePairs().values().iterator().next());
     }
+
+    @Test
+    void refreshAllSpotHeat_bulkModeAggregatesCountsAndUpdatesChangedSpotsInBatches() {
+        Spot unchanged = new Spot();
+        unchanged.setId(1L);
+        unchanged.setHeatLevel(0);
+        unchanged.setHeatScore(0);
+
+        Spot active = new Spot();
+        active.setId(2L);
+        active.setHeatLevel(2);
+        active.setHeatScore(400);
+
+        Spot rising = new Spot();
+        rising.setId(3L);
+        rising.setHeatLevel(1);
+
+        RecommendationConfigBundleDTO config = new RecommendationConfigBundleDTO();
+        config.getHeat().setHeatRefreshBatchSize(1);
+        when(spotMapper.selectList(any())).thenReturn(List.of(unchanged, active, rising));
+        when(recommendationService.getConfig()).thenReturn(config);
+        when(userSpotViewMapper.selectViewCountsBySpot()).thenReturn(List.of(countStats(2L, 10L)));
+        when(userSpotFavoriteMapper.selectFavoriteCountsBySpot()).thenReturn(List.of(countStats(2L, 2L)));
+        when(reviewMapper.selectReviewCountsBySpot()).thenReturn(List.of(countStats(2L, 1L)));
+        SpotOrderCountStats orderStats = new SpotOrderCountStats();
+        orderStats.setSpotId(2L);
+        orderStats.setPaidCount(3L);
+        orderStats.setCompletedCount(1L);
+        when(orderMapper.selectOrderCountsBySpot(OrderStatus.PAID.getCode(), OrderStatus.COMPLETED.getCode()))
+            .thenReturn(List.of(orderStats));
+
+        spotHeatService.refreshAllSpotHeat();
+
+        // 未变化的景点不回写，其余两条按批大小 1 拆成两次批量更新；逐景点统计查询不再出现。
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Spot>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(spotMapper, times(2)).batchUpdateHeatScore(batchCaptor.capture());
+        assertEquals(2L, batchCaptor.getAllValues().get(0).get(0).getId());
+        assertEquals(541, batchCaptor.getAllValues().get(0).get(0).getHeatScore());
+        assertEquals(3L, batchCaptor.getAllValues().get(1).get(0).getId());
+        assertEquals(200, batchCaptor.getAllValues().get(1).get(0).getHeatScore());
+        verify(recommendationService, times(1)).getConfig();
+        verify(userSpotViewMapper, never()).selectCount(any());
+        verify(orderMapper, never()).selectCount(any());
+        verify(spotMapper, never()).update(any(), any());
+    }
+
+    @Test
+    void refreshAllSpotHeat_discardsPendingRealtimeDeltas() {
+        spotHeatCounterSupport.recordView(1L);
+        RecommendationConfigBundleDTO config = new RecommendationConfigBundleDTO();
+        config.getHeat().setHeatRefreshMode(RecommendationHeatConfigDTO.REFRESH_MODE_PER_SPOT);
+        when(spotMapper.selectList(any())).thenReturn(List.of());
+        when(recommendationService.getConfig()).thenReturn(config);
+
+        spotHeatService.refreshAllSpotHeat();
+
+        assertEquals(0, spotHeatCounterSupport.pendingSpotCount());
+    }
+
+    @Test
+    void refreshAllSpotHeat_keepsDeltasRecordedAfterStatsSnapshot() {
+        RecommendationConfigBundleDTO config = new RecommendationConfigBundleDTO();
+        when(recommendationService.getConfig()).thenReturn(config);
+        // 统计快照建立之后提交的浏览不在聚合结果内，其增量必须留给下次刷写。
+        when(spotMapper.selectList(any())).thenAnswer(invocation -> {
+            spotHeatCounterSupport.recordView(1L);
+            return List.of();
+        });
+
+        spotHeatService.refreshAllSpotHeat();
+
+        assertEquals(1, spotHeatCounterSupport.pendingSpotCount());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void flushHeatDeltas_incrementsWeightedDeltasInBatches_andInvalidatesHotSpots() {
+        spotHeatCounterSupport.recordView(1L);
+        spotHeatCounterSupport.recordView(1L);
+        spotHeatCounterSupport.recordFavorite(1L, 1);
+        spotHeatCounterSupport.recordPaidOrder(2L, 1);
+        spotHeatCounterSupport.recordCompletedOrder(2L, 1);
+        spotHeatCounterSupport.recordReview(3L, -1);
+        // 收藏后又取消，净增量为 0 的景点不回写。
+        spotHeatCounterSupport.recordFavorite(4L, 1);
+        spotHeatCounterSupport.recordFavorite(4L, -1);
+        RecommendationConfigBundleDTO config = new RecommendationConfigBundleDTO();
+        config.getHeat().setHeatRefreshBatchSize(2);
+        when(recommendationService.getConfig()).thenReturn(config);
+        when(spotMapper.batchIncrementHeatScore(any())).thenReturn(2, 1);
+
+        int flushed = spotHeatService.flushHeatDeltas();
+
+        assertEquals(3, flushed);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Spot>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(spotMapper, times(2)).batchIncrementHeatScore(batchCaptor.capture());
+        Map<Long, Integer> increments = new HashMap<>();
+        batchCaptor.getAllValues().forEach(batch -> batch.forEach(spot -> increments.put(spot.getId(), spot.getHeatScore())));
+        assertEquals(Map.of(1L, 5, 2L, 13, 3L, -2), increments);
+        assertEquals(0, spotHeatCounterSupport.pendingSpotCount());
+        verify(spotCatalogSupport).invalidateCounters();
+        verify(recommendationCacheService).deleteHomeHotSpots();
+        verify(recommendationService, never()).invalidateGlobalRecommendationCaches();
+    }
+
+    @Test
+    void flushHeatDeltas_restoresDeltasWhenWriteFails() {
+        spotHeatCounterSupport.recordView(1L);
+        when(recommendationService.getConfig()).thenReturn(new RecommendationConfigBundleDTO());
+        doThrow(new RuntimeException("db down")).when(spotMapper).batchIncrementHeatScore(any());
+
+        assertThrows(RuntimeException.class, () -> spotHeatService.flushHeatDeltas());
+
+        assertEquals(1, spotHeatCounterSupport.pendingSpotCount());
+        assertEquals(1L, spotHeatCounterSupport.drain().get(0).getViewCount());
+        verify(recommendationCacheService, never()).deleteHomeHotSpots();
+    }
+
+    @Test
+    void flushHeatDeltas_skipsCacheRefreshWhenNoRowIncremented() {
+        spotHeatCounterSupport.recordView(9L);
+        when(recommendationService.getConfig()).thenReturn(new RecommendationConfigBundleDTO());
+        when(spotMapper.batchIncrementHeatScore(any())).thenReturn(0);
+
+        assertEquals(0, spotHeatService.flushHeatDeltas());
+
+        verify(spotCatalogSupport, never()).invalidateCounters();
+        verify(recommendationCacheService, never()).deleteHomeHotSpots();
+    }
+
+    @Test
+    void flushHeatDeltas_skipsConfigAndWritesWhenNothingPending() {
+        assertEquals(0, spotHeatService.flushHeatDeltas());
+
+        verify(recommendationService, never()).getConfig();
+        verify(spotMapper, never()).batchIncrementHeatScore(any());
+    }
+
+    private SpotBehaviorCountStats countStats(Long spotId, Long count) {
+        SpotBehaviorCountStats stats = new SpotBehaviorCountStats();
+        stats.setSpotId(spotId);
+        stats.setBehaviorCount(count);
+        return stats;
+    }
 }
@@ -14,6 +14,7 @@ import com.travel.mapper.SpotCategoryMapper;
 import com.travel.mapper.UserMapper;
 import com.travel.mapper.UserPreferenceMapper;
 import com.travel.service.RecommendationService;
+import com.travel.service.support.auth.PrincipalStatusCacheSupport;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.BeforeAll;
@@ -74,6 +75,9 @@ class UserAccountServiceImplTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalStatusCacheSupport principalStatusCacheSupport;
+
     @InjectMocks
     private UserAccountServiceImpl userAccountService;
 
@@ -199,6 +203,7 @@ class UserAccountServiceImplTest {
         ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
         verify(userMapper).updateById(captor.capture());
         assertEquals(1, captor.getValue().getIsDeleted());
+        verify(principalStatusCacheSupport).invalidateUser(2L);
     }
 
     @Test
@@ -216,6 +221,7 @@ class UserAccountServiceImplTest {
         verify(userPreferenceMapper, times(1)).update(any(UserPreference.class), any());
         verify(userSpotFavoriteMapper, times(1)).update(any(), any());
         verify(recommendationService).invalidateUserRecommendationCache(3L);
+        verify(principalStatusCacheSupport).invalidateUser(3L);
     }
 
     @Test
@@ -0,0 +1,98 @@
+package com.travel.service.support.monitor;
+
+import com.travel.config.persistence.SqlMonitorProperties;
+import com.travel.mapper.UserMapper;
+import com.travel.support.SqlStatementAssertions;
+import com.travel.util.web.RequestProfileHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL 执行监控测试，覆盖按语句计数、N+1 判定和测试断言工具。
+ */
+class SqlStatementMonitorSupportTest {
+
+    private static final String SELECT_USER = "com.travel.mapper.UserMapper.selectById";
+    private static final String SELECT_SPOTS = "com.travel.mapper.SpotMapper.selectBatchIds";
+
+    private SqlMonitorProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementMonitorSupport monitorSupport;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlMonitorProperties();
+        properties.setRepeatThreshold(3);
+        meterRegistry = new SimpleMeterRegistry();
+        monitorSupport = new SqlStatementMonitorSupport(properties, meterRegistry);
+    }
+
+    @Test
+    void inspect_flagsStatementsExecutedMoreThanThreshold_andCountsPerEndpoint() {
+        RequestProfileHolder.Profile profile = RequestProfileHolder.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                monitorSupport.recordExecution(SELECT_USER, 1_000_000L);
+            }
+            monitorSupport.recordExecution(SELECT_SPOTS, 2_000_000L);
+        } finally {
+            RequestProfileHolder.clear();
+        }
+
+        List<SqlStatementMonitorSupport.RepeatedStatement> repeated =
+                monitorSupport.inspect(profile, "ReviewController.getReviewFeed");
+
+        assertEquals(1, repeated.size());
+        assertEquals(SELECT_USER, repeated.get(0).statementId());
+        assertEquals(5, repeated.get(0).count());
+        assertEquals(1.0, meterRegistry.get("waytrip.sql.repeated")
+                .tag("endpoint", "ReviewController.getReviewFeed")
+                .tag("statement", SELECT_USER)
+                .counter().count());
+        assertEquals(5L, meterRegistry.get("waytrip.sql.statements").tag("statement", SELECT_USER).timer().count());
+        assertEquals(6.0, meterRegistry.get("waytrip.sql.request.statements").summary().totalAmount());
+    }
+
+    @Test
+    void recordExecution_outsideRequest_onlyUpdatesStatementMetrics() {
+        monitorSupport.recordExecution(SELECT_SPOTS, 1_000_000L);
+
+        assertEquals(1L, meterRegistry.get("waytrip.sql.statements").tag("statement", SELECT_SPOTS).timer().count());
+    }
+
+    @Test
+    void capture_collectsStatementCounts_andAssertionsFailOnRepeats() {
+        Map<String, Integer> counts = SqlStatementAssertions.capture(() -> {
+            for (int i = 0; i < 4; i++) {
+                monitorSupport.recordExecution(SELECT_USER, 1_000L);
+            }
+        });
+
+        assertEquals(4, counts.get(SELECT_USER));
+        SqlStatementAssertions.assertExecutedAtMost(counts, SELECT_SPOTS, 0);
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> SqlStatementAssertions.assertNoRepeatedStatements(counts, 3));
+        assertTrue(error.getMessage().contains(SELECT_USER));
+    }
+
+    @Test
+    void assertNoRepeatedMapperCalls_detectsPerRowLookupsOnMapperMocks() {
+        UserMapper userMapper = Mockito.mock(UserMapper.class);
+        for (long id = 1; id <= 3; id++) {
+            userMapper.selectById(id);
+        }
+
+        SqlStatementAssertions.assertNoRepeatedMapperCalls(3, userMapper);
+        assertThrows(AssertionFailedError.class, () -> SqlStatementAssertions.assertNoRepeatedMapperCalls(2, userMapper));
+    }
+}
@@ -0,0 +1,231 @@
+package com.travel.service.support.order;
+
+import com.travel.entity.Order;
+import com.travel.entity.OrderDailyStats;
+import com.travel.entity.OrderSpotStats;
+import com.travel.enums.OrderStatus;
+import com.travel.mapper.OrderDailyStatsMapper;
+import com.travel.mapper.OrderSpotStatsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 订单日汇总测试，覆盖增量累加、分段重建的区间划分和事务边界，以及景点累计汇总的重新合计。
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderDailyStatsSupportTest {
+
+    @Mock
+    private OrderDailyStatsMapper orderDailyStatsMapper;
+
+    @Mock
+    private OrderSpotStatsMapper orderSpotStatsMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderDailyStatsSupport orderDailyStatsSupport;
+
+    @BeforeEach
+    void setUp() {
+        orderDailyStatsSupport = new OrderDailyStatsSupport(
+            orderDailyStatsMapper, orderSpotStatsMapper, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void recordTransition_updatesDailyRowThenSpotTotals() {
+        Order order = new Order();
+        order.setSpotId(7L);
+        order.setTotalAmount(new BigDecimal("88.00"));
+        order.setCreatedAt(LocalDateTime.of(2026, 3, 1, 10, 0));
+
+        orderDailyStatsSupport.recordTransition(order, OrderStatus.PAID.getCode(), OrderStatus.CANCELLED.getCode());
+
+        InOrder inOrder = inOrder(orderDailyStatsMapper, orderSpotStatsMapper);
+        inOrder.verify(orderDailyStatsMapper).upsertDelta(LocalDate.of(2026, 3, 1), 7L, -1L, new BigDecimal("-88.00"));
+        inOrder.verify(orderSpotStatsMapper).upsertDelta(7L, -1L, new BigDecimal("-88.00"));
+    }
+
+    @Test
+    void recordTransitions_mergesDeltasPerDayAndSpotInKeyOrder() {
+        LocalDateTime day1 = LocalDateTime.of(2026, 3, 1, 10, 0);
+        LocalDateTime day2 = LocalDateTime.of(2026, 3, 2, 10, 0);
+        List<Order> orders = List.of(
+            order(9L, "10.00", day2),
+            order(7L, "20.00", day1),
+            order(9L, "30.00", day1),
+            order(7L, "40.00", day1)
+        );
+
+        orderDailyStatsSupport.recordTransitions(orders, OrderStatus.PENDING.getCode(), OrderStatus.CANCELLED.getCode());
+
+        ArgumentCaptor<List<OrderDailyStats>> dailyCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<OrderSpotStats>> spotCaptor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(orderDailyStatsMapper, orderSpotStatsMapper);
+        inOrder.verify(orderDailyStatsMapper).upsertDeltas(dailyCaptor.capture());
+        inOrder.verify(orderSpotStatsMapper).upsertDeltas(spotCaptor.capture());
+        List<OrderDailyStats> daily = dailyCaptor.getValue();
+        assertEquals(3, daily.size());
+        assertEquals(LocalDate.of(2026, 3, 1), daily.get(0).getStatDate());
+        assertEquals(7L, daily.get(0).getSpotId());
+        assertEquals(-2L, daily.get(0).getOrderCount());
+        assertEquals(9L, daily.get(1).getSpotId());
+        assertEquals(LocalDate.of(2026, 3, 2), daily.get(2).getStatDate());
+        List<OrderSpotStats> spots = spotCaptor.getValue();
+        assertEquals(List.of(7L, 9L), spots.stream().map(OrderSpotStats::getSpotId).toList());
+        assertEquals(-2L, spots.get(1).getOrderCount());
+        // 待支付与已取消都不计收入，只扣减订单数。
+        assertEquals(0, BigDecimal.ZERO.compareTo(spots.get(0).getRevenue()));
+        verify(orderDailyStatsMapper, never()).upsertDelta(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void rebuild_locksOrdersBeforeRewritingEachChunkInItsOwnTransaction() {
+        LocalDate today = LocalDate.now();
+        LocalDate earliest = today.minusDays(40);
+        LocalDate split = earliest.plusDays(31);
+        when(orderDailyStatsMapper.selectEarliestOrderDate()).thenReturn(earliest);
+        when(orderDailyStatsMapper.selectEarliestStatDate()).thenReturn(today.minusDays(10));
+        List<OrderDailyStats> first = List.of(row(earliest, 1L), row(earliest, 2L), row(split.minusDays(1), 1L));
+        List<OrderDailyStats> second = List.of(row(split, 1L), row(today, 3L));
+        when(orderDailyStatsMapper.selectRangeFromOrdersForShare(any(), any(), any(), anyList())).thenReturn(first, second);
+
+        int rows = orderDailyStatsSupport.rebuild();
+
+        assertEquals(5, rows);
+        assertTrue(orderDailyStatsSupport.isReady());
+        // 每段先锁订单再删改汇总，与状态流转的加锁顺序一致。
+        InOrder inOrder = inOrder(orderDailyStatsMapper);
+        inOrder.verify(orderDailyStatsMapper).selectRangeFromOrdersForShare(
+            eq(earliest.atStartOfDay()), eq(split.atStartOfDay()), any(), anyList());
+        inOrder.verify(orderDailyStatsMapper).deleteRange(earliest, split);
+        inOrder.verify(orderDailyStatsMapper).insertRows(first);
+        inOrder.verify(orderDailyStatsMapper).selectRangeFromOrdersForShare(
+            eq(split.atStartOfDay()), eq(today.plusDays(1).atStartOfDay()), any(), anyList());
+        inOrder.verify(orderDailyStatsMapper).deleteRange(split, today.plusDays(1));
+        inOrder.verify(orderDailyStatsMapper).insertRows(second);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void rebuild_recomputesSpotTotalsFromDailyStats_andZeroesSpotsWithoutRows() {
+        LocalDate today = LocalDate.now();
+        when(orderDailyStatsMapper.selectEarliestOrderDate()).thenReturn(today);
+        when(orderSpotStatsMapper.selectAllSpotIds()).thenReturn(List.of(1L, 2L));
+        when(orderSpotStatsMapper.sumDailyStatsForShare(List.of(1L, 2L))).thenReturn(List.of(spotTotals(1L, 4L, "400.00")));
+
+        orderDailyStatsSupport.rebuild();
+
+        ArgumentCaptor<List<OrderSpotStats>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(orderDailyStatsMapper, orderSpotStatsMapper);
+        inOrder.verify(orderDailyStatsMapper).deleteRange(today, today.plusDays(1));
+        inOrder.verify(orderSpotStatsMapper).sumDailyStatsForShare(List.of(1L, 2L));
+        inOrder.verify(orderSpotStatsMapper).overwriteRows(captor.capture());
+        List<OrderSpotStats> written = captor.getValue();
+        assertEquals(2, written.size());
+        assertEquals(4L, written.get(0).getOrderCount());
+        assertEquals(2L, written.get(1).getSpotId());
+        assertEquals(0L, written.get(1).getOrderCount());
+        assertEquals(BigDecimal.ZERO, written.get(1).getRevenue());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void backfillIfEmpty_onlyResumsSpotTotalsWhenDailyStatsExist() {
+        when(orderDailyStatsMapper.existsAny()).thenReturn(true);
+        when(orderSpotStatsMapper.existsAny()).thenReturn(false);
+        when(orderSpotStatsMapper.selectAllSpotIds()).thenReturn(List.of(1L));
+
+        assertTrue(orderDailyStatsSupport.backfillIfEmpty());
+
+        assertTrue(orderDailyStatsSupport.isReady());
+        verify(orderSpotStatsMapper).overwriteRows(anyList());
+        verify(orderDailyStatsMapper, never()).deleteRange(any(), any());
+    }
+
+    @Test
+    void rebuild_coversStaleStatsOlderThanAnyOrder() {
+        LocalDate today = LocalDate.now();
+        when(orderDailyStatsMapper.selectEarliestOrderDate()).thenReturn(null);
+        when(orderDailyStatsMapper.selectEarliestStatDate()).thenReturn(today);
+
+        orderDailyStatsSupport.rebuild();
+
+        verify(orderDailyStatsMapper).deleteRange(today, today.plusDays(1));
+    }
+
+    @Test
+    void rebuild_skipsInsertForEmptyChunk() {
+        LocalDate today = LocalDate.now();
+        when(orderDailyStatsMapper.selectEarliestOrderDate()).thenReturn(today);
+        when(orderDailyStatsMapper.selectEarliestStatDate()).thenReturn(today);
+        when(orderDailyStatsMapper.selectRangeFromOrdersForShare(any(), any(), any(), anyList())).thenReturn(List.of());
+
+        orderDailyStatsSupport.rebuild();
+
+        verify(orderDailyStatsMapper).deleteRange(today, today.plusDays(1));
+        verify(orderDailyStatsMapper, never()).insertRows(anyList());
+    }
+
+    @Test
+    void backfillIfEmpty_skipsWhenStatsExist_andMarksRollupReady() {
+        when(orderDailyStatsMapper.existsAny()).thenReturn(true);
+        when(orderSpotStatsMapper.existsAny()).thenReturn(true);
+        assertFalse(orderDailyStatsSupport.isReady());
+
+        orderDailyStatsSupport.backfillIfEmpty();
+
+        assertTrue(orderDailyStatsSupport.isReady());
+        verify(orderDailyStatsMapper, never()).deleteRange(any(), any());
+    }
+
+    private Order order(Long spotId, String amount, LocalDateTime createdAt) {
+        Order order = new Order();
+        order.setSpotId(spotId);
+        order.setTotalAmount(new BigDecimal(amount));
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+    private OrderSpotStats spotTotals(Long spotId, Long orderCount, String revenue) {
+        OrderSpotStats totals = new OrderSpotStats();
+        totals.setSpotId(spotId);
+        totals.setOrderCount(orderCount);
+        totals.setRevenue(new BigDecimal(revenue));
+        return totals;
+    }
+
+    private OrderDailyStats row(LocalDate statDate, Long spotId) {
+        OrderDailyStats row = new OrderDailyStats();
+        row.setStatDate(statDate);
+        row.setSpotId(spotId);
+        row.setOrderCount(1L);
+        row.setRevenue(BigDecimal.TEN);
+        return row;
+    }
+}
@@ -0,0 +1,111 @@
+package com.travel.service.support.recommendation;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.dto.recommendation.cache.UserBehaviorProfileCacheDTO;
+import com.travel.entity.Order;
+import com.travel.entity.Review;
+import com.travel.entity.UserSpotFavorite;
+import com.travel.entity.UserSpotView;
+import com.travel.mapper.OrderMapper;
+import com.travel.mapper.ReviewMapper;
+import com.travel.mapper.UserSpotFavoriteMapper;
+import com.travel.mapper.UserSpotViewMapper;
+import com.travel.service.cache.RecommendationCacheService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户行为画像加载测试，覆盖回写前的版本比对。
+ */
+@ExtendWith(MockitoExtension.class)
+class RecommendationBehaviorProfileSupportTest {
+
+    @BeforeAll
+    static void initMybatisPlusLambdaCache() {
+        Configuration configuration = new Configuration();
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "test");
+        assistant.setCurrentNamespace("test");
+        TableInfoHelper.initTableInfo(assistant, UserSpotView.class);
+        TableInfoHelper.initTableInfo(assistant, UserSpotFavorite.class);
+        TableInfoHelper.initTableInfo(assistant, Review.class);
+        TableInfoHelper.initTableInfo(assistant, Order.class);
+    }
+
+    @Mock
+    private UserSpotViewMapper userSpotViewMapper;
+
+    @Mock
+    private UserSpotFavoriteMapper userSpotFavoriteMapper;
+
+    @Mock
+    private ReviewMapper reviewMapper;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
+
+    private RecommendationBehaviorProfileSupport recommendationBehaviorProfileSupport;
+
+    @BeforeEach
+    void setUp() {
+        recommendationBehaviorProfileSupport = new RecommendationBehaviorProfileSupport(
+            userSpotViewMapper,
+            userSpotFavoriteMapper,
+            reviewMapper,
+            orderMapper,
+            recommendationCacheService,
+            new AppCacheProperties()
+        );
+    }
+
+    @Test
+    void load_savesWithVersionReadBeforeQuery() {
+        when(recommendationCacheService.getBehaviorProfileVersion(5L)).thenReturn(3L);
+        when(userSpotViewMapper.selectList(any())).thenReturn(List.of());
+        when(userSpotFavoriteMapper.selectList(any())).thenReturn(List.of());
+        when(reviewMapper.selectList(any())).thenReturn(List.of());
+        when(orderMapper.selectList(any())).thenReturn(List.of());
+
+        UserBehaviorProfileCacheDTO profile = recommendationBehaviorProfileSupport.load(5L);
+
+        assertNotNull(profile);
+        InOrder inOrder = inOrder(recommendationCacheService, userSpotViewMapper);
+        inOrder.verify(recommendationCacheService).getBehaviorProfileVersion(5L);
+        inOrder.verify(userSpotViewMapper).selectList(any());
+        inOrder.verify(recommendationCacheService).saveBehaviorProfile(eq(5L), eq(3L), eq(profile), eq(30L));
+    }
+
+    @Test
+    void load_skipsWriteBackWhenVersionUnavailable() {
+        when(recommendationCacheService.getBehaviorProfileVersion(5L)).thenThrow(new RuntimeException("redis down"));
+        when(userSpotViewMapper.selectList(any())).thenReturn(List.of());
+        when(userSpotFavoriteMapper.selectList(any())).thenReturn(List.of());
+        when(reviewMapper.selectList(any())).thenReturn(List.of());
+        when(orderMapper.selectList(any())).thenReturn(List.of());
+
+        assertNotNull(recommendationBehaviorProfileSupport.load(5L));
+
+        verify(recommendationCacheService, never()).saveBehaviorProfile(any(), anyLong(), any(), anyLong());
+    }
+}
@@ -0,0 +1,70 @@
+package com.travel.service.support.recommendation;
+
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.service.cache.RecommendationBinaryCodec;
+import com.travel.service.cache.RecommendationCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 相似邻居近端缓存测试，覆盖内容戳与版本号共同决定缓存有效性。
+ */
+@ExtendWith(MockitoExtension.class)
+class RecommendationSimilarityNearCacheTest {
+
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
+
+    private RecommendationSimilarityNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new RecommendationSimilarityNearCache(recommendationCacheService, new AppCacheProperties());
+    }
+
+    @Test
+    void getAll_reloadsWhenVersionChangesUnderSameStamp() {
+        // 其他实例发布新版本后，本实例先刷新到新内容戳，版本指针仍是旧值。
+        when(recommendationCacheService.getSimilarityStamp()).thenReturn(20L);
+        when(recommendationCacheService.getCurrentSimilarityVersion()).thenReturn(1L, 2L);
+        when(recommendationCacheService.getSimilarities(eq(1L), eq(List.of(101L)))).thenReturn(List.of(entries(102L, 0.3)));
+        when(recommendationCacheService.getSimilarities(eq(2L), eq(List.of(101L)))).thenReturn(List.of(entries(103L, 0.8)));
+
+        assertEquals(Map.of(102L, 0.3), nearCache.get(101L).toMap());
+        assertEquals(Map.of(103L, 0.8), nearCache.get(101L).toMap());
+        assertEquals(Map.of(103L, 0.8), nearCache.get(101L).toMap());
+
+        verify(recommendationCacheService, times(1)).getSimilarities(eq(2L), eq(List.of(101L)));
+    }
+
+    @Test
+    void getAll_servesFromLocalCacheWhileStampAndVersionUnchanged() {
+        when(recommendationCacheService.getSimilarityStamp()).thenReturn(20L);
+        when(recommendationCacheService.getCurrentSimilarityVersion()).thenReturn(1L);
+        when(recommendationCacheService.getSimilarities(eq(1L), eq(List.of(101L, 102L))))
+            .thenReturn(List.of(entries(103L, 0.5), entries(104L, 0.4)));
+
+        nearCache.getAll(List.of(101L, 102L));
+        Map<Long, RecommendationSimilarityNearCache.Neighbors> cached = nearCache.getAll(List.of(102L, 101L));
+
+        assertEquals(Map.of(104L, 0.4), cached.get(102L).toMap());
+        verify(recommendationCacheService, times(1)).getSimilarities(anyLong(), eq(List.of(101L, 102L)));
+    }
+
+    private RecommendationBinaryCodec.ScoreEntries entries(long spotId, double score) {
+        return new RecommendationBinaryCodec.ScoreEntries(new long[]{spotId}, new double[]{score}, 1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.travel.service.support.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 请求合并测试，覆盖共享结果和等待超时后的本地计算。
+ */
+class RecommendationSingleFlightTest {
+
+    @Test
+    void execute_sharesResultWithConcurrentCaller() throws Exception {
+        RecommendationSingleFlight<String, String> singleFlight = new RecommendationSingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("k", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "shared";
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("k", () -> {
+            calls.incrementAndGet();
+            return "local";
+        }));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("shared", leader.get(1, TimeUnit.SECONDS));
+        assertEquals("shared", follower.get(1, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_computesLocallyWhenWaitTimesOut() throws Exception {
+        RecommendationSingleFlight<String, String> singleFlight = new RecommendationSingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("k", () -> {
+            started.countDown();
+            await(release);
+            return "shared";
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        assertEquals("local", singleFlight.execute("k", () -> "local"));
+
+        release.countDown();
+        assertEquals("shared", leader.get(1, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
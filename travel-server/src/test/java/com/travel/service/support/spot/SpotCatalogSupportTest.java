@@ -0,0 +1,102 @@
+package com.travel.service.support.spot;
+
+import com.travel.config.cache.AppCacheProperties;
+import com.travel.entity.Spot;
+import com.travel.mapper.SpotCategoryMapper;
+import com.travel.mapper.SpotMapper;
+import com.travel.mapper.SpotRegionMapper;
+import com.travel.service.cache.RecommendationCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 景点目录快照测试，覆盖评分热度与展示字段分离后的读取和更新。
+ */
+@ExtendWith(MockitoExtension.class)
+class SpotCatalogSupportTest {
+
+    @Mock
+    private SpotMapper spotMapper;
+
+    @Mock
+    private SpotCategoryMapper spotCategoryMapper;
+
+    @Mock
+    private SpotRegionMapper spotRegionMapper;
+
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
+
+    private SpotCatalogSupport spotCatalogSupport;
+
+    @BeforeEach
+    void setUp() {
+        spotCatalogSupport = new SpotCatalogSupport(
+            spotMapper, spotCategoryMapper, spotRegionMapper, recommendationCacheService, new AppCacheProperties());
+        when(recommendationCacheService.getSpotCatalogVersion(anyBoolean())).thenReturn(1L);
+        Spot display = new Spot();
+        display.setId(1L);
+        display.setName("西湖");
+        display.setIsPublished(1);
+        display.setIsDeleted(0);
+        when(spotMapper.selectCatalogSpots()).thenReturn(List.of(display));
+        Spot counters = new Spot();
+        counters.setId(1L);
+        counters.setHeatScore(30);
+        counters.setAvgRating(new BigDecimal("4.0"));
+        counters.setRatingCount(2);
+        when(spotMapper.selectSpotCounters()).thenReturn(List.of(counters));
+    }
+
+    @Test
+    void getSpot_overlaysCountersOnDisplayOnlyView() {
+        Spot spot = spotCatalogSupport.getSpot(1L);
+
+        assertEquals("西湖", spot.getName());
+        assertEquals(30, spot.getHeatScore());
+        assertEquals(new BigDecimal("4.0"), spot.getAvgRating());
+        assertNull(spot.getDescription());
+        assertNull(spot.getAddress());
+    }
+
+    @Test
+    void updateRating_patchesEntryWithoutBumpingCatalogVersion() {
+        spotCatalogSupport.getSpot(1L);
+
+        spotCatalogSupport.updateRating(1L, new BigDecimal("4.5"), 3);
+        Spot spot = spotCatalogSupport.getSpot(1L);
+
+        assertEquals(new BigDecimal("4.5"), spot.getAvgRating());
+        assertEquals(3, spot.getRatingCount());
+        assertEquals(30, spot.getHeatScore());
+        verify(recommendationCacheService, never()).bumpSpotCatalogVersion();
+        verify(spotMapper, times(1)).selectCatalogSpots();
+        verify(spotMapper, times(1)).selectSpotCounters();
+    }
+
+    @Test
+    void invalidateCounters_reloadsCountersButKeepsSnapshot() {
+        spotCatalogSupport.getSpot(1L);
+
+        spotCatalogSupport.invalidateCounters();
+        spotCatalogSupport.getSpot(1L);
+
+        verify(spotMapper, times(1)).selectCatalogSpots();
+        verify(spotMapper, times(2)).selectSpotCounters();
+        verify(recommendationCacheService, never()).bumpSpotCatalogVersion();
+    }
+}
@@ -0,0 +1,100 @@
+package com.travel.support;
+
+import com.travel.util.web.RequestProfileHolder;
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * SQL 执行次数断言工具，用于把 N+1 查询回归变成测试失败。
+ * <p>
+ * 两种统计来源使用同一套断言：
+ * <ul>
+ *     <li>{@link #capture(Runnable)} 在请求剖析上下文中执行操作，收集 SqlTimingInterceptor 记录的语句次数，适用于接入真实 MyBatis 的测试；</li>
+ *     <li>{@link #countMapperCalls(Object...)} 统计 Mockito Mapper mock 的方法调用次数，语句 ID 与 MyBatis 一致，适用于现有的服务层单元测试。</li>
+ * </ul>
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * 在剖析上下文中执行操作，返回按语句 ID 汇总的执行次数。
+     *
+     * @param action 被测操作
+     * @return 语句 ID 到执行次数的映射
+     */
+    public static Map<String, Integer> capture(Runnable action) {
+        RequestProfileHolder.Profile profile = RequestProfileHolder.start();
+        try {
+            action.run();
+        } finally {
+            RequestProfileHolder.clear();
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        profile.getStatementStats().forEach((statementId, stats) -> counts.put(statementId, stats.getCount()));
+        return counts;
+    }
+
+    /**
+     * 统计 Mapper mock 上每个方法的调用次数，键格式与 MyBatis 语句 ID 相同，如 {@code com.travel.mapper.UserMapper.selectById}。
+     *
+     * @param mapperMocks Mockito 创建的 Mapper mock
+     * @return 语句 ID 到调用次数的映射
+     */
+    public static Map<String, Integer> countMapperCalls(Object... mapperMocks) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Object mapperMock : mapperMocks) {
+            String mapperName = Mockito.mockingDetails(mapperMock).getMockCreationSettings().getTypeToMock().getName();
+            for (Invocation invocation : Mockito.mockingDetails(mapperMock).getInvocations()) {
+                counts.merge(mapperName + "." + invocation.getMethod().getName(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 断言指定语句的执行次数不超过上限。
+     *
+     * @param counts 语句执行次数
+     * @param statementId 语句 ID
+     * @param max 允许的最大次数
+     */
+    public static void assertExecutedAtMost(Map<String, Integer> counts, String statementId, int max) {
+        int actual = counts.getOrDefault(statementId, 0);
+        if (actual > max) {
+            fail("语句 " + statementId + " 执行了 " + actual + " 次，超过上限 " + max + " 次");
+        }
+    }
+
+    /**
+     * 断言没有任何语句的执行次数超过阈值，阈值与线上 N+1 检测的 repeat-threshold 含义一致。
+     *
+     * @param counts 语句执行次数
+     * @param threshold 允许的最大次数
+     */
+    public static void assertNoRepeatedStatements(Map<String, Integer> counts, int threshold) {
+        Map<String, Integer> repeated = counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (left, right) -> left, LinkedHashMap::new));
+        if (!repeated.isEmpty()) {
+            fail("疑似 N+1 查询，以下语句执行次数超过 " + threshold + " 次：" + repeated);
+        }
+    }
+
+    /**
+     * 断言 Mapper mock 上没有方法被调用超过阈值次。
+     *
+     * @param threshold 允许的最大次数
+     * @param mapperMocks Mockito 创建的 Mapper mock
+     */
+    public static void assertNoRepeatedMapperCalls(int threshold, Object... mapperMocks) {
+        assertNoRepeatedStatements(countMapperCalls(mapperMocks), threshold);
+    }
+}
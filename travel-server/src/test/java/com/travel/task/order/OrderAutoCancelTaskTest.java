@@ -0,0 +1,101 @@
+package com.travel.task.order;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.travel.entity.Order;
+import com.travel.enums.OrderStatus;
+import com.travel.mapper.OrderMapper;
+import com.travel.service.support.order.OrderDailyStatsSupport;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 超时订单自动取消测试，覆盖分批短事务和每批固定的语句数。
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderAutoCancelTaskTest {
+
+    @BeforeAll
+    static void initMybatisPlusLambdaCache() {
+        Configuration configuration = new Configuration();
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "test");
+        assistant.setCurrentNamespace("test");
+        TableInfoHelper.initTableInfo(assistant, Order.class);
+    }
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private OrderDailyStatsSupport orderDailyStatsSupport;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderAutoCancelTask orderAutoCancelTask;
+
+    @BeforeEach
+    void setUp() {
+        orderAutoCancelTask = new OrderAutoCancelTask(
+            orderMapper, orderDailyStatsSupport, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void cancelTimeoutOrders_cancelsEachBatchWithOneUpdateInItsOwnTransaction() {
+        List<Order> candidates = new ArrayList<>();
+        for (long id = 1; id <= 150; id++) {
+            candidates.add(order(id));
+        }
+        List<Order> firstLocked = candidates.subList(0, 100);
+        // 第二批中有一笔已被用户先行支付，加锁读取时不再返回。
+        List<Order> secondLocked = candidates.subList(100, 149);
+        when(orderMapper.selectList(any())).thenReturn(candidates, firstLocked, secondLocked);
+        when(orderMapper.update(isNull(), any())).thenReturn(100, 49);
+
+        orderAutoCancelTask.cancelTimeoutOrders();
+
+        verify(orderMapper, times(3)).selectList(any());
+        verify(orderMapper, times(2)).update(isNull(), any());
+        verify(orderDailyStatsSupport).recordTransitions(
+            eq(firstLocked), eq(OrderStatus.PENDING.getCode()), eq(OrderStatus.CANCELLED.getCode()));
+        verify(orderDailyStatsSupport).recordTransitions(
+            eq(secondLocked), eq(OrderStatus.PENDING.getCode()), eq(OrderStatus.CANCELLED.getCode()));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void cancelTimeoutOrders_skipsBatchWhenNothingIsStillPending() {
+        when(orderMapper.selectList(any())).thenReturn(List.of(order(1L)), List.of());
+
+        orderAutoCancelTask.cancelTimeoutOrders();
+
+        verify(orderMapper, never()).update(any(), any());
+        verify(orderDailyStatsSupport, never()).recordTransitions(anyList(), any(), any());
+    }
+
+    private Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setSpotId(100L + id % 3);
+        return order;
+    }
+}
@@ -1,6 +1,7 @@
 package com.travel.web;
 
 import com.travel.common.exception.GlobalExceptionHandler;
+import com.travel.config.cache.AppCacheProperties;
 import com.travel.controller.app.UserAccountController;
 import com.travel.dto.auth.response.AdminLoginResponse;
 import com.travel.entity.Admin;
@@ -14,7 +15,9 @@ import com.travel.service.AdminAuthService;
 import com.travel.service.UserAccountService;
 import com.travel.service.UserAuthService;
 import com.travel.service.UserProfileService;
+import com.travel.service.support.auth.PrincipalStatusCacheSupport;
 import com.travel.util.security.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -25,6 +28,9 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -44,6 +50,8 @@ class AuthInterceptorMvcTest {
     private UserProfileService userProfileService;
     private UserMapper userMapper;
     private AdminMapper adminMapper;
+    private PrincipalStatusCacheSupport principalStatusCacheSupport;
+    private SimpleMeterRegistry meterRegistry;
 
     /**
      * 构建带鉴权拦截器的 MockMvc 测试环境。
@@ -54,11 +62,14 @@ class AuthInterceptorMvcTest {
         ReflectionTestUtils.setField(jwtUtils, "secret", "travel-recommendation-system-jwt-secret-2026");
         ReflectionTestUtils.setField(jwtUtils, "expiration", 604800000L);
         ReflectionTestUtils.setField(jwtUtils, "adminExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheMaxEntries", 100);
         jwtUtils.init();
 
         userMapper = Mockito.mock(UserMapper.class);
         adminMapper = Mockito.mock(AdminMapper.class);
-        AuthInterceptor authInterceptor = new AuthInterceptor(jwtUtils, userMapper, adminMapper);
+        meterRegistry = new SimpleMeterRegistry();
+        principalStatusCacheSupport = new PrincipalStatusCacheSupport(userMapper, adminMapper, new AppCacheProperties(), meterRegistry);
+        AuthInterceptor authInterceptor = new AuthInterceptor(jwtUtils, principalStatusCacheSupport);
 
         User user = new User();
         user.setId(1L);
@@ -252,4 +263,71 @@ class AuthInterceptorMvcTest {
                 .andExpect(jsonPath("$.code").value(10008))
                 .andExpect(jsonPath("$.message").value("当前管理员已被禁用"));
     }
+
+    @Test
+    void protectedUserEndpoint_reusesCachedPrincipalStatus() throws Exception {
+        String token = jwtUtils.generateUserToken(1L);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/user/info")
+                            .header("Authorization", "Bearer " + token)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value(0));
+        }
+
+        verify(userMapper, times(1)).selectById(1L);
+        assertEquals(1.0, cacheRequests("user", "miss"));
+        assertEquals(2.0, cacheRequests("user", "hit"));
+    }
+
+    @Test
+    void protectedAdminEndpoint_rejectsAdminDisabledAfterInvalidation() throws Exception {
+        String token = jwtUtils.generateAdminToken(99L);
+        mockMvc.perform(get("/api/admin/v1/auth/info")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value(0));
+
+        Admin disabledAdmin = new Admin();
+        disabledAdmin.setId(99L);
+        disabledAdmin.setIsDeleted(0);
+        disabledAdmin.setIsEnabled(0);
+        Mockito.when(adminMapper.selectById(99L)).thenReturn(disabledAdmin);
+        principalStatusCacheSupport.invalidateAdmin(99L);
+
+        mockMvc.perform(get("/api/admin/v1/auth/info")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(10008));
+        verify(adminMapper, times(2)).selectById(99L);
+    }
+
+    @Test
+    void protectedUserEndpoint_rejectsTamperedTokenAfterValidTokenCached() throws Exception {
+        String token = jwtUtils.generateUserToken(1L);
+        mockMvc.perform(get("/api/v1/user/info")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value(0));
+
+        // 篡改签名段后摘要不同，不会命中已缓存的验签结果，必须重新验签并失败。
+        int index = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(index) == 'a' ? 'b' : 'a';
+        String tampered = token.substring(0, index) + replacement + token.substring(index + 1);
+        mockMvc.perform(get("/api/v1/user/info")
+                        .header("Authorization", "Bearer " + tampered)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(10002));
+    }
+
+    private double cacheRequests(String type, String outcome) {
+        return meterRegistry.get("waytrip.auth.principal.cache.requests")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
 }